@@ -1,46 +1,106 @@
 import { Injectable } from '@angular/core';
-import {HttpHandler, HttpInterceptor, HttpEvent, HttpRequest, HttpHeaders, HttpResponse} from '@angular/common/http';
-import {Observable, tap} from 'rxjs';
+import {HttpBackend, HttpClient, HttpHandler, HttpInterceptor, HttpEvent, HttpRequest, HttpHeaders, HttpResponse} from '@angular/common/http';
+import {Router} from '@angular/router';
+import {catchError, finalize, Observable, shareReplay, switchMap, tap, throwError} from 'rxjs';
 import {AuthResponseDto} from '../../../gs-api/src';
 import {LoaderService} from '../../composants/loader/service/loader';
 
+// Le jeton d'accès est court (15 min) : il est renouvelé un peu avant son expiration.
+// Le backend répond 403 (et non 401) à un jeton expiré, on ne peut donc pas attendre l'échec pour renouveler.
+const MARGE_RENOUVELLEMENT_MS = 30 * 1000;
+
 @Injectable({
   providedIn: 'root'
 })
 export class Intercepter implements HttpInterceptor{
+  // Le jeton de renouvellement est à usage unique (le rejouer révoque la session) :
+  // les requêtes simultanées attendent le même appel à /auth/refresh
+  private renouvellementEnCours: Observable<AuthResponseDto> | null = null;
+  private readonly refreshUrl = 'http://localhost:8888/gestiondestock/api/v1/auth/refresh';
+  // Client sans intercepteurs, pour que l'appel de renouvellement ne repasse pas par ici
+  private readonly httpSansIntercepteur: HttpClient;
+
   constructor(
-    private loaderService: LoaderService
-  ) {}
+    private loaderService: LoaderService,
+    private router: Router,
+    httpBackend: HttpBackend
+  ) {
+    this.httpSansIntercepteur = new HttpClient(httpBackend);
+  }
 
   intercept(req: HttpRequest<any>, next: HttpHandler): Observable<HttpEvent<any>> {
-    this.loaderService.show()
-    let authenticationResponse: AuthResponseDto = {}
     if (localStorage.getItem('connectedUser')) {
-      authenticationResponse = JSON.parse(
+      const connectedUser: AuthResponseDto = JSON.parse(
         localStorage.getItem('connectedUser') as string
       )
-
-      // Ne pas définir Content-Type pour les requêtes FormData (multipart/form-data)
-      const isFormData = req.body instanceof FormData;
-      
-      const headers: any = {
-        Authorization: 'Bearer ' + authenticationResponse.token,
-        Accept: 'application/json'
-      };
-      
-      // Ajouter Content-Type seulement si ce n'est pas FormData
-      if (!isFormData) {
-        headers['Content-Type'] = 'application/json';
+      if (!req.url.includes('/auth/') && this.doitRenouveler(connectedUser)) {
+        return this.renouveler(connectedUser).pipe(
+          switchMap(renouvele => this.authentifier(req, next, renouvele))
+        )
       }
-
-      const authReq = req.clone({
-        headers: new HttpHeaders(headers)
-      })
-      return this.handelRequest(authReq, next)
+      return this.authentifier(req, next, connectedUser)
     }
+    this.loaderService.show()
     return this.handelRequest(req, next)
   }
 
+  private authentifier(req: HttpRequest<any>, next: HttpHandler, authenticationResponse: AuthResponseDto): Observable<HttpEvent<any>> {
+    this.loaderService.show()
+
+    // Ne pas définir Content-Type pour les requêtes FormData (multipart/form-data)
+    const isFormData = req.body instanceof FormData;
+    
+    const headers: any = {
+      Authorization: 'Bearer ' + authenticationResponse.token,
+      Accept: 'application/json'
+    };
+    
+    // Ajouter Content-Type seulement si ce n'est pas FormData
+    if (!isFormData) {
+      headers['Content-Type'] = 'application/json';
+    }
+
+    const authReq = req.clone({
+      headers: new HttpHeaders(headers)
+    })
+    return this.handelRequest(authReq, next)
+  }
+
+  private doitRenouveler(connectedUser: AuthResponseDto): boolean {
+    if (!connectedUser.token || !connectedUser.refreshToken) {
+      return false
+    }
+    try {
+      const payload = JSON.parse(atob(connectedUser.token.split('.')[1]));
+      return payload.exp * 1000 - Date.now() < MARGE_RENOUVELLEMENT_MS;
+    } catch (error) {
+      return false
+    }
+  }
+
+  private renouveler(connectedUser: AuthResponseDto): Observable<AuthResponseDto> {
+    if (!this.renouvellementEnCours) {
+      this.renouvellementEnCours = this.httpSansIntercepteur
+        .post<AuthResponseDto>(this.refreshUrl, {refreshToken: connectedUser.refreshToken})
+        .pipe(
+          tap(renouvele => {
+            localStorage.setItem('connectedUser', JSON.stringify(renouvele))
+            localStorage.setItem('accessToken', renouvele.token || '')
+          }),
+          catchError(error => {
+            // Jeton de renouvellement expiré ou révoqué : il faut se reconnecter
+            localStorage.removeItem('connectedUser')
+            localStorage.removeItem('accessToken')
+            this.router.navigate(['login'])
+            return throwError(() => error)
+          }),
+          finalize(() => this.renouvellementEnCours = null),
+          shareReplay(1)
+        )
+    }
+    return this.renouvellementEnCours
+  }
+
   handelRequest(req: HttpRequest<any>, next: HttpHandler): Observable<HttpEvent<any>>{
     return next.handle(req)
       .pipe(tap
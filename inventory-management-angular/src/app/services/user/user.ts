@@ -42,7 +42,8 @@ export class UserService {
       try {
         const payload = JSON.parse(atob(token.split('.')[1]));
         const currentTime = Math.floor(Date.now() / 1000);
-        return payload.exp > currentTime;
+        // Un jeton expiré est renouvelé par l'intercepteur tant que le jeton de renouvellement est présent
+        return payload.exp > currentTime || !!this.getConnectedUser().refreshToken;
       } catch (error) {
         console.error('Token validation error:', error);
         this.logout();
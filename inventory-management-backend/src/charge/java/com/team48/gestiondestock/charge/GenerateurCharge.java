@@ -0,0 +1,337 @@
+package com.team48.gestiondestock.charge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team48.gestiondestock.ApiGestionDeStockApplication;
+import com.team48.gestiondestock.charge.JeuDeDonneesCharge.EntrepriseChargee;
+import com.team48.gestiondestock.utils.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de charge de bout en bout : démarre l'application avec le profil "charge" (H2 en mémoire, stockage
+ * local à la place de MinIO, jeu de données {@link JeuDeDonneesCharge}), puis des utilisateurs virtuels
+ * rejouent un mélange de parcours réalistes par HTTP et le rapport donne débit et percentiles par endpoint.
+ * Générateur et application partagent la machine : les chiffres servent à comparer deux versions, pas à
+ * dimensionner la production.
+ * <p>
+ * Paramètres (propriétés système) : charge.utilisateurs (32), charge.duree-secondes (60),
+ * charge.echauffement-secondes (15, non mesurées), charge.rapport (target/charge-resultat.json),
+ * charge.threads : threads de requête de l'application, "virtuels" (par défaut), "plateforme", ou "comparaison"
+ * pour deux exécutions successives avec le même jeu de données, plateforme puis virtuels
+ * (spring.threads.virtual.enabled, VIRTUAL_THREADS_ENABLED en production), rapportées côte à côte.
+ * <pre>
+ *   mvn -Pcharge -DskipTests verify -Dcharge.utilisateurs=64 -Dcharge.duree-secondes=120
+ *   mvn -Pcharge -DskipTests verify -Dcharge.threads=comparaison
+ * </pre>
+ */
+public class GenerateurCharge {
+
+    private static final String RACINE = "/" + Constants.APP_ROOT;
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    // Mélange de parcours, pondéré comme l'usage observé : surtout de la consultation de catalogue
+    private enum Parcours {
+        CONNEXION(5), CATALOGUE_PAGE(25), CATALOGUE_RECHERCHE(15), ARTICLE(15), CREATION_COMMANDE(10),
+        CONVERSION_VENTE(10), MOUVEMENT_STOCK(15), STOCK_ARTICLE(5);
+
+        private final int poids;
+
+        Parcours(int poids) {
+            this.poids = poids;
+        }
+
+        static Parcours tirer() {
+            int tirage = ThreadLocalRandom.current().nextInt(100);
+            for (Parcours parcours : values()) {
+                tirage -= parcours.poids;
+                if (tirage < 0) {
+                    return parcours;
+                }
+            }
+            return CATALOGUE_PAGE;
+        }
+    }
+
+    // Utilisateur virtuel : gestionnaire d'une entreprise et son jeton
+    private static final class Session {
+        private final EntrepriseChargee entreprise;
+        private String jeton;
+
+        private Session(EntrepriseChargee entreprise) {
+            this.entreprise = entreprise;
+        }
+    }
+
+    private final String base;
+    private final List<EntrepriseChargee> entreprises;
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry registre = new SimpleMeterRegistry();
+    private final Map<String, String> premieresErreurs = new ConcurrentHashMap<>();
+    // Faux pendant l'échauffement : les appels ne sont pas mesurés
+    private volatile boolean mesure;
+
+    GenerateurCharge(String base, List<EntrepriseChargee> entreprises) {
+        this.base = base;
+        this.entreprises = entreprises;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int utilisateurs = Integer.getInteger("charge.utilisateurs", 32);
+        int duree = Integer.getInteger("charge.duree-secondes", 60);
+        int echauffement = Integer.getInteger("charge.echauffement-secondes", 15);
+        Path rapport = Path.of(System.getProperty("charge.rapport", "target/charge-resultat.json"));
+        String threads = System.getProperty("charge.threads", "virtuels");
+        List<String> executions = switch (threads) {
+            case "virtuels", "plateforme" -> List.of(threads);
+            case "comparaison" -> List.of("plateforme", "virtuels");
+            default -> throw new IllegalArgumentException(
+                    "charge.threads inconnu : " + threads + " (virtuels, plateforme ou comparaison)");
+        };
+
+        List<Map<String, Object>> resultats = new ArrayList<>();
+        for (String execution : executions) {
+            resultats.add(executerApplication(args, "virtuels".equals(execution), utilisateurs, echauffement, duree));
+        }
+        if (resultats.size() > 1) {
+            comparer(resultats);
+        }
+
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("date", Instant.now().toString());
+        resultat.put("dureeSecondes", duree);
+        resultat.put("utilisateurs", utilisateurs);
+        resultat.put("executions", resultats);
+        Files.createDirectories(rapport.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(rapport.toFile(), resultat);
+        System.out.println("Rapport : " + rapport.toAbsolutePath());
+    }
+
+    // Une application par exécution : le choix des threads est lu au démarrage du conteneur web.
+    // En argument de ligne de commande, il l'emporte sur application-charge.properties
+    private static Map<String, Object> executerApplication(String[] args, boolean virtuels, int utilisateurs,
+                                                           int echauffement, int duree) throws Exception {
+        String[] arguments = Arrays.copyOf(args, args.length + 1);
+        arguments[args.length] = "--spring.threads.virtual.enabled=" + virtuels;
+        try (ConfigurableApplicationContext contexte = new SpringApplicationBuilder(ApiGestionDeStockApplication.class)
+                .profiles("charge").run(arguments)) {
+            int port = contexte.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            GenerateurCharge generateur = new GenerateurCharge("http://localhost:" + port,
+                    contexte.getBean(JeuDeDonneesCharge.class).getEntreprises());
+            System.out.printf("%nThreads de requête : %s%n", virtuels ? "virtuels" : "plateforme");
+            generateur.executer(utilisateurs, echauffement, duree);
+            Map<String, Object> resultat = generateur.rapporter(duree);
+            resultat.put("threads", virtuels ? "virtuels" : "plateforme");
+            return resultat;
+        }
+    }
+
+    // Débit total et p99 par endpoint, exécution sur threads de plateforme puis sur threads virtuels
+    @SuppressWarnings("unchecked")
+    private static void comparer(List<Map<String, Object>> resultats) {
+        Map<String, Object> plateforme = resultats.get(0);
+        Map<String, Object> virtuels = resultats.get(1);
+        System.out.printf("%n%-32s %14s %14s %14s %14s%n",
+                "endpoint", "req/s plat.", "req/s virt.", "p99 ms plat.", "p99 ms virt.");
+        Map<String, Map<String, Object>> endpointsVirtuels = new LinkedHashMap<>();
+        ((List<Map<String, Object>>) virtuels.get("endpoints"))
+                .forEach(ligne -> endpointsVirtuels.put((String) ligne.get("endpoint"), ligne));
+        for (Map<String, Object> ligne : (List<Map<String, Object>>) plateforme.get("endpoints")) {
+            Map<String, Object> autre = endpointsVirtuels.getOrDefault(ligne.get("endpoint"), Map.of());
+            System.out.printf("%-32s %14.1f %14.1f %14.1f %14.1f%n", ligne.get("endpoint"),
+                    ligne.get("debit"), autre.getOrDefault("debit", 0.0),
+                    ligne.getOrDefault("p99Ms", 0.0), autre.getOrDefault("p99Ms", 0.0));
+        }
+        System.out.printf("%-32s %14.1f %14.1f%n", "total", plateforme.get("debitTotal"), virtuels.get("debitTotal"));
+    }
+
+    void executer(int utilisateurs, int echauffementSecondes, int dureeSecondes) throws InterruptedException {
+        long finEchauffement = System.nanoTime() + TimeUnit.SECONDS.toNanos(echauffementSecondes);
+        long fin = finEchauffement + TimeUnit.SECONDS.toNanos(dureeSecondes);
+        System.out.printf("Charge : %d utilisateurs virtuels, %ds d'échauffement puis %ds mesurées%n",
+                utilisateurs, echauffementSecondes, dureeSecondes);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < utilisateurs; u++) {
+                Session session = new Session(entreprises.get(u % entreprises.size()));
+                executor.submit(() -> {
+                    connexion(session);
+                    while (System.nanoTime() < fin) {
+                        jouer(Parcours.tirer(), session);
+                    }
+                });
+            }
+            long attente = TimeUnit.NANOSECONDS.toMillis(finEchauffement - System.nanoTime());
+            Thread.sleep(Math.max(0, attente));
+            mesure = true;
+        }
+    }
+
+    private void jouer(Parcours parcours, Session session) {
+        EntrepriseChargee entreprise = session.entreprise;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer article = entreprise.articles().get(random.nextInt(entreprise.articles().size()));
+        switch (parcours) {
+            case CONNEXION -> connexion(session);
+            case CATALOGUE_PAGE -> get(session, "GET /articles/page", "/articles/page?size=20&cursor=" + article);
+            case CATALOGUE_RECHERCHE -> {
+                String mot = JeuDeDonneesCharge.MOTS[random.nextInt(JeuDeDonneesCharge.MOTS.length)];
+                get(session, "GET /articles/search", "/articles/search?limite=20&q=" + mot.substring(0, 3 + random.nextInt(3)));
+            }
+            case ARTICLE -> get(session, "GET /articles/id/{id}", "/articles/id/" + article);
+            case CREATION_COMMANDE -> post(session, "POST /commandesclients/create", "/commandesclients/create", Map.of(
+                    "code", "CH-" + UUID.randomUUID(),
+                    "dateCommande", LocalDate.now().toString(),
+                    "clientId", entreprise.clients().get(random.nextInt(entreprise.clients().size())),
+                    "entrepriseId", entreprise.id()));
+            case CONVERSION_VENTE -> {
+                Integer commande = entreprise.commandesAConvertir().poll();
+                if (commande != null) {
+                    post(session, "POST /ventes/create", "/ventes/create", Map.of(
+                            "code", "VT-" + UUID.randomUUID(),
+                            "dateVente", Instant.now().toString(),
+                            "commentaire", "Vente de charge",
+                            "commandeId", commande,
+                            "entrepriseId", entreprise.id()));
+                }
+            }
+            case MOUVEMENT_STOCK -> post(session, "POST /mvtstk/create", "/mvtstk/create", Map.of(
+                    "dateMvt", Instant.now().toString(),
+                    "quantite", 1 + random.nextInt(10),
+                    "typeMvt", random.nextBoolean() ? "ENTREE" : "SORTIE",
+                    "articleId", article,
+                    "entrepriseId", entreprise.id()));
+            case STOCK_ARTICLE -> get(session, "GET /mvtstk/stock/{id}", "/mvtstk/stock/" + article);
+        }
+    }
+
+    private void connexion(Session session) {
+        HttpResponse<String> reponse = post(session, "POST /auth/login", "/auth/login", Map.of(
+                "email", session.entreprise.email(), "password", JeuDeDonneesCharge.MOT_DE_PASSE));
+        if (reponse != null && reponse.statusCode() == 200) {
+            try {
+                JsonNode corps = json.readTree(reponse.body());
+                session.jeton = corps.path("token").asText();
+            } catch (IOException e) {
+                erreur("POST /auth/login", e.toString());
+            }
+        }
+    }
+
+    private HttpResponse<String> get(Session session, String route, String chemin) {
+        return appeler(route, requete(session, chemin).GET().build());
+    }
+
+    private HttpResponse<String> post(Session session, String route, String chemin, Map<String, Object> corps) {
+        try {
+            return appeler(route, requete(session, chemin).header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(corps))).build());
+        } catch (IOException e) {
+            erreur(route, e.toString());
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder requete(Session session, String chemin) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + RACINE + chemin)).timeout(Duration.ofSeconds(30));
+        if (session.jeton != null) {
+            builder.header("Authorization", "Bearer " + session.jeton);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> appeler(String route, HttpRequest requete) {
+        long debut = System.nanoTime();
+        HttpResponse<String> reponse;
+        try {
+            reponse = http.send(requete, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            erreur(route, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (mesure) {
+            timer(route).record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+        if (reponse.statusCode() >= 400) {
+            erreur(route, reponse.statusCode() + " " + reponse.body());
+        }
+        return reponse;
+    }
+
+    private void erreur(String route, String detail) {
+        if (mesure) {
+            Counter.builder("charge.erreurs").tag("route", route).register(registre).increment();
+        }
+        premieresErreurs.putIfAbsent(route, detail.length() > 300 ? detail.substring(0, 300) : detail);
+    }
+
+    private Timer timer(String route) {
+        return Timer.builder("charge.requetes").tag("route", route)
+                .publishPercentiles(PERCENTILES)
+                // Percentiles sur toute la durée mesurée, pas sur une fenêtre glissante
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .register(registre);
+    }
+
+    Map<String, Object> rapporter(int dureeSecondes) {
+        List<Map<String, Object>> lignes = new ArrayList<>();
+        long total = 0;
+        System.out.printf("%n%-32s %9s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requetes", "erreurs", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Timer timer : registre.find("charge.requetes").timers().stream()
+                .sorted((a, b) -> Long.compare(b.count(), a.count())).toList()) {
+            String route = timer.getId().getTag("route");
+            Counter erreurs = registre.find("charge.erreurs").tag("route", route).counter();
+            Map<String, Object> ligne = new LinkedHashMap<>();
+            ligne.put("endpoint", route);
+            ligne.put("requetes", timer.count());
+            ligne.put("erreurs", erreurs == null ? 0 : (long) erreurs.count());
+            ligne.put("debit", timer.count() / (double) dureeSecondes);
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                ligne.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            ligne.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+            lignes.add(ligne);
+            total += timer.count();
+            System.out.printf("%-32s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", route, timer.count(), ligne.get("erreurs"),
+                    ligne.get("debit"), ligne.get("p50Ms"), ligne.get("p95Ms"), ligne.get("p99Ms"), ligne.get("maxMs"));
+        }
+        System.out.printf("%-32s %9d %8s %9.1f%n", "total", total, "", total / (double) dureeSecondes);
+        premieresErreurs.forEach((route, detail) -> System.out.printf("Première erreur %s : %s%n", route, detail));
+
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("debitTotal", total / (double) dureeSecondes);
+        resultat.put("endpoints", lignes);
+        return resultat;
+    }
+}
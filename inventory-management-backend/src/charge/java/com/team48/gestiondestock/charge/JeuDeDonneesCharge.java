@@ -0,0 +1,185 @@
+package com.team48.gestiondestock.charge;
+
+import com.team48.gestiondestock.dto.MvtStkRequestDto;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Client;
+import com.team48.gestiondestock.model.CommandeClient;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.EtatCommande;
+import com.team48.gestiondestock.model.LigneCommandeClient;
+import com.team48.gestiondestock.model.Roles;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.model.security.Role;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.ClientRepository;
+import com.team48.gestiondestock.repository.CommandeClientRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.repository.RolesRepository;
+import com.team48.gestiondestock.repository.security.UtilisateurSecurityRepository;
+import com.team48.gestiondestock.service.MvtStkService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Jeu de données du profil de charge, créé au démarrage : par entreprise, un gestionnaire, un catalogue
+ * approvisionné, des clients et des commandes avec lignes, à convertir en ventes pendant la charge.
+ * Graine fixe : deux exécutions travaillent sur les mêmes données.
+ */
+@Component
+@Profile("charge")
+@Slf4j
+public class JeuDeDonneesCharge implements CommandLineRunner {
+
+    public static final String MOT_DE_PASSE = "charge";
+    private static final int STOCK_INITIAL = 1_000_000;
+
+    // Vocabulaire des désignations, pour des recherches d'articles qui trouvent quelque chose
+    static final String[] MOTS = {"cahier", "stylo", "classeur", "agrafeuse", "ramette", "enveloppe", "calculatrice",
+            "trousse", "marqueur", "surligneur", "gomme", "regle", "ciseaux", "colle", "carton", "etiquette"};
+
+    /**
+     * Données d'une entreprise utilisées par le générateur ; les commandes sont retirées de la file à leur conversion.
+     */
+    public record EntrepriseChargee(Integer id, String email, List<Integer> articles, List<Integer> clients,
+                                    Queue<Integer> commandesAConvertir) {
+    }
+
+    private final EntrepriseRepository entrepriseRepository;
+    private final UtilisateurSecurityRepository utilisateurRepository;
+    private final RolesRepository rolesRepository;
+    private final CategorieRepository categorieRepository;
+    private final ArticleRepository articleRepository;
+    private final ClientRepository clientRepository;
+    private final CommandeClientRepository commandeClientRepository;
+    private final MvtStkService mvtStkService;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${charge.donnees.entreprises:3}")
+    private int nbEntreprises;
+    @Value("${charge.donnees.articles-par-entreprise:500}")
+    private int nbArticles;
+    @Value("${charge.donnees.clients-par-entreprise:50}")
+    private int nbClients;
+    @Value("${charge.donnees.commandes-par-entreprise:1000}")
+    private int nbCommandes;
+    @Value("${charge.donnees.lignes-max-par-commande:10}")
+    private int lignesMax;
+
+    private final List<EntrepriseChargee> entreprises = new ArrayList<>();
+
+    @Autowired
+    public JeuDeDonneesCharge(EntrepriseRepository entrepriseRepository, UtilisateurSecurityRepository utilisateurRepository,
+                              RolesRepository rolesRepository, CategorieRepository categorieRepository,
+                              ArticleRepository articleRepository, ClientRepository clientRepository,
+                              CommandeClientRepository commandeClientRepository, MvtStkService mvtStkService,
+                              PasswordEncoder passwordEncoder) {
+        this.entrepriseRepository = entrepriseRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.rolesRepository = rolesRepository;
+        this.categorieRepository = categorieRepository;
+        this.articleRepository = articleRepository;
+        this.clientRepository = clientRepository;
+        this.commandeClientRepository = commandeClientRepository;
+        this.mvtStkService = mvtStkService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public List<EntrepriseChargee> getEntreprises() {
+        return entreprises;
+    }
+
+    @Override
+    public void run(String... args) {
+        long debut = System.currentTimeMillis();
+        Random random = new Random(48);
+        // Un seul hachage BCrypt pour tous les gestionnaires
+        String motDePasse = passwordEncoder.encode(MOT_DE_PASSE);
+        for (int e = 1; e <= nbEntreprises; e++) {
+            entreprises.add(creerEntreprise(e, motDePasse, random));
+        }
+        log.info("Jeu de données de charge créé en {} ms : {} entreprises, {} articles, {} commandes par entreprise",
+                System.currentTimeMillis() - debut, nbEntreprises, nbArticles, nbCommandes);
+    }
+
+    private EntrepriseChargee creerEntreprise(int numero, String motDePasse, Random random) {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise " + numero)
+                .email("contact@entreprise" + numero + ".test").build());
+
+        String email = "gestionnaire@entreprise" + numero + ".test";
+        Utilisateur gestionnaire = utilisateurRepository.save(Utilisateur.builder().nom("Gestionnaire").prenom("Charge")
+                .email(email).username("gestionnaire" + numero).motDePasse(motDePasse).entreprise(entreprise)
+                .enabled(true).accountNonExpired(true).credentialsNonExpired(true).accountNonLocked(true).build());
+        Roles role = rolesRepository.save(Roles.builder().roleName(Role.MANAGER).utilisateur(gestionnaire)
+                .entreprise_id(entreprise.getId()).build());
+        gestionnaire.setRoles(new ArrayList<>(List.of(role)));
+        utilisateurRepository.save(gestionnaire);
+
+        List<Categorie> categories = new ArrayList<>();
+        for (int c = 0; c < 10; c++) {
+            categories.add(Categorie.builder().code("E" + numero + "-CAT" + c).designation(MOTS[c % MOTS.length])
+                    .entrepriseId(entreprise.getId()).build());
+        }
+        categories = categorieRepository.saveAll(categories);
+
+        List<Article> articles = new ArrayList<>();
+        for (int a = 0; a < nbArticles; a++) {
+            BigDecimal prix = BigDecimal.valueOf(100 + random.nextInt(10_000));
+            articles.add(Article.builder().codeArticle("E" + numero + "-SKU" + a)
+                    .designation(MOTS[random.nextInt(MOTS.length)] + " " + MOTS[random.nextInt(MOTS.length)] + " " + a)
+                    .prixUnitaire(prix).tauxTva(new BigDecimal("19.25"))
+                    .prixUnitaireTtc(prix.multiply(new BigDecimal("1.1925")))
+                    .categorie(categories.get(a % categories.size())).entreprise(entreprise)
+                    .build());
+        }
+        articles = articleRepository.saveAll(articles);
+        for (Article article : articles) {
+            mvtStkService.save(MvtStkRequestDto.builder().dateMvt(Instant.now()).quantite(STOCK_INITIAL)
+                    .typeMvt(TypeMvtStk.ENTREE).articleId(article.getId()).entrepriseId(entreprise.getId()).build());
+        }
+
+        List<Client> clients = new ArrayList<>();
+        for (int c = 0; c < nbClients; c++) {
+            clients.add(Client.builder().nom("Client " + c).prenom("Charge").email("client" + c + "@entreprise" + numero + ".test")
+                    .entreprise(entreprise).build());
+        }
+        clients = clientRepository.saveAll(clients);
+
+        List<CommandeClient> commandes = new ArrayList<>();
+        for (int c = 0; c < nbCommandes; c++) {
+            // Validées : seule une commande VALIDEE peut être convertie en vente
+            CommandeClient commande = CommandeClient.builder().code("E" + numero + "-CC" + c).dateCommande(Instant.now())
+                    .etat(EtatCommande.VALIDEE).client(clients.get(random.nextInt(clients.size()))).entreprise_id(entreprise.getId()).build();
+            List<LigneCommandeClient> lignes = new ArrayList<>();
+            int nbLignes = 1 + random.nextInt(lignesMax);
+            for (int l = 0; l < nbLignes; l++) {
+                Article article = articles.get(random.nextInt(articles.size()));
+                lignes.add(LigneCommandeClient.builder().commandeClient(commande).article(article)
+                        .quantite(BigDecimal.valueOf(1 + random.nextInt(5))).prixUnitaire(article.getPrixUnitaire())
+                        .entreprise_id(entreprise.getId()).build());
+            }
+            commande.setLigneCommandeClients(lignes);
+            commandes.add(commande);
+        }
+        Queue<Integer> aConvertir = new ConcurrentLinkedQueue<>();
+        commandeClientRepository.saveAll(commandes).forEach(c -> aConvertir.add(c.getId()));
+
+        return new EntrepriseChargee(entreprise.getId(), email, articles.stream().map(Article::getId).toList(),
+                clients.stream().map(Client::getId).toList(), aConvertir);
+    }
+}
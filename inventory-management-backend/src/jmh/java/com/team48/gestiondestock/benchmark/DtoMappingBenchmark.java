@@ -0,0 +1,86 @@
+package com.team48.gestiondestock.benchmark;
+
+import com.team48.gestiondestock.dto.ArticleResponseDto;
+import com.team48.gestiondestock.dto.CommandeClientResponseDto;
+import com.team48.gestiondestock.dto.UtilisateurResponseDto;
+import com.team48.gestiondestock.model.Adresse;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.CommandeClient;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.LigneCommandeClient;
+import com.team48.gestiondestock.model.Utilisateur;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions entité vers DTO de réponse : commande client et ses lignes (conversion de date par
+ * ZoneId.systemDefault() pour la commande et pour chaque ligne), article, utilisateur.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    @Param({"10", "1000"})
+    private int nbLignes;
+
+    private CommandeClient commande;
+    private Article article;
+    private Utilisateur utilisateur;
+
+    @Setup
+    public void setUp() {
+        Entreprise entreprise = Entreprise.builder().id(1).nomEntreprise("Entreprise").build();
+        Categorie categorie = Categorie.builder().id(1).code("CAT").designation("Catégorie").entrepriseId(1).build();
+        article = Article.builder().id(1).codeArticle("SKU-1").designation("Article").prixUnitaire(BigDecimal.TEN)
+                .tauxTva(new BigDecimal("19.25")).prixUnitaireTtc(new BigDecimal("11.925")).photo("articles/sku-1.png")
+                .categorie(categorie).entreprise(entreprise).build();
+
+        commande = CommandeClient.builder().id(1).code("CC-1").dateCommande(Instant.now()).entreprise_id(1).build();
+        List<LigneCommandeClient> lignes = new ArrayList<>(nbLignes);
+        for (int i = 0; i < nbLignes; i++) {
+            lignes.add(LigneCommandeClient.builder().id(i).commandeClient(commande).article(article)
+                    .quantite(BigDecimal.valueOf(i % 10 + 1)).prixUnitaire(BigDecimal.TEN).entreprise_id(1).build());
+        }
+        commande.setLigneCommandeClients(lignes);
+
+        utilisateur = Utilisateur.builder().id(1).nom("Nom").prenom("Prénom").email("utilisateur@exemple.com")
+                .dateDeNaissance(Instant.parse("1990-05-17T00:00:00Z"))
+                .adresse(Adresse.builder().adresse1("1 rue").ville("Douala").pays("Cameroun").build())
+                .entreprise(entreprise).roles(new ArrayList<>()).username("utilisateur").build();
+    }
+
+    @Benchmark
+    public CommandeClientResponseDto commandeClient() {
+        return CommandeClientResponseDto.fromEntity(commande);
+    }
+
+    @Benchmark
+    public ArticleResponseDto article() {
+        return ArticleResponseDto.fromEntity(article);
+    }
+
+    @Benchmark
+    public UtilisateurResponseDto utilisateur() {
+        return UtilisateurResponseDto.fromEntity(utilisateur);
+    }
+}
@@ -0,0 +1,96 @@
+package com.team48.gestiondestock.benchmark;
+
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.Roles;
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.model.security.Role;
+import com.team48.gestiondestock.service.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jetons JWT : signature à la connexion, lecture des claims à chaque requête (jeton déjà vérifié
+ * et en cache, ou vérification de la signature), et calcul des autorités de l'utilisateur.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String CLE = "w1dGjDiSmJly/J3BnYHEvBzS39jt/vMwPHLZaXLVlhbghGMLujzgoWSnp5vRfO78YDsJmbrz9osS88WNKXBFzw==";
+
+    @Param({"1", "5"})
+    private int nbRoles;
+
+    private JwtService jwtService;
+    // Cache de claims réduit à une entrée : deux jetons en alternance sont toujours vérifiés
+    private JwtService jwtServiceSansCache;
+    private Utilisateur utilisateur;
+    private String jeton;
+    private String[] jetonsAlternes;
+    private int appel;
+
+    @Setup
+    public void setUp() {
+        jwtService = jwtService(10_000);
+        jwtServiceSansCache = jwtService(0);
+
+        utilisateur = Utilisateur.builder().id(1).username("utilisateur").email("utilisateur@exemple.com")
+                .entreprise(Entreprise.builder().id(1).nomEntreprise("Entreprise").build()).roles(new ArrayList<>()).build();
+        Role[] valeurs = Role.values();
+        for (int i = 0; i < nbRoles; i++) {
+            utilisateur.getRoles().add(Roles.builder().roleName(valeurs[i % valeurs.length]).utilisateur(utilisateur).build());
+        }
+        jeton = jwtService.generateToken(utilisateur);
+        Utilisateur autre = Utilisateur.builder().id(2).username("autre").roles(utilisateur.getRoles()).build();
+        jetonsAlternes = new String[]{jeton, jwtService.generateToken(autre)};
+    }
+
+    private static JwtService jwtService(int tailleCache) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKeyString", CLE);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(service, "claimsCacheMaxSize", tailleCache);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(utilisateur);
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsEnCache() {
+        return jwtService.extractAllClaims(jeton);
+    }
+
+    @Benchmark
+    public String extractUsernameSansCache() {
+        return jwtServiceSansCache.extractUsername(jetonsAlternes[appel++ & 1]);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return utilisateur.getAuthorities();
+    }
+}
@@ -0,0 +1,97 @@
+package com.team48.gestiondestock.benchmark;
+
+import com.team48.gestiondestock.dto.AdresseRequestDto;
+import com.team48.gestiondestock.dto.ArticleRequestDto;
+import com.team48.gestiondestock.dto.CommandeClientRequestDto;
+import com.team48.gestiondestock.dto.UtilisateurRequestDto;
+import com.team48.gestiondestock.validator.ArticleValidator;
+import com.team48.gestiondestock.validator.CommandeClientValidator;
+import com.team48.gestiondestock.validator.UtilisateurValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation des DTO de requête, valides et invalides (les messages d'erreur sont alors construits).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    private ArticleRequestDto article;
+    private ArticleRequestDto articleInvalide;
+    private CommandeClientRequestDto commandeClient;
+    private UtilisateurRequestDto utilisateur;
+    private UtilisateurRequestDto utilisateurInvalide;
+
+    @Setup
+    public void setUp() {
+        article = ArticleRequestDto.builder().codeArticle("SKU-1").designation("Article").prixUnitaire(BigDecimal.TEN)
+                .tauxTva(new BigDecimal("19.25")).prixUnitaireTtc(new BigDecimal("11.925")).categorieId(1).entrepriseId(1)
+                .build();
+        articleInvalide = new ArticleRequestDto();
+
+        commandeClient = new CommandeClientRequestDto();
+        commandeClient.setCode("CC-1");
+        commandeClient.setDateCommande(LocalDate.now().plusDays(1));
+        commandeClient.setClientId(1);
+        commandeClient.setEntrepriseId(1);
+
+        AdresseRequestDto adresse = new AdresseRequestDto();
+        adresse.setAdresse1("1 rue");
+        adresse.setVille("Douala");
+        adresse.setCodePostal("00237");
+        adresse.setPays("Cameroun");
+        utilisateur = new UtilisateurRequestDto();
+        utilisateur.setNom("Nom");
+        utilisateur.setPrenom("Prénom");
+        utilisateur.setEmail("utilisateur@exemple.com");
+        utilisateur.setMotDePasse("MotDePasse-123");
+        utilisateur.setDateDeNaissance(LocalDate.of(1990, 5, 17));
+        utilisateur.setEntrepriseId(1);
+        utilisateur.setAdresse(adresse);
+        utilisateurInvalide = new UtilisateurRequestDto();
+        utilisateurInvalide.setEmail("pas-un-email");
+    }
+
+    @Benchmark
+    public List<String> articleValide() {
+        return ArticleValidator.validate(article);
+    }
+
+    @Benchmark
+    public List<String> articleInvalide() {
+        return ArticleValidator.validate(articleInvalide);
+    }
+
+    @Benchmark
+    public List<String> commandeClient() {
+        return CommandeClientValidator.validate(commandeClient);
+    }
+
+    @Benchmark
+    public List<String> utilisateurValide() {
+        return UtilisateurValidator.validate(utilisateur);
+    }
+
+    @Benchmark
+    public List<String> utilisateurInvalide() {
+        return UtilisateurValidator.validate(utilisateurInvalide);
+    }
+}
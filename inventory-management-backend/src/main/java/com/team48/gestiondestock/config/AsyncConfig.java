@@ -0,0 +1,11 @@
+package com.team48.gestiondestock.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// Les méthodes @Async utilisent l'exécuteur de Spring Boot ("applicationTaskExecutor") :
+// pool de threads classique par défaut, threads virtuels si spring.threads.virtual.enabled=true
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -1,6 +1,12 @@
 package com.team48.gestiondestock.config;
 
+import com.team48.gestiondestock.service.metriques.Metriques;
+import com.team48.gestiondestock.service.security.JwtAuthenticationDetails;
 import com.team48.gestiondestock.service.security.JwtService;
+import com.team48.gestiondestock.service.security.RevocationJetonService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +16,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -22,6 +27,8 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final RevocationJetonService revocationJetonService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -45,11 +52,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Vérification de la signature et lecture des claims, mesurées par résultat et entreprise
+        Timer.Sample verification = Timer.start(meterRegistry);
+        final List<String> roles;
+        final Integer entrepriseId;
+        final boolean revoque;
+        try {
+            // Une seule vérification (empreinte et cache) pour tous les champs du jeton
+            Claims claims = jwtService.extractAllClaims(jwt);
+            username = claims.getSubject();
+            // Extract roles from JWT token instead of loading from database
+            roles = claims.get(JwtService.CLAIM_ROLES, List.class);
+            entrepriseId = claims.get(JwtService.CLAIM_ENTREPRISE, Integer.class);
+            // Filtre de Bloom en mémoire ; la base n'est lue que pour une révocation probable
+            revoque = revocationJetonService.estRevoque(claims);
+        } catch (RuntimeException e) {
+            verification.stop(timerVerification(false, null));
+            throw e;
+        }
+        verification.stop(timerVerification(!revoque, entrepriseId));
+
+        // Jeton révoqué : la requête continue sans authentification et sera refusée si elle en exige une
+        if (revoque) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Extract roles from JWT token instead of loading from database
-            List<String> roles = jwtService.extractRoles(jwt);
             if (roles != null && !roles.isEmpty()) {
                 List<SimpleGrantedAuthority> authorities = roles.stream()
                         .map(SimpleGrantedAuthority::new)
@@ -60,10 +89,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         null,
                         authorities
                 );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authToken.setDetails(new JwtAuthenticationDetails(request, entrepriseId));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    private Timer timerVerification(boolean valide, Integer entrepriseId) {
+        return Timer.builder(Metriques.JWT_VERIFICATION)
+                .tags(List.of(Metriques.resultat(valide), Metriques.entreprise(entrepriseId)))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.team48.gestiondestock.config;
+
+import com.team48.gestiondestock.service.metriques.CompteurRequetesSql;
+import com.team48.gestiondestock.service.metriques.Metriques;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Nombre de requêtes SQL exécutées par requête HTTP, par méthode, route et entreprise : une route dont
+ * la distribution augmente d'une version à l'autre signale un N+1 ou une requête de trop.
+ * <p>
+ * Filtre d'ordre par défaut (le dernier) : il s'exécute dans la chaîne Spring Security, l'utilisateur
+ * authentifié est donc encore connu après le traitement de la requête.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetriquesRequeteFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        CompteurRequetesSql.demarrer();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long requetes = CompteurRequetesSql.terminer();
+            // Route déclarée (/articles/{id}) et non l'URI brute, pour borner le nombre de séries
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(Metriques.HTTP_REQUETES_SQL)
+                    .baseUnit("requetes")
+                    .tag("methode", request.getMethod())
+                    .tag("uri", route == null ? "UNKNOWN" : route.toString())
+                    .tags(List.of(Metriques.entreprise()))
+                    .register(meterRegistry)
+                    .record(requetes);
+        }
+    }
+}
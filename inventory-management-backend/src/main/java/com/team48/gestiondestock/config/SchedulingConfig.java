@@ -0,0 +1,11 @@
+package com.team48.gestiondestock.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tâches planifiées (réapprovisionnement, maintenance du journal de stock) ; chaque planificateur
+// s'active ou se désactive par sa propriété (reapprovisionnement.actif, mvtstk.maintenance.actif)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,22 +1,31 @@
 package com.team48.gestiondestock.config;
 
+import com.team48.gestiondestock.service.security.PasswordEncoderBorne;
 import com.team48.gestiondestock.service.security.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
 
 @Configuration
 @EnableWebSecurity
@@ -27,8 +36,37 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationFilter jwtAuthFilter;
 
+    /**
+     * Collecte Prometheus : compte dédié en HTTP Basic (un jeton d'accès expire trop vite pour un collecteur)
+     * ou jeton d'un administrateur. Sans mot de passe configuré, seuls les administrateurs y accèdent.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+                                                     @Value("${application.security.prometheus.utilisateur:prometheus}") String utilisateur,
+                                                     @Value("${application.security.prometheus.mot-de-passe:}") String motDePasse) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyRole("ADMIN", "PROMETHEUS"))
+            .sessionManagement(session -> session.sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.STATELESS))
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        if (StringUtils.hasText(motDePasse)) {
+            DaoAuthenticationProvider collecteur = new DaoAuthenticationProvider();
+            collecteur.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(utilisateur)
+                    .password(passwordEncoder.encode(motDePasse))
+                    .roles("PROMETHEUS")
+                    .build()));
+            collecteur.setPasswordEncoder(passwordEncoder);
+            http
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(new ProviderManager(collecteur));
+        }
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
@@ -37,19 +75,23 @@ public class SecurityConfig {
                     "/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**", "/swagger-ui.html"
                 ).permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // Sonde sans jeton ; la collecte Prometheus a sa propre chaîne, le reste d'Actuator est réservé aux administrateurs
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.STATELESS))
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder, UserCache userCache) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserCache(userCache);
         return authProvider;
     }
 
@@ -58,8 +100,14 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt sur un pool borné (0 thread = la moitié des cœurs) : au-delà, connexion refusée en 429.
+     */
+    @Bean(destroyMethod = "arreter")
+    public PasswordEncoder passwordEncoder(@Value("${application.security.login.bcrypt-threads:0}") int threads,
+                                           @Value("${application.security.login.bcrypt-queue-size:64}") int tailleFile,
+                                           @Value("${application.security.login.bcrypt-wait-ms:2000}") long attenteMs) {
+        int nbThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new PasswordEncoderBorne(new BCryptPasswordEncoder(), nbThreads, tailleFile, attenteMs);
     }
 } 
\ No newline at end of file
@@ -1,17 +1,29 @@
 package com.team48.gestiondestock.controller;
 
 import com.team48.gestiondestock.controller.api.ArticleApi;
+import com.team48.gestiondestock.dto.ArticleImportResponseDto;
+import com.team48.gestiondestock.dto.ArticleRechercheDto;
 import com.team48.gestiondestock.dto.ArticleRequestDto;
 import com.team48.gestiondestock.dto.ArticleResponseDto;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.service.ArticleImportService;
+import com.team48.gestiondestock.service.ArticleRechercheService;
 import com.team48.gestiondestock.service.ArticleService;
 import com.team48.gestiondestock.service.stockage.MinioFileStorageService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ENTREPRISE')")
@@ -19,11 +31,16 @@ public class ArticleController implements ArticleApi {
 
     private final ArticleService articleService;
     private final MinioFileStorageService minioFileStorageService;
+    private final ArticleImportService articleImportService;
+    private final ArticleRechercheService articleRechercheService;
 
     @Autowired
-    public ArticleController(ArticleService articleService, MinioFileStorageService minioFileStorageService) {
+    public ArticleController(ArticleService articleService, MinioFileStorageService minioFileStorageService,
+                             ArticleImportService articleImportService, ArticleRechercheService articleRechercheService) {
         this.articleService = articleService;
         this.minioFileStorageService = minioFileStorageService;
+        this.articleImportService = articleImportService;
+        this.articleRechercheService = articleRechercheService;
     }
 
     @Override
@@ -54,18 +71,20 @@ public class ArticleController implements ArticleApi {
     }
 
     @Override
-    public ArticleResponseDto findById(@org.springframework.web.bind.annotation.PathVariable("idArticle") Integer id) {
-        return articleService.findById(id);
+    public ArticleResponseDto findById(@org.springframework.web.bind.annotation.PathVariable("idArticle") Integer id, boolean photoUrl) {
+        return avecPhotoUrl(articleService.findById(id), photoUrl);
     }
 
     @Override
-    public ArticleResponseDto findByCodeArticle(@org.springframework.web.bind.annotation.PathVariable("codeArticle") String codeArticle) {
-        return articleService.findByCodeArticle(codeArticle);
+    public ArticleResponseDto findByCodeArticle(@org.springframework.web.bind.annotation.PathVariable("codeArticle") String codeArticle, boolean photoUrl) {
+        return avecPhotoUrl(articleService.findByCodeArticle(codeArticle), photoUrl);
     }
 
     @Override
-    public List<ArticleResponseDto> findAll() {
-        return articleService.findAll();
+    public List<ArticleResponseDto> findAll(boolean photoUrl) {
+        List<ArticleResponseDto> articles = articleService.findAll();
+        articles.forEach(article -> avecPhotoUrl(article, photoUrl));
+        return articles;
     }
 
     @Override
@@ -114,4 +133,43 @@ public class ArticleController implements ArticleApi {
         ArticleResponseDto updatedArticle = articleService.update(idArticle, dto);
         return ResponseEntity.ok(updatedArticle);
     }
+
+    @Override
+    public PageCursorResponseDto<ArticleResponseDto> findPage(FiltreRechercheDto filtre, boolean photoUrl) {
+        PageCursorResponseDto<ArticleResponseDto> page = articleService.findPage(filtre);
+        page.getContent().forEach(article -> avecPhotoUrl(article, photoUrl));
+        return page;
+    }
+
+    @Override
+    public ResponseEntity<ArticleImportResponseDto> importer(Integer entrepriseId, org.springframework.web.multipart.MultipartFile file) {
+        String nom = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        if (nom.endsWith(".xlsx") || nom.endsWith(".xls")) {
+            throw new InvalidEntityException("Format Excel non pris en charge, exporter le fichier en CSV", ErrorCodes.ARTICLE_NOT_VALID,
+                    List.of("Formats acceptés : .csv (séparateur ';' ou ',')"));
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(articleImportService.importer(in, entrepriseId));
+        } catch (IOException e) {
+            throw new InvalidEntityException("Lecture du fichier d'import impossible", e, ErrorCodes.ARTICLE_NOT_VALID);
+        }
+    }
+
+    @Override
+    public List<ArticleRechercheDto> search(String q, Integer entrepriseId, Integer limite) {
+        return articleRechercheService.rechercher(entrepriseId, q, limite);
+    }
+
+    // Ajoute l'URL pré-signée de la photo si le client la demande
+    private ArticleResponseDto avecPhotoUrl(ArticleResponseDto article, boolean photoUrl) {
+        if (photoUrl && article != null && StringUtils.hasText(article.getPhoto())) {
+            article.setPhotoUrl(minioFileStorageService.presignedUrl(article.getPhoto()));
+            if (article.getPhotoVariantes() != null) {
+                Map<String, String> urls = new LinkedHashMap<>();
+                article.getPhotoVariantes().forEach((taille, cle) -> urls.put(taille, minioFileStorageService.presignedUrl(cle)));
+                article.setPhotoVariantesUrl(urls);
+            }
+        }
+        return article;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.team48.gestiondestock.controller;
+
+import com.team48.gestiondestock.controller.api.CacheApi;
+import com.team48.gestiondestock.dto.CacheStatistiquesDto;
+import com.team48.gestiondestock.service.cache.ReferentielCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@PreAuthorize("hasRole('ADMIN')")
+@RestController
+public class CacheController implements CacheApi {
+
+    private final ReferentielCache referentielCache;
+
+    @Autowired
+    public CacheController(ReferentielCache referentielCache) {
+        this.referentielCache = referentielCache;
+    }
+
+    @Override
+    public List<CacheStatistiquesDto> statistiques() {
+        return referentielCache.statistiques();
+    }
+
+    @Override
+    public void vider() {
+        referentielCache.vider();
+    }
+}
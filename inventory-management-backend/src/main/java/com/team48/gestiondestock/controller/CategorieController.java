@@ -4,6 +4,8 @@ import com.team48.gestiondestock.controller.api.CategorieApi;
 import com.team48.gestiondestock.dto.CategorieRequestDto;
 import com.team48.gestiondestock.dto.CategorieResponseDto;
 import com.team48.gestiondestock.service.CategorieService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -55,4 +57,9 @@ public class CategorieController implements CategorieApi {
     public CategorieResponseDto findByCodeCategorie(@PathVariable("codeCategorie") String codeCategorie) {
         return categorieService.findByCodeCategorie(codeCategorie);
     }
+
+    @Override
+    public PageCursorResponseDto<CategorieResponseDto> findPage(FiltreRechercheDto filtre) {
+        return categorieService.findPage(filtre);
+    }
 } 
\ No newline at end of file
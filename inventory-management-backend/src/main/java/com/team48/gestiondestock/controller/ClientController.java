@@ -6,6 +6,8 @@ import com.team48.gestiondestock.dto.ClientResponseDto;
 import com.team48.gestiondestock.dto.AdresseRequestDto;
 import com.team48.gestiondestock.service.ClientService;
 import com.team48.gestiondestock.service.stockage.MinioFileStorageService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -126,4 +128,9 @@ public class ClientController implements ClientApi {
         ClientResponseDto updatedClient = clientService.update(idClient, dto);
         return ResponseEntity.ok(updatedClient);
     }
+
+    @Override
+    public PageCursorResponseDto<ClientResponseDto> findPage(FiltreRechercheDto filtre) {
+        return clientService.findPage(filtre);
+    }
 } 
\ No newline at end of file
@@ -5,7 +5,10 @@ import com.team48.gestiondestock.dto.CommandeClientRequestDto;
 import com.team48.gestiondestock.dto.CommandeClientResponseDto;
 import com.team48.gestiondestock.dto.LigneCommandeClientRequestDto;
 import com.team48.gestiondestock.dto.LigneCommandeClientResponseDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
 import com.team48.gestiondestock.service.CommandeClientService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -119,6 +122,24 @@ public class CommandeClientController implements CommandeClientApi {
         return ResponseEntity.ok(commandeClientService.removeLigne(commandeId, ligneId));
     }
 
+    @Operation(
+            summary = "Modifier plusieurs lignes d'une commande client",
+            description = "Ajoute, modifie et supprime des lignes en une seule transaction ; les articles référencés sont chargés en une requête."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "La commande client avec ses lignes à jour",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CommandeClientResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Modifications invalides ou article d'une autre entreprise"),
+            @ApiResponse(responseCode = "404", description = "Commande, ligne ou article non trouvé")
+    })
+    @PatchMapping("/{commandeId}/lignes")
+    public ResponseEntity<CommandeClientResponseDto> modifierLignes(
+            @PathVariable Integer commandeId,
+            @RequestBody LignesCommandeModificationDto modifications) {
+        return ResponseEntity.ok(commandeClientService.modifierLignes(commandeId, modifications));
+    }
+
     @Operation(
             summary = "Supprimer toutes les lignes d'une commande client",
             description = "Cette méthode permet de supprimer toutes les lignes associées à une commande client."
@@ -157,6 +178,8 @@ public class CommandeClientController implements CommandeClientApi {
         return ResponseEntity.ok(lignes);
     }
 
-
-
+    @Override
+    public PageCursorResponseDto<CommandeClientResponseDto> findPage(FiltreRechercheDto filtre) {
+        return commandeClientService.findPage(filtre);
+    }
 }
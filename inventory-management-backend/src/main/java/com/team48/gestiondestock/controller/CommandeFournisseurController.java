@@ -3,7 +3,10 @@ package com.team48.gestiondestock.controller;
 import com.team48.gestiondestock.controller.api.CommandeFournisseurApi;
 import com.team48.gestiondestock.dto.CommandeFournisseurRequestDto;
 import com.team48.gestiondestock.dto.CommandeFournisseurResponseDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
 import com.team48.gestiondestock.service.CommandeFournisseurService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -59,4 +62,14 @@ public class CommandeFournisseurController implements CommandeFournisseurApi {
         CommandeFournisseurResponseDto updatedCommande = commandeFournisseurService.update(idCommandeFournisseur, commandeFournisseurDto);
         return ResponseEntity.ok(updatedCommande);
     }
+
+    @Override
+    public ResponseEntity<CommandeFournisseurResponseDto> modifierLignes(@PathVariable("idCommandeFournisseur") Integer idCommandeFournisseur, @RequestBody LignesCommandeModificationDto modifications) {
+        return ResponseEntity.ok(commandeFournisseurService.modifierLignes(idCommandeFournisseur, modifications));
+    }
+
+    @Override
+    public PageCursorResponseDto<CommandeFournisseurResponseDto> findPage(FiltreRechercheDto filtre) {
+        return commandeFournisseurService.findPage(filtre);
+    }
 } 
\ No newline at end of file
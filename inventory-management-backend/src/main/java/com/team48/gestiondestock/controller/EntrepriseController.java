@@ -6,6 +6,8 @@ import com.team48.gestiondestock.dto.EntrepriseResponseDto;
 import com.team48.gestiondestock.dto.AdresseRequestDto;
 import com.team48.gestiondestock.service.EntrepriseService;
 import com.team48.gestiondestock.service.stockage.MinioFileStorageService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -115,4 +117,9 @@ public class EntrepriseController implements EntrepriseApi {
         EntrepriseResponseDto updatedEntreprise = entrepriseService.update(idEntreprise, dto);
         return ResponseEntity.ok(updatedEntreprise);
     }
+
+    @Override
+    public PageCursorResponseDto<EntrepriseResponseDto> findPage(FiltreRechercheDto filtre) {
+        return entrepriseService.findPage(filtre);
+    }
 } 
\ No newline at end of file
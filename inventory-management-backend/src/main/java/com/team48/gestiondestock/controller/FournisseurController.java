@@ -6,6 +6,8 @@ import com.team48.gestiondestock.dto.FournisseurResponseDto;
 import com.team48.gestiondestock.dto.AdresseRequestDto;
 import com.team48.gestiondestock.service.FournisseurService;
 import com.team48.gestiondestock.service.stockage.MinioFileStorageService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -126,4 +128,9 @@ public class FournisseurController implements FournisseurApi {
         FournisseurResponseDto updatedFournisseur = fournisseurService.update(idFournisseur, dto);
         return ResponseEntity.ok(updatedFournisseur);
     }
+
+    @Override
+    public PageCursorResponseDto<FournisseurResponseDto> findPage(FiltreRechercheDto filtre) {
+        return fournisseurService.findPage(filtre);
+    }
 } 
\ No newline at end of file
@@ -1,25 +1,48 @@
 package com.team48.gestiondestock.controller;
 
 import com.team48.gestiondestock.controller.api.MvtStkApi;
+import com.team48.gestiondestock.dto.MvtStkArchivageResultatDto;
 import com.team48.gestiondestock.dto.MvtStkRequestDto;
 import com.team48.gestiondestock.dto.MvtStkResponseDto;
+import com.team48.gestiondestock.dto.MvtStkResumeMensuelDto;
+import com.team48.gestiondestock.service.MvtStkArchivageService;
 import com.team48.gestiondestock.service.MvtStkService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
 public class MvtStkController implements MvtStkApi {
 
     private final MvtStkService mvtStkService;
+    private final MvtStkArchivageService mvtStkArchivageService;
+    private final long delaiExportMs;
 
     @Autowired
-    public MvtStkController(MvtStkService mvtStkService) {
+    public MvtStkController(MvtStkService mvtStkService, MvtStkArchivageService mvtStkArchivageService,
+                            @Value("${mvtstk.export.delai-max-ms:1800000}") long delaiExportMs) {
         this.mvtStkService = mvtStkService;
+        this.mvtStkArchivageService = mvtStkArchivageService;
+        this.delaiExportMs = delaiExportMs;
     }
 
     @Override
@@ -48,4 +71,59 @@ public class MvtStkController implements MvtStkApi {
         MvtStkResponseDto updatedMvt = mvtStkService.update(idMvtStk, mvtStkDto);
         return ResponseEntity.ok(updatedMvt);
     }
+
+    @Override
+    public BigDecimal stockReelArticle(@PathVariable("idArticle") Integer idArticle) {
+        return mvtStkService.stockReelArticle(idArticle);
+    }
+
+    @Override
+    public PageCursorResponseDto<MvtStkResponseDto> findPage(FiltreRechercheDto filtre) {
+        return mvtStkService.findPage(filtre);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> export(FiltreRechercheDto filtre, String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        // Le corps est écrit après le retour du contrôleur, le service ouvre sa propre transaction
+        StreamingResponseBody body = out -> mvtStkService.exporter(filtre, format, out);
+        prolongerDelaiFlux();
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"mvtstk." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public MvtStkArchivageResultatDto archiver(@PathVariable("mois") YearMonth mois) {
+        return mvtStkArchivageService.archiver(mois);
+    }
+
+    @Override
+    public List<MvtStkResumeMensuelDto> findResumes(Integer entrepriseId, Integer articleId) {
+        return mvtStkArchivageService.findResumes(entrepriseId, articleId);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> lireArchive(@PathVariable("mois") YearMonth mois, Integer entrepriseId) {
+        StreamingResponseBody body = out -> mvtStkArchivageService.lireArchive(entrepriseId, mois, out);
+        prolongerDelaiFlux();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"mvtstk-" + mois + ".ndjson\"")
+                .body(body);
+    }
+
+    // Délai asynchrone propre aux flux du journal : la requête asynchrone est préparée avant l'appel du contrôleur
+    // et démarrée au retour, les autres réponses asynchrones gardent le délai par défaut
+    private void prolongerDelaiFlux() {
+        RequestAttributes attributs = RequestContextHolder.getRequestAttributes();
+        if (attributs instanceof ServletRequestAttributes servlet) {
+            AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(servlet.getRequest()).getAsyncWebRequest();
+            if (asyncWebRequest != null) {
+                asyncWebRequest.setTimeout(delaiExportMs);
+            }
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.team48.gestiondestock.controller;
+
+import com.team48.gestiondestock.controller.api.ReapprovisionnementApi;
+import com.team48.gestiondestock.dto.ReapprovisionnementResultatDto;
+import com.team48.gestiondestock.dto.SeuilStockRequestDto;
+import com.team48.gestiondestock.dto.SeuilStockResponseDto;
+import com.team48.gestiondestock.service.ReapprovisionnementService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ENTREPRISE')")
+@RestController
+public class ReapprovisionnementController implements ReapprovisionnementApi {
+
+    private final ReapprovisionnementService reapprovisionnementService;
+
+    @Autowired
+    public ReapprovisionnementController(ReapprovisionnementService reapprovisionnementService) {
+        this.reapprovisionnementService = reapprovisionnementService;
+    }
+
+    @Override
+    public ResponseEntity<SeuilStockResponseDto> saveSeuil(@RequestBody SeuilStockRequestDto seuilDto) {
+        return ResponseEntity.ok(reapprovisionnementService.saveSeuil(seuilDto));
+    }
+
+    @Override
+    public SeuilStockResponseDto findSeuilByArticleId(@PathVariable("idArticle") Integer idArticle) {
+        return reapprovisionnementService.findSeuilByArticleId(idArticle);
+    }
+
+    @Override
+    public ReapprovisionnementResultatDto executer() {
+        return reapprovisionnementService.executer();
+    }
+}
@@ -4,6 +4,8 @@ import com.team48.gestiondestock.controller.api.RolesApi;
 import com.team48.gestiondestock.dto.RolesRequestDto;
 import com.team48.gestiondestock.dto.RolesResponseDto;
 import com.team48.gestiondestock.service.RolesService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -51,4 +53,9 @@ public class RolesController implements RolesApi {
         RolesResponseDto updatedRole = rolesService.update(idRole, rolesDto);
         return ResponseEntity.ok(updatedRole);
     }
+
+    @Override
+    public PageCursorResponseDto<RolesResponseDto> findPage(FiltreRechercheDto filtre) {
+        return rolesService.findPage(filtre);
+    }
 }
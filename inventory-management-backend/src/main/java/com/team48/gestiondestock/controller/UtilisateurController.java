@@ -6,6 +6,8 @@ import com.team48.gestiondestock.dto.UtilisateurResponseDto;
 import com.team48.gestiondestock.dto.AdresseRequestDto;
 import com.team48.gestiondestock.service.UtilisateurService;
 import com.team48.gestiondestock.service.stockage.MinioFileStorageService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -170,4 +172,14 @@ public class UtilisateurController implements UtilisateurApi {
         UtilisateurResponseDto updatedUtilisateur = utilisateurService.update(idUtilisateur, dto);
         return ResponseEntity.ok(updatedUtilisateur);
     }
+
+    @Override
+    public PageCursorResponseDto<UtilisateurResponseDto> findPage(FiltreRechercheDto filtre) {
+        return utilisateurService.findPage(filtre);
+    }
+
+    @Override
+    public void revoquerSessions(Integer id) {
+        utilisateurService.revoquerSessions(id);
+    }
 } 
\ No newline at end of file
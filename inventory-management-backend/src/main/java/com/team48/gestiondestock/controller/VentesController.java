@@ -1,17 +1,23 @@
 package com.team48.gestiondestock.controller;
 
 import com.team48.gestiondestock.controller.api.VentesApi;
+import com.team48.gestiondestock.dto.VentesClotureResultatDto;
 import com.team48.gestiondestock.dto.VentesRequestDto;
 import com.team48.gestiondestock.dto.VentesResponseDto;
+import com.team48.gestiondestock.dto.VentesStatsDto;
+import com.team48.gestiondestock.dto.VentesStatsResponseDto;
 import com.team48.gestiondestock.exception.ErrorCodes;
 import com.team48.gestiondestock.exception.InvalidEntityException;
 import com.team48.gestiondestock.service.VentesService;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -67,4 +73,21 @@ public class VentesController implements VentesApi {
         VentesResponseDto updatedVente = ventesService.update(idVente, ventesDto);
         return ResponseEntity.ok(updatedVente);
     }
+
+    @Override
+    public PageCursorResponseDto<VentesResponseDto> findPage(FiltreRechercheDto filtre) {
+        return ventesService.findPage(filtre);
+    }
+
+    @Override
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ENTREPRISE')")
+    public VentesClotureResultatDto cloturerJournee(LocalDate jour, Integer entrepriseId) {
+        return ventesService.cloturerJournee(jour, entrepriseId);
+    }
+
+    @Override
+    public VentesStatsResponseDto stats(Integer entrepriseId, Integer articleId, Integer categorieId,
+                                        LocalDate dateDebut, LocalDate dateFin, VentesStatsDto.Groupement groupement) {
+        return ventesService.stats(entrepriseId, articleId, categorieId, dateDebut, dateFin, groupement);
+    }
 }
\ No newline at end of file
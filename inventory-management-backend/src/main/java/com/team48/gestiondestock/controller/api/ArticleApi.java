@@ -1,13 +1,19 @@
 // com/loic/gestiondestock/controller/api/ArticleApi.java
 package com.team48.gestiondestock.controller.api;
 
+import com.team48.gestiondestock.dto.ArticleImportResponseDto;
+import com.team48.gestiondestock.dto.ArticleRechercheDto;
 import com.team48.gestiondestock.dto.ArticleResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
+import io.swagger.v3.oas.annotations.Operation;
 
 @RequestMapping(Constants.APP_ROOT + "/articles") // Chemin de base global pour tous les endpoints d'article [1, 2]
 public interface ArticleApi {
@@ -25,13 +31,15 @@ public interface ArticleApi {
     );
 
     @GetMapping(value = "/id/{idArticle}", produces = MediaType.APPLICATION_JSON_VALUE)
-    ArticleResponseDto findById(@PathVariable("idArticle") Integer id);
+    ArticleResponseDto findById(@PathVariable("idArticle") Integer id,
+                                @RequestParam(value = "photoUrl", defaultValue = "false") boolean photoUrl);
 
     @GetMapping(value = "/code/{codeArticle}", produces = MediaType.APPLICATION_JSON_VALUE) // Chemin relatif
-    ArticleResponseDto findByCodeArticle(@PathVariable("codeArticle") String codeArticle);
+    ArticleResponseDto findByCodeArticle(@PathVariable("codeArticle") String codeArticle,
+                                         @RequestParam(value = "photoUrl", defaultValue = "false") boolean photoUrl);
 
     @GetMapping(value = "/showAll", produces = MediaType.APPLICATION_JSON_VALUE)
-    List<ArticleResponseDto> findAll();
+    List<ArticleResponseDto> findAll(@RequestParam(value = "photoUrl", defaultValue = "false") boolean photoUrl);
 
     @DeleteMapping(value = "/delete/{idArticle}")
     void delete(@PathVariable("idArticle") Integer id);
@@ -48,4 +56,22 @@ public interface ArticleApi {
         @RequestParam("prixUnitaireTtc") java.math.BigDecimal prixUnitaireTtc,
         @RequestPart(value = "image", required = false) org.springframework.web.multipart.MultipartFile image
     );
+
+    @Operation(summary = "Lister les articles par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<ArticleResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre,
+                                                       @RequestParam(value = "photoUrl", defaultValue = "false") boolean photoUrl);
+
+    @Operation(summary = "Importer un catalogue d'articles depuis un fichier CSV (erreurs rapportées ligne par ligne)")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<ArticleImportResponseDto> importer(
+        @RequestParam("entrepriseId") Integer entrepriseId,
+        @RequestPart("file") org.springframework.web.multipart.MultipartFile file
+    );
+
+    @Operation(summary = "Rechercher des articles par code, désignation ou catégorie (saisie partielle, sans accents, tolère les fautes)")
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    List<ArticleRechercheDto> search(@RequestParam("q") String q,
+                                     @RequestParam(value = "entrepriseId", required = false) Integer entrepriseId,
+                                     @RequestParam(value = "limite", required = false) Integer limite);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.team48.gestiondestock.controller.api;
+
+import com.team48.gestiondestock.dto.CacheStatistiquesDto;
+import com.team48.gestiondestock.utils.Constants;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.List;
+
+@RequestMapping(Constants.APP_ROOT + "/cache")
+public interface CacheApi {
+
+    @Operation(summary = "Taux de succès du cache des données de référence (catégories, entreprises, rôles, requêtes)")
+    @GetMapping(value = "/statistiques", produces = MediaType.APPLICATION_JSON_VALUE)
+    List<CacheStatistiquesDto> statistiques();
+
+    @Operation(summary = "Vider le cache de second niveau de cette instance (après une modification directe en base)")
+    @PostMapping(value = "/vider")
+    void vider();
+}
@@ -3,11 +3,14 @@ package com.team48.gestiondestock.controller.api;
 import com.team48.gestiondestock.dto.CategorieRequestDto;
 import com.team48.gestiondestock.dto.CategorieResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
 
@@ -33,4 +36,8 @@ public interface CategorieApi {
 
     @GetMapping(value = "/code/{codeCategorie}", produces = MediaType.APPLICATION_JSON_VALUE)
     CategorieResponseDto findByCodeCategorie(@PathVariable("codeCategorie") String codeCategorie);
+
+    @Operation(summary = "Lister les catégories par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<CategorieResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
 } 
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.team48.gestiondestock.controller.api;
 
 import com.team48.gestiondestock.dto.ClientResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
 
@@ -53,4 +56,8 @@ public interface ClientApi {
         @RequestParam("entrepriseId") Integer entrepriseId,
         @RequestPart(value = "image", required = false) org.springframework.web.multipart.MultipartFile image
     );
+
+    @Operation(summary = "Lister les clients par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<ClientResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
 } 
\ No newline at end of file
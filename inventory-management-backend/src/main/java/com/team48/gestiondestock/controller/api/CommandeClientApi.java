@@ -3,11 +3,14 @@ package com.team48.gestiondestock.controller.api;
 import com.team48.gestiondestock.dto.CommandeClientRequestDto;
 import com.team48.gestiondestock.dto.CommandeClientResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
 
@@ -33,4 +36,8 @@ public interface CommandeClientApi {
     @Operation(summary = "Mettre à jour une commande client existante")
     @PutMapping(value = "/update/{idCommandeClient}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<CommandeClientResponseDto> update(@PathVariable("idCommandeClient") Integer idCommandeClient, @RequestBody CommandeClientRequestDto commandeClientDto);
+
+    @Operation(summary = "Lister les commandes clients par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<CommandeClientResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
 } 
\ No newline at end of file
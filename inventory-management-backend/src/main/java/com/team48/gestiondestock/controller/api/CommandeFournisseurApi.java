@@ -2,12 +2,16 @@ package com.team48.gestiondestock.controller.api;
 
 import com.team48.gestiondestock.dto.CommandeFournisseurRequestDto;
 import com.team48.gestiondestock.dto.CommandeFournisseurResponseDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
 
@@ -33,4 +37,12 @@ public interface CommandeFournisseurApi {
     @Operation(summary = "Mettre à jour une commande fournisseur existante")
     @PutMapping(value = "/update/{idCommandeFournisseur}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<CommandeFournisseurResponseDto> update(@PathVariable("idCommandeFournisseur") Integer idCommandeFournisseur, @RequestBody CommandeFournisseurRequestDto commandeFournisseurDto);
+
+    @Operation(summary = "Ajouter, modifier et supprimer plusieurs lignes d'une commande fournisseur en une transaction")
+    @PatchMapping(value = "/{idCommandeFournisseur}/lignes", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<CommandeFournisseurResponseDto> modifierLignes(@PathVariable("idCommandeFournisseur") Integer idCommandeFournisseur, @RequestBody LignesCommandeModificationDto modifications);
+
+    @Operation(summary = "Lister les commandes fournisseurs par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<CommandeFournisseurResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
 } 
\ No newline at end of file
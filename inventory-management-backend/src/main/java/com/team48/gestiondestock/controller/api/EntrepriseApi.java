@@ -2,11 +2,14 @@ package com.team48.gestiondestock.controller.api;
 
 import com.team48.gestiondestock.dto.EntrepriseResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
 
@@ -56,4 +59,8 @@ public interface EntrepriseApi {
         @RequestParam("steWeb") String steWeb,
         @RequestPart(value = "photo", required = false) MultipartFile photo
     );
+
+    @Operation(summary = "Lister les entreprises par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<EntrepriseResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
 } 
\ No newline at end of file
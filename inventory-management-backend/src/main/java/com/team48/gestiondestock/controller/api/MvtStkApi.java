@@ -1,13 +1,21 @@
 package com.team48.gestiondestock.controller.api;
 
+import com.team48.gestiondestock.dto.MvtStkArchivageResultatDto;
 import com.team48.gestiondestock.dto.MvtStkRequestDto;
 import com.team48.gestiondestock.dto.MvtStkResponseDto;
+import com.team48.gestiondestock.dto.MvtStkResumeMensuelDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
 
 @RequestMapping(Constants.APP_ROOT + "/mvtstk")
@@ -23,12 +31,40 @@ public interface MvtStkApi {
     @GetMapping(value = "/showAll", produces = MediaType.APPLICATION_JSON_VALUE)
     List<MvtStkResponseDto> findAll();
 
+    @Operation(summary = "Annuler un mouvement de stock (mouvement inverse : le journal n'est jamais modifié)")
     @DeleteMapping(value = "/delete/{idMvtStk}")
     void delete(@PathVariable("idMvtStk") Integer id);
 
-    @Operation(summary = "Mettre à jour un mouvement de stock")
+    @Operation(summary = "Corriger un mouvement de stock (mouvement inverse puis nouveau mouvement)")
     @PutMapping(value = "/update/{idMvtStk}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<MvtStkResponseDto> update(@PathVariable("idMvtStk") Integer idMvtStk, @RequestBody MvtStkRequestDto mvtStkDto);
+
+    @Operation(summary = "Stock réel d'un article (solde matérialisé, sans parcourir le journal)")
+    @GetMapping(value = "/stock/{idArticle}", produces = MediaType.APPLICATION_JSON_VALUE)
+    BigDecimal stockReelArticle(@PathVariable("idArticle") Integer idArticle);
+
+    @Operation(summary = "Lister les mouvements de stock par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<MvtStkResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
+
+    @Operation(summary = "Exporter le journal de stock en flux (NDJSON par défaut, ou CSV)")
+    @GetMapping(value = "/export")
+    ResponseEntity<StreamingResponseBody> export(@ParameterObject FiltreRechercheDto filtre,
+                                                 @RequestParam(value = "format", defaultValue = "ndjson") String format);
+
+    @Operation(summary = "Archiver un mois clos du journal de stock (administrateur système)")
+    @PostMapping(value = "/archives/{mois}", produces = MediaType.APPLICATION_JSON_VALUE)
+    MvtStkArchivageResultatDto archiver(@PathVariable("mois") YearMonth mois);
+
+    @Operation(summary = "Résumés mensuels des mois archivés (entrées, sorties, nombre de mouvements par article)")
+    @GetMapping(value = "/archives/resumes", produces = MediaType.APPLICATION_JSON_VALUE)
+    List<MvtStkResumeMensuelDto> findResumes(@RequestParam(value = "entrepriseId", required = false) Integer entrepriseId,
+                                             @RequestParam(value = "articleId", required = false) Integer articleId);
+
+    @Operation(summary = "Relire les mouvements détaillés d'un mois archivé (NDJSON)")
+    @GetMapping(value = "/archives/{mois}")
+    ResponseEntity<StreamingResponseBody> lireArchive(@PathVariable("mois") YearMonth mois,
+                                                      @RequestParam(value = "entrepriseId", required = false) Integer entrepriseId);
 }
 
  
\ No newline at end of file
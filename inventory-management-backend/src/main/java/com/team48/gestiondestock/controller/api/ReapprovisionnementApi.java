@@ -0,0 +1,25 @@
+package com.team48.gestiondestock.controller.api;
+
+import com.team48.gestiondestock.dto.ReapprovisionnementResultatDto;
+import com.team48.gestiondestock.dto.SeuilStockRequestDto;
+import com.team48.gestiondestock.dto.SeuilStockResponseDto;
+import com.team48.gestiondestock.utils.Constants;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RequestMapping(Constants.APP_ROOT + "/reapprovisionnement")
+public interface ReapprovisionnementApi {
+
+    @Operation(summary = "Définir les niveaux min/max et le fournisseur de réapprovisionnement d'un article")
+    @PutMapping(value = "/seuils", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<SeuilStockResponseDto> saveSeuil(@RequestBody SeuilStockRequestDto seuilDto);
+
+    @GetMapping(value = "/seuils/article/{idArticle}", produces = MediaType.APPLICATION_JSON_VALUE)
+    SeuilStockResponseDto findSeuilByArticleId(@PathVariable("idArticle") Integer idArticle);
+
+    @Operation(summary = "Lancer un passage du réapprovisionnement sans attendre la planification")
+    @PostMapping(value = "/executer", produces = MediaType.APPLICATION_JSON_VALUE)
+    ReapprovisionnementResultatDto executer();
+}
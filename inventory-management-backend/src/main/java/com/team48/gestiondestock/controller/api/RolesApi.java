@@ -3,6 +3,8 @@ package com.team48.gestiondestock.controller.api;
 import com.team48.gestiondestock.dto.RolesRequestDto;
 import com.team48.gestiondestock.dto.RolesResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
 
@@ -37,4 +40,8 @@ public interface RolesApi {
     @Operation(summary = "Mettre à jour un rôle existant")
     @PutMapping(value = "/update/{idRole}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<RolesResponseDto> update(@PathVariable("idRole") Integer idRole, @RequestBody RolesRequestDto rolesDto);
+
+    @Operation(summary = "Lister les rôles par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<RolesResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.team48.gestiondestock.controller.api;
 
 import com.team48.gestiondestock.dto.UtilisateurResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
 import java.util.List;
 
@@ -55,4 +58,12 @@ public interface UtilisateurApi {
         @RequestParam("entrepriseId") Integer entrepriseId,
         @RequestPart(value = "image", required = false) org.springframework.web.multipart.MultipartFile image
     );
+
+    @Operation(summary = "Lister les utilisateurs par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<UtilisateurResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
+
+    @Operation(summary = "Révoquer les sessions en cours d'un utilisateur (jetons d'accès et de renouvellement)")
+    @PostMapping(value = "/{idUtilisateur}/revoquer-sessions")
+    void revoquerSessions(@PathVariable("idUtilisateur") Integer id);
 } 
\ No newline at end of file
@@ -1,14 +1,22 @@
 package com.team48.gestiondestock.controller.api;
 
+import com.team48.gestiondestock.dto.VentesClotureResultatDto;
 import com.team48.gestiondestock.dto.VentesRequestDto;
 import com.team48.gestiondestock.dto.VentesResponseDto;
+import com.team48.gestiondestock.dto.VentesStatsDto;
+import com.team48.gestiondestock.dto.VentesStatsResponseDto;
 import com.team48.gestiondestock.utils.Constants;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springdoc.core.annotations.ParameterObject;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RequestMapping(Constants.APP_ROOT + "/ventes")
@@ -33,4 +41,22 @@ public interface VentesApi {
     @Operation(summary = "Mettre à jour une vente existante")
     @PutMapping(value = "/update/{idVente}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<VentesResponseDto> update(@PathVariable("idVente") Integer idVente, @RequestBody VentesRequestDto ventesDto);
+
+    @Operation(summary = "Lister les ventes par page (curseur sur l'id) avec filtres entreprise et période")
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    PageCursorResponseDto<VentesResponseDto> findPage(@ParameterObject FiltreRechercheDto filtre);
+
+    @Operation(summary = "Clôture de journée : convertir en ventes les commandes clients validées du jour (UTC)")
+    @PostMapping(value = "/cloture", produces = MediaType.APPLICATION_JSON_VALUE)
+    VentesClotureResultatDto cloturerJournee(@RequestParam("jour") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate jour,
+                                             @RequestParam(value = "entrepriseId", required = false) Integer entrepriseId);
+
+    @Operation(summary = "Statistiques de ventes (quantités, chiffre d'affaires) par jour, mois, article ou catégorie, sur [dateDebut, dateFin[")
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    VentesStatsResponseDto stats(@RequestParam(value = "entrepriseId", required = false) Integer entrepriseId,
+                                 @RequestParam(value = "articleId", required = false) Integer articleId,
+                                 @RequestParam(value = "categorieId", required = false) Integer categorieId,
+                                 @RequestParam(value = "dateDebut", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+                                 @RequestParam(value = "dateFin", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+                                 @RequestParam(value = "groupement", defaultValue = "JOUR") VentesStatsDto.Groupement groupement);
 } 
\ No newline at end of file
@@ -2,10 +2,12 @@ package com.team48.gestiondestock.controller.auth;
 
 import com.team48.gestiondestock.dto.AuthResponseDto;
 import com.team48.gestiondestock.dto.LoginRequestDto;
+import com.team48.gestiondestock.dto.RefreshTokenRequestDto;
 import com.team48.gestiondestock.dto.RegisterRequestDto;
 import com.team48.gestiondestock.service.AuthService;
 import com.team48.gestiondestock.utils.Constants;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,4 +29,18 @@ public class AuthController {
         AuthResponseDto response = authService.login(request);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponseDto> refresh(@RequestBody RefreshTokenRequestDto request) {
+        AuthResponseDto response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequestDto request,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(request, accessToken);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleImportErreurDto {
+    // Numéro de ligne dans le fichier (l'en-tête est la ligne 1)
+    private long ligne;
+    private String codeArticle;
+    private List<String> erreurs;
+}
@@ -0,0 +1,21 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleImportResponseDto {
+    private long lignesLues;
+    private long importes;
+
+    @Builder.Default
+    private List<ArticleImportErreurDto> erreurs = new ArrayList<>();
+}
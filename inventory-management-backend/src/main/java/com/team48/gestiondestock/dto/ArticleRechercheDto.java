@@ -0,0 +1,25 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Résultat de recherche d'article : uniquement ce qu'affiche une caisse, servi directement depuis l'index.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleRechercheDto {
+    private Integer id;
+    private String codeArticle;
+    private String designation;
+    private String categorie;
+    private BigDecimal prixUnitaireTtc;
+    // Pertinence (plus grand = meilleur) ; null pour les résultats de la recherche en base
+    private Double score;
+}
@@ -1,12 +1,14 @@
 package com.team48.gestiondestock.dto;
 
 import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.utils.ImageVariantes;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 
 @Data
@@ -21,6 +23,12 @@ public class ArticleResponseDto {
     private BigDecimal tauxTva;
     private BigDecimal prixUnitaireTtc;
     private String photo;
+    // URL GET pré-signée de la photo, renseignée uniquement sur demande (?photoUrl=true)
+    private String photoUrl;
+    // Clés des miniatures générées de la photo ("128", "512"...), à préférer dans les listes ; null : utiliser la photo
+    private Map<String, String> photoVariantes;
+    // URLs pré-signées des miniatures, renseignées avec photoUrl
+    private Map<String, String> photoVariantesUrl;
     private CategorieResponseDto categorie;
     private EntrepriseResponseDto entreprise;
 
@@ -35,6 +43,7 @@ public class ArticleResponseDto {
                 .tauxTva(article.getTauxTva())
                 .prixUnitaireTtc(article.getPrixUnitaireTtc())
                 .photo(article.getPhoto())
+                .photoVariantes(ImageVariantes.generees(article.getPhoto(), article.getPhotoVariantes()))
                 .categorie(article.getCategorie() != null ? CategorieResponseDto.fromEntity(article.getCategorie()) : null)
                 .entreprise(article.getEntreprise() != null ? EntrepriseResponseDto.fromEntity(article.getEntreprise()) : null)
                 .build();
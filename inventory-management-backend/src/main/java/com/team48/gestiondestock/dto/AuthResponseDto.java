@@ -5,5 +5,6 @@ import lombok.Data;
 @Data
 public class AuthResponseDto {
     private String token;
+    private String refreshToken;
     private UtilisateurResponseDto user;
 } 
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatistiquesDto {
+    private String region;
+    private long succes;
+    private long echecs;
+    private long ajouts;
+    // -1 si la région ne le fournit pas
+    private long elementsEnMemoire;
+    // succès / (succès + échecs), 0 sans lecture
+    private double tauxSucces;
+
+    public static CacheStatistiquesDto of(String region, long succes, long echecs, long ajouts, long elementsEnMemoire) {
+        long lectures = succes + echecs;
+        return CacheStatistiquesDto.builder()
+                .region(region)
+                .succes(succes)
+                .echecs(echecs)
+                .ajouts(ajouts)
+                .elementsEnMemoire(elementsEnMemoire)
+                .tauxSucces(lectures == 0 ? 0 : (double) succes / lectures)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.team48.gestiondestock.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.team48.gestiondestock.model.CommandeClient;
+import com.team48.gestiondestock.model.EtatCommande;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -29,6 +30,7 @@ public class CommandeClientRequestDto {
 
     private Integer entrepriseId;
     private Integer clientId;
+    private EtatCommande etat;
 
     // Conversion vers l'entité
     public static CommandeClient toEntity(CommandeClientRequestDto dto) {
@@ -44,6 +46,7 @@ public class CommandeClientRequestDto {
         }
 
         commandeClient.setEntreprise_id(dto.getEntrepriseId());
+        commandeClient.setEtat(dto.getEtat());
         return commandeClient;
     }
 }
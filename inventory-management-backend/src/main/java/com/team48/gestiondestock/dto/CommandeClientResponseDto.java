@@ -3,6 +3,7 @@ package com.team48.gestiondestock.dto;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.team48.gestiondestock.model.CommandeClient;
+import com.team48.gestiondestock.model.EtatCommande;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -32,6 +33,8 @@ public class CommandeClientResponseDto {
 
     private Integer entrepriseId;
 
+    private EtatCommande etat;
+
     @JsonIgnore
     private ClientResponseDto client;
 
@@ -60,6 +63,7 @@ public class CommandeClientResponseDto {
                 .code(commandeClient.getCode())
                 .dateCommande(date)
                 .entrepriseId(commandeClient.getEntreprise_id())
+                .etat(commandeClient.getEtat())
                 .ligneCommandeClients(lignes)
                 .build();
     }
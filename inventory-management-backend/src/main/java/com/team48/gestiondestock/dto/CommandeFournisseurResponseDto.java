@@ -1,6 +1,7 @@
 package com.team48.gestiondestock.dto;
 
 import com.team48.gestiondestock.model.CommandeFournisseur;
+import com.team48.gestiondestock.model.EtatCommande;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,7 @@ public class CommandeFournisseurResponseDto {
     private String code;
     private Instant dateCommande;
     private FournisseurResponseDto fournisseur;
+    private EtatCommande etat;
     private Integer entrepriseId;
     private List<LigneCommandeFournisseurResponseDto> ligneCommandeFournisseurs;
 
@@ -31,6 +33,7 @@ public class CommandeFournisseurResponseDto {
                 .dateCommande(commandeFournisseur.getDateCommande())
                 .fournisseur(commandeFournisseur.getFournisseur() != null ? 
                     FournisseurResponseDto.fromEntity(commandeFournisseur.getFournisseur()) : null)
+                .etat(commandeFournisseur.getEtat())
                 .entrepriseId(commandeFournisseur.getEntreprise_id())
                 .build();
     }
@@ -0,0 +1,37 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Paramètres communs des listes paginées par curseur (/page).
+ * Le curseur est l'id du dernier élément reçu : la page suivante commence strictement après lui.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltreRechercheDto {
+
+    public static final int TAILLE_PAR_DEFAUT = 50;
+    public static final int TAILLE_MAX = 500;
+
+    private Integer cursor;
+    private Integer size;
+    private Integer entrepriseId;
+    private Instant dateDebut;
+    private Instant dateFin;
+    private Integer categorieId;
+
+    // Taille de page bornée pour ne jamais charger une table entière en mémoire
+    public int taillePage() {
+        if (size == null || size <= 0) {
+            return TAILLE_PAR_DEFAUT;
+        }
+        return Math.min(size, TAILLE_MAX);
+    }
+}
@@ -25,6 +25,11 @@ public class LigneCommandeFournisseurResponseDto {
         if (ligneCommandeFournisseur == null) return null;
         return LigneCommandeFournisseurResponseDto.builder()
                 .id(ligneCommandeFournisseur.getId())
+                .article(ligneCommandeFournisseur.getArticle() != null ? ArticleResponseDto.builder()
+                        .id(ligneCommandeFournisseur.getArticle().getId())
+                        .codeArticle(ligneCommandeFournisseur.getArticle().getCodeArticle())
+                        .designation(ligneCommandeFournisseur.getArticle().getDesignation())
+                        .build() : null)
                 .quantite(ligneCommandeFournisseur.getQuantite())
                 .prixUnitaire(ligneCommandeFournisseur.getPrixUnitaire())
                 .entrepriseId(ligneCommandeFournisseur.getEntreprise_id())
@@ -0,0 +1,41 @@
+package com.team48.gestiondestock.dto;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Modification groupée des lignes d'une commande (client ou fournisseur), appliquée en une transaction
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LignesCommandeModificationDto {
+    @Builder.Default
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<Ligne> ajouts = new ArrayList<>();
+    // L'id de chaque ligne est obligatoire ; un article absent conserve l'article actuel
+    @Builder.Default
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<Ligne> modifications = new ArrayList<>();
+    @Builder.Default
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<Integer> suppressions = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Ligne {
+        private Integer id;
+        private Integer articleId;
+        private BigDecimal quantite;
+        private BigDecimal prixUnitaire;
+    }
+}
@@ -0,0 +1,20 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MvtStkArchivageResultatDto {
+    private YearMonth mois;
+    private long nbMouvements;
+    private int nbResumes;
+    private List<String> clesArchive;
+}
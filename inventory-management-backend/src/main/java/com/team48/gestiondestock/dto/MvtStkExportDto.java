@@ -0,0 +1,65 @@
+package com.team48.gestiondestock.dto;
+
+import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Ligne plate de l'export du journal de stock : pas d'objets imbriqués,
+ * pour ne déclencher aucun chargement paresseux pendant le streaming.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MvtStkExportDto {
+    private Integer id;
+    private Instant dateMvt;
+    private TypeMvtStk typeMvt;
+    private BigDecimal quantite;
+    private Integer articleId;
+    private String codeArticle;
+    private Integer entrepriseId;
+    private Integer mvtCorrigeId;
+
+    public static MvtStkExportDto fromEntity(MvtStk mvtStk) {
+        if (mvtStk == null) return null;
+        return MvtStkExportDto.builder()
+                .id(mvtStk.getId())
+                .dateMvt(mvtStk.getDateMvt())
+                .typeMvt(mvtStk.getTypeMvt())
+                .quantite(mvtStk.getQuantite())
+                .articleId(mvtStk.getArticle() != null ? mvtStk.getArticle().getId() : null)
+                .codeArticle(mvtStk.getArticle() != null ? mvtStk.getArticle().getCodeArticle() : null)
+                .entrepriseId(mvtStk.getEntreprise_id())
+                .mvtCorrigeId(mvtStk.getMvtCorrigeId())
+                .build();
+    }
+
+    public static String enteteCsv() {
+        return "id;dateMvt;typeMvt;quantite;articleId;codeArticle;entrepriseId;mvtCorrigeId";
+    }
+
+    public String toCsv() {
+        return String.join(";",
+                valeur(id), valeur(dateMvt), valeur(typeMvt), valeur(quantite != null ? quantite.toPlainString() : null),
+                valeur(articleId), valeur(codeArticle), valeur(entrepriseId), valeur(mvtCorrigeId));
+    }
+
+    private static String valeur(Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        String texte = valeur.toString();
+        if (texte.contains(";") || texte.contains("\"") || texte.contains("\n") || texte.contains("\r")) {
+            return "\"" + texte.replace("\"", "\"\"") + "\"";
+        }
+        return texte;
+    }
+}
@@ -20,6 +20,7 @@ public class MvtStkResponseDto {
     private BigDecimal quantite;
     private TypeMvtStk typeMvt;
     private ArticleResponseDto article;
+    private Integer mvtCorrigeId;
 
     // Méthode utilitaire pour convertir une entité en DTO
     public static MvtStkResponseDto fromEntity(MvtStk mvtStk) {
@@ -30,6 +31,7 @@ public class MvtStkResponseDto {
                 .quantite(mvtStk.getQuantite())
                 .typeMvt(mvtStk.getTypeMvt())
                 .article(mvtStk.getArticle() != null ? ArticleResponseDto.fromEntity(mvtStk.getArticle()) : null)
+                .mvtCorrigeId(mvtStk.getMvtCorrigeId())
                 .build();
     }
 }
\ No newline at end of file
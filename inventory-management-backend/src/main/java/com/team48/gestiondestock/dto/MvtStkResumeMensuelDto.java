@@ -0,0 +1,35 @@
+package com.team48.gestiondestock.dto;
+
+import com.team48.gestiondestock.model.MvtStkResumeMensuel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MvtStkResumeMensuelDto {
+    private Integer entrepriseId;
+    private Integer articleId;
+    private LocalDate mois;
+    private BigDecimal entrees;
+    private BigDecimal sorties;
+    private Long nbMouvements;
+
+    public static MvtStkResumeMensuelDto fromEntity(MvtStkResumeMensuel resume) {
+        if (resume == null) return null;
+        return MvtStkResumeMensuelDto.builder()
+                .entrepriseId(resume.getEntrepriseId())
+                .articleId(resume.getArticleId())
+                .mois(resume.getMois())
+                .entrees(resume.getEntrees())
+                .sorties(resume.getSorties())
+                .nbMouvements(resume.getNbMouvements())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursorResponseDto<T> {
+    private List<T> content;
+    private Integer nextCursor;
+    private boolean hasNext;
+    private int size;
+
+    /**
+     * Construit une page à partir de lignes lues avec une limite de taille + 1 :
+     * la ligne supplémentaire indique seulement qu'une page suivante existe.
+     */
+    public static <E, D> PageCursorResponseDto<D> of(List<E> lignes, int taille,
+                                                    Function<E, Integer> id, Function<E, D> mapper) {
+        boolean suivante = lignes.size() > taille;
+        List<E> page = suivante ? lignes.subList(0, taille) : lignes;
+        return PageCursorResponseDto.<D>builder()
+                .content(page.stream().map(mapper).collect(Collectors.toList()))
+                .nextCursor(suivante ? id.apply(page.get(page.size() - 1)) : null)
+                .hasNext(suivante)
+                .size(page.size())
+                .build();
+    }
+}
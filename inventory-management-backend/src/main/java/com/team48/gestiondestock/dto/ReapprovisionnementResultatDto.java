@@ -0,0 +1,21 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReapprovisionnementResultatDto {
+    // Articles dont le solde ou le seuil a changé depuis le passage précédent
+    private int articlesEvalues;
+    private int commandesCreees;
+    private int lignesCreees;
+    private Instant traiteJusqua;
+    private long dureeMs;
+}
@@ -0,0 +1,8 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequestDto {
+    private String refreshToken;
+}
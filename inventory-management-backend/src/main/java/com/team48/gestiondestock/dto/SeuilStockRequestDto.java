@@ -0,0 +1,21 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeuilStockRequestDto {
+    private Integer articleId;
+    private Integer fournisseurId;
+    private BigDecimal stockMin;
+    private BigDecimal stockMax;
+    private Integer delaiLivraisonJours;
+    private Integer entrepriseId;
+}
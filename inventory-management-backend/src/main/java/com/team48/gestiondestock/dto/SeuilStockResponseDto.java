@@ -0,0 +1,37 @@
+package com.team48.gestiondestock.dto;
+
+import com.team48.gestiondestock.model.SeuilStock;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeuilStockResponseDto {
+    private Integer id;
+    private Integer articleId;
+    private Integer fournisseurId;
+    private BigDecimal stockMin;
+    private BigDecimal stockMax;
+    private Integer delaiLivraisonJours;
+    private Integer entrepriseId;
+
+    // Méthode utilitaire pour convertir une entité en DTO
+    public static SeuilStockResponseDto fromEntity(SeuilStock seuil) {
+        if (seuil == null) return null;
+        return SeuilStockResponseDto.builder()
+                .id(seuil.getId())
+                .articleId(seuil.getArticleId())
+                .fournisseurId(seuil.getFournisseur() != null ? seuil.getFournisseur().getId() : null)
+                .stockMin(seuil.getStockMin())
+                .stockMax(seuil.getStockMax())
+                .delaiLivraisonJours(seuil.getDelaiLivraisonJours())
+                .entrepriseId(seuil.getEntrepriseId())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentesClotureResultatDto {
+    private LocalDate jour;
+    private Integer entrepriseId;
+    private int nbVentes;
+    private int nbLignes;
+    // Commandes non converties (stock insuffisant...), restées VALIDEE pour une prochaine clôture
+    private List<Integer> commandesEnEchec;
+}
@@ -0,0 +1,26 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Une ligne de statistiques de ventes : la clé dépend du groupement
+ * (jour "2025-03-14", mois "2025-03", id d'article ou id de catégorie).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentesStatsDto {
+
+    public enum Groupement { JOUR, MOIS, ARTICLE, CATEGORIE }
+
+    private String cle;
+    private BigDecimal quantite;
+    private BigDecimal chiffreAffaires;
+    private Long nbLignes;
+}
@@ -0,0 +1,24 @@
+package com.team48.gestiondestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentesStatsResponseDto {
+    private VentesStatsDto.Groupement groupement;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private BigDecimal totalQuantite;
+    private BigDecimal totalChiffreAffaires;
+    private Long totalLignes;
+    private List<VentesStatsDto> details;
+}
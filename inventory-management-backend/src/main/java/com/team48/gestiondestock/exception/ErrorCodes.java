@@ -28,6 +28,14 @@ public enum ErrorCodes {
 
     MVT_STK_NOT_FOUND("MVT_STK_NOT_FOUND"),
     MVT_STK_NOT_VALID("MVT_STK_NOT_VALID"),
+    MVT_STK_DEJA_CORRIGE("MVT_STK_DEJA_CORRIGE"),
+    MVT_STK_MOIS_ARCHIVE("MVT_STK_MOIS_ARCHIVE"),
+    MVT_STK_ARCHIVE_NOT_FOUND("MVT_STK_ARCHIVE_NOT_FOUND"),
+    MVT_STK_ARCHIVAGE_ERREUR("MVT_STK_ARCHIVAGE_ERREUR"),
+    STOCK_INSUFFISANT("STOCK_INSUFFISANT"),
+    STOCK_VERROUILLE("STOCK_VERROUILLE"),
+    SEUIL_STOCK_NOT_FOUND("SEUIL_STOCK_NOT_FOUND"),
+    SEUIL_STOCK_NOT_VALID("SEUIL_STOCK_NOT_VALID"),
 
     UTILISATEUR_NOT_FOUND("UTILISATEUR_NOT_FOUND"),
     UTILISATEUR_NOT_VALID("UTILISATEUR_NOT_VALID"),
@@ -51,7 +59,10 @@ public enum ErrorCodes {
     VENTES_NOT_VALID("VENTES_NOT_VALID"),
     IMAGE_FORMAT_NOT_SUPPORTED("IMAGE_FORMAT_NOT_SUPPORTED"),
     
-    INVALID_CREDENTIALS("INVALID_CREDENTIALS");
+    INVALID_CREDENTIALS("INVALID_CREDENTIALS"),
+    INVALID_REFRESH_TOKEN("INVALID_REFRESH_TOKEN"),
+    TOO_MANY_LOGIN_ATTEMPTS("TOO_MANY_LOGIN_ATTEMPTS"),
+    AUTH_SERVICE_BUSY("AUTH_SERVICE_BUSY");
 
 
     private final String code;
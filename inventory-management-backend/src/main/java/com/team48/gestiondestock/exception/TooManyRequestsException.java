@@ -0,0 +1,17 @@
+package com.team48.gestiondestock.exception;
+
+import lombok.Getter;
+
+// Requête refusée avant traitement (connexions trop nombreuses) : à retenter après retryAfterSeconds
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private ErrorCodes errorCode;
+    private long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, ErrorCodes errorCode, long retryAfterSeconds) {
+        super(message);
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
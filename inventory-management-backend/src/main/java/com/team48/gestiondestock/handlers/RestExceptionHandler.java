@@ -5,6 +5,8 @@ import com.team48.gestiondestock.exception.InvalidEntityException;
 import com.team48.gestiondestock.exception.BadCredentialsException;
 import com.team48.gestiondestock.exception.InvalidImageFormatException;
 import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.TooManyRequestsException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -62,5 +64,18 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDto, badRequest);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorDto> handleException(TooManyRequestsException exception, WebRequest webRequest) {
+        final HttpStatus tooManyRequests = HttpStatus.TOO_MANY_REQUESTS;
+        final ErrorDto errorDto = ErrorDto.builder()
+                .errorCodes(exception.getErrorCode())
+                .httpCode(tooManyRequests.value())
+                .message(exception.getMessage())
+                .build();
+        return ResponseEntity.status(tooManyRequests)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(errorDto);
+    }
+
 
 }
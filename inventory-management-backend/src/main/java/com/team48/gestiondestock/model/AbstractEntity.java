@@ -21,7 +21,9 @@ import java.time.Instant;
 public class AbstractEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence par entité (nom implicite <table>_seq, pas de 50) : les ids sont réservés par blocs,
+    // ce que IDENTITY empêche, et Hibernate peut regrouper les INSERT en batch JDBC
+    @IdSequenceParTable
     private Integer id;
 
     /*
@@ -12,7 +12,8 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "article")
+@Table(name = "article",
+        indexes = @Index(name = "idx_article_entreprise_id", columnList = "entreprise_id, id"))
 public class Article extends AbstractEntity {
 
     @Column(name = "code_article")
@@ -33,6 +34,10 @@ public class Article extends AbstractEntity {
     @Column(name = "photo")
     private String photo;
 
+    // Clés des miniatures effectivement générées pour la photo, séparées par des virgules ; null tant qu'il n'y en a pas
+    @Column(name = "photo_variantes", length = 2000)
+    private String photoVariantes;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "categorie_id")
     private Categorie categorie;
@@ -1,13 +1,17 @@
 package com.team48.gestiondestock.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @SuperBuilder
@@ -15,7 +19,11 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "categorie")
+// Donnée de référence, lue à chaque écriture d'article ou de commande : cache de second niveau (voir ReferentielCache)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categorie")
+@Table(name = "categorie",
+        indexes = @Index(name = "idx_categorie_entreprise_id", columnList = "entreprise_id, id"))
 public class Categorie extends AbstractEntity {
 
     @Column(name = "code")
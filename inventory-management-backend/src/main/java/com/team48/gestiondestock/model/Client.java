@@ -12,7 +12,8 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "client")
+@Table(name = "client",
+        indexes = @Index(name = "idx_client_entreprise_id", columnList = "entreprise_id, id"))
 public class Client extends AbstractEntity {
 
     @Column(name = "nom")
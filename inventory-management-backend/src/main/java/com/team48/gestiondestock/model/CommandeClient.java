@@ -14,7 +14,12 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "commande_client")
+@Table(name = "commande_client",
+        indexes = {
+                @Index(name = "idx_commande_client_entreprise_id", columnList = "entreprise_id, id"),
+                // Clôture de journée : commandes validées d'une période
+                @Index(name = "idx_commande_client_etat_date", columnList = "etat, date_commande")
+        })
 public class CommandeClient extends AbstractEntity {
 
     @Column(name = "code")
@@ -27,6 +32,11 @@ public class CommandeClient extends AbstractEntity {
     @JoinColumn(name = "client_id")
     private Client client;
 
+    // VALIDEE : la commande est convertie en vente à la clôture de sa journée, puis passe à VENDUE
+    @Enumerated(EnumType.STRING)
+    @Column(name = "etat")
+    private EtatCommande etat;
+
     @OneToMany(mappedBy = "commandeClient", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<LigneCommandeClient> ligneCommandeClients = new ArrayList<>();
 
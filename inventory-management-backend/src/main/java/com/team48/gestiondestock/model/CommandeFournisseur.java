@@ -13,7 +13,8 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "commande_fournisseur")
+@Table(name = "commande_fournisseur",
+        indexes = @Index(name = "idx_commande_fournisseur_entreprise_id", columnList = "entreprise_id, id"))
 public class CommandeFournisseur extends AbstractEntity{
 
     @Column(name = "code")
@@ -26,6 +27,11 @@ public class CommandeFournisseur extends AbstractEntity{
     @JoinColumn(name = "fournisseur_id")
     private Fournisseur fournisseur;
 
+    // BROUILLON pour les commandes proposées par le moteur de réapprovisionnement
+    @Enumerated(EnumType.STRING)
+    @Column(name = "etat")
+    private EtatCommande etat;
+
     @OneToMany(mappedBy = "commandeFournisseur")
     private List<LigneCommandeFournisseur> ligneCommandeFournisseurs;
 
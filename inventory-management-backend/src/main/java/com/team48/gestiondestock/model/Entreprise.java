@@ -5,6 +5,8 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @SuperBuilder
@@ -12,6 +14,9 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
+// Donnée de référence, lue à chaque écriture d'article ou de commande : cache de second niveau (voir ReferentielCache)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entreprise")
 @Table(name = "entreprise")
 public class Entreprise extends AbstractEntity {
 
@@ -0,0 +1,5 @@
+package com.team48.gestiondestock.model;
+
+public enum EtatCommande {
+    BROUILLON, VALIDEE, VENDUE
+}
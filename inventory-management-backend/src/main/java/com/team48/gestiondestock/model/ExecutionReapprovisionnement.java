@@ -0,0 +1,24 @@
+package com.team48.gestiondestock.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * Point de reprise du moteur de réapprovisionnement (une seule ligne) : seuls les articles
+ * dont le solde ou le seuil a changé depuis cet instant sont réévalués au passage suivant.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "execution_reapprovisionnement")
+public class ExecutionReapprovisionnement extends AbstractEntity {
+
+    @Column(name = "traite_jusqua", nullable = false)
+    private Instant traiteJusqua;
+}
@@ -13,7 +13,8 @@ import java.util.List;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "fournisseur")
+@Table(name = "fournisseur",
+        indexes = @Index(name = "idx_fournisseur_entreprise_id", columnList = "entreprise_id, id"))
 public class Fournisseur extends AbstractEntity{
 
     @Column(name = "nom")
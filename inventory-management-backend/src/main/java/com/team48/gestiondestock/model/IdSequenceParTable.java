@@ -0,0 +1,18 @@
+package com.team48.gestiondestock.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identifiant tiré de la séquence de sa table (<table>_seq), par blocs de 50 ou un à un
+ * pour les entités @IdsAttribuesParLaBase. Voir SequenceParTable.
+ */
+@IdGeneratorType(SequenceParTable.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IdSequenceParTable {
+}
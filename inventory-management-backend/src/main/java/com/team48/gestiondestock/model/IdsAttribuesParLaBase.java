@@ -0,0 +1,16 @@
+package com.team48.gestiondestock.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Entité écrite en masse par INSERT ... SELECT : sa séquence avance d'un pas de 1 pour que la base attribue
+ * les ids dans la requête elle-même. Avec des blocs de 50, Hibernate doit générer les ids côté application,
+ * une ligne à la fois sur les bases sans INSERT dans un WITH (H2). Voir SequenceParTable.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IdsAttribuesParLaBase {
+}
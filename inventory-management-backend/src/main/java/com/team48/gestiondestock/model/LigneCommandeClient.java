@@ -12,7 +12,9 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "ligne_commande_client")
+@Table(name = "ligne_commande_client",
+        // Lignes d'une pièce, à l'intérieur du périmètre de l'entreprise
+        indexes = @Index(name = "idx_ligne_commande_client_entreprise_commande_client", columnList = "entreprise_id, commande_client_id"))
 public class LigneCommandeClient extends AbstractEntity {
 
     @ManyToOne
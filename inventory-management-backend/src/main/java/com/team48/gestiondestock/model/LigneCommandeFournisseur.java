@@ -12,7 +12,9 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "ligne_commande_fournisseur")
+@Table(name = "ligne_commande_fournisseur",
+        // Lignes d'une pièce, à l'intérieur du périmètre de l'entreprise
+        indexes = @Index(name = "idx_ligne_commande_fournisseur_entreprise_commande_fournisseur", columnList = "entreprise_id, commande_fournisseur_id"))
 public class LigneCommandeFournisseur extends AbstractEntity{
 
     @ManyToOne
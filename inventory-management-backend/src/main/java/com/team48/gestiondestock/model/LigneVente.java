@@ -12,7 +12,11 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "ligne_vente")
+// Lignes copiées depuis les commandes par INSERT ... SELECT (LigneVenteRepository.copierLignesCommandes)
+@IdsAttribuesParLaBase
+@Table(name = "ligne_vente",
+        // Lignes d'une pièce, à l'intérieur du périmètre de l'entreprise
+        indexes = @Index(name = "idx_ligne_vente_entreprise_vente", columnList = "entreprise_id, vente_id"))
 public class LigneVente extends AbstractEntity {
 
     @ManyToOne
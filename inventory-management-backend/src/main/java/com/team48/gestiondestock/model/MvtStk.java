@@ -7,30 +7,47 @@ import lombok.experimental.SuperBuilder;
 import java.math.BigDecimal;
 import java.time.Instant;
 
+/**
+ * Journal de stock en ajout seul : un mouvement enregistré n'est jamais modifié ni supprimé,
+ * une correction s'écrit comme un mouvement inverse qui référence le mouvement corrigé.
+ */
 @Data
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "mvtstk")
+// Mouvements des ventes écrits par INSERT ... SELECT (MvtStkRepository.insererPourLignesVentes)
+@IdsAttribuesParLaBase
+// Pas de contrainte d'unicité sur mvt_corrige_id : une table partitionnée n'accepte que des clés
+// incluant date_mvt (voir db/mvtstk-partitionnement.sql). Une seule compensation par mouvement est garantie
+// par le verrou de ligne du mouvement d'origine (MvtStkRepository.findByIdPourCorrection)
+@Table(name = "mvtstk",
+        indexes = {
+                @Index(name = "idx_mvtstk_entreprise_id", columnList = "entreprise_id, id"),
+                @Index(name = "idx_mvtstk_mvt_corrige", columnList = "mvt_corrige_id")
+        })
 public class MvtStk extends AbstractEntity {
 
-    @Column(name = "date_mvt")
+    @Column(name = "date_mvt", updatable = false)
     private Instant dateMvt;
 
-    @Column(name = "quantite")
+    @Column(name = "quantite", updatable = false)
     private BigDecimal quantite;
 
-    @Column(name = "type_mvt")
+    @Column(name = "type_mvt", updatable = false)
     private TypeMvtStk typeMvt;
 
     @ManyToOne
-    @JoinColumn(name = "article_id")
+    @JoinColumn(name = "article_id", updatable = false)
     private Article article;
 
     //attribut ajouté dans toutes les classes/entités sauf entreprise et utilisateur pour faciliter la recherche des données
-    @Column(name = "entreprise_id")
+    @Column(name = "entreprise_id", updatable = false)
     private Integer entreprise_id;
 
+    // Mouvement annulé par ce mouvement de compensation (null pour un mouvement ordinaire)
+    @Column(name = "mvt_corrige_id", updatable = false)
+    private Integer mvtCorrigeId;
+
 }
@@ -0,0 +1,50 @@
+package com.team48.gestiondestock.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Résumé d'un mois archivé du journal de stock, par entreprise et article. Les mouvements détaillés
+ * du mois ont quitté la table mvtstk pour un fichier compressé du stockage objet (cleArchive).
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "mvtstk_resume_mensuel",
+        uniqueConstraints = @UniqueConstraint(name = "uk_mvtstk_resume_entreprise_article_mois",
+                columnNames = {"entreprise_id", "article_id", "mois"}),
+        indexes = {
+                @Index(name = "idx_mvtstk_resume_article", columnList = "article_id"),
+                @Index(name = "idx_mvtstk_resume_mois", columnList = "mois")
+        })
+public class MvtStkResumeMensuel extends AbstractEntity {
+
+    @Column(name = "entreprise_id")
+    private Integer entrepriseId;
+
+    @Column(name = "article_id", nullable = false)
+    private Integer articleId;
+
+    // Premier jour du mois (UTC)
+    @Column(name = "mois", nullable = false)
+    private LocalDate mois;
+
+    @Column(name = "entrees", nullable = false)
+    private BigDecimal entrees;
+
+    @Column(name = "sorties", nullable = false)
+    private BigDecimal sorties;
+
+    @Column(name = "nb_mouvements", nullable = false)
+    private Long nbMouvements;
+
+    @Column(name = "cle_archive", nullable = false)
+    private String cleArchive;
+}
@@ -0,0 +1,39 @@
+package com.team48.gestiondestock.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Séquence par table (nom implicite <table>_seq) : ids réservés par blocs de 50 pour les INSERT en batch JDBC,
+ * pas de 1 pour les entités annotées @IdsAttribuesParLaBase. Branché sur les ids par @IdSequenceParTable.
+ */
+public class SequenceParTable extends SequenceStyleGenerator {
+
+    private static final int TAILLE_BLOC = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Properties parametres = new Properties();
+        parametres.putAll(parameters);
+        // Sans nom de générateur, Hibernate dérive le nom de la séquence de la table, comme pour @GeneratedValue seul
+        parametres.remove(IdentifierGenerator.GENERATOR_NAME);
+        parametres.put(OptimizableGenerator.INCREMENT_PARAM,
+                String.valueOf(idsAttribuesParLaBase(parameters) ? 1 : TAILLE_BLOC));
+        super.configure(type, parametres, serviceRegistry);
+    }
+
+    private static boolean idsAttribuesParLaBase(Properties parameters) {
+        String entite = parameters.getProperty(IdentifierGenerator.ENTITY_NAME);
+        try {
+            return entite != null && Class.forName(entite).isAnnotationPresent(IdsAttribuesParLaBase.class);
+        } catch (ClassNotFoundException e) {
+            throw new MappingException("Entité introuvable pour la séquence : " + entite, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.team48.gestiondestock.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * Niveaux min/max d'un article et fournisseur à qui le réapprovisionner.
+ * Le moteur de réapprovisionnement propose une commande quand le stock projeté passe sous le minimum.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "seuil_stock",
+        uniqueConstraints = @UniqueConstraint(name = "uk_seuil_stock_entreprise_article", columnNames = {"entreprise_id", "article_id"}),
+        indexes = @Index(name = "idx_seuil_stock_article", columnList = "article_id"))
+public class SeuilStock extends AbstractEntity {
+
+    @Column(name = "entreprise_id")
+    private Integer entrepriseId;
+
+    @Column(name = "article_id", nullable = false)
+    private Integer articleId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "fournisseur_id")
+    private Fournisseur fournisseur;
+
+    @Column(name = "stock_min", nullable = false)
+    private BigDecimal stockMin;
+
+    @Column(name = "stock_max", nullable = false)
+    private BigDecimal stockMax;
+
+    // Délai de livraison du fournisseur ; à défaut, reapprovisionnement.delai-livraison-jours
+    @Column(name = "delai_livraison_jours")
+    private Integer delaiLivraisonJours;
+}
@@ -0,0 +1,38 @@
+package com.team48.gestiondestock.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * Solde de stock matérialisé par article, maintenu à chaque écriture dans le journal MvtStk
+ * (ENTREE = +quantite, SORTIE = -quantite) pour éviter de sommer tout le journal à la lecture.
+ * Un article n'appartient qu'à une entreprise : la ligne est identifiée par article_id seul,
+ * entreprise_id est recopié pour filtrer les soldes d'une entreprise.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "stock_balance",
+        // Cible du ON CONFLICT de l'initialisation du solde
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_balance_article", columnNames = "article_id"),
+        indexes = {
+                // Articles modifiés depuis le dernier passage du réapprovisionnement
+                @Index(name = "idx_stock_balance_modification", columnList = "lastModificationDate")
+        })
+public class StockBalance extends AbstractEntity {
+
+    @Column(name = "entreprise_id")
+    private Integer entrepriseId;
+
+    @Column(name = "article_id", nullable = false)
+    private Integer articleId;
+
+    @Column(name = "quantite", nullable = false)
+    private BigDecimal quantite;
+}
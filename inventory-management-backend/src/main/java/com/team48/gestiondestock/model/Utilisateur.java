@@ -18,7 +18,13 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "utilisateur")
+@Table(name = "utilisateur",
+        indexes = {
+                @Index(name = "idx_utilisateur_entreprise_id", columnList = "entreprise_id, id"),
+                // Connexion : "email = ? OR username = ?" (voir UtilisateurSecurityRepository)
+                @Index(name = "idx_utilisateur_email", columnList = "email"),
+                @Index(name = "idx_utilisateur_username", columnList = "username")
+        })
 public class Utilisateur extends AbstractEntity implements UserDetails {
 
     @Column(name = "nom")
@@ -16,7 +16,12 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Entity
-@Table(name = "ventes")
+@Table(name = "ventes",
+        indexes = {
+                @Index(name = "idx_ventes_entreprise_id", columnList = "entreprise_id, id"),
+                // Commande déjà convertie en vente (clôture de journée)
+                @Index(name = "idx_ventes_commande_client", columnList = "commande_client_id")
+        })
 public class Ventes extends AbstractEntity {
 
     @Column(name = "code")
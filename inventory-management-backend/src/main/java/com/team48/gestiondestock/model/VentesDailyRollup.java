@@ -0,0 +1,47 @@
+package com.team48.gestiondestock.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Agrégat des ventes par entreprise, jour (UTC) et article, tenu à jour à chaque création,
+ * modification ou suppression de vente. Les statistiques se lisent ici, sans parcourir les lignes de vente.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "ventes_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ventes_rollup_entreprise_jour_article",
+                columnNames = {"entreprise_id", "jour", "article_id"}),
+        indexes = @Index(name = "idx_ventes_rollup_entreprise_categorie_jour", columnList = "entreprise_id, categorie_id, jour"))
+public class VentesDailyRollup extends AbstractEntity {
+
+    @Column(name = "entreprise_id", nullable = false)
+    private Integer entrepriseId;
+
+    @Column(name = "jour", nullable = false)
+    private LocalDate jour;
+
+    @Column(name = "article_id", nullable = false)
+    private Integer articleId;
+
+    @Column(name = "categorie_id")
+    private Integer categorieId;
+
+    @Column(name = "quantite", nullable = false)
+    private BigDecimal quantite;
+
+    // Somme des quantite * prixUnitaire des lignes
+    @Column(name = "chiffre_affaires", nullable = false)
+    private BigDecimal chiffreAffaires;
+
+    @Column(name = "nb_lignes", nullable = false)
+    private Long nbLignes;
+}
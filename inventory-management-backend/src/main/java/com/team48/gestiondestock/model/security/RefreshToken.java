@@ -0,0 +1,49 @@
+package com.team48.gestiondestock.model.security;
+
+import com.team48.gestiondestock.model.AbstractEntity;
+import com.team48.gestiondestock.model.Utilisateur;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * Jeton de renouvellement émis à la connexion. Chaque renouvellement révoque le jeton présenté et en émet
+ * un nouveau dans la même famille ; un jeton déjà utilisé présenté à nouveau révoque toute la famille.
+ * Seule l'empreinte SHA-256 du jeton est stockée.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "refresh_token",
+        uniqueConstraints = @UniqueConstraint(name = "uk_refresh_token_empreinte", columnNames = "empreinte"),
+        indexes = {
+                @Index(name = "idx_refresh_token_famille", columnList = "famille"),
+                @Index(name = "idx_refresh_token_utilisateur", columnList = "utilisateur_id"),
+                // Purge des jetons expirés
+                @Index(name = "idx_refresh_token_expiration", columnList = "expiration")
+        })
+public class RefreshToken extends AbstractEntity {
+
+    @Column(name = "empreinte", nullable = false, length = 44)
+    private String empreinte;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "utilisateur_id", nullable = false)
+    private Utilisateur utilisateur;
+
+    // Jetons issus d'une même connexion, de renouvellement en renouvellement
+    @Column(name = "famille", nullable = false, length = 36)
+    private String famille;
+
+    @Column(name = "expiration", nullable = false)
+    private Instant expiration;
+
+    // Date d'utilisation ou de révocation ; null tant que le jeton est utilisable
+    @Column(name = "date_revocation")
+    private Instant dateRevocation;
+}
@@ -0,0 +1,38 @@
+package com.team48.gestiondestock.model.security;
+
+import com.team48.gestiondestock.model.AbstractEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * Révocation d'un jeton d'accès encore valide : un jeton précis ({@code jti:<identifiant>}), ou tous les jetons
+ * d'un utilisateur émis avant la révocation ({@code sub:<nom d'utilisateur>}). La date de création est la date
+ * de révocation ; la ligne est purgée une fois expirés tous les jetons qu'elle concerne.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "revocation_jeton",
+        indexes = {
+                @Index(name = "idx_revocation_jeton_cle", columnList = "cle"),
+                // Lecture incrémentale des révocations des autres instances
+                @Index(name = "idx_revocation_jeton_creation", columnList = "creationDate"),
+                @Index(name = "idx_revocation_jeton_expiration", columnList = "expiration")
+        })
+public class RevocationJeton extends AbstractEntity {
+
+    public static final String PREFIXE_JETON = "jti:";
+    public static final String PREFIXE_UTILISATEUR = "sub:";
+
+    @Column(name = "cle", nullable = false, length = 200)
+    private String cle;
+
+    @Column(name = "expiration", nullable = false)
+    private Instant expiration;
+}
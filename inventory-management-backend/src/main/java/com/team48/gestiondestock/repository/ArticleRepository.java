@@ -1,11 +1,51 @@
 package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Article;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
-public interface ArticleRepository extends JpaRepository<Article, Integer> {
+public interface ArticleRepository extends JpaRepository<Article, Integer>, JpaSpecificationExecutor<Article> {
     Optional<Article> findArticleByCodeArticle(String codeArticle);
+
+    // Articles des lignes d'une commande, avec leur catégorie pour le DTO de réponse
+    @Query("SELECT a FROM Article a LEFT JOIN FETCH a.categorie WHERE a.id IN :ids")
+    List<Article> findAllByIdWithCategorie(@Param("ids") Collection<Integer> ids);
+
+    // Appelée en fin de génération des miniatures, hors de la transaction de l'article ; sans effet si la photo a changé
+    @Transactional
+    @Modifying
+    @Query("UPDATE Article a SET a.photoVariantes = :variantes WHERE a.id = :id AND a.photo = :photo")
+    int enregistrerPhotoVariantes(@Param("id") Integer id, @Param("photo") String photo, @Param("variantes") String variantes);
+
+    @Query("SELECT a.codeArticle FROM Article a WHERE a.entreprise.id = :entrepriseId AND a.codeArticle IN :codes")
+    Set<String> findCodesExistants(@Param("entrepriseId") Integer entrepriseId, @Param("codes") Collection<String> codes);
+
+    // Colonnes de l'index de recherche : [id, code, désignation, désignation de la catégorie, prix TTC]
+    String COLONNES_RECHERCHE = "SELECT a.id, a.codeArticle, a.designation, c.designation, a.prixUnitaireTtc " +
+            "FROM Article a LEFT JOIN a.categorie c WHERE a.entreprise.id = :entrepriseId ";
+
+    @Query(COLONNES_RECHERCHE)
+    List<Object[]> findPourIndexRecherche(@Param("entrepriseId") Integer entrepriseId);
+
+    /**
+     * Recherche en base, utilisée tant que l'index en mémoire n'est pas chargé.
+     * Code identique d'abord, puis code ou désignation commençant par la saisie.
+     */
+    @Query(COLONNES_RECHERCHE +
+           "AND (LOWER(a.designation) LIKE :motif OR LOWER(a.codeArticle) LIKE :motif OR LOWER(c.designation) LIKE :motif) " +
+           "ORDER BY CASE WHEN LOWER(a.codeArticle) = :exact THEN 0 " +
+           "WHEN LOWER(a.codeArticle) LIKE :prefixe OR LOWER(a.designation) LIKE :prefixe THEN 1 ELSE 2 END, a.designation")
+    List<Object[]> rechercher(@Param("entrepriseId") Integer entrepriseId, @Param("motif") String motif,
+                              @Param("exact") String exact, @Param("prefixe") String prefixe, Pageable pageable);
 }
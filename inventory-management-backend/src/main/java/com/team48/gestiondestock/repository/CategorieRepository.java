@@ -1,10 +1,20 @@
 package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Categorie;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
 
-public interface CategorieRepository extends JpaRepository<Categorie, Integer> {
+public interface CategorieRepository extends JpaRepository<Categorie, Integer>, JpaSpecificationExecutor<Categorie> {
+    // Résultat mis en cache de requêtes, invalidé par Hibernate à toute écriture sur la table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Categorie> findByCode(String code);
+
+    List<Categorie> findByEntrepriseIdAndCodeIn(Integer entrepriseId, Collection<String> codes);
 }
@@ -2,9 +2,10 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Client;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.Optional;
 
-public interface ClientRepository extends JpaRepository<Client, Integer> {
+public interface ClientRepository extends JpaRepository<Client, Integer>, JpaSpecificationExecutor<Client> {
     Optional<Client> findByNom(String nom);
 }
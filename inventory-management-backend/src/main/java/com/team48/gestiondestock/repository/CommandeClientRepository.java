@@ -2,9 +2,66 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.CommandeClient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface CommandeClientRepository extends JpaRepository<CommandeClient, Integer> {
+public interface CommandeClientRepository extends JpaRepository<CommandeClient, Integer>, JpaSpecificationExecutor<CommandeClient> {
     Optional<CommandeClient> findCommandeClientByCode(String code);
+
+    // Commandes + client + lignes + articles en une seule requête (évite le N+1 du mapping en DTO)
+    String SELECT_AVEC_LIGNES = "SELECT DISTINCT c FROM CommandeClient c " +
+            "LEFT JOIN FETCH c.client cl " +
+            "LEFT JOIN FETCH cl.entreprise " +
+            "LEFT JOIN FETCH c.ligneCommandeClients l " +
+            "LEFT JOIN FETCH l.article a " +
+            "LEFT JOIN FETCH a.categorie ";
+
+    @Query(SELECT_AVEC_LIGNES)
+    List<CommandeClient> findAllWithLignes();
+
+    @Query(SELECT_AVEC_LIGNES + "WHERE c.entreprise_id = :entrepriseId")
+    List<CommandeClient> findAllWithLignesByEntrepriseId(@Param("entrepriseId") Integer entrepriseId);
+
+    @Query(SELECT_AVEC_LIGNES + "WHERE c.id = :id")
+    Optional<CommandeClient> findByIdWithLignes(@Param("id") Integer id);
+
+    @Query(SELECT_AVEC_LIGNES + "WHERE c.code = :code")
+    Optional<CommandeClient> findByCodeWithLignes(@Param("code") String code);
+
+    // Commandes validées de la période [debut, fin[ pas encore converties en vente (ids seulement)
+    @Query("SELECT c.id FROM CommandeClient c " +
+           "WHERE c.etat = com.team48.gestiondestock.model.EtatCommande.VALIDEE " +
+           "AND c.dateCommande >= :debut AND c.dateCommande < :fin " +
+           "AND (:entrepriseId IS NULL OR c.entreprise_id = :entrepriseId) " +
+           "AND NOT EXISTS (SELECT v.id FROM Ventes v WHERE v.commandeClient = c) " +
+           "ORDER BY c.id")
+    List<Integer> findIdsValideesSansVente(@Param("debut") Instant debut, @Param("fin") Instant fin,
+                                           @Param("entrepriseId") Integer entrepriseId);
+
+    /**
+     * Réserve des commandes pour une vente, manuelle ou de clôture, en les faisant passer de VALIDEE à VENDUE.
+     * L'UPDATE conditionnel pose le verrou de ligne : une vente concurrente attend la fin de la transaction puis
+     * ne trouve plus ces commandes à l'état VALIDEE, elle ne peut donc pas les convertir une seconde fois.
+     *
+     * @return le nombre de commandes réservées
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CommandeClient c SET c.etat = com.team48.gestiondestock.model.EtatCommande.VENDUE, " +
+           "c.lastModifiedDate = :date " +
+           "WHERE c.id IN :commandeIds AND c.etat = com.team48.gestiondestock.model.EtatCommande.VALIDEE")
+    int reserverPourVente(@Param("commandeIds") Collection<Integer> commandeIds, @Param("date") Instant date);
+
+    // Commandes réservées par la transaction courante : VENDUE, sans vente encore
+    @Query("SELECT c.id FROM CommandeClient c " +
+           "WHERE c.id IN :commandeIds AND c.etat = com.team48.gestiondestock.model.EtatCommande.VENDUE " +
+           "AND NOT EXISTS (SELECT v.id FROM Ventes v WHERE v.commandeClient = c) " +
+           "ORDER BY c.id")
+    List<Integer> findIdsVenduesSansVente(@Param("commandeIds") Collection<Integer> commandeIds);
 }
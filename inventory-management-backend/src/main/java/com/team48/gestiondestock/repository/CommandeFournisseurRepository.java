@@ -2,9 +2,40 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.CommandeFournisseur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface CommandeFournisseurRepository extends JpaRepository<CommandeFournisseur, Integer> {
+public interface CommandeFournisseurRepository extends JpaRepository<CommandeFournisseur, Integer>, JpaSpecificationExecutor<CommandeFournisseur> {
     Optional<CommandeFournisseur> findCommandeFournisseurByCode(String code);
+
+    // Le DTO n'expose que le fournisseur (et son entreprise) : on les charge avec la commande
+    String SELECT_AVEC_FOURNISSEUR = "SELECT c FROM CommandeFournisseur c " +
+            "LEFT JOIN FETCH c.fournisseur f " +
+            "LEFT JOIN FETCH f.entreprise ";
+
+    @Query(SELECT_AVEC_FOURNISSEUR)
+    List<CommandeFournisseur> findAllWithFournisseur();
+
+    @Query(SELECT_AVEC_FOURNISSEUR + "WHERE c.entreprise_id = :entrepriseId")
+    List<CommandeFournisseur> findAllWithFournisseurByEntrepriseId(@Param("entrepriseId") Integer entrepriseId);
+
+    @Query(SELECT_AVEC_FOURNISSEUR + "WHERE c.id = :id")
+    Optional<CommandeFournisseur> findByIdWithFournisseur(@Param("id") Integer id);
+
+    @Query(SELECT_AVEC_FOURNISSEUR + "WHERE c.code = :code")
+    Optional<CommandeFournisseur> findByCodeWithFournisseur(@Param("code") String code);
+
+    // Commande + fournisseur + lignes + articles, pour la modification groupée des lignes
+    @Query("SELECT DISTINCT c FROM CommandeFournisseur c " +
+            "LEFT JOIN FETCH c.fournisseur f " +
+            "LEFT JOIN FETCH f.entreprise " +
+            "LEFT JOIN FETCH c.ligneCommandeFournisseurs l " +
+            "LEFT JOIN FETCH l.article a " +
+            "LEFT JOIN FETCH a.categorie " +
+            "WHERE c.id = :id")
+    Optional<CommandeFournisseur> findByIdWithLignes(@Param("id") Integer id);
 }
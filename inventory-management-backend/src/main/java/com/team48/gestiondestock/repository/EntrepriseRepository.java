@@ -1,10 +1,16 @@
 package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Entreprise;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
 
-public interface EntrepriseRepository extends JpaRepository<Entreprise, Integer> {
+public interface EntrepriseRepository extends JpaRepository<Entreprise, Integer>, JpaSpecificationExecutor<Entreprise> {
+    // Résultat mis en cache de requêtes, invalidé par Hibernate à toute écriture sur la table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Entreprise> findByNomEntreprise(String nomEntreprise);
 }
@@ -0,0 +1,15 @@
+package com.team48.gestiondestock.repository;
+
+import com.team48.gestiondestock.model.ExecutionReapprovisionnement;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Optional;
+
+public interface ExecutionReapprovisionnementRepository extends JpaRepository<ExecutionReapprovisionnement, Integer> {
+
+    // Verrou de ligne tenu pendant tout le passage : deux instances ne proposent pas deux fois la même commande
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ExecutionReapprovisionnement> findFirstByOrderByIdAsc();
+}
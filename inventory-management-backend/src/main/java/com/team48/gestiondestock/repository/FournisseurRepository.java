@@ -2,9 +2,10 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Fournisseur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.Optional;
 
-public interface FournisseurRepository extends JpaRepository<Fournisseur, Integer> {
+public interface FournisseurRepository extends JpaRepository<Fournisseur, Integer>, JpaSpecificationExecutor<Fournisseur> {
     Optional<Fournisseur> findByNom(String nom);
 }
@@ -2,6 +2,17 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.LigneCommandeFournisseur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Set;
 
 public interface LigneCommandeFournisseurRepository extends JpaRepository<LigneCommandeFournisseur, Integer> {
+
+    // Articles déjà présents dans une commande fournisseur en brouillon
+    @Query("SELECT DISTINCT l.article.id FROM LigneCommandeFournisseur l " +
+           "WHERE l.commandeFournisseur.etat = com.team48.gestiondestock.model.EtatCommande.BROUILLON " +
+           "AND l.article.id IN :articleIds")
+    Set<Integer> findArticleIdsEnBrouillon(@Param("articleIds") Collection<Integer> articleIds);
 }
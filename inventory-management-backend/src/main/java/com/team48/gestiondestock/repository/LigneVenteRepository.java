@@ -2,7 +2,50 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.LigneVente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface LigneVenteRepository extends JpaRepository<LigneVente, Integer> {
     void deleteAllByVenteId(Integer id);
+
+    /**
+     * Copie les lignes de la commande de chaque vente en lignes de vente, par un seul INSERT ... SELECT :
+     * aucune ligne n'est chargée en mémoire. Le contexte de persistance est vidé ensuite,
+     * les ventes concernées doivent être relues pour voir leurs lignes.
+     *
+     * @return le nombre de lignes de vente créées
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO LigneVente (vente, article, quantite, prixUnitaire, entreprise_id, creationDate) " +
+           "SELECT v, l.article, l.quantite, l.prixUnitaire, v.entreprise_id, :date " +
+           "FROM Ventes v JOIN LigneCommandeClient l ON l.commandeClient = v.commandeClient " +
+           "WHERE v.id IN :venteIds")
+    int copierLignesCommandes(@Param("venteIds") Collection<Integer> venteIds, @Param("date") Instant date);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM LigneVente l WHERE l.vente.id = :venteId")
+    int supprimerParVente(@Param("venteId") Integer venteId);
+
+    // Quantités vendues par article : [articleId, entrepriseId de l'article, quantité]
+    @Query("SELECT a.id, a.entreprise.id, SUM(l.quantite) FROM LigneVente l JOIN l.article a " +
+           "WHERE l.vente.id IN :venteIds AND l.quantite IS NOT NULL " +
+           "GROUP BY a.id, a.entreprise.id")
+    List<Object[]> quantitesParArticle(@Param("venteIds") Collection<Integer> venteIds);
+
+    // Contributions à l'agrégat journalier ; une ligne sans prix compte pour 0 dans le chiffre d'affaires.
+    // L'agrégat est par entreprise : une ligne dont ni la vente ni l'article n'ont d'entreprise (données antérieures
+    // à l'entreprise obligatoire sur l'article) n'y figure pas, plutôt que de faire échouer la vente.
+    // [entrepriseId, articleId, categorieId, quantité, chiffre d'affaires, nombre de lignes]
+    @Query("SELECT COALESCE(v.entreprise_id, a.entreprise.id), a.id, a.categorie.id, " +
+           "SUM(l.quantite), SUM(l.quantite * l.prixUnitaire), COUNT(l) " +
+           "FROM LigneVente l JOIN l.vente v JOIN l.article a " +
+           "WHERE v.id IN :venteIds AND l.quantite IS NOT NULL " +
+           "AND COALESCE(v.entreprise_id, a.entreprise.id) IS NOT NULL " +
+           "GROUP BY COALESCE(v.entreprise_id, a.entreprise.id), a.id, a.categorie.id")
+    List<Object[]> cumulsParArticle(@Param("venteIds") Collection<Integer> venteIds);
 }
@@ -1,18 +1,129 @@
 package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface MvtStkRepository extends JpaRepository<MvtStk, Integer> {
+public interface MvtStkRepository extends JpaRepository<MvtStk, Integer>, JpaSpecificationExecutor<MvtStk> {
 
     @Query("SELECT m FROM MvtStk m LEFT JOIN FETCH m.article WHERE m.id = :id")
     Optional<MvtStk> findByIdWithArticle(@Param("id") Integer id);
 
     @Query("SELECT m FROM MvtStk m LEFT JOIN FETCH m.article")
     List<MvtStk> findAllWithArticle();
+
+    @Query("SELECT m FROM MvtStk m LEFT JOIN FETCH m.article WHERE m.entreprise_id = :entrepriseId")
+    List<MvtStk> findAllWithArticleByEntrepriseId(@Param("entrepriseId") Integer entrepriseId);
+
+    /**
+     * Recalcule le stock d'un article à partir du journal (ENTREE - SORTIE), mois archivés compris (résumés).
+     * Utilisé uniquement pour initialiser le solde matérialisé d'un article.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN m.typeMvt = com.team48.gestiondestock.model.TypeMvtStk.SORTIE " +
+           "THEN -m.quantite ELSE m.quantite END), 0) + " +
+           "(SELECT COALESCE(SUM(r.entrees - r.sorties), 0) FROM MvtStkResumeMensuel r WHERE r.articleId = :articleId) " +
+           "FROM MvtStk m WHERE m.article.id = :articleId")
+    BigDecimal sumQuantiteByArticleId(@Param("articleId") Integer articleId);
+
+    boolean existsByMvtCorrigeId(Integer mvtCorrigeId);
+
+    /**
+     * Mouvement à corriger ou annuler, verrouillé (SELECT ... FOR UPDATE) jusqu'à la fin de la transaction :
+     * deux corrections concurrentes du même mouvement passent l'une après l'autre et la seconde voit
+     * la compensation de la première. Tient lieu de contrainte d'unicité sur mvt_corrige_id,
+     * impossible sur la table partitionnée.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MvtStk m WHERE m.id = :id")
+    Optional<MvtStk> findByIdPourCorrection(@Param("id") Integer id);
+
+    /**
+     * Total des sorties de chaque article depuis une date : base de la vitesse de consommation
+     * du réapprovisionnement. Retourne des paires [articleId, quantité].
+     */
+    @Query("SELECT m.article.id, SUM(m.quantite) FROM MvtStk m " +
+           "WHERE m.typeMvt = com.team48.gestiondestock.model.TypeMvtStk.SORTIE " +
+           "AND m.article.id IN :articleIds AND m.dateMvt >= :depuis GROUP BY m.article.id")
+    List<Object[]> sumSortiesByArticleIds(@Param("articleIds") Collection<Integer> articleIds,
+                                          @Param("depuis") Instant depuis);
+
+    /**
+     * Parcours du journal en lecture seule, trié par id, pour l'export en flux.
+     * Le fetch size fait utiliser un curseur côté PostgreSQL (dans une transaction) :
+     * les lignes arrivent par paquets au lieu d'être toutes chargées en mémoire.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT m FROM MvtStk m LEFT JOIN FETCH m.article " +
+           "WHERE (:entrepriseId IS NULL OR m.entreprise_id = :entrepriseId) " +
+           "AND m.id > :apresId AND m.dateMvt >= :dateDebut AND m.dateMvt < :dateFin " +
+           "ORDER BY m.id")
+    Stream<MvtStk> streamForExport(@Param("entrepriseId") Integer entrepriseId,
+                                   @Param("apresId") Integer apresId,
+                                   @Param("dateDebut") Instant dateDebut,
+                                   @Param("dateFin") Instant dateFin);
+
+    @Query("SELECT MIN(m.dateMvt) FROM MvtStk m")
+    Optional<Instant> findPremiereDateMvt();
+
+    // Entreprises ayant des mouvements sur la période ; 0 pour les mouvements sans entreprise
+    @Query("SELECT DISTINCT COALESCE(m.entreprise_id, 0) FROM MvtStk m WHERE m.dateMvt >= :debut AND m.dateMvt < :fin")
+    List<Integer> findEntrepriseIdsEntre(@Param("debut") Instant debut, @Param("fin") Instant fin);
+
+    /**
+     * Mouvements d'une entreprise (0 : sans entreprise) sur la période, triés par id, pour l'archivage.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT m FROM MvtStk m LEFT JOIN FETCH m.article " +
+           "WHERE COALESCE(m.entreprise_id, 0) = :entrepriseId AND m.dateMvt >= :debut AND m.dateMvt < :fin " +
+           "ORDER BY m.id")
+    Stream<MvtStk> streamEntre(@Param("entrepriseId") Integer entrepriseId,
+                               @Param("debut") Instant debut,
+                               @Param("fin") Instant fin);
+
+    /**
+     * Totaux de la période par entreprise et article : [entrepriseId, articleId, entrées, sorties, nombre de mouvements].
+     */
+    @Query("SELECT m.entreprise_id, m.article.id, " +
+           "SUM(CASE WHEN m.typeMvt = com.team48.gestiondestock.model.TypeMvtStk.ENTREE THEN m.quantite ELSE 0 END), " +
+           "SUM(CASE WHEN m.typeMvt = com.team48.gestiondestock.model.TypeMvtStk.SORTIE THEN m.quantite ELSE 0 END), " +
+           "COUNT(m) FROM MvtStk m WHERE m.dateMvt >= :debut AND m.dateMvt < :fin " +
+           "GROUP BY m.entreprise_id, m.article.id")
+    List<Object[]> resumerEntre(@Param("debut") Instant debut, @Param("fin") Instant fin);
+
+    // Un mouvement par ligne des ventes, par un seul INSERT ... SELECT (ventes converties depuis leur commande)
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO MvtStk (dateMvt, quantite, typeMvt, article, entreprise_id, creationDate) " +
+           "SELECT :date, l.quantite, :typeMvt, l.article, l.vente.entreprise_id, :date FROM LigneVente l " +
+           "WHERE l.vente.id IN :venteIds AND l.article IS NOT NULL AND l.quantite IS NOT NULL")
+    int insererPourLignesVentes(@Param("venteIds") Collection<Integer> venteIds,
+                                @Param("typeMvt") TypeMvtStk typeMvt, @Param("date") Instant date);
+
+    // Seule suppression du journal : les mois archivés, sur une base sans partitionnement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM MvtStk m WHERE m.dateMvt >= :debut AND m.dateMvt < :fin")
+    int supprimerEntre(@Param("debut") Instant debut, @Param("fin") Instant fin);
 }
@@ -0,0 +1,28 @@
+package com.team48.gestiondestock.repository;
+
+import com.team48.gestiondestock.model.MvtStkResumeMensuel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface MvtStkResumeMensuelRepository extends JpaRepository<MvtStkResumeMensuel, Integer> {
+
+    // Les mois sont archivés du plus ancien au plus récent : tout mois jusqu'à celui-ci est fermé
+    @Query("SELECT MAX(r.mois) FROM MvtStkResumeMensuel r")
+    Optional<LocalDate> findDernierMoisArchive();
+
+    @Query("SELECT r FROM MvtStkResumeMensuel r " +
+           "WHERE (:entrepriseId IS NULL OR r.entrepriseId = :entrepriseId) " +
+           "AND (:articleId IS NULL OR r.articleId = :articleId) " +
+           "ORDER BY r.mois, r.articleId")
+    List<MvtStkResumeMensuel> rechercher(@Param("entrepriseId") Integer entrepriseId,
+                                         @Param("articleId") Integer articleId);
+
+    @Query("SELECT DISTINCT r.cleArchive FROM MvtStkResumeMensuel r " +
+           "WHERE r.mois = :mois AND (:entrepriseId IS NULL OR r.entrepriseId = :entrepriseId)")
+    List<String> findClesArchive(@Param("entrepriseId") Integer entrepriseId, @Param("mois") LocalDate mois);
+}
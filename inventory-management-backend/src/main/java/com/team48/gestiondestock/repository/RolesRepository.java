@@ -2,10 +2,16 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Roles;
 import com.team48.gestiondestock.model.security.Role;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
 
-public interface RolesRepository extends JpaRepository<Roles, Integer> {
+public interface RolesRepository extends JpaRepository<Roles, Integer>, JpaSpecificationExecutor<Roles> {
+    // Résultat mis en cache de requêtes, invalidé par Hibernate à toute écriture sur la table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Roles> findByRoleName(Role roleName);
 }
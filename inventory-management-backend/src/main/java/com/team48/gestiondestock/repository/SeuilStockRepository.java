@@ -0,0 +1,24 @@
+package com.team48.gestiondestock.repository;
+
+import com.team48.gestiondestock.model.SeuilStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface SeuilStockRepository extends JpaRepository<SeuilStock, Integer> {
+
+    Optional<SeuilStock> findByArticleId(Integer articleId);
+
+    /**
+     * Seuils à réévaluer : créés ou modifiés depuis l'instant donné, ou dont le solde de l'article a bougé.
+     * Les articles sans mouvement ne sont pas relus, d'où un passage court même sur un gros catalogue.
+     */
+    @Query("SELECT s FROM SeuilStock s LEFT JOIN FETCH s.fournisseur " +
+           "WHERE s.creationDate > :depuis OR s.lastModifiedDate > :depuis " +
+           "OR EXISTS (SELECT 1 FROM StockBalance b WHERE b.articleId = s.articleId AND b.lastModifiedDate > :depuis)")
+    List<SeuilStock> findAReevaluer(@Param("depuis") Instant depuis);
+}
@@ -0,0 +1,68 @@
+package com.team48.gestiondestock.repository;
+
+import com.team48.gestiondestock.model.StockBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface StockBalanceRepository extends JpaRepository<StockBalance, Integer> {
+
+    Optional<StockBalance> findByArticleId(Integer articleId);
+
+    List<StockBalance> findByArticleIdIn(Collection<Integer> articleIds);
+
+    /**
+     * Incrémente (ou décrémente si delta négatif) le solde d'un article directement en base,
+     * sans relire la ligne.
+     *
+     * @return le nombre de lignes mises à jour (0 si le solde n'existe pas encore)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockBalance s SET s.quantite = s.quantite + :delta, s.lastModifiedDate = CURRENT_INSTANT " +
+           "WHERE s.articleId = :articleId")
+    int incrementer(@Param("articleId") Integer articleId, @Param("delta") BigDecimal delta);
+
+    /**
+     * Retire une quantité du solde uniquement si le stock reste positif ou nul.
+     * La condition est évaluée sous le verrou de ligne posé par l'UPDATE : deux retraits concurrents
+     * ne peuvent pas consommer la même unité.
+     *
+     * @return 1 si le retrait est fait, 0 si le stock est insuffisant ou si le solde n'existe pas encore
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockBalance s SET s.quantite = s.quantite - :quantite, s.lastModifiedDate = CURRENT_INSTANT " +
+           "WHERE s.articleId = :articleId AND s.quantite >= :quantite")
+    int decrementerSiDisponible(@Param("articleId") Integer articleId, @Param("quantite") BigDecimal quantite);
+
+    boolean existsByArticleId(Integer articleId);
+
+    @Query("SELECT s.articleId FROM StockBalance s WHERE s.articleId IN :articleIds")
+    Set<Integer> findArticleIdsExistants(@Param("articleIds") Collection<Integer> articleIds);
+
+    // Quantités lues en base (article, quantité), pas dans les entités du contexte de persistance
+    // que les UPDATE groupés ne rafraîchissent pas
+    @Query("SELECT s.articleId, s.quantite FROM StockBalance s WHERE s.articleId IN :articleIds")
+    List<Object[]> findQuantites(@Param("articleIds") Collection<Integer> articleIds);
+
+    /**
+     * Crée le solde d'un article avec sa valeur initiale ou, si une autre transaction l'a créé entre-temps,
+     * lui applique le delta : l'initialisation concurrente d'un même article ne lève pas de violation d'unicité.
+     * Le delta n'est appliqué au solde existant que si le stock reste positif ou nul.
+     *
+     * @return 1 si le solde est créé ou mis à jour, 0 si le delta rendrait le stock négatif
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO StockBalance s (entrepriseId, articleId, quantite, creationDate, lastModifiedDate) " +
+           "VALUES (:entrepriseId, :articleId, :initial, CURRENT_INSTANT, CURRENT_INSTANT) " +
+           "ON CONFLICT (articleId) DO UPDATE SET quantite = s.quantite + :delta, lastModifiedDate = CURRENT_INSTANT " +
+           "WHERE s.quantite + :delta >= 0")
+    int initialiserOuAppliquer(@Param("entrepriseId") Integer entrepriseId, @Param("articleId") Integer articleId,
+                               @Param("initial") BigDecimal initial, @Param("delta") BigDecimal delta);
+}
@@ -2,9 +2,10 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Utilisateur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.Optional;
 
-public interface UtilisateurRepository extends JpaRepository<Utilisateur, Integer> {
+public interface UtilisateurRepository extends JpaRepository<Utilisateur, Integer>, JpaSpecificationExecutor<Utilisateur> {
     Optional<Utilisateur> findByEmail(String email);
 }
@@ -0,0 +1,49 @@
+package com.team48.gestiondestock.repository;
+
+import com.team48.gestiondestock.model.VentesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface VentesDailyRollupRepository extends JpaRepository<VentesDailyRollup, Integer> {
+
+    // Filtres communs des statistiques : période [debut, fin[ obligatoire, entreprise/article/catégorie facultatifs
+    String FILTRE_STATS = "WHERE r.jour >= :debut AND r.jour < :fin " +
+            "AND (:entrepriseId IS NULL OR r.entrepriseId = :entrepriseId) " +
+            "AND (:articleId IS NULL OR r.articleId = :articleId) " +
+            "AND (:categorieId IS NULL OR r.categorieId = :categorieId) ";
+
+    String SOMMES = "SUM(r.quantite), SUM(r.chiffreAffaires), SUM(r.nbLignes) ";
+
+    // Chaque méthode retourne des lignes [clé..., quantité, chiffre d'affaires, nombre de lignes]
+
+    @Query("SELECT r.jour, " + SOMMES + "FROM VentesDailyRollup r " + FILTRE_STATS +
+           "GROUP BY r.jour ORDER BY r.jour")
+    List<Object[]> statsParJour(@Param("entrepriseId") Integer entrepriseId, @Param("articleId") Integer articleId,
+                                @Param("categorieId") Integer categorieId,
+                                @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    @Query("SELECT EXTRACT(YEAR FROM r.jour), EXTRACT(MONTH FROM r.jour), " + SOMMES + "FROM VentesDailyRollup r " + FILTRE_STATS +
+           "GROUP BY EXTRACT(YEAR FROM r.jour), EXTRACT(MONTH FROM r.jour) " +
+           "ORDER BY EXTRACT(YEAR FROM r.jour), EXTRACT(MONTH FROM r.jour)")
+    List<Object[]> statsParMois(@Param("entrepriseId") Integer entrepriseId, @Param("articleId") Integer articleId,
+                                @Param("categorieId") Integer categorieId,
+                                @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    @Query("SELECT r.articleId, " + SOMMES + "FROM VentesDailyRollup r " + FILTRE_STATS +
+           "GROUP BY r.articleId ORDER BY SUM(r.chiffreAffaires) DESC")
+    List<Object[]> statsParArticle(@Param("entrepriseId") Integer entrepriseId, @Param("articleId") Integer articleId,
+                                   @Param("categorieId") Integer categorieId,
+                                   @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    @Query("SELECT r.categorieId, " + SOMMES + "FROM VentesDailyRollup r " + FILTRE_STATS +
+           "GROUP BY r.categorieId ORDER BY SUM(r.chiffreAffaires) DESC")
+    List<Object[]> statsParCategorie(@Param("entrepriseId") Integer entrepriseId, @Param("articleId") Integer articleId,
+                                     @Param("categorieId") Integer categorieId,
+                                     @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+}
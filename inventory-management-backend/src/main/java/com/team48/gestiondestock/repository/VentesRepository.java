@@ -2,9 +2,49 @@ package com.team48.gestiondestock.repository;
 
 import com.team48.gestiondestock.model.Ventes;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface VentesRepository extends JpaRepository<Ventes, Integer> {
+public interface VentesRepository extends JpaRepository<Ventes, Integer>, JpaSpecificationExecutor<Ventes> {
     Optional<Ventes> findVentesByCode(String code);
+
+    // Ventes + lignes + articles (catégorie, entreprise) en une seule requête (évite le N+1 du mapping en DTO)
+    String SELECT_AVEC_LIGNES = "SELECT DISTINCT v FROM Ventes v " +
+            "LEFT JOIN FETCH v.commandeClient cc " +
+            "LEFT JOIN FETCH cc.client cl " +
+            "LEFT JOIN FETCH cl.entreprise " +
+            "LEFT JOIN FETCH v.ligneVentes l " +
+            "LEFT JOIN FETCH l.article a " +
+            "LEFT JOIN FETCH a.categorie " +
+            "LEFT JOIN FETCH a.entreprise ";
+
+    @Query(SELECT_AVEC_LIGNES)
+    List<Ventes> findAllWithLignes();
+
+    @Query(SELECT_AVEC_LIGNES + "WHERE v.entreprise_id = :entrepriseId")
+    List<Ventes> findAllWithLignesByEntrepriseId(@Param("entrepriseId") Integer entrepriseId);
+
+    @Query(SELECT_AVEC_LIGNES + "WHERE v.id = :id")
+    Optional<Ventes> findByIdWithLignes(@Param("id") Integer id);
+
+    @Query(SELECT_AVEC_LIGNES + "WHERE v.code = :code")
+    Optional<Ventes> findByCodeWithLignes(@Param("code") String code);
+
+    // Une vente par commande, datée de la commande, par un seul INSERT ... SELECT (clôture de journée)
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO Ventes (code, dateVente, commentaire, entreprise_id, commandeClient, creationDate) " +
+           "SELECT CONCAT('V-', c.code), c.dateCommande, :commentaire, c.entreprise_id, c, :date " +
+           "FROM CommandeClient c WHERE c.id IN :commandeIds")
+    int creerDepuisCommandes(@Param("commandeIds") Collection<Integer> commandeIds,
+                             @Param("commentaire") String commentaire, @Param("date") Instant date);
+
+    @Query("SELECT v.id FROM Ventes v WHERE v.commandeClient.id IN :commandeIds ORDER BY v.id")
+    List<Integer> findIdsByCommandeClientIds(@Param("commandeIds") Collection<Integer> commandeIds);
 }
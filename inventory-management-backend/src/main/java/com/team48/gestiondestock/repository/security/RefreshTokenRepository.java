@@ -0,0 +1,51 @@
+package com.team48.gestiondestock.repository.security;
+
+import com.team48.gestiondestock.model.security.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+
+    /**
+     * Trouve un jeton par son empreinte, avec son utilisateur, ses rôles et son entreprise (une requête).
+     *
+     * @param empreinte L'empreinte SHA-256 du jeton présenté.
+     * @return Le jeton, s'il existe.
+     */
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.utilisateur u LEFT JOIN FETCH u.roles LEFT JOIN FETCH u.entreprise "
+            + "WHERE t.empreinte = :empreinte")
+    Optional<RefreshToken> findByEmpreinteWithUtilisateur(@Param("empreinte") String empreinte);
+
+    /**
+     * Révoque un jeton s'il ne l'est pas déjà. La condition est évaluée sous le verrou de ligne :
+     * deux renouvellements concurrents avec le même jeton ne peuvent pas réussir tous les deux.
+     *
+     * @return 1 si le jeton vient d'être révoqué, 0 s'il l'était déjà
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.dateRevocation = :date WHERE t.id = :id AND t.dateRevocation IS NULL")
+    int revoquer(@Param("id") Integer id, @Param("date") Instant date);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.dateRevocation = :date WHERE t.famille = :famille AND t.dateRevocation IS NULL")
+    int revoquerFamille(@Param("famille") String famille, @Param("date") Instant date);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.dateRevocation = :date WHERE t.utilisateur.id = :utilisateurId AND t.dateRevocation IS NULL")
+    int revoquerUtilisateur(@Param("utilisateurId") Integer utilisateurId, @Param("date") Instant date);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RefreshToken t WHERE t.utilisateur.id = :utilisateurId")
+    int supprimerUtilisateur(@Param("utilisateurId") Integer utilisateurId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RefreshToken t WHERE t.expiration < :date")
+    int supprimerExpires(@Param("date") Instant date);
+}
@@ -0,0 +1,40 @@
+package com.team48.gestiondestock.repository.security;
+
+import com.team48.gestiondestock.model.security.RevocationJeton;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevocationJetonRepository extends JpaRepository<RevocationJeton, Integer> {
+
+    /**
+     * Vérifie si un jeton est révoqué, lui-même ou par une révocation de son utilisateur postérieure à son émission.
+     * Appelée seulement quand le filtre de Bloom signale une révocation possible. L'émission est à la milliseconde
+     * (claim {@code iatMs}) : un jeton émis juste après la révocation de son utilisateur, à la reconnexion, est accepté.
+     *
+     * @param cleJeton   La clé de l'identifiant du jeton ({@code jti:...}), null si le jeton n'en a pas.
+     * @param cleSujet   La clé de l'utilisateur du jeton ({@code sub:...}).
+     * @param emission   La date d'émission du jeton.
+     * @return true si le jeton est révoqué.
+     */
+    @Query("SELECT COUNT(r) > 0 FROM RevocationJeton r "
+            + "WHERE r.cle = :cleJeton OR (r.cle = :cleSujet AND r.creationDate >= :emission)")
+    boolean estRevoque(@Param("cleJeton") String cleJeton, @Param("cleSujet") String cleSujet,
+                       @Param("emission") Instant emission);
+
+    @Query("SELECT r.cle FROM RevocationJeton r WHERE r.expiration > :date")
+    List<String> findClesValides(@Param("date") Instant date);
+
+    @Query("SELECT r.cle FROM RevocationJeton r WHERE r.creationDate > :date")
+    List<String> findClesDepuis(@Param("date") Instant date);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RevocationJeton r WHERE r.expiration <= :date")
+    int supprimerExpirees(@Param("date") Instant date);
+}
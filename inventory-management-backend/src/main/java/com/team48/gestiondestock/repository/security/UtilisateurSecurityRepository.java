@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -45,6 +46,17 @@ public interface UtilisateurSecurityRepository extends JpaRepository<Utilisateur
     @Query("SELECT u FROM Utilisateur u LEFT JOIN FETCH u.roles WHERE u.email = :email")
     Optional<Utilisateur> findByEmailWithRoles(@Param("email") String email);
 
+    /**
+     * Trouve en une requête les utilisateurs dont l'email ou le nom d'utilisateur correspond, avec rôles et entreprise.
+     * Au plus deux résultats (l'email de l'un égal au nom d'utilisateur d'un autre) : l'appelant privilégie l'email.
+     *
+     * @param identifiant L'email ou le nom d'utilisateur saisi à la connexion.
+     * @return Les utilisateurs correspondants, avec leurs rôles.
+     */
+    @Query("SELECT DISTINCT u FROM Utilisateur u LEFT JOIN FETCH u.roles LEFT JOIN FETCH u.entreprise "
+            + "WHERE u.email = :identifiant OR u.username = :identifiant")
+    List<Utilisateur> findByEmailOrUsernameWithRoles(@Param("identifiant") String identifiant);
+
     /**
      * Vérifie si un utilisateur existe par son nom d'utilisateur.
      *
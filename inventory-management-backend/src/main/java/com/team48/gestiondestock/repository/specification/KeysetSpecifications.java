@@ -0,0 +1,95 @@
+package com.team48.gestiondestock.repository.specification;
+
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.service.security.TenantContext;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Briques de Specification pour la pagination par curseur (seek sur l'id) et les filtres serveur.
+ * L'id étant croissant, "id > curseur ORDER BY id LIMIT n" reste en temps constant quelle que soit la page,
+ * contrairement à un OFFSET.
+ * <p>
+ * Chaque entité paginée par entreprise déclare l'index {@code idx_<table>_entreprise_id} sur (entreprise_id, id) :
+ * il sert directement "entreprise_id = ? AND id > ? ORDER BY id", sans tri.
+ */
+public final class KeysetSpecifications {
+
+    public static final Sort ORDRE = Sort.by(Sort.Direction.ASC, "id");
+
+    private KeysetSpecifications() {
+    }
+
+    public static <T> Specification<T> idApres(Integer curseur) {
+        if (curseur == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), curseur);
+    }
+
+    public static <T> Specification<T> egal(String chemin, Object valeur) {
+        if (valeur == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(chemin(root, chemin), valeur);
+    }
+
+    public static <T> Specification<T> entre(String attribut, Instant debut, Instant fin) {
+        if (debut == null && fin == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<Instant> date = root.get(attribut);
+            if (debut == null) {
+                return cb.lessThan(date, fin);
+            }
+            if (fin == null) {
+                return cb.greaterThanOrEqualTo(date, debut);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(date, debut), cb.lessThan(date, fin));
+        };
+    }
+
+    /**
+     * Restreint à l'entreprise de l'utilisateur connecté (aucune restriction pour un administrateur système).
+     */
+    public static <T> Specification<T> entrepriseCourante(String cheminEntreprise) {
+        return Specification.where(egal(cheminEntreprise, TenantContext.entrepriseCourante()));
+    }
+
+    /**
+     * Filtre commun : curseur, entreprise et période. L'entreprise est celle du jeton de l'utilisateur connecté
+     * lorsqu'il y est rattaché (voir {@link TenantContext}) ; le filtre ne permet pas d'en lire une autre.
+     *
+     * @param cheminEntreprise chemin de l'attribut entreprise de l'entité (ex. "entreprise_id" ou "entreprise.id")
+     * @param attributDate     attribut date utilisé pour la période (ex. "creationDate", "dateMvt")
+     */
+    public static <T> Specification<T> filtre(FiltreRechercheDto filtre, String cheminEntreprise, String attributDate) {
+        return Specification.allOf(
+                idApres(filtre.getCursor()),
+                egal(cheminEntreprise, TenantContext.entrepriseId(filtre.getEntrepriseId())),
+                entre(attributDate, filtre.getDateDebut(), filtre.getDateFin())
+        );
+    }
+
+    /**
+     * Lit au plus taille + 1 lignes triées par id, sans requête de comptage.
+     */
+    public static <T> List<T> lirePage(JpaSpecificationExecutor<T> repository, Specification<T> spec, FiltreRechercheDto filtre) {
+        return repository.findBy(spec, q -> q.sortBy(ORDRE).limit(filtre.taillePage() + 1).all());
+    }
+
+    private static Path<?> chemin(Root<?> root, String chemin) {
+        Path<?> path = root;
+        for (String attribut : chemin.split("\\.")) {
+            path = path.get(attribut);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,16 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.ArticleImportResponseDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ArticleImportService {
+
+    /**
+     * Importe un catalogue CSV (séparateur ';' ou ',', en-tête obligatoire :
+     * codeArticle, designation, prixUnitaire, tauxTva, prixUnitaireTtc, codeCategorie).
+     * Les lignes invalides sont rapportées une à une sans interrompre l'import.
+     */
+    ArticleImportResponseDto importer(InputStream csv, Integer entrepriseId) throws IOException;
+}
@@ -0,0 +1,29 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.ArticleRechercheDto;
+import com.team48.gestiondestock.model.Article;
+
+import java.util.List;
+
+public interface ArticleRechercheService {
+
+    /**
+     * Recherche par préfixe / n-grammes sur le code, la désignation et la catégorie des articles d'une entreprise.
+     * Servie par l'index en mémoire ; tant que celui-ci est en cours de chargement, par une requête en base.
+     */
+    List<ArticleRechercheDto> rechercher(Integer entrepriseId, String requete, Integer limite);
+
+    /**
+     * Ajoute ou remplace l'article dans l'index, après commit de la transaction en cours s'il y en a une.
+     */
+    void indexer(Article article);
+
+    void retirer(Integer articleId);
+
+    /**
+     * Oublie l'index d'une entreprise (import en masse, catégorie renommée) : il est rechargé à la recherche suivante.
+     */
+    void invalider(Integer entrepriseId);
+
+    boolean indexPret(Integer entrepriseId);
+}
@@ -2,6 +2,8 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.ArticleRequestDto;
 import com.team48.gestiondestock.dto.ArticleResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -19,4 +21,5 @@ public interface ArticleService {
 
     ArticleResponseDto update(Integer id, ArticleRequestDto articleDto);
 
+    PageCursorResponseDto<ArticleResponseDto> findPage(FiltreRechercheDto filtre);
 }
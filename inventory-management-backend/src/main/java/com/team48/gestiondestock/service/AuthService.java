@@ -2,6 +2,7 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.AuthResponseDto;
 import com.team48.gestiondestock.dto.LoginRequestDto;
+import com.team48.gestiondestock.dto.RefreshTokenRequestDto;
 import com.team48.gestiondestock.dto.RegisterRequestDto;
 
 public interface AuthService {
@@ -10,4 +11,8 @@ public interface AuthService {
 
     AuthResponseDto login(LoginRequestDto request);
 
+    AuthResponseDto refresh(RefreshTokenRequestDto request);
+
+    void logout(RefreshTokenRequestDto request, String accessToken);
+
 }
@@ -2,6 +2,8 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.CategorieRequestDto;
 import com.team48.gestiondestock.dto.CategorieResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -19,4 +21,5 @@ public interface CategorieService {
 
     CategorieResponseDto update(Integer id, CategorieRequestDto categorieDto);
 
+    PageCursorResponseDto<CategorieResponseDto> findPage(FiltreRechercheDto filtre);
 }
@@ -2,6 +2,8 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.ClientRequestDto;
 import com.team48.gestiondestock.dto.ClientResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -18,4 +20,6 @@ public interface ClientService {
     void delete(Integer id);
 
     ClientResponseDto update(Integer id, ClientRequestDto clientDto);
+
+    PageCursorResponseDto<ClientResponseDto> findPage(FiltreRechercheDto filtre);
 }
@@ -4,6 +4,9 @@ import com.team48.gestiondestock.dto.CommandeClientRequestDto;
 import com.team48.gestiondestock.dto.CommandeClientResponseDto;
 import com.team48.gestiondestock.dto.LigneCommandeClientRequestDto;
 import com.team48.gestiondestock.dto.LigneCommandeClientResponseDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -29,5 +32,9 @@ public interface CommandeClientService {
     List<LigneCommandeClientResponseDto> findAllLignesByCommandeId(Integer commandeId);
     CommandeClientResponseDto removeAllLignes(Integer commandeId);
 
+    // Ajouts, modifications et suppressions de lignes appliqués en une transaction
+    CommandeClientResponseDto modifierLignes(Integer commandeId, LignesCommandeModificationDto modifications);
+
+    PageCursorResponseDto<CommandeClientResponseDto> findPage(FiltreRechercheDto filtre);
 }
 
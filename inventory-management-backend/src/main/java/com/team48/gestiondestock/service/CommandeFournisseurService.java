@@ -3,6 +3,9 @@ package com.team48.gestiondestock.service;
 import com.team48.gestiondestock.dto.CommandeFournisseurRequestDto;
 import com.team48.gestiondestock.dto.CommandeFournisseurResponseDto;
 import com.team48.gestiondestock.dto.LigneCommandeFournisseurRequestDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -24,5 +27,9 @@ public interface CommandeFournisseurService {
     CommandeFournisseurResponseDto addLigne(Integer commandeId, LigneCommandeFournisseurRequestDto ligneDto);
     CommandeFournisseurResponseDto updateLigne(Integer commandeId, LigneCommandeFournisseurRequestDto ligneDto);
     CommandeFournisseurResponseDto removeLigne(Integer commandeId, Integer ligneId);
+    // Ajouts, modifications et suppressions de lignes appliqués en une transaction
+    CommandeFournisseurResponseDto modifierLignes(Integer commandeId, LignesCommandeModificationDto modifications);
+
+    PageCursorResponseDto<CommandeFournisseurResponseDto> findPage(FiltreRechercheDto filtre);
 }
 
@@ -2,6 +2,8 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.EntrepriseRequestDto;
 import com.team48.gestiondestock.dto.EntrepriseResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -18,4 +20,6 @@ public interface EntrepriseService {
     void delete(Integer id);
 
     EntrepriseResponseDto update(Integer id, EntrepriseRequestDto entrepriseDto);
+
+    PageCursorResponseDto<EntrepriseResponseDto> findPage(FiltreRechercheDto filtre);
 }
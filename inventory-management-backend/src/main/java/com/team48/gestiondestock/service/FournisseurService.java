@@ -2,6 +2,8 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.FournisseurRequestDto;
 import com.team48.gestiondestock.dto.FournisseurResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -18,4 +20,6 @@ public interface FournisseurService {
     void delete(Integer id);
 
     FournisseurResponseDto update(Integer id, FournisseurRequestDto fournisseurDto);
+
+    PageCursorResponseDto<FournisseurResponseDto> findPage(FiltreRechercheDto filtre);
 }
@@ -0,0 +1,36 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.MvtStkArchivageResultatDto;
+import com.team48.gestiondestock.dto.MvtStkResumeMensuelDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.List;
+
+public interface MvtStkArchivageService {
+
+    /**
+     * Archive un mois clos du journal de stock : un fichier NDJSON compressé par entreprise sur le stockage objet,
+     * un résumé par entreprise et article en base, puis retrait des mouvements détaillés (ou de la partition).
+     * Les mois sont archivés dans l'ordre : les mois précédents doivent l'être déjà.
+     */
+    MvtStkArchivageResultatDto archiver(YearMonth mois);
+
+    /**
+     * Mois clos au-delà de la durée de conservation, du plus ancien au plus récent, encore présents dans le journal.
+     */
+    List<YearMonth> moisArchivables();
+
+    /**
+     * Crée à l'avance les partitions mensuelles du journal (sans effet si la table n'est pas partitionnée).
+     */
+    void preparerPartitions();
+
+    List<MvtStkResumeMensuelDto> findResumes(Integer entrepriseId, Integer articleId);
+
+    /**
+     * Écrit dans le flux les mouvements archivés d'un mois (NDJSON, format de l'export).
+     */
+    void lireArchive(Integer entrepriseId, YearMonth mois, OutputStream out) throws IOException;
+}
@@ -2,13 +2,36 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.MvtStkRequestDto;
 import com.team48.gestiondestock.dto.MvtStkResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface MvtStkService {
     MvtStkResponseDto save(MvtStkRequestDto mvtStkDto);
     MvtStkResponseDto findById(Integer id);
     List<MvtStkResponseDto> findAll();
+
+    /**
+     * Annule un mouvement par un mouvement inverse : le journal est en ajout seul.
+     */
     void delete(Integer id);
+
+    /**
+     * Corrige un mouvement : mouvement inverse de l'original, puis nouveau mouvement avec les valeurs corrigées (retourné).
+     */
     MvtStkResponseDto update(Integer id, MvtStkRequestDto mvtStkDto);
+
+    BigDecimal stockReelArticle(Integer idArticle);
+
+    PageCursorResponseDto<MvtStkResponseDto> findPage(FiltreRechercheDto filtre);
+
+    /**
+     * Écrit le journal filtré dans le flux, ligne par ligne (format "ndjson" ou "csv"),
+     * sans matérialiser le résultat en mémoire.
+     */
+    void exporter(FiltreRechercheDto filtre, String format, OutputStream out) throws IOException;
 }
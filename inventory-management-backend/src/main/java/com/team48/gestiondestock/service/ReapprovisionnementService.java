@@ -0,0 +1,22 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.ReapprovisionnementResultatDto;
+import com.team48.gestiondestock.dto.SeuilStockRequestDto;
+import com.team48.gestiondestock.dto.SeuilStockResponseDto;
+
+public interface ReapprovisionnementService {
+
+    /**
+     * Crée ou remplace les niveaux min/max et le fournisseur de réapprovisionnement d'un article.
+     */
+    SeuilStockResponseDto saveSeuil(SeuilStockRequestDto dto);
+
+    SeuilStockResponseDto findSeuilByArticleId(Integer articleId);
+
+    /**
+     * Réévalue les articles dont le solde ou le seuil a changé depuis le passage précédent
+     * et propose des commandes fournisseurs en brouillon, une par fournisseur.
+     * Un article déjà présent dans un brouillon n'est pas recommandé.
+     */
+    ReapprovisionnementResultatDto executer();
+}
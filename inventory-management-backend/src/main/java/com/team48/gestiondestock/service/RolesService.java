@@ -2,6 +2,8 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.RolesRequestDto;
 import com.team48.gestiondestock.dto.RolesResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -17,6 +19,8 @@ public interface RolesService {
     void delete(Integer id);
 
     RolesResponseDto update(Integer id, RolesRequestDto rolesDto);
+
+    PageCursorResponseDto<RolesResponseDto> findPage(FiltreRechercheDto filtre);
 }
 
  
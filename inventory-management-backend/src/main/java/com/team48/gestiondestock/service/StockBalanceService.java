@@ -0,0 +1,42 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.model.MvtStk;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface StockBalanceService {
+
+    /**
+     * Retourne le stock réel d'un article à partir du solde matérialisé.
+     */
+    BigDecimal stockReel(Integer articleId);
+
+    /**
+     * Répercute sur le solde un delta signé pour un article.
+     * Doit être appelé dans la transaction qui modifie le journal, après la modification.
+     * Un delta négatif qui rendrait le stock négatif lève InvalidEntityException (STOCK_INSUFFISANT)
+     * et fait annuler la transaction.
+     */
+    void appliquer(Integer entrepriseId, Integer articleId, BigDecimal delta);
+
+    /**
+     * Répercute sur les soldes les deltas de plusieurs articles, en une requête pour les soldes existants.
+     * Les deltas d'un même article sont additionnés : une transaction passe tous ses deltas en un seul appel,
+     * pour prendre ses verrous en une fois et dans l'ordre.
+     * Mêmes règles que {@link #appliquer(Integer, Integer, BigDecimal)} : un seul article en stock insuffisant
+     * lève InvalidEntityException (STOCK_INSUFFISANT) et fait annuler toute la transaction.
+     */
+    void appliquer(List<DeltaStock> deltas);
+
+    /**
+     * Delta signé du stock d'un article.
+     */
+    record DeltaStock(Integer entrepriseId, Integer articleId, BigDecimal delta) {
+    }
+
+    /**
+     * Quantité signée d'un mouvement : positive pour une ENTREE, négative pour une SORTIE.
+     */
+    BigDecimal quantiteSignee(MvtStk mvtStk);
+}
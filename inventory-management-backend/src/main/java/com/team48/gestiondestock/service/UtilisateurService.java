@@ -2,6 +2,8 @@ package com.team48.gestiondestock.service;
 
 import com.team48.gestiondestock.dto.UtilisateurRequestDto;
 import com.team48.gestiondestock.dto.UtilisateurResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
 
 import java.util.List;
 
@@ -17,4 +19,8 @@ public interface UtilisateurService {
     void delete(Integer id);
 
     UtilisateurResponseDto update(Integer id, UtilisateurRequestDto utilisateurDto);
+
+    PageCursorResponseDto<UtilisateurResponseDto> findPage(FiltreRechercheDto filtre);
+
+    void revoquerSessions(Integer id);
 }
@@ -1,14 +1,20 @@
 package com.team48.gestiondestock.service;
 
+import com.team48.gestiondestock.dto.VentesClotureResultatDto;
 import com.team48.gestiondestock.dto.VentesRequestDto;
 import com.team48.gestiondestock.dto.VentesResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.dto.VentesStatsDto;
+import com.team48.gestiondestock.dto.VentesStatsResponseDto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface VentesService {
 
     /**
-     * Crée une vente à partir d'une commande existante.
+     * Crée une vente à partir d'une commande existante ; ses lignes sont copiées en base (INSERT ... SELECT).
      * @param ventesDto données de la vente (sans lignes)
      * @param commandeId ID de la commande dont les lignes seront reprises
      * @return DTO de la vente créée
@@ -24,4 +30,20 @@ public interface VentesService {
     void delete(Integer id);
 
     VentesResponseDto update(Integer id, VentesRequestDto ventesDto);
+
+    PageCursorResponseDto<VentesResponseDto> findPage(FiltreRechercheDto filtre);
+
+    /**
+     * Clôture de journée : convertit en ventes toutes les commandes VALIDEE du jour (UTC) qui n'en ont pas encore,
+     * entièrement en SQL ensembliste. Chaque lot est validé dans sa propre transaction ; un lot refusé est repris
+     * commande par commande et les commandes refusées (stock insuffisant) sont listées dans le résultat.
+     */
+    VentesClotureResultatDto cloturerJournee(LocalDate jour, Integer entrepriseId);
+
+    /**
+     * Statistiques de ventes lues dans l'agrégat journalier (ventes_daily_rollup), sans parcourir les lignes.
+     * Période [dateDebut, dateFin[ en jours UTC ; bornes, entreprise, article et catégorie facultatifs.
+     */
+    VentesStatsResponseDto stats(Integer entrepriseId, Integer articleId, Integer categorieId,
+                                 LocalDate dateDebut, LocalDate dateFin, VentesStatsDto.Groupement groupement);
 }
@@ -0,0 +1,83 @@
+package com.team48.gestiondestock.service.cache;
+
+import com.team48.gestiondestock.dto.CacheStatistiquesDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache de second niveau des données de référence (catégories, entreprises, rôles) : régions Hibernate
+ * servies par Caffeine (voir application.conf), éviction explicite et taux de succès.
+ * <p>
+ * Le cache est local à chaque instance : Hibernate le tient à jour pour les écritures de l'instance,
+ * les écritures des autres instances n'y apparaissent qu'à l'expiration des entrées.
+ */
+@Component
+@Slf4j
+public class ReferentielCache {
+
+    public static final String REGION_CATEGORIE = "categorie";
+    public static final String REGION_ENTREPRISE = "entreprise";
+    public static final String REGION_ROLES = "roles";
+    public static final List<String> REGIONS = List.of(REGION_CATEGORIE, REGION_ENTREPRISE, REGION_ROLES);
+    // Nom sous lequel les statistiques du cache de requêtes sont publiées
+    public static final String REGION_REQUETES = "requetes";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public ReferentielCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Retire une entité du cache, après le commit de la transaction en cours s'il y en a une
+     * (une lecture concurrente ne peut alors plus y remettre l'ancienne valeur).
+     */
+    public void evincer(Class<?> entite, Object id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entityManagerFactory.getCache().evict(entite, id);
+                }
+            });
+        } else {
+            entityManagerFactory.getCache().evict(entite, id);
+        }
+    }
+
+    public void vider() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        log.info("Cache de second niveau vidé");
+    }
+
+    /**
+     * Compteurs depuis le démarrage (hibernate.generate_statistics doit être actif, sinon tout est à zéro).
+     */
+    public List<CacheStatistiquesDto> statistiques() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheStatistiquesDto> resultat = new ArrayList<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            resultat.add(CacheStatistiquesDto.of(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                    stats.getElementCountInMemory()));
+        }
+        resultat.add(CacheStatistiquesDto.of(REGION_REQUETES, statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+        return resultat;
+    }
+}
@@ -0,0 +1,336 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.team48.gestiondestock.dto.ArticleImportErreurDto;
+import com.team48.gestiondestock.dto.ArticleImportResponseDto;
+import com.team48.gestiondestock.dto.ArticleRequestDto;
+import com.team48.gestiondestock.exception.EntityNotFoundException;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.service.ArticleImportService;
+import com.team48.gestiondestock.service.ArticleRechercheService;
+import com.team48.gestiondestock.service.security.TenantContext;
+import com.team48.gestiondestock.validator.ArticleValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ArticleImportServiceImpl implements ArticleImportService {
+
+    // Lignes lues avant traitement : validées en parallèle puis insérées dans une même transaction
+    private static final int TAILLE_LOT = 1000;
+
+    private static final List<String> COLONNES = List.of(
+            "codearticle", "designation", "prixunitaire", "tauxtva", "prixunitairettc", "codecategorie");
+    private static final int CODE_ARTICLE = 0;
+    private static final int DESIGNATION = 1;
+    private static final int PRIX_UNITAIRE = 2;
+    private static final int TAUX_TVA = 3;
+    private static final int PRIX_UNITAIRE_TTC = 4;
+    private static final int CODE_CATEGORIE = 5;
+
+    private final ArticleRepository articleRepository;
+    private final CategorieRepository categorieRepository;
+    private final EntrepriseRepository entrepriseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ArticleRechercheService articleRechercheService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ArticleImportServiceImpl(ArticleRepository articleRepository, CategorieRepository categorieRepository,
+                                    EntrepriseRepository entrepriseRepository, TransactionTemplate transactionTemplate,
+                                    ArticleRechercheService articleRechercheService) {
+        this.articleRepository = articleRepository;
+        this.categorieRepository = categorieRepository;
+        this.entrepriseRepository = entrepriseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.articleRechercheService = articleRechercheService;
+    }
+
+    @Override
+    public ArticleImportResponseDto importer(InputStream csv, Integer entrepriseDemandee) throws IOException {
+        // Un utilisateur rattaché à une entreprise n'importe que dans la sienne
+        Integer entrepriseId = TenantContext.entrepriseId(entrepriseDemandee);
+        if (entrepriseId == null || !entrepriseRepository.existsById(entrepriseId)) {
+            log.error("Import d'articles : entreprise {} introuvable", entrepriseId);
+            throw new EntityNotFoundException("Entreprise non trouvée avec l'ID: " + entrepriseId, ErrorCodes.ENTREPRISE_NOT_FOUND);
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String entete = reader.readLine();
+        if (entete == null) {
+            throw new InvalidEntityException("Le fichier d'import est vide", ErrorCodes.ARTICLE_NOT_VALID, Collections.emptyList());
+        }
+        if (entete.startsWith("\uFEFF")) {
+            entete = entete.substring(1);
+        }
+        char separateur = entete.indexOf(';') >= 0 ? ';' : ',';
+        int[] positions = positionsColonnes(decouper(entete, separateur));
+
+        Import courant = new Import(entrepriseId, positions);
+        List<LigneBrute> lot = new ArrayList<>(TAILLE_LOT);
+        long numero = 1;
+        String ligne;
+        while ((ligne = reader.readLine()) != null) {
+            numero++;
+            if (ligne.isBlank()) {
+                continue;
+            }
+            lot.add(new LigneBrute(numero, decouper(ligne, separateur)));
+            if (lot.size() == TAILLE_LOT) {
+                traiterLot(lot, courant);
+                lot.clear();
+            }
+        }
+        if (!lot.isEmpty()) {
+            traiterLot(lot, courant);
+        }
+
+        // Index de recherche reconstruit d'un bloc plutôt qu'article par article
+        if (courant.resultat.getImportes() > 0) {
+            articleRechercheService.invalider(entrepriseId);
+        }
+        log.info("Import d'articles entreprise {} : {} lignes lues, {} importées, {} en erreur",
+                entrepriseId, courant.resultat.getLignesLues(), courant.resultat.getImportes(), courant.resultat.getErreurs().size());
+        return courant.resultat;
+    }
+
+    private void traiterLot(List<LigneBrute> lot, Import courant) {
+        courant.resultat.setLignesLues(courant.resultat.getLignesLues() + lot.size());
+
+        // 1. Catégories : une seule requête IN pour les codes pas encore vus pendant cet import
+        Set<String> codesInconnus = lot.stream()
+                .map(l -> colonne(l, courant.positions[CODE_CATEGORIE]))
+                .filter(code -> code != null && !courant.categories.containsKey(code))
+                .collect(Collectors.toSet());
+        if (!codesInconnus.isEmpty()) {
+            Map<String, Integer> trouvees = categorieRepository.findByEntrepriseIdAndCodeIn(courant.entrepriseId, codesInconnus).stream()
+                    .collect(Collectors.toMap(Categorie::getCode, Categorie::getId, (a, b) -> a));
+            codesInconnus.forEach(code -> courant.categories.put(code, trouvees.get(code)));
+        }
+
+        // 2. Conversion et validation en parallèle (le cache n'est plus modifié pendant cette étape)
+        List<LigneAnalysee> analysees = lot.parallelStream()
+                .map(l -> analyser(l, courant))
+                .toList();
+
+        // 3. Codes déjà présents en base ou répétés dans le fichier
+        Set<String> codesValides = analysees.stream()
+                .filter(a -> a.erreurs.isEmpty())
+                .map(a -> a.dto.getCodeArticle())
+                .collect(Collectors.toSet());
+        Set<String> existants = codesValides.isEmpty() ? Set.of()
+                : articleRepository.findCodesExistants(courant.entrepriseId, codesValides);
+
+        List<LigneAnalysee> aInserer = new ArrayList<>();
+        for (LigneAnalysee a : analysees) {
+            if (a.erreurs.isEmpty()) {
+                String code = a.dto.getCodeArticle();
+                if (existants.contains(code)) {
+                    a.erreurs.add("Un article avec le code " + code + " existe déjà");
+                } else if (!courant.codesImportes.add(code)) {
+                    a.erreurs.add("Le code " + code + " est présent plusieurs fois dans le fichier");
+                }
+            }
+            if (a.erreurs.isEmpty()) {
+                aInserer.add(a);
+            } else {
+                courant.resultat.getErreurs().add(erreur(a, a.erreurs));
+            }
+        }
+
+        // 4. Insertion du lot (batch JDBC) ; si elle échoue, chaque ligne est réessayée seule pour isoler la fautive
+        if (aInserer.isEmpty()) {
+            return;
+        }
+        try {
+            inserer(aInserer, courant.entrepriseId);
+            courant.resultat.setImportes(courant.resultat.getImportes() + aInserer.size());
+        } catch (RuntimeException e) {
+            log.warn("Import d'articles : échec de l'insertion d'un lot de {} lignes, nouvel essai ligne par ligne : {}",
+                    aInserer.size(), e.getMessage());
+            for (LigneAnalysee a : aInserer) {
+                try {
+                    inserer(List.of(a), courant.entrepriseId);
+                    courant.resultat.setImportes(courant.resultat.getImportes() + 1);
+                } catch (RuntimeException eLigne) {
+                    log.error("Import d'articles : insertion impossible de la ligne {}", a.numero, eLigne);
+                    courant.codesImportes.remove(a.dto.getCodeArticle());
+                    courant.resultat.getErreurs().add(erreur(a, List.of("Insertion impossible : " + eLigne.getMessage())));
+                }
+            }
+        }
+    }
+
+    // Une transaction par appel, le contexte de persistance est vidé ensuite
+    private void inserer(List<LigneAnalysee> lignes, Integer entrepriseId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Entreprise entreprise = entityManager.getReference(Entreprise.class, entrepriseId);
+            List<Article> articles = lignes.stream()
+                    .map(a -> versArticle(a.dto, entreprise))
+                    .toList();
+            articleRepository.saveAll(articles);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private LigneAnalysee analyser(LigneBrute ligne, Import courant) {
+        List<String> erreurs = new ArrayList<>();
+        int[] p = courant.positions;
+        String codeCategorie = colonne(ligne, p[CODE_CATEGORIE]);
+
+        ArticleRequestDto dto = ArticleRequestDto.builder()
+                .codeArticle(colonne(ligne, p[CODE_ARTICLE]))
+                .designation(colonne(ligne, p[DESIGNATION]))
+                .prixUnitaire(montant(colonne(ligne, p[PRIX_UNITAIRE]), "prix unitaire HT", erreurs))
+                .tauxTva(montant(colonne(ligne, p[TAUX_TVA]), "taux TVA", erreurs))
+                .prixUnitaireTtc(montant(colonne(ligne, p[PRIX_UNITAIRE_TTC]), "prix unitaire TTC", erreurs))
+                .categorieId(codeCategorie != null ? courant.categories.get(codeCategorie) : null)
+                .entrepriseId(courant.entrepriseId)
+                .build();
+
+        if (codeCategorie != null && dto.getCategorieId() == null) {
+            erreurs.add("Catégorie inconnue : " + codeCategorie);
+        } else {
+            erreurs.addAll(ArticleValidator.validate(dto));
+        }
+        return new LigneAnalysee(ligne.numero, dto, erreurs);
+    }
+
+    private Article versArticle(ArticleRequestDto dto, Entreprise entreprise) {
+        Article article = new Article();
+        article.setCodeArticle(dto.getCodeArticle());
+        article.setDesignation(dto.getDesignation());
+        article.setPrixUnitaire(dto.getPrixUnitaire());
+        article.setTauxTva(dto.getTauxTva());
+        article.setPrixUnitaireTtc(dto.getPrixUnitaireTtc());
+        article.setCategorie(entityManager.getReference(Categorie.class, dto.getCategorieId()));
+        article.setEntreprise(entreprise);
+        return article;
+    }
+
+    private static ArticleImportErreurDto erreur(LigneAnalysee a, List<String> erreurs) {
+        return ArticleImportErreurDto.builder()
+                .ligne(a.numero)
+                .codeArticle(a.dto.getCodeArticle())
+                .erreurs(erreurs)
+                .build();
+    }
+
+    private static int[] positionsColonnes(List<String> entete) {
+        List<String> normalisee = entete.stream()
+                .map(c -> c.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] positions = new int[COLONNES.size()];
+        List<String> manquantes = new ArrayList<>();
+        for (int i = 0; i < COLONNES.size(); i++) {
+            positions[i] = normalisee.indexOf(COLONNES.get(i));
+            if (positions[i] < 0) {
+                manquantes.add("Colonne manquante : " + COLONNES.get(i));
+            }
+        }
+        if (!manquantes.isEmpty()) {
+            log.error("Import d'articles : en-tête invalide {}", entete);
+            throw new InvalidEntityException("L'en-tête du fichier d'import n'est pas valide", ErrorCodes.ARTICLE_NOT_VALID, manquantes);
+        }
+        return positions;
+    }
+
+    private static String colonne(LigneBrute ligne, int position) {
+        if (position >= ligne.valeurs.size()) {
+            return null;
+        }
+        String valeur = ligne.valeurs.get(position).trim();
+        return valeur.isEmpty() ? null : valeur;
+    }
+
+    private static BigDecimal montant(String valeur, String libelle, List<String> erreurs) {
+        if (valeur == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(valeur.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            erreurs.add("Valeur invalide pour le " + libelle + " : " + valeur);
+            return null;
+        }
+    }
+
+    // Découpage d'une ligne CSV : champs éventuellement entre guillemets, "" pour un guillemet
+    private static List<String> decouper(String ligne, char separateur) {
+        List<String> valeurs = new ArrayList<>();
+        StringBuilder courant = new StringBuilder();
+        boolean entreGuillemets = false;
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"' && i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                    courant.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreGuillemets = false;
+                } else {
+                    courant.append(c);
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == separateur) {
+                valeurs.add(courant.toString());
+                courant.setLength(0);
+            } else {
+                courant.append(c);
+            }
+        }
+        valeurs.add(courant.toString());
+        return valeurs;
+    }
+
+    // État d'un import : le cache des catégories (code -> id, null si inconnue) ne vit que le temps de l'import
+    private static final class Import {
+        private final Integer entrepriseId;
+        private final int[] positions;
+        private final Map<String, Integer> categories = new HashMap<>();
+        private final Set<String> codesImportes = new HashSet<>();
+        private final ArticleImportResponseDto resultat = ArticleImportResponseDto.builder().build();
+
+        private Import(Integer entrepriseId, int[] positions) {
+            this.entrepriseId = entrepriseId;
+            this.positions = positions;
+        }
+    }
+
+    private record LigneBrute(long numero, List<String> valeurs) {
+    }
+
+    private record LigneAnalysee(long numero, ArticleRequestDto dto, List<String> erreurs) {
+    }
+}
@@ -0,0 +1,206 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.team48.gestiondestock.dto.ArticleRechercheDto;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.service.ArticleRechercheService;
+import com.team48.gestiondestock.service.recherche.IndexArticles;
+import com.team48.gestiondestock.service.security.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ArticleRechercheServiceImpl implements ArticleRechercheService {
+
+    private static final int LIMITE_PAR_DEFAUT = 20;
+    private static final int LIMITE_MAX = 100;
+
+    private final ArticleRepository articleRepository;
+    private final Executor executor;
+
+    // Un index par entreprise, chargé à la première recherche
+    private final ConcurrentMap<Integer, Partition> partitions = new ConcurrentHashMap<>();
+
+    // Rechargement périodique : les modifications faites par une autre instance finissent par être vues
+    @Value("${articles.recherche.rafraichissement-secondes:600}")
+    private long rafraichissementSecondes;
+
+    private static final class Partition {
+        private volatile IndexArticles index;
+        private volatile long chargeA;
+        private final AtomicBoolean chargement = new AtomicBoolean();
+        // Modifications reçues pendant un chargement, rejouées sur le nouvel index
+        private final Queue<Consumer<IndexArticles>> enAttente = new ConcurrentLinkedQueue<>();
+    }
+
+    @Autowired
+    public ArticleRechercheServiceImpl(ArticleRepository articleRepository,
+                                       @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.articleRepository = articleRepository;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<ArticleRechercheDto> rechercher(Integer entrepriseDemandee, String requete, Integer limite) {
+        Integer entrepriseId = TenantContext.entrepriseId(entrepriseDemandee);
+        if (entrepriseId == null || !StringUtils.hasText(requete)) {
+            return List.of();
+        }
+        int n = limite == null || limite <= 0 ? LIMITE_PAR_DEFAUT : Math.min(limite, LIMITE_MAX);
+        Partition partition = partitions.computeIfAbsent(entrepriseId, id -> new Partition());
+        IndexArticles index = partition.index;
+        if (index == null || System.currentTimeMillis() - partition.chargeA > rafraichissementSecondes * 1000) {
+            chargerEnArrierePlan(entrepriseId, partition);
+        }
+        if (index == null) {
+            return rechercherEnBase(entrepriseId, requete.trim(), n);
+        }
+        return index.rechercher(requete, n);
+    }
+
+    @Override
+    public void indexer(Article article) {
+        if (article == null || article.getId() == null || article.getEntreprise() == null) {
+            return;
+        }
+        Integer id = article.getId();
+        String code = article.getCodeArticle();
+        String designation = article.getDesignation();
+        String categorie = article.getCategorie() != null ? article.getCategorie().getDesignation() : null;
+        BigDecimal prix = article.getPrixUnitaireTtc();
+        Integer entrepriseId = article.getEntreprise().getId();
+        // Un article peut changer d'entreprise : il est retiré des autres partitions
+        apresCommit(() -> partitions.forEach((eid, partition) -> modifier(partition, eid.equals(entrepriseId)
+                ? index -> index.ajouter(id, code, designation, categorie, prix)
+                : index -> index.retirer(id))));
+    }
+
+    @Override
+    public void retirer(Integer articleId) {
+        if (articleId == null) {
+            return;
+        }
+        apresCommit(() -> partitions.values().forEach(partition -> modifier(partition, index -> index.retirer(articleId))));
+    }
+
+    @Override
+    public void invalider(Integer entrepriseId) {
+        if (entrepriseId == null) {
+            return;
+        }
+        apresCommit(() -> {
+            Partition partition = partitions.get(entrepriseId);
+            if (partition != null) {
+                partition.chargeA = 0;
+            }
+        });
+    }
+
+    @Override
+    public boolean indexPret(Integer entrepriseId) {
+        Partition partition = partitions.get(entrepriseId);
+        return partition != null && partition.index != null;
+    }
+
+    private void modifier(Partition partition, Consumer<IndexArticles> modification) {
+        if (partition.chargement.get()) {
+            partition.enAttente.add(modification);
+        }
+        IndexArticles index = partition.index;
+        if (index != null) {
+            modification.accept(index);
+        }
+    }
+
+    // Un seul chargement à la fois par entreprise ; l'ancien index sert les recherches jusqu'au remplacement
+    private void chargerEnArrierePlan(Integer entrepriseId, Partition partition) {
+        if (!partition.chargement.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> charger(entrepriseId, partition));
+        } catch (RuntimeException e) {
+            partition.chargement.set(false);
+            log.warn("Chargement de l'index de recherche de l'entreprise {} non planifié : {}", entrepriseId, e.getMessage());
+        }
+    }
+
+    private void charger(Integer entrepriseId, Partition partition) {
+        long debut = System.currentTimeMillis();
+        try {
+            IndexArticles nouvel = new IndexArticles();
+            for (Object[] ligne : articleRepository.findPourIndexRecherche(entrepriseId)) {
+                nouvel.ajouter((Integer) ligne[0], (String) ligne[1], (String) ligne[2], (String) ligne[3], (BigDecimal) ligne[4]);
+            }
+            partition.index = nouvel;
+            partition.chargeA = System.currentTimeMillis();
+            log.info("Index de recherche de l'entreprise {} chargé : {} article(s) en {} ms",
+                    entrepriseId, nouvel.taille(), partition.chargeA - debut);
+        } catch (RuntimeException e) {
+            log.error("Chargement de l'index de recherche de l'entreprise {} impossible : {}", entrepriseId, e.getMessage(), e);
+        } finally {
+            partition.chargement.set(false);
+            rejouer(partition);
+        }
+    }
+
+    private static void rejouer(Partition partition) {
+        IndexArticles index = partition.index;
+        Consumer<IndexArticles> modification;
+        while ((modification = partition.enAttente.poll()) != null) {
+            if (index != null) {
+                modification.accept(index);
+            }
+        }
+    }
+
+    // Index froid : LIKE sur les colonnes en minuscules, accéléré côté PostgreSQL par les index trigrammes
+    // (voir db/articles-recherche-trigrammes.sql)
+    private List<ArticleRechercheDto> rechercherEnBase(Integer entrepriseId, String requete, int limite) {
+        String exact = requete.toLowerCase(Locale.ROOT);
+        String texte = exact.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return articleRepository.rechercher(entrepriseId, "%" + texte + "%", exact, texte + "%", PageRequest.of(0, limite))
+                .stream()
+                .map(ligne -> ArticleRechercheDto.builder()
+                        .id((Integer) ligne[0])
+                        .codeArticle((String) ligne[1])
+                        .designation((String) ligne[2])
+                        .categorie((String) ligne[3])
+                        .prixUnitaireTtc((BigDecimal) ligne[4])
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -14,15 +14,25 @@ import com.team48.gestiondestock.model.Entreprise;
 import com.team48.gestiondestock.repository.ArticleRepository;
 import com.team48.gestiondestock.repository.CategorieRepository;
 import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.service.ArticleRechercheService;
 import com.team48.gestiondestock.service.ArticleService;
+import com.team48.gestiondestock.service.stockage.ImageVariantService;
+import com.team48.gestiondestock.utils.ImageVariantes;
 import com.team48.gestiondestock.validator.ArticleValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -33,12 +43,17 @@ public class ArticleServiceImpl implements ArticleService {
     private final EntrepriseRepository entrepriseRepository;
     private final CategorieRepository categorieRepository;
     private final ArticleRepository articleRepository;
+    private final ArticleRechercheService articleRechercheService;
+    private final ImageVariantService imageVariantService;
 
     @Autowired
-    public ArticleServiceImpl(ArticleRepository articleRepository, EntrepriseRepository entrepriseRepository, CategorieRepository categorieRepository) {
+    public ArticleServiceImpl(ArticleRepository articleRepository, EntrepriseRepository entrepriseRepository, CategorieRepository categorieRepository,
+                              ArticleRechercheService articleRechercheService, ImageVariantService imageVariantService) {
         this.articleRepository = articleRepository;
         this.entrepriseRepository = entrepriseRepository;
         this.categorieRepository = categorieRepository;
+        this.articleRechercheService = articleRechercheService;
+        this.imageVariantService = imageVariantService;
     }
 
     @Override
@@ -77,6 +92,8 @@ public class ArticleServiceImpl implements ArticleService {
         article.setEntreprise(entreprise);
 
         Article saved = articleRepository.save(article);
+        articleRechercheService.indexer(saved);
+        genererPhotoVariantes(saved);
         return mapToResponseDto(saved);
     }
 
@@ -112,7 +129,7 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     public List<ArticleResponseDto> findAll() {
-        return articleRepository.findAll().stream()
+        return articleRepository.findAll(KeysetSpecifications.entrepriseCourante("entreprise.id")).stream()
                 .map(this::mapToResponseDto)
                 .collect(Collectors.toList());
     }
@@ -124,6 +141,7 @@ public class ArticleServiceImpl implements ArticleService {
             return;
         }
         articleRepository.deleteById(id);
+        articleRechercheService.retirer(id);
     }
 
     @Override
@@ -170,9 +188,17 @@ public class ArticleServiceImpl implements ArticleService {
         existingArticle.setPrixUnitaire(articleDto.getPrixUnitaire());
         existingArticle.setTauxTva(articleDto.getTauxTva());
         existingArticle.setPrixUnitaireTtc(articleDto.getPrixUnitaireTtc());
+        boolean nouvellePhoto = !Objects.equals(existingArticle.getPhoto(), articleDto.getPhoto());
         existingArticle.setPhoto(articleDto.getPhoto());
+        if (nouvellePhoto) {
+            existingArticle.setPhotoVariantes(null);
+        }
 
         Article updatedArticle = articleRepository.save(existingArticle);
+        articleRechercheService.indexer(updatedArticle);
+        if (nouvellePhoto) {
+            genererPhotoVariantes(updatedArticle);
+        }
         return mapToResponseDto(updatedArticle);
     }
 
@@ -185,8 +211,55 @@ public class ArticleServiceImpl implements ArticleService {
                 .tauxTva(article.getTauxTva())
                 .prixUnitaireTtc(article.getPrixUnitaireTtc())
                 .photo(article.getPhoto())
+                .photoVariantes(ImageVariantes.generees(article.getPhoto(), article.getPhotoVariantes()))
                 .categorie(article.getCategorie() != null ? CategorieResponseDto.fromEntity(article.getCategorie()) : null)
                 .entreprise(article.getEntreprise() != null ? EntrepriseResponseDto.fromEntity(article.getEntreprise()) : null)
                 .build();
     }
+
+    /**
+     * Génère les miniatures de la photo en arrière-plan, une fois l'article validé en base, puis enregistre
+     * les clés réellement écrites : seules celles-ci sont exposées, l'original sert tant qu'il n'y en a pas.
+     */
+    private void genererPhotoVariantes(Article article) {
+        if (!ImageVariantes.supporte(article.getPhoto())) {
+            return;
+        }
+        Integer id = article.getId();
+        String photo = article.getPhoto();
+        Runnable generer = () -> imageVariantService.genererVariantesAsync(photo)
+                .thenAccept(cles -> {
+                    if (!cles.isEmpty()) {
+                        articleRepository.enregistrerPhotoVariantes(id, photo, String.join(",", cles));
+                    }
+                })
+                // Échec de la génération ou de l'enregistrement des clés : l'original reste servi
+                .whenComplete((ignore, erreur) -> {
+                    if (erreur != null) {
+                        log.error("Miniatures de la photo {} de l'article {} non enregistrées : {}", photo, id,
+                                erreur.getMessage(), erreur);
+                    }
+                });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generer.run();
+                }
+            });
+        } else {
+            generer.run();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<ArticleResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Article> spec = Specification.allOf(
+                KeysetSpecifications.filtre(f, "entreprise.id", "creationDate"),
+                KeysetSpecifications.egal("categorie.id", f.getCategorieId()));
+        List<Article> lignes = KeysetSpecifications.lirePage(articleRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Article::getId, this::mapToResponseDto);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
+import com.team48.gestiondestock.exception.EntityNotFoundException;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.repository.ArticleRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Articles référencés par une modification groupée de lignes, chargés en une seule requête IN
+ * et contrôlés contre l'entreprise de la commande.
+ */
+final class ArticlesDesLignes {
+
+    private ArticlesDesLignes() {
+    }
+
+    static Map<Integer, Article> charger(ArticleRepository articleRepository, LignesCommandeModificationDto modifications,
+                                         Integer entrepriseId, ErrorCodes codeInvalide) {
+        Set<Integer> ids = Stream.concat(modifications.getAjouts().stream(), modifications.getModifications().stream())
+                .map(LignesCommandeModificationDto.Ligne::getArticleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Integer, Article> articles = articleRepository.findAllByIdWithCategorie(ids).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+        List<Integer> manquants = ids.stream().filter(id -> !articles.containsKey(id)).toList();
+        if (!manquants.isEmpty()) {
+            throw new EntityNotFoundException("Articles non trouvés pour les ID " + manquants, ErrorCodes.ARTICLE_NOT_FOUND);
+        }
+        if (entrepriseId != null) {
+            List<String> errors = articles.values().stream()
+                    .filter(a -> a.getEntreprise() != null && !entrepriseId.equals(a.getEntreprise().getId()))
+                    .map(a -> "L'article " + a.getId() + " n'appartient pas à l'entreprise de la commande")
+                    .toList();
+            if (!errors.isEmpty()) {
+                throw new InvalidEntityException("Les lignes référencent des articles d'une autre entreprise", codeInvalide, errors);
+            }
+        }
+        return articles;
+    }
+}
@@ -7,13 +7,19 @@ import com.team48.gestiondestock.exception.ErrorCodes;
 import com.team48.gestiondestock.exception.InvalidEntityException;
 import com.team48.gestiondestock.model.Categorie;
 import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.service.ArticleRechercheService;
 import com.team48.gestiondestock.service.CategorieService;
+import com.team48.gestiondestock.service.cache.ReferentielCache;
 import com.team48.gestiondestock.validator.CategorieValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
 import java.util.List;
@@ -25,10 +31,15 @@ import java.util.stream.Collectors;
 public class CategorieServiceImpl implements CategorieService {
 
     private final CategorieRepository categorieRepository;
+    private final ArticleRechercheService articleRechercheService;
+    private final ReferentielCache referentielCache;
 
     @Autowired
-    public CategorieServiceImpl(CategorieRepository categorieRepository) {
+    public CategorieServiceImpl(CategorieRepository categorieRepository, ArticleRechercheService articleRechercheService,
+                                ReferentielCache referentielCache) {
         this.categorieRepository = categorieRepository;
+        this.articleRechercheService = articleRechercheService;
+        this.referentielCache = referentielCache;
     }
 
     @Override
@@ -98,7 +109,7 @@ public class CategorieServiceImpl implements CategorieService {
 
     @Override
     public List<CategorieResponseDto> findAll() {
-        return categorieRepository.findAll().stream()
+        return categorieRepository.findAll(KeysetSpecifications.entrepriseCourante("entrepriseId")).stream()
                 .map(CategorieResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -125,6 +136,7 @@ public class CategorieServiceImpl implements CategorieService {
         }
         
         categorieRepository.deleteById(id);
+        referentielCache.evincer(Categorie.class, id);
         log.info("Categorie with ID {} has been successfully deleted", id);
     }
 
@@ -158,6 +170,18 @@ public class CategorieServiceImpl implements CategorieService {
         Categorie toSave = CategorieRequestDto.toEntity(dto);
         toSave.setId(existing.get().getId());
         Categorie saved = categorieRepository.save(toSave);
+        referentielCache.evincer(Categorie.class, saved.getId());
+        // La désignation de la catégorie fait partie de l'index de recherche des articles
+        articleRechercheService.invalider(saved.getEntrepriseId());
         return CategorieResponseDto.fromEntity(saved);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<CategorieResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Categorie> spec = KeysetSpecifications.filtre(f, "entrepriseId", "creationDate");
+        List<Categorie> lignes = KeysetSpecifications.lirePage(categorieRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Categorie::getId, CategorieResponseDto::fromEntity);
+    }
 }
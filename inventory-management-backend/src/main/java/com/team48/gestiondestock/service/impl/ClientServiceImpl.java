@@ -11,10 +11,15 @@ import com.team48.gestiondestock.repository.ClientRepository;
 import com.team48.gestiondestock.repository.EntrepriseRepository;
 import com.team48.gestiondestock.service.ClientService;
 import com.team48.gestiondestock.validator.ClientValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
@@ -93,7 +98,7 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     public List<ClientResponseDto> findAll() {
-        return clientRepository.findAll().stream()
+        return clientRepository.findAll(KeysetSpecifications.entrepriseCourante("entreprise.id")).stream()
                 .map(ClientResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -142,5 +147,14 @@ public class ClientServiceImpl implements ClientService {
         Client saved = clientRepository.save(toSave);
         return ClientResponseDto.fromEntity(saved);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<ClientResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Client> spec = KeysetSpecifications.filtre(f, "entreprise.id", "creationDate");
+        List<Client> lignes = KeysetSpecifications.lirePage(clientRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Client::getId, ClientResponseDto::fromEntity);
+    }
 }
 
@@ -4,6 +4,7 @@ import com.team48.gestiondestock.dto.CommandeClientRequestDto;
 import com.team48.gestiondestock.dto.CommandeClientResponseDto;
 import com.team48.gestiondestock.dto.LigneCommandeClientRequestDto;
 import com.team48.gestiondestock.dto.LigneCommandeClientResponseDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
 import com.team48.gestiondestock.exception.EntityNotFoundException;
 import com.team48.gestiondestock.exception.ErrorCodes;
 import com.team48.gestiondestock.exception.InvalidEntityException;
@@ -12,17 +13,28 @@ import com.team48.gestiondestock.model.Client;
 import com.team48.gestiondestock.model.CommandeClient;
 import com.team48.gestiondestock.model.LigneCommandeClient;
 import com.team48.gestiondestock.service.CommandeClientService;
+import com.team48.gestiondestock.service.security.TenantContext;
 import com.team48.gestiondestock.validator.CommandeClientValidator;
+import com.team48.gestiondestock.validator.LignesCommandeValidator;
 import com.team48.gestiondestock.repository.*;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -97,7 +109,7 @@ public class CommandeClientServiceImpl implements CommandeClientService {
             log.error("CommandeClient ID is null");
             return null;
         }
-        return commandeClientRepository.findById(id)
+        return commandeClientRepository.findByIdWithLignes(id)
                 .map(CommandeClientResponseDto::fromEntity)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucune commande client avec l'ID " + id + " trouvée",
@@ -111,7 +123,7 @@ public class CommandeClientServiceImpl implements CommandeClientService {
             log.error("Commande client CODE is NULL");
             return null;
         }
-        return commandeClientRepository.findCommandeClientByCode(code)
+        return commandeClientRepository.findByCodeWithLignes(code)
                 .map(CommandeClientResponseDto::fromEntity)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucune commande client avec le CODE '" + code + "' trouvée",
@@ -121,7 +133,8 @@ public class CommandeClientServiceImpl implements CommandeClientService {
 
     @Override
     public List<CommandeClientResponseDto> findAll() {
-        return commandeClientRepository.findAll().stream()
+        Integer entrepriseId = TenantContext.entrepriseCourante();
+        return (entrepriseId == null ? commandeClientRepository.findAllWithLignes() : commandeClientRepository.findAllWithLignesByEntrepriseId(entrepriseId)).stream()
                 .map(CommandeClientResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -321,6 +334,70 @@ public class CommandeClientServiceImpl implements CommandeClientService {
         return CommandeClientResponseDto.fromEntity(saved);
     }
 
+    @Override
+    @Transactional
+    public CommandeClientResponseDto modifierLignes(Integer commandeId, LignesCommandeModificationDto modifications) {
+        List<String> errors = LignesCommandeValidator.validate(modifications);
+        if (!errors.isEmpty()) {
+            log.error("Modification des lignes de la commande client {} non valide : {}", commandeId, errors);
+            throw new InvalidEntityException(
+                    "Les modifications des lignes de la commande client ne sont pas valides",
+                    ErrorCodes.LIGNE_COMMANDE_CLIENT_NOT_VALID,
+                    errors
+            );
+        }
+
+        // Commande, lignes et articles en une requête, puis tous les articles référencés en une requête IN
+        CommandeClient cmd = commandeClientRepository.findByIdWithLignes(commandeId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Commande client non trouvée pour ID " + commandeId,
+                        ErrorCodes.COMMANDE_CLIENT_NOT_FOUND
+                ));
+        TenantContext.entrepriseId(cmd.getEntreprise_id());
+        Map<Integer, Article> articles = ArticlesDesLignes.charger(articleRepository, modifications,
+                cmd.getEntreprise_id(), ErrorCodes.LIGNE_COMMANDE_CLIENT_NOT_VALID);
+
+        Map<Integer, LigneCommandeClient> existantes = cmd.getLigneCommandeClients().stream()
+                .collect(Collectors.toMap(LigneCommandeClient::getId, Function.identity()));
+        List<Integer> inconnues = Stream.concat(
+                        modifications.getModifications().stream().map(LignesCommandeModificationDto.Ligne::getId),
+                        modifications.getSuppressions().stream())
+                .filter(id -> !existantes.containsKey(id))
+                .toList();
+        if (!inconnues.isEmpty()) {
+            throw new EntityNotFoundException(
+                    "Lignes " + inconnues + " non trouvées dans la commande client " + commandeId,
+                    ErrorCodes.LIGNE_COMMANDE_CLIENT_NOT_FOUND
+            );
+        }
+
+        // Suppressions par orphanRemoval, modifications par dirty checking : DELETE et UPDATE regroupés au flush
+        Set<Integer> suppressions = new HashSet<>(modifications.getSuppressions());
+        cmd.getLigneCommandeClients().removeIf(l -> suppressions.contains(l.getId()));
+        for (LignesCommandeModificationDto.Ligne dto : modifications.getModifications()) {
+            LigneCommandeClient ligne = existantes.get(dto.getId());
+            ligne.setQuantite(dto.getQuantite());
+            ligne.setPrixUnitaire(dto.getPrixUnitaire());
+            if (dto.getArticleId() != null) {
+                ligne.setArticle(articles.get(dto.getArticleId()));
+            }
+        }
+
+        // Ids réservés par la séquence : les INSERT partent en batch JDBC au flush
+        List<LigneCommandeClient> ajouts = modifications.getAjouts().stream()
+                .<LigneCommandeClient>map(dto -> LigneCommandeClient.builder()
+                        .commandeClient(cmd)
+                        .article(articles.get(dto.getArticleId()))
+                        .quantite(dto.getQuantite())
+                        .prixUnitaire(dto.getPrixUnitaire())
+                        .entreprise_id(cmd.getEntreprise_id())
+                        .build())
+                .toList();
+        cmd.getLigneCommandeClients().addAll(ligneCommandeClientRepository.saveAll(ajouts));
+
+        return CommandeClientResponseDto.fromEntity(cmd);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<LigneCommandeClientResponseDto> findAllLignesByCommandeId(Integer commandeId) {
@@ -355,5 +432,12 @@ public class CommandeClientServiceImpl implements CommandeClientService {
         return CommandeClientResponseDto.fromEntity(saved);
     }
 
-
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<CommandeClientResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<CommandeClient> spec = KeysetSpecifications.filtre(f, "entreprise_id", "dateCommande");
+        List<CommandeClient> lignes = KeysetSpecifications.lirePage(commandeClientRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), CommandeClient::getId, CommandeClientResponseDto::fromEntity);
+    }
 }
@@ -3,9 +3,12 @@ package com.team48.gestiondestock.service.impl;
 import com.team48.gestiondestock.dto.CommandeFournisseurRequestDto;
 import com.team48.gestiondestock.dto.CommandeFournisseurResponseDto;
 import com.team48.gestiondestock.dto.LigneCommandeFournisseurRequestDto;
+import com.team48.gestiondestock.dto.LigneCommandeFournisseurResponseDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
 import com.team48.gestiondestock.exception.EntityNotFoundException;
 import com.team48.gestiondestock.exception.ErrorCodes;
 import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
 import com.team48.gestiondestock.model.CommandeFournisseur;
 import com.team48.gestiondestock.model.LigneCommandeFournisseur;
 import com.team48.gestiondestock.repository.ArticleRepository;
@@ -13,16 +16,27 @@ import com.team48.gestiondestock.repository.CommandeFournisseurRepository;
 import com.team48.gestiondestock.repository.FournisseurRepository;
 import com.team48.gestiondestock.repository.LigneCommandeFournisseurRepository;
 import com.team48.gestiondestock.service.CommandeFournisseurService;
+import com.team48.gestiondestock.service.security.TenantContext;
 import com.team48.gestiondestock.validator.CommandeFournisseurValidator;
+import com.team48.gestiondestock.validator.LignesCommandeValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -80,7 +94,7 @@ public class CommandeFournisseurServiceImpl implements CommandeFournisseurServic
             log.error("CommandeFournisseur ID is null");
             return null;
         }
-        return commandeFournisseurRepository.findById(id)
+        return commandeFournisseurRepository.findByIdWithFournisseur(id)
                 .map(CommandeFournisseurResponseDto::fromEntity)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucune commande fournisseur avec l'ID " + id + " trouvée",
@@ -94,7 +108,7 @@ public class CommandeFournisseurServiceImpl implements CommandeFournisseurServic
             log.error("Commande fournisseur CODE is NULL");
             return null;
         }
-        return commandeFournisseurRepository.findCommandeFournisseurByCode(code)
+        return commandeFournisseurRepository.findByCodeWithFournisseur(code)
                 .map(CommandeFournisseurResponseDto::fromEntity)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucune commande fournisseur n'a été trouvée avec le code " + code,
@@ -104,7 +118,8 @@ public class CommandeFournisseurServiceImpl implements CommandeFournisseurServic
 
     @Override
     public List<CommandeFournisseurResponseDto> findAll() {
-        return commandeFournisseurRepository.findAll().stream()
+        Integer entrepriseId = TenantContext.entrepriseCourante();
+        return (entrepriseId == null ? commandeFournisseurRepository.findAllWithFournisseur() : commandeFournisseurRepository.findAllWithFournisseurByEntrepriseId(entrepriseId)).stream()
                 .map(CommandeFournisseurResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -224,5 +239,85 @@ public class CommandeFournisseurServiceImpl implements CommandeFournisseurServic
         CommandeFournisseur saved = commandeFournisseurRepository.save(cmd);
         return CommandeFournisseurResponseDto.fromEntity(saved);
     }
+
+    @Override
+    @Transactional
+    public CommandeFournisseurResponseDto modifierLignes(Integer commandeId, LignesCommandeModificationDto modifications) {
+        List<String> errors = LignesCommandeValidator.validate(modifications);
+        if (!errors.isEmpty()) {
+            log.error("Modification des lignes de la commande fournisseur {} non valide : {}", commandeId, errors);
+            throw new InvalidEntityException(
+                    "Les modifications des lignes de la commande fournisseur ne sont pas valides",
+                    ErrorCodes.LIGNE_COMMANDE_FOURNISSEUR_NOT_VALID,
+                    errors
+            );
+        }
+
+        // Commande, lignes et articles en une requête, puis tous les articles référencés en une requête IN
+        CommandeFournisseur cmd = commandeFournisseurRepository.findByIdWithLignes(commandeId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Commande fournisseur non trouvée pour ID " + commandeId,
+                        ErrorCodes.COMMANDE_FOURNISSEUR_NOT_FOUND
+                ));
+        TenantContext.entrepriseId(cmd.getEntreprise_id());
+        Map<Integer, Article> articles = ArticlesDesLignes.charger(articleRepository, modifications,
+                cmd.getEntreprise_id(), ErrorCodes.LIGNE_COMMANDE_FOURNISSEUR_NOT_VALID);
+
+        Map<Integer, LigneCommandeFournisseur> existantes = cmd.getLigneCommandeFournisseurs().stream()
+                .collect(Collectors.toMap(LigneCommandeFournisseur::getId, Function.identity()));
+        List<Integer> inconnues = Stream.concat(
+                        modifications.getModifications().stream().map(LignesCommandeModificationDto.Ligne::getId),
+                        modifications.getSuppressions().stream())
+                .filter(id -> !existantes.containsKey(id))
+                .toList();
+        if (!inconnues.isEmpty()) {
+            throw new EntityNotFoundException(
+                    "Lignes " + inconnues + " non trouvées dans la commande fournisseur " + commandeId,
+                    ErrorCodes.LIGNE_COMMANDE_FOURNISSEUR_NOT_FOUND
+            );
+        }
+
+        // Pas de cascade sur la collection : les lignes supprimées partent en un seul DELETE ... WHERE id IN
+        if (!modifications.getSuppressions().isEmpty()) {
+            Set<Integer> suppressions = new HashSet<>(modifications.getSuppressions());
+            ligneFournisseurRepo.deleteAllByIdInBatch(suppressions);
+            cmd.getLigneCommandeFournisseurs().removeIf(l -> suppressions.contains(l.getId()));
+        }
+        for (LignesCommandeModificationDto.Ligne dto : modifications.getModifications()) {
+            LigneCommandeFournisseur ligne = existantes.get(dto.getId());
+            ligne.setQuantite(dto.getQuantite());
+            ligne.setPrixUnitaire(dto.getPrixUnitaire());
+            if (dto.getArticleId() != null) {
+                ligne.setArticle(articles.get(dto.getArticleId()));
+            }
+        }
+
+        // Ids réservés par la séquence : les INSERT partent en batch JDBC au flush
+        List<LigneCommandeFournisseur> ajouts = modifications.getAjouts().stream()
+                .<LigneCommandeFournisseur>map(dto -> LigneCommandeFournisseur.builder()
+                        .commandeFournisseur(cmd)
+                        .article(articles.get(dto.getArticleId()))
+                        .quantite(dto.getQuantite())
+                        .prixUnitaire(dto.getPrixUnitaire())
+                        .entreprise_id(cmd.getEntreprise_id())
+                        .build())
+                .toList();
+        cmd.getLigneCommandeFournisseurs().addAll(ligneFournisseurRepo.saveAll(ajouts));
+
+        CommandeFournisseurResponseDto response = CommandeFournisseurResponseDto.fromEntity(cmd);
+        response.setLigneCommandeFournisseurs(cmd.getLigneCommandeFournisseurs().stream()
+                .map(LigneCommandeFournisseurResponseDto::fromEntity)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<CommandeFournisseurResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<CommandeFournisseur> spec = KeysetSpecifications.filtre(f, "entreprise_id", "dateCommande");
+        List<CommandeFournisseur> lignes = KeysetSpecifications.lirePage(commandeFournisseurRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), CommandeFournisseur::getId, CommandeFournisseurResponseDto::fromEntity);
+    }
 }
 
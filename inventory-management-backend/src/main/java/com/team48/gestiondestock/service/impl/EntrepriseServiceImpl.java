@@ -9,12 +9,17 @@ import com.team48.gestiondestock.exception.InvalidEntityException;
 import com.team48.gestiondestock.model.Entreprise;
 import com.team48.gestiondestock.repository.EntrepriseRepository;
 import com.team48.gestiondestock.service.EntrepriseService;
+import com.team48.gestiondestock.service.cache.ReferentielCache;
 import com.team48.gestiondestock.validator.EntrepriseValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
 import java.util.List;
@@ -25,10 +30,12 @@ import java.util.stream.Collectors;
 public class EntrepriseServiceImpl implements EntrepriseService {
 
     private final EntrepriseRepository entrepriseRepository;
+    private final ReferentielCache referentielCache;
 
     @Autowired
-    public EntrepriseServiceImpl(EntrepriseRepository entrepriseRepository) {
+    public EntrepriseServiceImpl(EntrepriseRepository entrepriseRepository, ReferentielCache referentielCache) {
         this.entrepriseRepository = entrepriseRepository;
+        this.referentielCache = referentielCache;
     }
 
     @Override
@@ -113,7 +120,7 @@ public class EntrepriseServiceImpl implements EntrepriseService {
 
     @Override
     public List<EntrepriseResponseDto> findAll() {
-        return entrepriseRepository.findAll().stream()
+        return entrepriseRepository.findAll(KeysetSpecifications.entrepriseCourante("id")).stream()
                 .map(EntrepriseResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -125,6 +132,7 @@ public class EntrepriseServiceImpl implements EntrepriseService {
             return;
         }
         entrepriseRepository.deleteById(id);
+        referentielCache.evincer(Entreprise.class, id);
     }
 
     @Override
@@ -164,8 +172,18 @@ public class EntrepriseServiceImpl implements EntrepriseService {
                 //.creationDate(dto.getCreationDate())
                 .build();
         Entreprise saved = entrepriseRepository.save(toSave);
+        referentielCache.evincer(Entreprise.class, saved.getId());
         return EntrepriseResponseDto.fromEntity(saved);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<EntrepriseResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Entreprise> spec = KeysetSpecifications.filtre(f, "id", "creationDate");
+        List<Entreprise> lignes = KeysetSpecifications.lirePage(entrepriseRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Entreprise::getId, EntrepriseResponseDto::fromEntity);
+    }
 }
 
 
@@ -11,11 +11,15 @@ import com.team48.gestiondestock.repository.FournisseurRepository;
 import com.team48.gestiondestock.repository.EntrepriseRepository;
 import com.team48.gestiondestock.service.FournisseurService;
 import com.team48.gestiondestock.validator.FournisseurValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
 import java.util.List;
@@ -105,7 +109,7 @@ public class FournisseurServiceImpl implements FournisseurService {
 
     @Override
     public List<FournisseurResponseDto> findAll() {
-        return fournisseurRepository.findAll().stream()
+        return fournisseurRepository.findAll(KeysetSpecifications.entrepriseCourante("entreprise.id")).stream()
                 .map(FournisseurResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -154,5 +158,14 @@ public class FournisseurServiceImpl implements FournisseurService {
         Fournisseur saved = fournisseurRepository.save(toSave);
         return FournisseurResponseDto.fromEntity(saved);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<FournisseurResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Fournisseur> spec = KeysetSpecifications.filtre(f, "entreprise.id", "creationDate");
+        List<Fournisseur> lignes = KeysetSpecifications.lirePage(fournisseurRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Fournisseur::getId, FournisseurResponseDto::fromEntity);
+    }
 }
 
@@ -0,0 +1,38 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.team48.gestiondestock.service.MvtStkArchivageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+// Maintenance du journal de stock : partitions des mois à venir, puis archivage des mois clos,
+// un mois par transaction (appels via le proxy du service). Désactivée par défaut : une seule instance
+// doit l'exécuter (MVTSTK_MAINTENANCE_ACTIF=true)
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "mvtstk.maintenance.actif", havingValue = "true", matchIfMissing = false)
+public class MvtStkArchivagePlanificateur {
+
+    private final MvtStkArchivageService mvtStkArchivageService;
+
+    @Autowired
+    public MvtStkArchivagePlanificateur(MvtStkArchivageService mvtStkArchivageService) {
+        this.mvtStkArchivageService = mvtStkArchivageService;
+    }
+
+    @Scheduled(cron = "${mvtstk.maintenance.cron:0 30 3 * * *}")
+    public void executer() {
+        try {
+            mvtStkArchivageService.preparerPartitions();
+            for (YearMonth mois : mvtStkArchivageService.moisArchivables()) {
+                mvtStkArchivageService.archiver(mois);
+            }
+        } catch (RuntimeException e) {
+            log.error("Échec de la maintenance du journal de stock : {}", e.getMessage(), e);
+        }
+    }
+}
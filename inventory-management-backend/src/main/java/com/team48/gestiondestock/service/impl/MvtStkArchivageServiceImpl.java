@@ -0,0 +1,248 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team48.gestiondestock.dto.MvtStkArchivageResultatDto;
+import com.team48.gestiondestock.dto.MvtStkExportDto;
+import com.team48.gestiondestock.dto.MvtStkResumeMensuelDto;
+import com.team48.gestiondestock.exception.EntityNotFoundException;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.MvtStkResumeMensuel;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.repository.MvtStkResumeMensuelRepository;
+import com.team48.gestiondestock.service.MvtStkArchivageService;
+import com.team48.gestiondestock.service.security.TenantContext;
+import com.team48.gestiondestock.service.stockage.ObjectStorage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@Slf4j
+public class MvtStkArchivageServiceImpl implements MvtStkArchivageService {
+
+    private static final String PREFIXE_ARCHIVES = "archives/mvtstk/";
+    // Dossier des mouvements sans entreprise (entreprise_id null, lu comme 0)
+    private static final String SANS_ENTREPRISE = "aucune";
+    private static final int LOT = 1000;
+    // Partitions créées à l'avance : mois courant et suivants
+    private static final int PARTITIONS_A_L_AVANCE = 3;
+
+    private final MvtStkRepository mvtStkRepository;
+    private final MvtStkResumeMensuelRepository mvtStkResumeMensuelRepository;
+    private final ObjectStorage objectStorage;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${mvtstk.partitionnement.actif:false}")
+    private boolean partitionne;
+
+    @Value("${mvtstk.archivage.retention-mois:24}")
+    private int retentionMois;
+
+    @Autowired
+    public MvtStkArchivageServiceImpl(MvtStkRepository mvtStkRepository, MvtStkResumeMensuelRepository mvtStkResumeMensuelRepository,
+                                      ObjectStorage objectStorage, ObjectMapper objectMapper) {
+        this.mvtStkRepository = mvtStkRepository;
+        this.mvtStkResumeMensuelRepository = mvtStkResumeMensuelRepository;
+        this.objectStorage = objectStorage;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional
+    public MvtStkArchivageResultatDto archiver(YearMonth mois) {
+        if (mois == null || !mois.isBefore(YearMonth.now(ZoneOffset.UTC))) {
+            throw new InvalidEntityException("Seul un mois clos peut être archivé", ErrorCodes.MVT_STK_NOT_VALID,
+                    List.of("Mois demandé : " + mois));
+        }
+        Instant debut = debut(mois);
+        Instant fin = debut(mois.plusMonths(1));
+        mvtStkRepository.findPremiereDateMvt()
+                .filter(premiere -> premiere.isBefore(debut))
+                .ifPresent(premiere -> {
+                    throw new InvalidEntityException("Les mois précédents doivent être archivés d'abord",
+                            ErrorCodes.MVT_STK_NOT_VALID, List.of("Premier mouvement du journal : " + premiere));
+                });
+
+        // 1. Un fichier par entreprise, écrit avant tout retrait : en cas d'échec la transaction est annulée
+        // et un nouvel archivage du mois remplace les fichiers
+        Map<Integer, String> cles = new HashMap<>();
+        long total = 0;
+        for (Integer entrepriseId : mvtStkRepository.findEntrepriseIdsEntre(debut, fin)) {
+            String cle = cle(entrepriseId == 0 ? null : entrepriseId, mois);
+            total += ecrireArchive(entrepriseId, debut, fin, cle);
+            cles.put(entrepriseId, cle);
+        }
+
+        // 2. Résumés par entreprise et article : le stock et l'historique restent lisibles en base
+        List<MvtStkResumeMensuel> resumes = mvtStkRepository.resumerEntre(debut, fin).stream()
+                .<MvtStkResumeMensuel>map(ligne -> {
+                    Integer entrepriseId = (Integer) ligne[0];
+                    return MvtStkResumeMensuel.builder()
+                            .entrepriseId(entrepriseId)
+                            .articleId((Integer) ligne[1])
+                            .mois(mois.atDay(1))
+                            .entrees((BigDecimal) ligne[2])
+                            .sorties((BigDecimal) ligne[3])
+                            .nbMouvements((Long) ligne[4])
+                            .cleArchive(cles.get(entrepriseId == null ? 0 : entrepriseId))
+                            .build();
+                })
+                .toList();
+        mvtStkResumeMensuelRepository.saveAll(resumes);
+
+        // 3. Retrait des mouvements détaillés ; un mouvement arrivé entre-temps annule l'archivage
+        long retires = partitionne ? supprimerPartition(mois) : mvtStkRepository.supprimerEntre(debut, fin);
+        if (retires != total) {
+            log.error("Archivage de {} : {} mouvements archivés, {} retirés", mois, total, retires);
+            throw new InvalidEntityException("Le journal a changé pendant l'archivage du mois " + mois + ", réessayez",
+                    ErrorCodes.MVT_STK_ARCHIVAGE_ERREUR, List.of("Archivés : " + total + ", retirés : " + retires));
+        }
+        log.info("Mois {} archivé : {} mouvements, {} résumés, fichiers {}", mois, total, resumes.size(), cles.values());
+        return MvtStkArchivageResultatDto.builder()
+                .mois(mois)
+                .nbMouvements(total)
+                .nbResumes(resumes.size())
+                .clesArchive(new ArrayList<>(cles.values()))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<YearMonth> moisArchivables() {
+        YearMonth limite = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMois);
+        List<YearMonth> mois = new ArrayList<>();
+        mvtStkRepository.findPremiereDateMvt().ifPresent(premiere -> {
+            for (YearMonth m = YearMonth.from(premiere.atZone(ZoneOffset.UTC)); m.isBefore(limite); m = m.plusMonths(1)) {
+                mois.add(m);
+            }
+        });
+        return mois;
+    }
+
+    @Override
+    @Transactional
+    public void preparerPartitions() {
+        if (!partitionne) {
+            return;
+        }
+        YearMonth mois = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i < PARTITIONS_A_L_AVANCE; i++) {
+            // Fonction créée par db/mvtstk-partitionnement.sql, sans effet si la partition existe
+            entityManager.createNativeQuery("SELECT mvtstk_creer_partition(CAST(:mois AS date))")
+                    .setParameter("mois", mois.plusMonths(i).atDay(1))
+                    .getSingleResult();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MvtStkResumeMensuelDto> findResumes(Integer entrepriseId, Integer articleId) {
+        return mvtStkResumeMensuelRepository.rechercher(TenantContext.entrepriseId(entrepriseId), articleId).stream()
+                .map(MvtStkResumeMensuelDto::fromEntity)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void lireArchive(Integer entrepriseId, YearMonth mois, OutputStream out) throws IOException {
+        List<String> cles = mois == null ? List.of()
+                : mvtStkResumeMensuelRepository.findClesArchive(TenantContext.entrepriseId(entrepriseId), mois.atDay(1));
+        if (cles.isEmpty()) {
+            throw new EntityNotFoundException("Aucune archive du journal de stock pour le mois " + mois,
+                    ErrorCodes.MVT_STK_ARCHIVE_NOT_FOUND);
+        }
+        for (String cle : cles) {
+            try (InputStream in = new GZIPInputStream(objectStorage.get(cle))) {
+                in.transferTo(out);
+            }
+        }
+        out.flush();
+    }
+
+    // Les mouvements sont écrits en flux dans un fichier temporaire compressé, puis envoyés en une fois
+    private long ecrireArchive(Integer entrepriseId, Instant debut, Instant fin, String cle) {
+        Path fichier = null;
+        try {
+            fichier = Files.createTempFile("mvtstk-archive-", ".ndjson.gz");
+            long lignes = 0;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(fichier)), StandardCharsets.UTF_8));
+                 Stream<MvtStk> mouvements = mvtStkRepository.streamEntre(entrepriseId, debut, fin)) {
+                Iterator<MvtStk> iterator = mouvements.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(objectMapper.writeValueAsString(MvtStkExportDto.fromEntity(iterator.next())));
+                    writer.write('\n');
+                    if (++lignes % LOT == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            try (InputStream in = Files.newInputStream(fichier)) {
+                objectStorage.put(cle, in, Files.size(fichier), "application/gzip");
+            }
+            return lignes;
+        } catch (IOException e) {
+            log.error("Écriture de l'archive {} impossible : {}", cle, e.getMessage());
+            throw new InvalidEntityException("Écriture de l'archive " + cle + " impossible", e, ErrorCodes.MVT_STK_ARCHIVAGE_ERREUR);
+        } finally {
+            if (fichier != null) {
+                try {
+                    Files.deleteIfExists(fichier);
+                } catch (IOException e) {
+                    log.warn("Suppression du fichier temporaire {} impossible : {}", fichier, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Détache et supprime la partition du mois (fonction de db/mvtstk-partitionnement.sql) ; retourne son nombre de lignes
+    private long supprimerPartition(YearMonth mois) {
+        entityManager.flush();
+        Number lignes = (Number) entityManager.createNativeQuery("SELECT mvtstk_supprimer_partition(CAST(:mois AS date))")
+                .setParameter("mois", mois.atDay(1))
+                .getSingleResult();
+        entityManager.clear();
+        return lignes.longValue();
+    }
+
+    private static String cle(Integer entrepriseId, YearMonth mois) {
+        return PREFIXE_ARCHIVES + (entrepriseId == null ? SANS_ENTREPRISE : entrepriseId) + "/" + mois + ".ndjson.gz";
+    }
+
+    private static Instant debut(YearMonth mois) {
+        LocalDate jour = mois.atDay(1);
+        return jour.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
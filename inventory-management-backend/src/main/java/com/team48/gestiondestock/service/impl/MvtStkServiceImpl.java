@@ -1,24 +1,49 @@
 package com.team48.gestiondestock.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team48.gestiondestock.dto.MvtStkExportDto;
 import com.team48.gestiondestock.dto.MvtStkRequestDto;
 import com.team48.gestiondestock.dto.MvtStkResponseDto;
 import com.team48.gestiondestock.exception.EntityNotFoundException;
 import com.team48.gestiondestock.exception.ErrorCodes;
 import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
 import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.TypeMvtStk;
 import com.team48.gestiondestock.repository.ArticleRepository;
 import com.team48.gestiondestock.repository.EntrepriseRepository;
 import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.repository.MvtStkResumeMensuelRepository;
 import com.team48.gestiondestock.service.MvtStkService;
+import com.team48.gestiondestock.service.StockBalanceService;
+import com.team48.gestiondestock.service.security.TenantContext;
 import com.team48.gestiondestock.validator.MvtStkValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 @Slf4j
@@ -27,15 +52,28 @@ public class MvtStkServiceImpl implements MvtStkService {
     private final MvtStkRepository mvtStkRepository;
     private final ArticleRepository articleRepository;
     private final EntrepriseRepository entrepriseRepository;
+    private final StockBalanceService stockBalanceService;
+    private final MvtStkResumeMensuelRepository mvtStkResumeMensuelRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Nombre de lignes exportées entre deux vidages du contexte de persistance
+    private static final int EXPORT_LOT = 1000;
 
     @Autowired
-    public MvtStkServiceImpl(MvtStkRepository mvtStkRepository, ArticleRepository articleRepository, EntrepriseRepository entrepriseRepository) {
+    public MvtStkServiceImpl(MvtStkRepository mvtStkRepository, ArticleRepository articleRepository, EntrepriseRepository entrepriseRepository,
+                             StockBalanceService stockBalanceService, MvtStkResumeMensuelRepository mvtStkResumeMensuelRepository,
+                             ObjectMapper objectMapper) {
         this.mvtStkRepository = mvtStkRepository;
         this.articleRepository = articleRepository;
         this.entrepriseRepository = entrepriseRepository;
+        this.stockBalanceService = stockBalanceService;
+        this.mvtStkResumeMensuelRepository = mvtStkResumeMensuelRepository;
+        this.objectMapper = objectMapper;
     }
 
-   
 
     @Override
     @Transactional
@@ -71,10 +109,9 @@ public class MvtStkServiceImpl implements MvtStkService {
                         "Aucun article avec l'ID " + dto.getArticleId() + " n'a été trouvé",
                         ErrorCodes.ARTICLE_NOT_FOUND
                 ));
-        // 3. Persistance du mouvement
-        MvtStk entity = MvtStkRequestDto.toEntity(dto);
-        entity.setArticle(article); // Associer l'article à l'entité
-        MvtStk saved = mvtStkRepository.save(entity);
+        // 3. Persistance du mouvement et mise à jour du solde de stock de l'article
+        MvtStk saved = enregistrer(dto, article);
+        stockBalanceService.appliquer(deltas(saved));
         // 4. Retour du DTO reconstruit avec le nom de l'entreprise
         return MvtStkResponseDto.fromEntity(saved);
     }
@@ -95,21 +132,43 @@ public class MvtStkServiceImpl implements MvtStkService {
 
     @Override
     public List<MvtStkResponseDto> findAll() {
-        return mvtStkRepository.findAllWithArticle().stream()
+        Integer entrepriseId = TenantContext.entrepriseCourante();
+        return (entrepriseId == null ? mvtStkRepository.findAllWithArticle() : mvtStkRepository.findAllWithArticleByEntrepriseId(entrepriseId)).stream()
                 .map(mvtStk -> MvtStkResponseDto.fromEntity(mvtStk))
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public void delete(Integer id) {
         if (id == null) {
             log.error("MvtStk ID is null");
             return;
         }
-        mvtStkRepository.deleteById(id);
+        MvtStk existing = mvtStkRepository.findByIdPourCorrection(id).orElse(null);
+        if (existing == null) {
+            return;
+        }
+        // Le journal est en ajout seul : la suppression s'écrit comme un mouvement inverse
+        if (mvtStkRepository.existsByMvtCorrigeId(id)) {
+            log.warn("Le mouvement de stock {} est déjà annulé", id);
+            return;
+        }
+        stockBalanceService.appliquer(deltas(compenser(existing)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal stockReelArticle(Integer idArticle) {
+        if (idArticle == null) {
+            log.error("Article ID is null");
+            return null;
+        }
+        return stockBalanceService.stockReel(idArticle);
     }
 
     @Override
+    @Transactional
     public MvtStkResponseDto update(Integer id, MvtStkRequestDto dto) {
         if (dto == null || id == null) {
             log.error("MvtStk or MvtStk ID is null");
@@ -128,25 +187,125 @@ public class MvtStkServiceImpl implements MvtStkService {
                     errors
             );
         }
-        MvtStk existing = mvtStkRepository.findById(id)
+        MvtStk existing = mvtStkRepository.findByIdPourCorrection(id)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucun mouvement de stock avec l'ID " + id + " n'a été trouvé dans la BDD",
                         ErrorCodes.MVT_STK_NOT_FOUND
                 ));
-        // Vérifier et récupérer l'article si l'articleId est fourni
-        var article = dto.getArticleId() != null ?
-                articleRepository.findById(dto.getArticleId())
-                        .orElseThrow(() -> new EntityNotFoundException(
-                                "Aucun article avec l'ID " + dto.getArticleId() + " n'a été trouvé",
-                                ErrorCodes.ARTICLE_NOT_FOUND
-                        )) : null;
-        MvtStk toSave = MvtStkRequestDto.toEntity(dto);
-        toSave.setId(existing.getId());
-        if (article != null) {
-            toSave.setArticle(article);
+        if (mvtStkRepository.existsByMvtCorrigeId(id)) {
+            log.error("MvtStk {} already compensated", id);
+            throw new InvalidEntityException(
+                    "Le mouvement de stock " + id + " a déjà été corrigé ou annulé",
+                    ErrorCodes.MVT_STK_DEJA_CORRIGE,
+                    List.of("Corriger le dernier mouvement de la chaîne")
+            );
         }
-        MvtStk saved = mvtStkRepository.save(toSave);
+        var article = articleRepository.findById(dto.getArticleId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Aucun article avec l'ID " + dto.getArticleId() + " n'a été trouvé",
+                        ErrorCodes.ARTICLE_NOT_FOUND
+                ));
+        // Le mouvement d'origine reste tel quel : il est annulé par un mouvement inverse,
+        // puis la valeur corrigée est enregistrée comme un nouveau mouvement
+        // Les deux mouvements sont répercutés sur les soldes en un seul appel (verrous pris une fois, dans l'ordre)
+        MvtStk compensation = compenser(existing);
+        MvtStk saved = enregistrer(dto, article);
+        stockBalanceService.appliquer(deltas(compensation, saved));
         return MvtStkResponseDto.fromEntity(saved);
     }
+
+    private MvtStk enregistrer(MvtStkRequestDto dto, Article article) {
+        verifierMoisOuvert(dto.getDateMvt());
+        MvtStk entity = MvtStkRequestDto.toEntity(dto);
+        entity.setArticle(article); // Associer l'article à l'entité
+        return mvtStkRepository.save(entity);
+    }
+
+    private List<StockBalanceService.DeltaStock> deltas(MvtStk... mouvements) {
+        return Arrays.stream(mouvements)
+                .filter(m -> m.getArticle() != null)
+                .map(m -> new StockBalanceService.DeltaStock(entrepriseIdDe(m), m.getArticle().getId(),
+                        stockBalanceService.quantiteSignee(m)))
+                .toList();
+    }
+
+    // Mouvement inverse daté de maintenant, rattaché au mouvement qu'il annule
+    private MvtStk compenser(MvtStk existing) {
+        MvtStk compensation = mvtStkRepository.save(MvtStk.builder()
+                .dateMvt(Instant.now())
+                .quantite(existing.getQuantite())
+                .typeMvt(existing.getTypeMvt() == TypeMvtStk.SORTIE ? TypeMvtStk.ENTREE : TypeMvtStk.SORTIE)
+                .article(existing.getArticle())
+                .entreprise_id(existing.getEntreprise_id())
+                .mvtCorrigeId(existing.getId())
+                .build());
+        log.info("Mouvement de stock {} compensé par le mouvement {}", existing.getId(), compensation.getId());
+        return compensation;
+    }
+
+    // Les mois archivés sont en lecture seule : aucun mouvement ne peut y être daté
+    private void verifierMoisOuvert(Instant dateMvt) {
+        mvtStkResumeMensuelRepository.findDernierMoisArchive().ifPresent(dernier -> {
+            Instant ouverture = dernier.plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            if (dateMvt.isBefore(ouverture)) {
+                throw new InvalidEntityException(
+                        "Le mouvement est daté d'un mois archivé",
+                        ErrorCodes.MVT_STK_MOIS_ARCHIVE,
+                        List.of("Date minimale : " + ouverture)
+                );
+            }
+        });
+    }
+
+    // L'entreprise du solde est celle de l'article, à défaut celle renseignée sur le mouvement
+    private Integer entrepriseIdDe(MvtStk mvtStk) {
+        if (mvtStk.getArticle() != null && mvtStk.getArticle().getEntreprise() != null) {
+            return mvtStk.getArticle().getEntreprise().getId();
+        }
+        return mvtStk.getEntreprise_id();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<MvtStkResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<MvtStk> spec = Specification.allOf(
+                KeysetSpecifications.filtre(f, "entreprise_id", "dateMvt"),
+                KeysetSpecifications.egal("article.categorie.id", f.getCategorieId()));
+        List<MvtStk> lignes = KeysetSpecifications.lirePage(mvtStkRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), MvtStk::getId, MvtStkResponseDto::fromEntity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exporter(FiltreRechercheDto filtre, String format, OutputStream out) throws IOException {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        boolean csv = "csv".equalsIgnoreCase(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(MvtStkExportDto.enteteCsv());
+            writer.write('\n');
+        }
+        try (Stream<MvtStk> mouvements = mvtStkRepository.streamForExport(
+                TenantContext.entrepriseId(f.getEntrepriseId()),
+                f.getCursor() != null ? f.getCursor() : 0,
+                f.getDateDebut() != null ? f.getDateDebut() : Instant.EPOCH,
+                f.getDateFin() != null ? f.getDateFin() : Instant.now().plusSeconds(1))) {
+            Iterator<MvtStk> iterator = mouvements.iterator();
+            int lignes = 0;
+            while (iterator.hasNext()) {
+                MvtStkExportDto ligne = MvtStkExportDto.fromEntity(iterator.next());
+                writer.write(csv ? ligne.toCsv() : objectMapper.writeValueAsString(ligne));
+                writer.write('\n');
+                if (++lignes % EXPORT_LOT == 0) {
+                    // Les entités déjà écrites ne servent plus : la mémoire reste constante
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+            log.info("Export du journal de stock terminé : {} mouvements", lignes);
+        }
+        writer.flush();
+    }
 }
 
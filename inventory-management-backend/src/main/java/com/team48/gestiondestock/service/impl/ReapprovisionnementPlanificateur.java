@@ -0,0 +1,32 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.team48.gestiondestock.service.ReapprovisionnementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Lance le moteur via son proxy transactionnel (un appel interne à executer() n'ouvrirait pas de transaction).
+// Désactivé par défaut : une seule instance doit créer les brouillons (REAPPROVISIONNEMENT_ACTIF=true)
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "reapprovisionnement.actif", havingValue = "true", matchIfMissing = false)
+public class ReapprovisionnementPlanificateur {
+
+    private final ReapprovisionnementService reapprovisionnementService;
+
+    @Autowired
+    public ReapprovisionnementPlanificateur(ReapprovisionnementService reapprovisionnementService) {
+        this.reapprovisionnementService = reapprovisionnementService;
+    }
+
+    @Scheduled(cron = "${reapprovisionnement.cron:0 */15 * * * *}")
+    public void executer() {
+        try {
+            reapprovisionnementService.executer();
+        } catch (RuntimeException e) {
+            log.error("Échec du réapprovisionnement planifié : {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.team48.gestiondestock.dto.ReapprovisionnementResultatDto;
+import com.team48.gestiondestock.dto.SeuilStockRequestDto;
+import com.team48.gestiondestock.dto.SeuilStockResponseDto;
+import com.team48.gestiondestock.exception.EntityNotFoundException;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.CommandeFournisseur;
+import com.team48.gestiondestock.model.EtatCommande;
+import com.team48.gestiondestock.model.ExecutionReapprovisionnement;
+import com.team48.gestiondestock.model.Fournisseur;
+import com.team48.gestiondestock.model.LigneCommandeFournisseur;
+import com.team48.gestiondestock.model.SeuilStock;
+import com.team48.gestiondestock.model.StockBalance;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CommandeFournisseurRepository;
+import com.team48.gestiondestock.repository.ExecutionReapprovisionnementRepository;
+import com.team48.gestiondestock.repository.FournisseurRepository;
+import com.team48.gestiondestock.repository.LigneCommandeFournisseurRepository;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.repository.SeuilStockRepository;
+import com.team48.gestiondestock.repository.StockBalanceRepository;
+import com.team48.gestiondestock.service.ReapprovisionnementService;
+import com.team48.gestiondestock.service.security.TenantContext;
+import com.team48.gestiondestock.validator.SeuilStockValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ReapprovisionnementServiceImpl implements ReapprovisionnementService {
+
+    // Nombre d'articles évalués par requête (clauses IN)
+    private static final int TAILLE_LOT = 1000;
+
+    private final SeuilStockRepository seuilStockRepository;
+    private final ExecutionReapprovisionnementRepository executionRepository;
+    private final StockBalanceRepository stockBalanceRepository;
+    private final MvtStkRepository mvtStkRepository;
+    private final CommandeFournisseurRepository commandeFournisseurRepository;
+    private final LigneCommandeFournisseurRepository ligneCommandeFournisseurRepository;
+    private final ArticleRepository articleRepository;
+    private final FournisseurRepository fournisseurRepository;
+
+    // Fenêtre glissante sur laquelle est mesurée la consommation moyenne journalière
+    @Value("${reapprovisionnement.fenetre-jours:30}")
+    private int fenetreJours;
+
+    @Value("${reapprovisionnement.delai-livraison-jours:7}")
+    private int delaiLivraisonJours;
+
+    // Recouvrement entre deux passages, pour les transactions encore en cours au moment de la lecture
+    @Value("${reapprovisionnement.marge-secondes:60}")
+    private long margeSecondes;
+
+    @Autowired
+    public ReapprovisionnementServiceImpl(SeuilStockRepository seuilStockRepository,
+                                          ExecutionReapprovisionnementRepository executionRepository,
+                                          StockBalanceRepository stockBalanceRepository,
+                                          MvtStkRepository mvtStkRepository,
+                                          CommandeFournisseurRepository commandeFournisseurRepository,
+                                          LigneCommandeFournisseurRepository ligneCommandeFournisseurRepository,
+                                          ArticleRepository articleRepository,
+                                          FournisseurRepository fournisseurRepository) {
+        this.seuilStockRepository = seuilStockRepository;
+        this.executionRepository = executionRepository;
+        this.stockBalanceRepository = stockBalanceRepository;
+        this.mvtStkRepository = mvtStkRepository;
+        this.commandeFournisseurRepository = commandeFournisseurRepository;
+        this.ligneCommandeFournisseurRepository = ligneCommandeFournisseurRepository;
+        this.articleRepository = articleRepository;
+        this.fournisseurRepository = fournisseurRepository;
+    }
+
+    @Override
+    @Transactional
+    public SeuilStockResponseDto saveSeuil(SeuilStockRequestDto dto) {
+        List<String> errors = SeuilStockValidator.validate(dto);
+        if (!errors.isEmpty()) {
+            log.error("SeuilStock not valid: {}", dto);
+            throw new InvalidEntityException("Le seuil de stock n'est pas valide", ErrorCodes.SEUIL_STOCK_NOT_VALID, errors);
+        }
+        Article article = articleRepository.findById(dto.getArticleId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Aucun article avec l'ID " + dto.getArticleId() + " n'a été trouvé",
+                        ErrorCodes.ARTICLE_NOT_FOUND
+                ));
+        Fournisseur fournisseur = fournisseurRepository.findById(dto.getFournisseurId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Aucun fournisseur avec l'ID " + dto.getFournisseurId() + " n'a été trouvé",
+                        ErrorCodes.FOURNISSEUR_NOT_FOUND
+                ));
+
+        // Le seuil relève de l'entreprise de l'article : refusé à un utilisateur rattaché à une autre entreprise,
+        // et le fournisseur doit appartenir à la même entreprise
+        Integer entrepriseId = TenantContext.entrepriseId(
+                article.getEntreprise() != null ? article.getEntreprise().getId() : dto.getEntrepriseId());
+        Integer entrepriseFournisseur = fournisseur.getEntreprise() != null ? fournisseur.getEntreprise().getId() : null;
+        if (dto.getEntrepriseId() != null && !dto.getEntrepriseId().equals(entrepriseId)
+                || !Objects.equals(entrepriseFournisseur, entrepriseId)) {
+            log.error("SeuilStock hors de l'entreprise {} : {}", entrepriseId, dto);
+            throw new InvalidEntityException("Le seuil de stock n'est pas valide", ErrorCodes.SEUIL_STOCK_NOT_VALID,
+                    List.of("L'article et le fournisseur doivent appartenir à la même entreprise"));
+        }
+
+        SeuilStock seuil = seuilStockRepository.findByArticleId(article.getId())
+                .orElseGet(() -> SeuilStock.builder().articleId(article.getId()).build());
+        seuil.setEntrepriseId(entrepriseId);
+        seuil.setFournisseur(fournisseur);
+        seuil.setStockMin(dto.getStockMin());
+        seuil.setStockMax(dto.getStockMax());
+        seuil.setDelaiLivraisonJours(dto.getDelaiLivraisonJours());
+        return SeuilStockResponseDto.fromEntity(seuilStockRepository.save(seuil));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SeuilStockResponseDto findSeuilByArticleId(Integer articleId) {
+        return seuilStockRepository.findByArticleId(articleId)
+                .map(SeuilStockResponseDto::fromEntity)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Aucun seuil de stock pour l'article " + articleId,
+                        ErrorCodes.SEUIL_STOCK_NOT_FOUND
+                ));
+    }
+
+    @Override
+    @Transactional
+    public ReapprovisionnementResultatDto executer() {
+        long debut = System.currentTimeMillis();
+        Instant maintenant = Instant.now();
+        ExecutionReapprovisionnement execution = executionRepository.findFirstByOrderByIdAsc()
+                .orElseGet(() -> executionRepository.save(
+                        ExecutionReapprovisionnement.builder().traiteJusqua(Instant.EPOCH).build()));
+
+        List<SeuilStock> seuils = seuilStockRepository.findAReevaluer(execution.getTraiteJusqua());
+        Instant debutFenetre = maintenant.minus(fenetreJours, ChronoUnit.DAYS);
+
+        // Une commande brouillon par (entreprise, fournisseur)
+        Map<String, CommandeFournisseur> commandes = new LinkedHashMap<>();
+        List<LigneCommandeFournisseur> lignes = new ArrayList<>();
+        for (int i = 0; i < seuils.size(); i += TAILLE_LOT) {
+            List<SeuilStock> lot = seuils.subList(i, Math.min(i + TAILLE_LOT, seuils.size()));
+            Map<Integer, BigDecimal> quantites = quantitesACommander(lot, debutFenetre);
+            if (quantites.isEmpty()) {
+                continue;
+            }
+            Map<Integer, Article> articles = articleRepository.findAllById(quantites.keySet()).stream()
+                    .collect(Collectors.toMap(Article::getId, Function.identity()));
+            for (SeuilStock seuil : lot) {
+                BigDecimal quantite = quantites.get(seuil.getArticleId());
+                Article article = articles.get(seuil.getArticleId());
+                if (quantite == null || article == null) {
+                    continue;
+                }
+                CommandeFournisseur commande = commandes.computeIfAbsent(
+                        seuil.getEntrepriseId() + "-" + seuil.getFournisseur().getId(),
+                        cle -> CommandeFournisseur.builder()
+                                .code("REAPPRO-" + seuil.getFournisseur().getId() + "-" + maintenant.toEpochMilli())
+                                .dateCommande(maintenant)
+                                .fournisseur(seuil.getFournisseur())
+                                .etat(EtatCommande.BROUILLON)
+                                .entreprise_id(seuil.getEntrepriseId())
+                                .build());
+                lignes.add(LigneCommandeFournisseur.builder()
+                        .commandeFournisseur(commande)
+                        .article(article)
+                        .quantite(quantite)
+                        .prixUnitaire(article.getPrixUnitaire())
+                        .entreprise_id(seuil.getEntrepriseId())
+                        .build());
+            }
+        }
+        // INSERT regroupés en batch JDBC
+        commandeFournisseurRepository.saveAll(commandes.values());
+        ligneCommandeFournisseurRepository.saveAll(lignes);
+
+        Instant traiteJusqua = maintenant.minusSeconds(margeSecondes);
+        if (traiteJusqua.isAfter(execution.getTraiteJusqua())) {
+            execution.setTraiteJusqua(traiteJusqua);
+        }
+        long duree = System.currentTimeMillis() - debut;
+        log.info("Réapprovisionnement : {} article(s) évalué(s), {} commande(s) brouillon, {} ligne(s) en {} ms",
+                seuils.size(), commandes.size(), lignes.size(), duree);
+        return ReapprovisionnementResultatDto.builder()
+                .articlesEvalues(seuils.size())
+                .commandesCreees(commandes.size())
+                .lignesCreees(lignes.size())
+                .traiteJusqua(execution.getTraiteJusqua())
+                .dureeMs(duree)
+                .build();
+    }
+
+    // Trois requêtes par lot : soldes, sorties sur la fenêtre, articles déjà en brouillon
+    private Map<Integer, BigDecimal> quantitesACommander(List<SeuilStock> lot, Instant debutFenetre) {
+        Set<Integer> articleIds = lot.stream().map(SeuilStock::getArticleId).collect(Collectors.toSet());
+        Map<Integer, BigDecimal> stocks = stockBalanceRepository.findByArticleIdIn(articleIds).stream()
+                .collect(Collectors.toMap(StockBalance::getArticleId, StockBalance::getQuantite, (a, b) -> a));
+        Map<Integer, BigDecimal> sorties = mvtStkRepository.sumSortiesByArticleIds(articleIds, debutFenetre).stream()
+                .collect(Collectors.toMap(ligne -> (Integer) ligne[0], ligne -> (BigDecimal) ligne[1]));
+        Set<Integer> enBrouillon = ligneCommandeFournisseurRepository.findArticleIdsEnBrouillon(articleIds);
+
+        Map<Integer, BigDecimal> quantites = new HashMap<>();
+        for (SeuilStock seuil : lot) {
+            Integer articleId = seuil.getArticleId();
+            if (seuil.getFournisseur() == null || enBrouillon.contains(articleId)) {
+                continue;
+            }
+            // Article sans solde matérialisé (antérieur à la projection) : on retombe sur le journal
+            BigDecimal stock = stocks.containsKey(articleId)
+                    ? stocks.get(articleId)
+                    : mvtStkRepository.sumQuantiteByArticleId(articleId);
+            BigDecimal quantite = quantiteACommander(seuil, stock, sorties.getOrDefault(articleId, BigDecimal.ZERO));
+            if (quantite.signum() > 0) {
+                quantites.put(articleId, quantite);
+            }
+        }
+        return quantites;
+    }
+
+    // Stock projeté à la livraison = stock actuel - consommation journalière moyenne x délai de livraison.
+    // Sous le minimum, on commande de quoi remonter au maximum.
+    private BigDecimal quantiteACommander(SeuilStock seuil, BigDecimal stock, BigDecimal sortiesFenetre) {
+        BigDecimal vitesse = sortiesFenetre.divide(BigDecimal.valueOf(fenetreJours), 4, RoundingMode.HALF_UP);
+        int delai = seuil.getDelaiLivraisonJours() != null ? seuil.getDelaiLivraisonJours() : delaiLivraisonJours;
+        BigDecimal projete = stock.subtract(vitesse.multiply(BigDecimal.valueOf(delai)));
+        if (projete.compareTo(seuil.getStockMin()) >= 0) {
+            return BigDecimal.ZERO;
+        }
+        return seuil.getStockMax().subtract(projete).setScale(0, RoundingMode.CEILING);
+    }
+}
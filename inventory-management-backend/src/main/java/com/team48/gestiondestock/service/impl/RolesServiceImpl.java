@@ -9,13 +9,19 @@ import com.team48.gestiondestock.model.Roles;
 import com.team48.gestiondestock.model.security.Role;
 import com.team48.gestiondestock.repository.RolesRepository;
 import com.team48.gestiondestock.repository.UtilisateurRepository;
+import com.team48.gestiondestock.service.security.UtilisateurCache;
 import com.team48.gestiondestock.service.RolesService;
+import com.team48.gestiondestock.service.cache.ReferentielCache;
 import com.team48.gestiondestock.validator.RolesValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
 import java.util.List;
@@ -27,11 +33,16 @@ public class RolesServiceImpl implements RolesService {
 
     private final RolesRepository rolesRepository;
     private final UtilisateurRepository utilisateurRepository;
+    private final ReferentielCache referentielCache;
+    private final UtilisateurCache utilisateurCache;
 
     @Autowired
-    public RolesServiceImpl(RolesRepository rolesRepository, UtilisateurRepository utilisateurRepository) {
+    public RolesServiceImpl(RolesRepository rolesRepository, UtilisateurRepository utilisateurRepository,
+                            ReferentielCache referentielCache, UtilisateurCache utilisateurCache) {
         this.rolesRepository = rolesRepository;
         this.utilisateurRepository = utilisateurRepository;
+        this.referentielCache = referentielCache;
+        this.utilisateurCache = utilisateurCache;
     }
 
     @Override
@@ -82,6 +93,8 @@ public class RolesServiceImpl implements RolesService {
         }
 
         Roles saved = rolesRepository.save(entity);
+        // Rôles modifiés : l'utilisateur est rechargé à sa prochaine connexion
+        utilisateurCache.evincer(saved.getUtilisateur());
         // 4. Retour du DTO reconstruit
         return RolesResponseDto.fromEntity(saved);
     }
@@ -124,7 +137,7 @@ public class RolesServiceImpl implements RolesService {
 
     @Override
     public List<RolesResponseDto> findAll() {
-        return rolesRepository.findAll().stream()
+        return rolesRepository.findAll(KeysetSpecifications.entrepriseCourante("entreprise_id")).stream()
                 .map(RolesResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -141,13 +154,15 @@ public class RolesServiceImpl implements RolesService {
         }
         
         // Vérifier si le rôle existe avant de le supprimer
-        rolesRepository.findById(id)
+        Roles existing = rolesRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucun rôle avec l'ID " + id + " n'a été trouvé dans la BDD",
                         ErrorCodes.ROLES_NOT_FOUND
                 ));
         
         rolesRepository.deleteById(id);
+        referentielCache.evincer(Roles.class, id);
+        utilisateurCache.evincer(existing.getUtilisateur());
         log.info("Role with ID {} has been successfully deleted", id);
     }
 
@@ -204,6 +219,18 @@ public class RolesServiceImpl implements RolesService {
         }
 
         Roles saved = rolesRepository.save(toSave);
+        referentielCache.evincer(Roles.class, saved.getId());
+        utilisateurCache.evincer(existing.getUtilisateur());
+        utilisateurCache.evincer(saved.getUtilisateur());
         return RolesResponseDto.fromEntity(saved);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<RolesResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Roles> spec = KeysetSpecifications.filtre(f, "entreprise_id", "creationDate");
+        List<Roles> lignes = KeysetSpecifications.lirePage(rolesRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Roles::getId, RolesResponseDto::fromEntity);
+    }
 }
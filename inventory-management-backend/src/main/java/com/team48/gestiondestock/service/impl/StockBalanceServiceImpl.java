@@ -0,0 +1,226 @@
+package com.team48.gestiondestock.service.impl;
+
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.StockBalance;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.repository.StockBalanceRepository;
+import com.team48.gestiondestock.service.StockBalanceService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class StockBalanceServiceImpl implements StockBalanceService {
+
+    private final StockBalanceRepository stockBalanceRepository;
+    private final MvtStkRepository mvtStkRepository;
+
+    // Verrous répartis par article (clé du solde) : les écritures sur un même article passent l'une après l'autre
+    // dans ce processus, sans bloquer les autres articles ; la base reste l'arbitre entre plusieurs instances
+    private static final int NB_VERROUS = 256;
+    private static final long ATTENTE_VERROU_MS = 10_000;
+    // Articles par UPDATE groupé (2 paramètres par article)
+    private static final int TAILLE_LOT = 500;
+    private final ReentrantLock[] verrous = new ReentrantLock[NB_VERROUS];
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public StockBalanceServiceImpl(StockBalanceRepository stockBalanceRepository, MvtStkRepository mvtStkRepository) {
+        this.stockBalanceRepository = stockBalanceRepository;
+        this.mvtStkRepository = mvtStkRepository;
+        for (int i = 0; i < NB_VERROUS; i++) {
+            verrous[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal stockReel(Integer articleId) {
+        if (articleId == null) {
+            log.error("Article ID is null");
+            return BigDecimal.ZERO;
+        }
+        return stockBalanceRepository.findByArticleId(articleId)
+                .map(StockBalance::getQuantite)
+                // Article sans solde matérialisé (antérieur à la projection) : on retombe sur le journal
+                .orElseGet(() -> mvtStkRepository.sumQuantiteByArticleId(articleId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appliquer(Integer entrepriseId, Integer articleId, BigDecimal delta) {
+        appliquer(List.of(new DeltaStock(entrepriseId, articleId, delta)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appliquer(List<DeltaStock> deltas) {
+        // Un delta par article : ceux d'un même article (compensation puis correction d'un mouvement) sont additionnés
+        Map<Integer, DeltaStock> parArticle = new LinkedHashMap<>();
+        deltas.stream()
+                .filter(d -> d.articleId() != null && d.delta() != null)
+                .forEach(d -> parArticle.merge(d.articleId(), d,
+                        (a, b) -> new DeltaStock(a.entrepriseId(), a.articleId(), a.delta().add(b.delta()))));
+        List<DeltaStock> aAppliquer = parArticle.values().stream()
+                .filter(d -> d.delta().signum() != 0)
+                .toList();
+        if (aAppliquer.isEmpty()) {
+            return;
+        }
+        verrouillerJusquALaFinDeTransaction(aAppliquer);
+
+        Set<Integer> existants = stockBalanceRepository.findArticleIdsExistants(
+                aAppliquer.stream().map(DeltaStock::articleId).toList());
+        List<DeltaStock> soldesExistants = new ArrayList<>();
+        for (DeltaStock delta : aAppliquer) {
+            if (existants.contains(delta.articleId())) {
+                soldesExistants.add(delta);
+            } else {
+                initialiser(delta);
+            }
+        }
+        for (int debut = 0; debut < soldesExistants.size(); debut += TAILLE_LOT) {
+            appliquerAuxSoldesExistants(soldesExistants.subList(debut, Math.min(debut + TAILLE_LOT, soldesExistants.size())));
+        }
+    }
+
+    /**
+     * Un seul UPDATE pour le lot : chaque solde reçoit son delta (CASE sur l'article), les retraits seulement
+     * si le stock reste positif ou nul. La condition est évaluée sous le verrou de ligne posé par l'UPDATE :
+     * deux retraits concurrents ne peuvent pas consommer la même unité. Un retrait refusé se lit dans le
+     * nombre de lignes mises à jour, inférieur au nombre de deltas du lot.
+     */
+    private void appliquerAuxSoldesExistants(List<DeltaStock> lot) {
+        StringBuilder deltaParArticle = new StringBuilder("CASE s.articleId");
+        for (int i = 0; i < lot.size(); i++) {
+            deltaParArticle.append(" WHEN :article").append(i).append(" THEN :delta").append(i);
+        }
+        deltaParArticle.append(" END");
+        List<Integer> retraits = lot.stream().filter(d -> d.delta().signum() < 0).map(DeltaStock::articleId).toList();
+        String hql = "UPDATE StockBalance s SET s.quantite = s.quantite + " + deltaParArticle +
+                ", s.lastModifiedDate = :maintenant WHERE s.articleId IN :articleIds" +
+                (retraits.isEmpty() ? "" : " AND (s.articleId NOT IN :retraits OR s.quantite + " + deltaParArticle + " >= 0)");
+
+        Instant maintenant = Instant.now();
+        Query update = entityManager.createQuery(hql)
+                .setParameter("maintenant", maintenant)
+                .setParameter("articleIds", lot.stream().map(DeltaStock::articleId).toList());
+        if (!retraits.isEmpty()) {
+            update.setParameter("retraits", retraits);
+        }
+        for (int i = 0; i < lot.size(); i++) {
+            update.setParameter("article" + i, lot.get(i).articleId()).setParameter("delta" + i, lot.get(i).delta());
+        }
+        entityManager.flush();
+        int misAJour = update.executeUpdate();
+        if (misAJour == lot.size()) {
+            return;
+        }
+        // Retraits refusés : la transaction sera annulée. Seul un retrait que le solde actuel ne couvre pas
+        // peut avoir été refusé ; ce sont les articles signalés
+        Map<Integer, BigDecimal> soldes = stockBalanceRepository.findQuantites(retraits).stream()
+                .collect(Collectors.toMap(ligne -> (Integer) ligne[0], ligne -> (BigDecimal) ligne[1]));
+        List<DeltaStock> retraitsDuLot = lot.stream().filter(d -> d.delta().signum() < 0).toList();
+        List<DeltaStock> candidats = retraitsDuLot.stream()
+                .filter(d -> soldes.get(d.articleId()).add(d.delta()).signum() < 0)
+                .toList();
+        throw stockInsuffisant(lot.size() - misAJour, candidats.isEmpty() ? retraitsDuLot : candidats, soldes);
+    }
+
+    // Première écriture pour cet article : le journal contient déjà la modification en cours
+    // (la requête d'agrégat déclenche le flush), on initialise donc le solde à partir de lui.
+    // Si une autre instance crée le solde en même temps, l'upsert lui applique seulement le delta.
+    private void initialiser(DeltaStock delta) {
+        BigDecimal initial = mvtStkRepository.sumQuantiteByArticleId(delta.articleId());
+        if (delta.delta().signum() < 0 && initial.signum() < 0) {
+            throw stockInsuffisant(delta.articleId(), delta.delta());
+        }
+        if (stockBalanceRepository.initialiserOuAppliquer(delta.entrepriseId(), delta.articleId(), initial, delta.delta()) == 0) {
+            throw stockInsuffisant(delta.articleId(), delta.delta());
+        }
+        log.info("Solde de stock initialisé pour l'article {} : {}", delta.articleId(), initial);
+    }
+
+    @Override
+    public BigDecimal quantiteSignee(MvtStk mvtStk) {
+        if (mvtStk == null || mvtStk.getQuantite() == null) {
+            return BigDecimal.ZERO;
+        }
+        return mvtStk.getTypeMvt() == TypeMvtStk.SORTIE ? mvtStk.getQuantite().negate() : mvtStk.getQuantite();
+    }
+
+    // Les verrous sont pris dans l'ordre de leur indice, chacun une seule fois : deux transactions qui touchent
+    // les mêmes articles ne peuvent pas s'attendre mutuellement. Ils sont rendus au commit ou au rollback,
+    // pour que l'écriture suivante voie le solde à jour
+    private void verrouillerJusquALaFinDeTransaction(List<DeltaStock> deltas) {
+        SortedSet<Integer> indices = deltas.stream()
+                .map(d -> Math.floorMod(d.articleId().hashCode(), NB_VERROUS))
+                .collect(Collectors.toCollection(TreeSet::new));
+        List<ReentrantLock> obtenus = new ArrayList<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                obtenus.forEach(ReentrantLock::unlock);
+            }
+        });
+        for (Integer indice : indices) {
+            ReentrantLock verrou = verrous[indice];
+            try {
+                if (!verrou.tryLock(ATTENTE_VERROU_MS, TimeUnit.MILLISECONDS)) {
+                    log.error("Verrou du stock non obtenu après {} ms ({} articles)", ATTENTE_VERROU_MS, deltas.size());
+                    throw new InvalidEntityException("Le stock d'un article est en cours de modification, réessayez",
+                            ErrorCodes.STOCK_VERROUILLE, List.of("Verrou non obtenu"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InvalidEntityException("Attente du verrou de stock interrompue", e, ErrorCodes.STOCK_VERROUILLE);
+            }
+            obtenus.add(verrou);
+        }
+    }
+
+    private InvalidEntityException stockInsuffisant(int nbRefuses, List<DeltaStock> candidats, Map<Integer, BigDecimal> soldes) {
+        if (candidats.size() == 1) {
+            return stockInsuffisant(candidats.get(0).articleId(), candidats.get(0).delta());
+        }
+        String articles = candidats.stream().map(d -> String.valueOf(d.articleId())).collect(Collectors.joining(", "));
+        log.error("Stock insuffisant : {} retrait(s) refusé(s) parmi les articles {}", nbRefuses, articles);
+        return new InvalidEntityException("Stock insuffisant pour au moins un des articles " + articles,
+                ErrorCodes.STOCK_INSUFFISANT, candidats.stream()
+                        .map(d -> "Article " + d.articleId() + " : quantité demandée " + d.delta().negate()
+                                + ", disponible " + soldes.get(d.articleId()))
+                        .toList());
+    }
+
+    private InvalidEntityException stockInsuffisant(Integer articleId, BigDecimal delta) {
+        log.error("Stock insuffisant pour l'article {} : retrait de {}", articleId, delta.negate());
+        return new InvalidEntityException("Stock insuffisant pour l'article " + articleId, ErrorCodes.STOCK_INSUFFISANT,
+                List.of("Quantité demandée : " + delta.negate() + ", disponible : " + stockReel(articleId)));
+    }
+}
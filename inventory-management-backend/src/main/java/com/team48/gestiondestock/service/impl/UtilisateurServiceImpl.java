@@ -10,12 +10,19 @@ import com.team48.gestiondestock.model.Entreprise;
 import com.team48.gestiondestock.repository.UtilisateurRepository;
 import com.team48.gestiondestock.repository.EntrepriseRepository;
 import com.team48.gestiondestock.service.UtilisateurService;
+import com.team48.gestiondestock.service.security.RefreshTokenService;
+import com.team48.gestiondestock.service.security.RevocationJetonService;
+import com.team48.gestiondestock.service.security.UtilisateurCache;
 import com.team48.gestiondestock.validator.UtilisateurValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Collections;
 import java.util.List;
@@ -27,11 +34,19 @@ public class UtilisateurServiceImpl implements UtilisateurService {
 
     private final UtilisateurRepository utilisateurRepository;
     private final EntrepriseRepository entrepriseRepository;
+    private final UtilisateurCache utilisateurCache;
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationJetonService revocationJetonService;
 
     @Autowired
-    public UtilisateurServiceImpl(UtilisateurRepository utilisateurRepository, EntrepriseRepository entrepriseRepository) {
+    public UtilisateurServiceImpl(UtilisateurRepository utilisateurRepository, EntrepriseRepository entrepriseRepository,
+                                  UtilisateurCache utilisateurCache, RefreshTokenService refreshTokenService,
+                                  RevocationJetonService revocationJetonService) {
         this.utilisateurRepository = utilisateurRepository;
         this.entrepriseRepository = entrepriseRepository;
+        this.utilisateurCache = utilisateurCache;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationJetonService = revocationJetonService;
     }
 
     @Override
@@ -116,7 +131,7 @@ public class UtilisateurServiceImpl implements UtilisateurService {
 
     @Override
     public List<UtilisateurResponseDto> findAll() {
-        return utilisateurRepository.findAll().stream()
+        return utilisateurRepository.findAll(KeysetSpecifications.entrepriseCourante("entreprise.id")).stream()
                 .map(UtilisateurResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -127,6 +142,11 @@ public class UtilisateurServiceImpl implements UtilisateurService {
             log.error("Utilisateur ID is null");
             return;
         }
+        utilisateurRepository.findById(id).ifPresent(utilisateur -> {
+            utilisateurCache.evincer(utilisateur);
+            revocationJetonService.revoquerUtilisateur(utilisateur.getUsername());
+        });
+        refreshTokenService.supprimerUtilisateur(id);
         utilisateurRepository.deleteById(id);
     }
 
@@ -165,8 +185,34 @@ public class UtilisateurServiceImpl implements UtilisateurService {
                 ));
             toSave.setEntreprise(entreprise);
         }
+        // Ancien et nouvel identifiants de connexion : l'utilisateur est rechargé à sa prochaine connexion
+        utilisateurCache.evincer(existing);
         Utilisateur saved = utilisateurRepository.save(toSave);
+        utilisateurCache.evincer(saved);
+        // Compte modifié (mot de passe, entreprise, activation) : les sessions en cours doivent se reconnecter
+        refreshTokenService.revoquerUtilisateur(saved.getId());
+        revocationJetonService.revoquerUtilisateur(existing.getUsername());
         return UtilisateurResponseDto.fromEntity(saved);
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<UtilisateurResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Utilisateur> spec = KeysetSpecifications.filtre(f, "entreprise.id", "creationDate");
+        List<Utilisateur> lignes = KeysetSpecifications.lirePage(utilisateurRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Utilisateur::getId, UtilisateurResponseDto::fromEntity);
+    }
+
+    @Override
+    public void revoquerSessions(Integer id) {
+        Utilisateur utilisateur = utilisateurRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Aucun utilisateur avec l'ID " + id + " n'a été trouvé dans la BDD",
+                        ErrorCodes.UTILISATEUR_NOT_FOUND
+                ));
+        refreshTokenService.revoquerUtilisateur(utilisateur.getId());
+        revocationJetonService.revoquerUtilisateur(utilisateur.getUsername());
+        log.info("Sessions de l'utilisateur {} révoquées", id);
+    }
+}
@@ -1,27 +1,50 @@
 package com.team48.gestiondestock.service.impl;
 
+import com.team48.gestiondestock.dto.VentesClotureResultatDto;
 import com.team48.gestiondestock.dto.VentesRequestDto;
 import com.team48.gestiondestock.dto.VentesResponseDto;
+import com.team48.gestiondestock.dto.VentesStatsDto;
+import com.team48.gestiondestock.dto.VentesStatsResponseDto;
 import com.team48.gestiondestock.exception.EntityNotFoundException;
 import com.team48.gestiondestock.exception.ErrorCodes;
 import com.team48.gestiondestock.exception.InvalidEntityException;
 import com.team48.gestiondestock.model.CommandeClient;
-import com.team48.gestiondestock.model.LigneVente;
+import com.team48.gestiondestock.model.TypeMvtStk;
 import com.team48.gestiondestock.model.Ventes;
 import com.team48.gestiondestock.repository.ArticleRepository;
 import com.team48.gestiondestock.repository.CommandeClientRepository;
 import com.team48.gestiondestock.repository.LigneVenteRepository;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.repository.VentesDailyRollupRepository;
 import com.team48.gestiondestock.repository.VentesRepository;
+import com.team48.gestiondestock.service.StockBalanceService;
 import com.team48.gestiondestock.service.VentesService;
+import com.team48.gestiondestock.service.security.TenantContext;
 import com.team48.gestiondestock.validator.VentesValidator;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.dto.PageCursorResponseDto;
+import com.team48.gestiondestock.repository.specification.KeysetSpecifications;
 import io.micrometer.common.util.StringUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,15 +55,39 @@ public class VentesServiceImpl implements VentesService {
     private final ArticleRepository articleRepository;
     private final LigneVenteRepository ligneVenteRepository;
     private final CommandeClientRepository commandeClientRepository;
+    private final MvtStkRepository mvtStkRepository;
+    private final StockBalanceService stockBalanceService;
+    private final VentesDailyRollupRepository ventesDailyRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Commandes converties par lot lors de la clôture de journée
+    private static final int TAILLE_LOT_CLOTURE = 500;
+
+    // Agrégats écrits par INSERT ... ON CONFLICT multi-lignes (9 paramètres par ligne)
+    private static final int TAILLE_LOT_CUMULS = 500;
+
+    // Bornes par défaut des statistiques (dates SQL valides)
+    private static final LocalDate STATS_DEBUT = LocalDate.of(1970, 1, 1);
+    private static final LocalDate STATS_FIN = LocalDate.of(9999, 12, 31);
 
     @Autowired
     public VentesServiceImpl(VentesRepository ventesRepository,
                              ArticleRepository articleRepository,
-                             LigneVenteRepository ligneVenteRepository, CommandeClientRepository commandeClientRepository) {
+                             LigneVenteRepository ligneVenteRepository, CommandeClientRepository commandeClientRepository,
+                             MvtStkRepository mvtStkRepository, StockBalanceService stockBalanceService,
+                             VentesDailyRollupRepository ventesDailyRollupRepository,
+                             TransactionTemplate transactionTemplate) {
         this.ventesRepository = ventesRepository;
         this.articleRepository = articleRepository;
         this.ligneVenteRepository = ligneVenteRepository;
         this.commandeClientRepository = commandeClientRepository;
+        this.mvtStkRepository = mvtStkRepository;
+        this.stockBalanceService = stockBalanceService;
+        this.ventesDailyRollupRepository = ventesDailyRollupRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
@@ -65,7 +112,7 @@ public class VentesServiceImpl implements VentesService {
             );
         }
 
-        // 1️⃣ Récupérer la commande
+        // 1️⃣ Récupérer la commande, sans ses lignes : elles sont copiées en base
         CommandeClient commande = commandeClientRepository.findById(commandeId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucune commande trouvée avec l'ID " + commandeId,
@@ -83,29 +130,28 @@ public class VentesServiceImpl implements VentesService {
             );
         }
 
-        // 3️⃣ Créer l'entité Ventes
+        // 3️⃣ Réserver la commande (VALIDEE -> VENDUE) : ni une seconde vente ni la clôture ne peuvent plus la convertir
+        reserver(commandeId);
+
+        // 4️⃣ Créer l'entité Ventes
         Ventes vente = VentesRequestDto.toEntity(dto);
         vente.setCommandeClient(commande);
 
-        // 4️⃣ Copier les lignes de la commande vers la vente
-        List<LigneVente> lignes = commande.getLigneCommandeClients().stream()
-                .map(lc -> {
-                    LigneVente lv = new LigneVente();
-                    lv.setArticle(lc.getArticle());
-                    lv.setQuantite(lc.getQuantite());
-                    lv.setPrixUnitaire(lc.getPrixUnitaire());
-                    lv.setEntreprise_id(dto.getEntrepriseId());
-                    lv.setVente(vente);
-                    return lv;
-                }).collect(Collectors.toList());
-
-        vente.setLigneVentes(lignes);
-
-        // 5️⃣ Sauvegarder la vente (les lignes seront sauvegardées grâce au cascade si configuré)
+        // 5️⃣ Sauvegarder la vente
         Ventes savedVente = ventesRepository.save(vente);
+        List<Integer> venteIds = List.of(savedVente.getId());
 
-        // 6️⃣ Retourner le DTO
-        return VentesResponseDto.fromEntity(savedVente);
+        // 6️⃣ Copier les lignes de la commande vers la vente par un seul INSERT ... SELECT
+        ligneVenteRepository.copierLignesCommandes(venteIds, Instant.now());
+
+        // 7️⃣ Sortir les articles du stock (refusé si le stock devient négatif : toute la vente est annulée)
+        mouvementsStock(venteIds, TypeMvtStk.SORTIE);
+
+        // 8️⃣ Alimenter l'agrégat journalier des ventes
+        cumulerLignes(venteIds, jourDeVente(savedVente), 1);
+
+        // 9️⃣ Relire la vente avec ses lignes et retourner le DTO
+        return relire(savedVente.getId());
     }
 
     @Override
@@ -114,7 +160,7 @@ public class VentesServiceImpl implements VentesService {
             log.error("Ventes ID is null");
             return null;
         }
-        return ventesRepository.findById(id)
+        return ventesRepository.findByIdWithLignes(id)
                 .map(VentesResponseDto::fromEntity)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucune vente avec l'ID " + id + " n'a été trouvée dans la BDD",
@@ -128,7 +174,7 @@ public class VentesServiceImpl implements VentesService {
             log.error("Ventes CODE is null or blank");
             return null;
         }
-        return ventesRepository.findVentesByCode(code.trim())
+        return ventesRepository.findByCodeWithLignes(code.trim())
                 .map(VentesResponseDto::fromEntity)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Aucune vente avec le CODE \"" + code + "\" n'a été trouvée dans la BDD",
@@ -138,7 +184,8 @@ public class VentesServiceImpl implements VentesService {
 
     @Override
     public List<VentesResponseDto> findAll() {
-        return ventesRepository.findAll().stream()
+        Integer entrepriseId = TenantContext.entrepriseCourante();
+        return (entrepriseId == null ? ventesRepository.findAllWithLignes() : ventesRepository.findAllWithLignesByEntrepriseId(entrepriseId)).stream()
                 .map(VentesResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -150,12 +197,14 @@ public class VentesServiceImpl implements VentesService {
             log.error("Ventes ID is null");
             return;
         }
-        if (!ventesRepository.existsById(id)) {
-            throw new EntityNotFoundException(
-                    "Aucune vente avec l'ID " + id + " n'a été trouvée dans la BDD",
-                    ErrorCodes.VENTES_NOT_FOUND
-            );
-        }
+        Ventes vente = ventesRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Aucune vente avec l'ID " + id + " n'a été trouvée dans la BDD",
+                        ErrorCodes.VENTES_NOT_FOUND
+                ));
+        // Les articles vendus reviennent en stock
+        mouvementsStock(List.of(id), TypeMvtStk.ENTREE);
+        cumulerLignes(List.of(id), jourDeVente(vente), -1);
         ligneVenteRepository.deleteAllByVenteId(id); // supprime d’abord les lignes associées
         ventesRepository.deleteById(id);
     }
@@ -191,6 +240,9 @@ public class VentesServiceImpl implements VentesService {
             );
         }
 
+        // La vente sort de l'agrégat avec sa date et ses lignes actuelles, elle y revient après modification
+        cumulerLignes(List.of(id), jourDeVente(existing), -1);
+
         // Mise à jour des champs
         existing.setCode(dto.getCode());
         existing.setDateVente(dto.getDateVente());
@@ -198,51 +250,244 @@ public class VentesServiceImpl implements VentesService {
         existing.setEntreprise_id(dto.getEntrepriseId());
 
         // Association de la commande si elle est fournie
+        boolean nouvellesLignes = false;
         if (dto.getCommandeId() != null) {
+            Integer ancienneCommandeId = existing.getCommandeClient() != null ? existing.getCommandeClient().getId() : null;
             CommandeClient commande = commandeClientRepository.findById(dto.getCommandeId())
                     .orElseThrow(() -> new EntityNotFoundException(
                             "Aucune commande avec l'ID " + dto.getCommandeId() + " n'a été trouvée dans la BDD",
                             ErrorCodes.COMMANDE_CLIENT_NOT_FOUND
                     ));
             existing.setCommandeClient(commande);
-        }
 
-        // Si commandeId est fourni, copier les lignes de la commande
-        if (dto.getCommandeId() != null && !dto.getCommandeId().equals(existing.getCommandeClient().getId())) {
-            // Supprimer les anciennes lignes
-            ligneVenteRepository.deleteAllByVenteId(id);
-            
-            // Copier les lignes de la nouvelle commande
-            CommandeClient nouvelleCommande = commandeClientRepository.findById(dto.getCommandeId())
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            "Aucune commande avec l'ID " + dto.getCommandeId() + " n'a été trouvée dans la BDD",
-                            ErrorCodes.COMMANDE_CLIENT_NOT_FOUND
-                    ));
-            
-            List<LigneVente> nouvelles = nouvelleCommande.getLigneCommandeClients().stream()
-                    .map(lc -> {
-                        LigneVente lv = new LigneVente();
-                        lv.setArticle(lc.getArticle());
-                        lv.setQuantite(lc.getQuantite());
-                        lv.setPrixUnitaire(lc.getPrixUnitaire());
-                        lv.setEntreprise_id(dto.getEntrepriseId());
-                        lv.setVente(existing);
-                        return lv;
-                    }).collect(Collectors.toList());
-            
-            existing.setLigneVentes(nouvelles);
+            // Nouvelle commande : les anciennes lignes reviennent en stock, elles seront remplacées après la sauvegarde
+            if (!dto.getCommandeId().equals(ancienneCommandeId)) {
+                reserver(dto.getCommandeId());
+                mouvementsStock(List.of(existing.getId()), TypeMvtStk.ENTREE);
+                nouvellesLignes = true;
+            }
         }
 
         // Sauvegarde finale
         Ventes saved = ventesRepository.save(existing);
+        if (nouvellesLignes) {
+            // Remplacement des lignes en base (DELETE puis INSERT ... SELECT), sans les charger
+            List<Integer> venteIds = List.of(saved.getId());
+            ligneVenteRepository.supprimerParVente(saved.getId());
+            ligneVenteRepository.copierLignesCommandes(venteIds, Instant.now());
+            mouvementsStock(venteIds, TypeMvtStk.SORTIE);
+            cumulerLignes(venteIds, jourDeVente(saved), 1);
+        } else {
+            cumulerLignes(List.of(saved.getId()), jourDeVente(saved), 1);
+        }
+
+        // Relecture : les lignes copiées en base ne sont pas dans le contexte de persistance
+        return relire(saved.getId());
+    }
+
+    @Override
+    // Une transaction par lot (transactionTemplate) : les verrous de stock sont rendus à chaque commit
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public VentesClotureResultatDto cloturerJournee(LocalDate jour, Integer entrepriseId) {
+        if (jour == null) {
+            log.error("Jour de clôture null");
+            throw new InvalidEntityException(
+                    "Le jour à clôturer est obligatoire",
+                    ErrorCodes.VENTES_NOT_VALID,
+                    Collections.emptyList()
+            );
+        }
+        Integer entreprise = TenantContext.entrepriseId(entrepriseId);
+        Instant debut = jour.atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<Integer> commandeIds = commandeClientRepository.findIdsValideesSansVente(debut, debut.plus(1, ChronoUnit.DAYS), entreprise);
 
-        // Re-fetch pour s'assurer d'avoir les données à jour
-        Ventes refreshed = ventesRepository.findById(saved.getId())
-                .orElse(saved);
+        // Par lots (listes IN bornées) ; chaque lot s'exécute en quelques requêtes, quel que soit son nombre de lignes.
+        // Un lot refusé est annulé puis repris commande par commande : seules les commandes fautives restent VALIDEE
+        int nbVentes = 0;
+        int nbLignes = 0;
+        List<Integer> enEchec = new ArrayList<>();
+        for (int i = 0; i < commandeIds.size(); i += TAILLE_LOT_CLOTURE) {
+            List<Integer> lot = commandeIds.subList(i, Math.min(i + TAILLE_LOT_CLOTURE, commandeIds.size()));
+            try {
+                Conversion conversion = transactionTemplate.execute(status -> convertirCommandes(lot, jour));
+                nbVentes += conversion.nbVentes();
+                nbLignes += conversion.nbLignes();
+                continue;
+            } catch (RuntimeException e) {
+                // Stock insuffisant, mais aussi erreur SQL (code de vente en double, interblocage...)
+                log.warn("Clôture du {} : lot de {} commandes refusé ({}), reprise commande par commande", jour, lot.size(), e.getMessage());
+            }
+            for (Integer commandeId : lot) {
+                try {
+                    Conversion conversion = transactionTemplate.execute(status -> convertirCommandes(List.of(commandeId), jour));
+                    nbVentes += conversion.nbVentes();
+                    nbLignes += conversion.nbLignes();
+                } catch (RuntimeException e) {
+                    log.error("Clôture du {} : commande {} non convertie : {}", jour, commandeId, e.getMessage());
+                    enEchec.add(commandeId);
+                }
+            }
+        }
+        log.info("Clôture des ventes du {} (entreprise {}) : {} ventes, {} lignes, {} commandes en échec",
+                jour, entreprise, nbVentes, nbLignes, enEchec.size());
 
-        // Retour du DTO bien rempli
-        return VentesResponseDto.fromEntity(refreshed);
+        return VentesClotureResultatDto.builder()
+                .jour(jour)
+                .entrepriseId(entreprise)
+                .nbVentes(nbVentes)
+                .nbLignes(nbLignes)
+                .commandesEnEchec(enEchec)
+                .build();
     }
 
+    // Convertit les commandes que cette transaction parvient à réserver (VALIDEE -> VENDUE) ; celles qu'une clôture
+    // concurrente a déjà réservées sont ignorées
+    private Conversion convertirCommandes(List<Integer> commandeIds, LocalDate jour) {
+        Instant maintenant = Instant.now();
+        if (commandeClientRepository.reserverPourVente(commandeIds, maintenant) == 0) {
+            return new Conversion(0, 0);
+        }
+        List<Integer> reservees = commandeClientRepository.findIdsVenduesSansVente(commandeIds);
+        ventesRepository.creerDepuisCommandes(reservees, "Clôture du " + jour, maintenant);
+        List<Integer> venteIds = ventesRepository.findIdsByCommandeClientIds(reservees);
+        int nbLignes = ligneVenteRepository.copierLignesCommandes(venteIds, maintenant);
+        mouvementsStock(venteIds, TypeMvtStk.SORTIE);
+        cumulerLignes(venteIds, jour, 1);
+        return new Conversion(venteIds.size(), nbLignes);
+    }
 
+    private record Conversion(int nbVentes, int nbLignes) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCursorResponseDto<VentesResponseDto> findPage(FiltreRechercheDto filtre) {
+        FiltreRechercheDto f = filtre != null ? filtre : new FiltreRechercheDto();
+        Specification<Ventes> spec = KeysetSpecifications.filtre(f, "entreprise_id", "dateVente");
+        List<Ventes> lignes = KeysetSpecifications.lirePage(ventesRepository, spec, f);
+        return PageCursorResponseDto.of(lignes, f.taillePage(), Ventes::getId, VentesResponseDto::fromEntity);
+    }
+
+    // Une commande n'est vendue qu'une fois : l'UPDATE conditionnel échoue si elle n'est pas (ou plus) VALIDEE
+    private void reserver(Integer commandeId) {
+        if (commandeClientRepository.reserverPourVente(List.of(commandeId), Instant.now()) == 0) {
+            log.error("Commande {} non validée ou déjà vendue", commandeId);
+            throw new InvalidEntityException(
+                    "La commande " + commandeId + " n'est pas validée ou a déjà été vendue",
+                    ErrorCodes.VENTES_NOT_VALID,
+                    List.of("Seule une commande à l'état VALIDEE peut être vendue")
+            );
+        }
+    }
+
+    private VentesResponseDto relire(Integer id) {
+        return ventesRepository.findByIdWithLignes(id)
+                .map(VentesResponseDto::fromEntity)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Aucune vente avec l'ID " + id + " n'a été trouvée dans la BDD",
+                        ErrorCodes.VENTES_NOT_FOUND
+                ));
+    }
+
+    // Un mouvement par ligne des ventes, par INSERT ... SELECT ; les soldes sont mis à jour par article,
+    // dans l'ordre des ids (quantités sommées en base), pour que deux ventes concurrentes prennent
+    // les verrous de stock dans le même ordre
+    private void mouvementsStock(List<Integer> venteIds, TypeMvtStk type) {
+        mvtStkRepository.insererPourLignesVentes(venteIds, type, Instant.now());
+        stockBalanceService.appliquer(ligneVenteRepository.quantitesParArticle(venteIds).stream()
+                .map(ligne -> new StockBalanceService.DeltaStock((Integer) ligne[1], (Integer) ligne[0],
+                        type == TypeMvtStk.SORTIE ? ((BigDecimal) ligne[2]).negate() : (BigDecimal) ligne[2]))
+                .toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VentesStatsResponseDto stats(Integer entrepriseId, Integer articleId, Integer categorieId,
+                                        LocalDate dateDebut, LocalDate dateFin, VentesStatsDto.Groupement groupement) {
+        Integer entreprise = TenantContext.entrepriseId(entrepriseId);
+        LocalDate debut = dateDebut != null ? dateDebut : STATS_DEBUT;
+        LocalDate fin = dateFin != null ? dateFin : STATS_FIN;
+        VentesStatsDto.Groupement groupe = groupement != null ? groupement : VentesStatsDto.Groupement.JOUR;
+
+        List<VentesStatsDto> details = switch (groupe) {
+            case JOUR -> lignesStats(ventesDailyRollupRepository.statsParJour(entreprise, articleId, categorieId, debut, fin), 1,
+                    ligne -> ligne[0].toString());
+            case MOIS -> lignesStats(ventesDailyRollupRepository.statsParMois(entreprise, articleId, categorieId, debut, fin), 2,
+                    ligne -> String.format("%04d-%02d", ((Number) ligne[0]).intValue(), ((Number) ligne[1]).intValue()));
+            case ARTICLE -> lignesStats(ventesDailyRollupRepository.statsParArticle(entreprise, articleId, categorieId, debut, fin), 1,
+                    ligne -> String.valueOf(ligne[0]));
+            case CATEGORIE -> lignesStats(ventesDailyRollupRepository.statsParCategorie(entreprise, articleId, categorieId, debut, fin), 1,
+                    ligne -> String.valueOf(ligne[0]));
+        };
+
+        return VentesStatsResponseDto.builder()
+                .groupement(groupe)
+                .dateDebut(dateDebut)
+                .dateFin(dateFin)
+                .totalQuantite(details.stream().map(VentesStatsDto::getQuantite).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .totalChiffreAffaires(details.stream().map(VentesStatsDto::getChiffreAffaires).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .totalLignes(details.stream().mapToLong(VentesStatsDto::getNbLignes).sum())
+                .details(details)
+                .build();
+    }
+
+    // Les colonnes d'agrégat suivent les colonnes de clé : [clé..., quantité, chiffre d'affaires, nombre de lignes]
+    private static List<VentesStatsDto> lignesStats(List<Object[]> lignes, int nbCles,
+                                                    Function<Object[], String> cle) {
+        return lignes.stream()
+                .map(ligne -> VentesStatsDto.builder()
+                        .cle(cle.apply(ligne))
+                        .quantite(ligne[nbCles] != null ? (BigDecimal) ligne[nbCles] : BigDecimal.ZERO)
+                        .chiffreAffaires(ligne[nbCles + 1] != null ? (BigDecimal) ligne[nbCles + 1] : BigDecimal.ZERO)
+                        .nbLignes(ligne[nbCles + 2] != null ? ((Number) ligne[nbCles + 2]).longValue() : 0L)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ajoute (signe = 1) ou retire (signe = -1) les lignes des ventes de l'agrégat journalier (entreprise, jour, article) :
+     * contributions sommées en base, puis un seul INSERT ... VALUES ... ON CONFLICT (entreprise, jour, article) DO UPDATE
+     * par lot. L'incrément se fait sous le verrou de ligne, sans lecture préalable de l'agrégat : pas de perte ni de doublon
+     * entre transactions concurrentes.
+     * (Pas d'INSERT ... SELECT : Hibernate 6.6 ne résout pas la cible du ON CONFLICT dans cette forme.)
+     */
+    private void cumulerLignes(List<Integer> venteIds, LocalDate jour, int signe) {
+        List<Object[]> cumuls = ligneVenteRepository.cumulsParArticle(venteIds);
+        Instant maintenant = Instant.now();
+        for (int debut = 0; debut < cumuls.size(); debut += TAILLE_LOT_CUMULS) {
+            List<Object[]> lot = cumuls.subList(debut, Math.min(debut + TAILLE_LOT_CUMULS, cumuls.size()));
+            StringBuilder hql = new StringBuilder("INSERT INTO VentesDailyRollup r (entrepriseId, jour, articleId, categorieId, " +
+                    "quantite, chiffreAffaires, nbLignes, creationDate, lastModifiedDate) VALUES ");
+            for (int i = 0; i < lot.size(); i++) {
+                hql.append(i == 0 ? "" : ", ").append("(:entreprise").append(i).append(", :jour, :article").append(i)
+                        .append(", :categorie").append(i).append(", :quantite").append(i).append(", :chiffreAffaires").append(i)
+                        .append(", :nbLignes").append(i).append(", :date, :date)");
+            }
+            hql.append(" ON CONFLICT (entrepriseId, jour, articleId) DO UPDATE SET quantite = r.quantite + excluded.quantite, " +
+                    "chiffreAffaires = r.chiffreAffaires + excluded.chiffreAffaires, nbLignes = r.nbLignes + excluded.nbLignes, " +
+                    "lastModifiedDate = excluded.lastModifiedDate");
+            Query upsert = entityManager.createQuery(hql.toString())
+                    .setParameter("jour", jour)
+                    .setParameter("date", maintenant);
+            for (int i = 0; i < lot.size(); i++) {
+                // [entrepriseId, articleId, categorieId, quantité, chiffre d'affaires, nombre de lignes]
+                Object[] cumul = lot.get(i);
+                BigDecimal chiffreAffaires = cumul[4] != null ? (BigDecimal) cumul[4] : BigDecimal.ZERO;
+                upsert.setParameter("entreprise" + i, cumul[0])
+                        .setParameter("article" + i, cumul[1])
+                        .setParameter("categorie" + i, cumul[2])
+                        .setParameter("quantite" + i, ((BigDecimal) cumul[3]).multiply(BigDecimal.valueOf(signe)))
+                        .setParameter("chiffreAffaires" + i, chiffreAffaires.multiply(BigDecimal.valueOf(signe)))
+                        .setParameter("nbLignes" + i, signe * ((Number) cumul[5]).longValue());
+            }
+            upsert.executeUpdate();
+        }
+    }
+
+    private static LocalDate jourDeVente(Ventes vente) {
+        return LocalDate.ofInstant(
+                vente.getDateVente() != null ? vente.getDateVente()
+                        : vente.getCreationDate() != null ? vente.getCreationDate() : Instant.now(),
+                ZoneOffset.UTC);
+    }
 }
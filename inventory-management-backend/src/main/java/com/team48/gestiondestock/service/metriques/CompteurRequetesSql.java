@@ -0,0 +1,35 @@
+package com.team48.gestiondestock.service.metriques;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate sur le thread courant, entre {@link #demarrer()}
+ * et {@link #terminer()} (une requête HTTP). Enregistré par hibernate.session_factory.statement_inspector ;
+ * hors comptage, il ne fait rien.
+ */
+public class CompteurRequetesSql implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COMPTEUR = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] compteur = COMPTEUR.get();
+        if (compteur != null) {
+            compteur[0]++;
+        }
+        return sql;
+    }
+
+    public static void demarrer() {
+        COMPTEUR.set(new long[1]);
+    }
+
+    /**
+     * Arrête le comptage du thread courant et retourne le nombre de requêtes (0 s'il n'était pas démarré).
+     */
+    public static long terminer() {
+        long[] compteur = COMPTEUR.get();
+        COMPTEUR.remove();
+        return compteur == null ? 0 : compteur[0];
+    }
+}
@@ -0,0 +1,45 @@
+package com.team48.gestiondestock.service.metriques;
+
+import com.team48.gestiondestock.service.security.JwtAuthenticationDetails;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Noms des métriques applicatives (exportées sur /actuator/prometheus) et tag d'entreprise commun.
+ * <p>
+ * Toutes les mesures portent le tag {@code entreprise} : l'entreprise du jeton, y compris pour un
+ * administrateur système, {@value #AUCUNE_ENTREPRISE} hors requête authentifiée (connexion, tâches planifiées).
+ */
+public final class Metriques {
+
+    public static final String SERVICE = "gestiondestock.service";
+    public static final String STOCKAGE_UPLOAD = "gestiondestock.stockage.upload";
+    public static final String AUTH_VERIFICATION = "gestiondestock.auth.verification";
+    public static final String JWT_VERIFICATION = "gestiondestock.jwt.verification";
+    public static final String JWT_REVOCATION_LECTURES = "gestiondestock.jwt.revocation.lectures";
+    public static final String HTTP_REQUETES_SQL = "gestiondestock.http.requetes.sql";
+
+    public static final String TAG_ENTREPRISE = "entreprise";
+    public static final String TAG_RESULTAT = "resultat";
+    public static final String AUCUNE_ENTREPRISE = "aucune";
+
+    private Metriques() {
+    }
+
+    public static Tag entreprise() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails details) {
+            return entreprise(details.getEntrepriseId());
+        }
+        return entreprise(null);
+    }
+
+    public static Tag entreprise(Integer entrepriseId) {
+        return Tag.of(TAG_ENTREPRISE, entrepriseId == null ? AUCUNE_ENTREPRISE : entrepriseId.toString());
+    }
+
+    public static Tag resultat(boolean succes) {
+        return Tag.of(TAG_RESULTAT, succes ? "succes" : "echec");
+    }
+}
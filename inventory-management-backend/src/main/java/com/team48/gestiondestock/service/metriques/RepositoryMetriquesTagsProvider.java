@@ -0,0 +1,20 @@
+package com.team48.gestiondestock.service.metriques;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tags des mesures de requêtes Spring Data (spring.data.repository.invocations) : ceux par défaut
+ * (repository, méthode, état, exception) plus l'entreprise de la requête en cours.
+ */
+@Component
+public class RepositoryMetriquesTagsProvider extends DefaultRepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(super.repositoryTags(invocation)).and(Metriques.entreprise());
+    }
+}
@@ -0,0 +1,46 @@
+package com.team48.gestiondestock.service.metriques;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Durée de chaque méthode publique des {@code *ServiceImpl}, par classe, méthode, entreprise et exception.
+ * Les appels internes à une même classe ne passent pas par le proxy et ne sont pas mesurés.
+ */
+@Aspect
+@Component
+public class ServiceMetriquesAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ServiceMetriquesAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.team48.gestiondestock.service..*ServiceImpl.*(..))")
+    public Object mesurer(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(Metriques.SERVICE)
+                    .tag("classe", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("methode", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .tags(List.of(Metriques.entreprise()))
+                    .register(meterRegistry));
+        }
+    }
+}
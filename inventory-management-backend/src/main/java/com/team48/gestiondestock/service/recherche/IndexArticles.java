@@ -0,0 +1,234 @@
+package com.team48.gestiondestock.service.recherche;
+
+import com.team48.gestiondestock.dto.ArticleRechercheDto;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire des articles d'une entreprise (code, désignation, désignation de la catégorie).
+ * <p>
+ * Chaque mot normalisé (minuscules, sans accents) est indexé par ses préfixes de 1 à 3 caractères
+ * et par ses trigrammes : la saisie partielle ("coc") comme les fautes de frappe ("cocacola" / "coca-cola")
+ * retrouvent l'article. Lectures concurrentes, écritures exclusives.
+ */
+public class IndexArticles {
+
+    private static final int N = 3;
+    // Part minimale des trigrammes d'un mot de la requête qu'un article doit contenir
+    private static final double SEUIL_TRIGRAMMES = 0.5;
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^a-z0-9]+");
+
+    private record Document(Integer id, String codeArticle, String designation, String categorie,
+                            BigDecimal prixUnitaireTtc, String code, List<String> mots, Set<String> cles) {
+    }
+
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    public void ajouter(Integer id, String codeArticle, String designation, String categorie, BigDecimal prixUnitaireTtc) {
+        if (id == null) {
+            return;
+        }
+        List<String> mots = new ArrayList<>(mots(designation));
+        mots.addAll(mots(codeArticle));
+        mots.addAll(mots(categorie));
+        Set<String> cles = new HashSet<>();
+        mots.forEach(mot -> cles.addAll(cles(mot)));
+        Document document = new Document(id, codeArticle, designation, categorie, prixUnitaireTtc,
+                normaliser(codeArticle), mots, cles);
+
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+            documents.put(id, document);
+            for (String cle : cles) {
+                postings.computeIfAbsent(cle, k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(Integer id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Articles correspondant à tous les mots de la requête, du plus au moins pertinent :
+     * code identique, puis code commençant par la requête, puis mots commençant par les mots saisis.
+     */
+    public List<ArticleRechercheDto> rechercher(String requete, int limite) {
+        List<String> motsRequete = mots(requete);
+        if (motsRequete.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        String code = normaliser(requete);
+
+        verrou.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String mot : motsRequete) {
+                Map<Integer, Double> scoresMot = scoresMot(mot);
+                if (scores == null) {
+                    scores = scoresMot;
+                } else {
+                    // Tous les mots doivent correspondre
+                    Map<Integer, Double> cumul = new HashMap<>();
+                    for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+                        Double s = scoresMot.get(e.getKey());
+                        if (s != null) {
+                            cumul.put(e.getKey(), e.getValue() + s);
+                        }
+                    }
+                    scores = cumul;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<ArticleRechercheDto> resultats = new ArrayList<>(scores.size());
+            for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+                Document d = documents.get(e.getKey());
+                double score = e.getValue() + bonus(d, code, motsRequete);
+                resultats.add(ArticleRechercheDto.builder()
+                        .id(d.id())
+                        .codeArticle(d.codeArticle())
+                        .designation(d.designation())
+                        .categorie(d.categorie())
+                        .prixUnitaireTtc(d.prixUnitaireTtc())
+                        .score(score)
+                        .build());
+            }
+            resultats.sort(Comparator.comparing(ArticleRechercheDto::getScore).reversed()
+                    .thenComparing(r -> r.getDesignation() != null ? r.getDesignation().length() : Integer.MAX_VALUE));
+            return resultats.size() > limite ? new ArrayList<>(resultats.subList(0, limite)) : resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // Mot court : préfixe exact ; sinon part des trigrammes du mot présents dans l'article (tolère les fautes)
+    private Map<Integer, Double> scoresMot(String mot) {
+        Map<Integer, Double> scores = new HashMap<>();
+        if (mot.length() < N) {
+            postings.getOrDefault("^" + mot, Set.of()).forEach(id -> scores.put(id, 1.0));
+            return scores;
+        }
+        Set<String> trigrammes = trigrammes(mot, false);
+        Map<Integer, Integer> communs = new HashMap<>();
+        for (String t : trigrammes) {
+            for (Integer id : postings.getOrDefault(t, Set.of())) {
+                communs.merge(id, 1, Integer::sum);
+            }
+        }
+        communs.forEach((id, n) -> {
+            double part = (double) n / trigrammes.size();
+            if (part >= SEUIL_TRIGRAMMES) {
+                scores.put(id, part);
+            }
+        });
+        return scores;
+    }
+
+    private static double bonus(Document d, String code, List<String> motsRequete) {
+        double bonus = 0;
+        if (!code.isEmpty() && code.equals(d.code())) {
+            bonus += 10;
+        } else if (!code.isEmpty() && d.code().startsWith(code)) {
+            bonus += 3;
+        }
+        for (String mot : motsRequete) {
+            if (d.mots().stream().anyMatch(m -> m.startsWith(mot))) {
+                bonus += 1;
+            }
+        }
+        return bonus;
+    }
+
+    private void retirerSansVerrou(Integer id) {
+        Document ancien = documents.remove(id);
+        if (ancien == null) {
+            return;
+        }
+        for (String cle : ancien.cles()) {
+            Set<Integer> ids = postings.get(cle);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(cle);
+                }
+            }
+        }
+    }
+
+    // Préfixes "^a", "^ab", "^abc" et trigrammes du mot (début de mot marqué par un espace)
+    private static Set<String> cles(String mot) {
+        Set<String> cles = new LinkedHashSet<>();
+        for (int k = 1; k <= Math.min(N, mot.length()); k++) {
+            cles.add("^" + mot.substring(0, k));
+        }
+        cles.addAll(trigrammes(mot, true));
+        return cles;
+    }
+
+    // Côté requête, pas de marque de fin : le dernier mot est souvent en cours de saisie
+    private static Set<String> trigrammes(String mot, boolean finDeMot) {
+        String texte = " " + mot + (finDeMot ? " " : "");
+        Set<String> trigrammes = new LinkedHashSet<>();
+        for (int i = 0; i + N <= texte.length(); i++) {
+            trigrammes.add(texte.substring(i, i + N));
+        }
+        return trigrammes;
+    }
+
+    static List<String> mots(String texte) {
+        String normalise = normaliser(texte);
+        if (normalise.isEmpty()) {
+            return List.of();
+        }
+        List<String> mots = new ArrayList<>();
+        for (String mot : SEPARATEURS.split(normalise)) {
+            if (!mot.isEmpty()) {
+                mots.add(mot);
+            }
+        }
+        return mots;
+    }
+
+    static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansAccents = ACCENTS.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        return sansAccents.toLowerCase(Locale.ROOT).trim();
+    }
+}
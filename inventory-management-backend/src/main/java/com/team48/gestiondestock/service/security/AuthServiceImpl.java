@@ -3,6 +3,7 @@ package com.team48.gestiondestock.service.security;
 import com.team48.gestiondestock.dto.UtilisateurResponseDto;
 import com.team48.gestiondestock.dto.AuthResponseDto;
 import com.team48.gestiondestock.dto.LoginRequestDto;
+import com.team48.gestiondestock.dto.RefreshTokenRequestDto;
 import com.team48.gestiondestock.dto.RegisterRequestDto;
 import com.team48.gestiondestock.model.Utilisateur;
 import com.team48.gestiondestock.model.Roles;
@@ -13,13 +14,19 @@ import com.team48.gestiondestock.repository.RolesRepository;
 import com.team48.gestiondestock.repository.EntrepriseRepository;
 import com.team48.gestiondestock.exception.BadCredentialsException;
 import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.service.metriques.Metriques;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -30,6 +37,10 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final MeterRegistry meterRegistry;
+    private final EchecsConnexion echecsConnexion;
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationJetonService revocationJetonService;
 
     @Override
     public AuthResponseDto register(RegisterRequestDto request) {
@@ -63,33 +74,64 @@ public class AuthServiceImpl implements AuthService {
         userRole.setEntreprise_id(request.getEntrepriseId());
         rolesRepository.save(userRole);
         utilisateur.getRoles().add(userRole);
-        // Générer le token JWT
-        String token = jwtService.generateToken(utilisateur);
-        UtilisateurResponseDto userDto = UtilisateurResponseDto.fromEntity(utilisateur);
-        AuthResponseDto response = new AuthResponseDto();
-        response.setToken(token);
-        response.setUser(userDto);
-        return response;
+        // Générer le token JWT et le jeton de renouvellement
+        return reponse(utilisateur, refreshTokenService.emettre(utilisateur));
     }
 
     @Override
     public AuthResponseDto login(LoginRequestDto request) {
 
+        // Identifiant en échec répété : refus avant tout chargement d'utilisateur ou calcul BCrypt
+        echecsConnexion.verifier(request.getEmail());
+
+        // Chargement de l'utilisateur et vérification BCrypt, le coût dominant de la connexion
+        Timer.Sample verification = Timer.start(meterRegistry);
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
         } catch (AuthenticationException e) {
+            verification.stop(timerVerification(false));
+            echecsConnexion.enregistrerEchec(request.getEmail());
             throw new BadCredentialsException("Identifiants invalides", ErrorCodes.INVALID_CREDENTIALS);
         }
+        verification.stop(timerVerification(true));
+        echecsConnexion.reinitialiser(request.getEmail());
 
-        Utilisateur utilisateur = utilisateurSecurityRepository.findByEmailWithRoles(request.getEmail())
-                .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé"));
-        String token = jwtService.generateToken(utilisateur);
-        UtilisateurResponseDto userDto = UtilisateurResponseDto.fromEntity(utilisateur);
+        // L'utilisateur chargé pour la vérification (rôles et entreprise inclus) : pas de seconde requête
+        Utilisateur utilisateur = (Utilisateur) authentication.getPrincipal();
+        return reponse(utilisateur, refreshTokenService.emettre(utilisateur));
+    }
+
+    @Override
+    public AuthResponseDto refresh(RefreshTokenRequestDto request) {
+        // Une lecture indexée et une signature HMAC : ni chargement séparé de l'utilisateur, ni BCrypt
+        RefreshTokenService.Rotation rotation = refreshTokenService.renouveler(request.getRefreshToken());
+        return reponse(rotation.utilisateur(), rotation.refreshToken());
+    }
+
+    @Override
+    public void logout(RefreshTokenRequestDto request, String accessToken) {
+        refreshTokenService.revoquer(request.getRefreshToken());
+        // Le jeton d'accès présenté cesse d'être accepté avant son expiration
+        if (accessToken != null) {
+            revocationJetonService.revoquerJeton(accessToken);
+        }
+    }
+
+    private AuthResponseDto reponse(Utilisateur utilisateur, String refreshToken) {
         AuthResponseDto response = new AuthResponseDto();
-        response.setToken(token);
-        response.setUser(userDto);
+        response.setToken(jwtService.generateToken(utilisateur));
+        response.setRefreshToken(refreshToken);
+        response.setUser(UtilisateurResponseDto.fromEntity(utilisateur));
         return response;
     }
-} 
\ No newline at end of file
+
+    // Connexion hors requête authentifiée : pas d'entreprise connue avant la vérification
+    private Timer timerVerification(boolean succes) {
+        return Timer.builder(Metriques.AUTH_VERIFICATION)
+                .tags(List.of(Metriques.resultat(succes), Metriques.entreprise(null)))
+                .register(meterRegistry);
+    }
+}
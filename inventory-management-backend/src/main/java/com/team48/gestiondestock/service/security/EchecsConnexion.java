@@ -0,0 +1,63 @@
+package com.team48.gestiondestock.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Échecs de connexion récents par identifiant : au-delà du maximum, les tentatives suivantes sont refusées
+ * avant tout chargement d'utilisateur ou calcul BCrypt, jusqu'à la fin de la fenêtre ouverte par le premier échec.
+ * Une connexion réussie remet le compteur à zéro.
+ */
+@Component
+@Slf4j
+public class EchecsConnexion {
+
+    private final int maxEchecs;
+    private final long fenetreSecondes;
+    private final Cache<String, AtomicInteger> echecs;
+
+    public EchecsConnexion(@Value("${application.security.login.max-failures:5}") int maxEchecs,
+                           @Value("${application.security.login.failure-window-seconds:300}") long fenetreSecondes) {
+        this.maxEchecs = maxEchecs;
+        this.fenetreSecondes = fenetreSecondes;
+        this.echecs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(fenetreSecondes))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * @throws TooManyRequestsException si l'identifiant a atteint le nombre maximal d'échecs dans la fenêtre
+     */
+    public void verifier(String identifiant) {
+        AtomicInteger compteur = echecs.getIfPresent(cle(identifiant));
+        if (compteur != null && compteur.get() >= maxEchecs) {
+            throw new TooManyRequestsException("Trop de tentatives de connexion échouées, réessayez plus tard",
+                    ErrorCodes.TOO_MANY_LOGIN_ATTEMPTS, fenetreSecondes);
+        }
+    }
+
+    public void enregistrerEchec(String identifiant) {
+        int nombre = echecs.get(cle(identifiant), k -> new AtomicInteger()).incrementAndGet();
+        if (nombre == maxEchecs) {
+            log.warn("Connexions refusées pendant {}s après {} échecs pour l'identifiant {}", fenetreSecondes, nombre, identifiant);
+        }
+    }
+
+    public void reinitialiser(String identifiant) {
+        echecs.invalidate(cle(identifiant));
+    }
+
+    private static String cle(String identifiant) {
+        return identifiant == null ? "" : identifiant.trim().toLowerCase(Locale.ROOT);
+    }
+}
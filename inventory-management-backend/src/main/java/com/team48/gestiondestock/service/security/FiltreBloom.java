@@ -0,0 +1,65 @@
+package com.team48.gestiondestock.service.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des chaînes, sans verrou : ajouts concurrents par opérations atomiques sur les mots de bits.
+ * {@link #peutContenir(String)} ne donne jamais de faux négatif ; les faux positifs restent proches du taux
+ * demandé tant que le nombre de clés ne dépasse pas la capacité. Aucune suppression : le filtre est reconstruit.
+ */
+public final class FiltreBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long nbBits;
+    private final int nbHachages;
+
+    public FiltreBloom(int capacite, double tauxFauxPositifs) {
+        int n = Math.max(1, capacite);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(tauxFauxPositifs) / (LN2 * LN2)));
+        int nbMots = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        this.bits = new AtomicLongArray(nbMots);
+        this.nbBits = (long) nbMots * 64;
+        this.nbHachages = Math.max(1, (int) Math.round((double) nbBits / n * LN2));
+    }
+
+    public void ajouter(String cle) {
+        long h1 = hachage(cle);
+        long h2 = melanger(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < nbHachages; i++) {
+            long bit = Math.floorMod(h1 + i * h2, nbBits);
+            bits.accumulateAndGet((int) (bit >>> 6), 1L << bit, (mot, masque) -> mot | masque);
+        }
+    }
+
+    public boolean peutContenir(String cle) {
+        long h1 = hachage(cle);
+        long h2 = melanger(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < nbHachages; i++) {
+            long bit = Math.floorMod(h1 + i * h2, nbBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a 64 bits sur les caractères, puis mélange final de MurmurHash3
+    private static long hachage(String cle) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < cle.length(); i++) {
+            h = (h ^ cle.charAt(i)) * 0x100000001B3L;
+        }
+        return melanger(h);
+    }
+
+    private static long melanger(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,21 @@
+package com.team48.gestiondestock.service.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Détails de l'authentification JWT : en plus de l'adresse et de la session, l'entreprise portée par le jeton.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final Integer entrepriseId;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, Integer entrepriseId) {
+        super(request);
+        this.entrepriseId = entrepriseId;
+    }
+}
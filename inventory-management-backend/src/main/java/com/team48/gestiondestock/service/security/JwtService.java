@@ -1,29 +1,86 @@
 package com.team48.gestiondestock.service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.team48.gestiondestock.model.Utilisateur;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
 
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_ENTREPRISE = "entrepriseId";
+    // Émission à la milliseconde (iat est tronqué à la seconde) : comparée aux révocations d'utilisateur
+    public static final String CLAIM_EMISSION_MS = "iatMs";
+
     @Value("${application.security.jwt.secret-key:placeholderSecretKeyThatIsVeryLongAndSecure1234567890ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz}")
     private String secretKeyString;
 
-    @Value("${application.security.jwt.expiration:86400000}")
-    private long jwtExpiration; // 24h par défaut
+    // Durée courte : le client renouvelle son jeton par /auth/refresh, sans repasser par BCrypt
+    @Value("${application.security.jwt.expiration:900000}")
+    private long jwtExpiration; // 15 min par défaut
+
+    // Nombre maximal de jetons vérifiés gardés en mémoire
+    @Value("${application.security.jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    // Clé et parseur construits une seule fois (le parseur est immuable et thread-safe)
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Claims déjà vérifiés, indexés par empreinte SHA-256 du jeton (le jeton lui-même n'est pas conservé),
+    // chacun jusqu'à l'expiration de son jeton ; les moins utilisés sont évincés au-delà de la taille maximale
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKeyString);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String empreinte, Claims claims, long maintenant) {
+                        return TimeUnit.MILLISECONDS.toNanos(
+                                Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String empreinte, Claims claims, long maintenant, long dureeRestante) {
+                        return dureeRestante;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String empreinte, Claims claims, long maintenant, long dureeRestante) {
+                        return dureeRestante;
+                    }
+                })
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -40,7 +97,11 @@ public class JwtService {
                 .stream()
                 .map(authority -> authority.getAuthority())
                 .collect(Collectors.toList());
-        extraClaims.put("roles", roles);
+        extraClaims.put(CLAIM_ROLES, roles);
+        // Entreprise de l'utilisateur : les listes et recherches sont restreintes à elle (voir TenantContext)
+        if (userDetails instanceof Utilisateur utilisateur && utilisateur.getEntreprise() != null) {
+            extraClaims.put(CLAIM_ENTREPRISE, utilisateur.getEntreprise().getId());
+        }
         return generateToken(extraClaims, userDetails);
     }
 
@@ -48,17 +109,17 @@ public class JwtService {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
-    public List<String> extractRoles(String token) {
-        return extractClaim(token, claims -> claims.get("roles", List.class));
-    }
-
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
         String username = userDetails.getUsername();
+        long emission = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(extraClaims)
+                .claim(CLAIM_EMISSION_MS, emission)
                 .subject(username)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                // Identifiant du jeton : révocation d'un jeton précis (voir RevocationJetonService)
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date(emission))
+                .expiration(new Date(emission + expiration))
                 .signWith(getSigningKey(), Jwts.SIG.HS256)
                 .compact();
     }
@@ -76,16 +137,34 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Claims d'un jeton vérifié (signature et expiration), lus une seule fois : le filtre en tire tous ses champs.
+     */
+    public Claims extractAllClaims(String token) {
+        String empreinte = empreinte(token);
+        // Jeton expiré : absent du cache, le parseur lève ExpiredJwtException
+        Claims enCache = claimsCache.getIfPresent(empreinte);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            claimsCache.put(empreinte, claims);
+        }
+        return claims;
+    }
+
+    static String empreinte(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 
     private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKeyString);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 } 
\ No newline at end of file
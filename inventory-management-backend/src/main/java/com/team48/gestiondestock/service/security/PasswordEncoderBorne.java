@@ -0,0 +1,94 @@
+package com.team48.gestiondestock.service.security;
+
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.TooManyRequestsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hachages BCrypt sur un pool de threads borné : un afflux de connexions occupe au plus ce pool,
+ * et non tous les cœurs au détriment des autres requêtes. File d'attente pleine, ou hachage toujours
+ * en attente après le délai : la connexion est refusée (429) sans calcul.
+ */
+public class PasswordEncoderBorne implements PasswordEncoder {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegue;
+    private final ThreadPoolExecutor executor;
+    private final long attenteMs;
+
+    public PasswordEncoderBorne(PasswordEncoder delegue, int threads, int tailleFile, long attenteMs) {
+        this.delegue = delegue;
+        this.attenteMs = attenteMs;
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tailleFile), tache -> {
+                    Thread thread = new Thread(tache, "bcrypt-" + numero.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executer(() -> delegue.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executer(() -> delegue.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegue.upgradeEncoding(encodedPassword);
+    }
+
+    public void arreter() {
+        executor.shutdownNow();
+    }
+
+    private <T> T executer(Callable<T> hachage) {
+        Future<T> resultat;
+        try {
+            resultat = executor.submit(hachage);
+        } catch (RejectedExecutionException e) {
+            throw sature();
+        }
+        try {
+            try {
+                return resultat.get(attenteMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Encore dans la file : retiré et refusé ; déjà commencé : le hachage, de durée bornée, est attendu
+                if (executor.remove((Runnable) resultat)) {
+                    throw sature();
+                }
+                return resultat.get();
+            }
+        } catch (InterruptedException e) {
+            resultat.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vérification du mot de passe interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Échec du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    private static TooManyRequestsException sature() {
+        return new TooManyRequestsException("Service de connexion saturé, réessayez dans un instant",
+                ErrorCodes.AUTH_SERVICE_BUSY, RETRY_AFTER_SECONDS);
+    }
+}
@@ -0,0 +1,31 @@
+package com.team48.gestiondestock.service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Purge quotidienne des jetons de renouvellement expirés : la table ne garde que les jetons encore valables
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "application.security.jwt.refresh-token.purge.actif", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenPlanificateur {
+
+    private final RefreshTokenService refreshTokenService;
+
+    @Autowired
+    public RefreshTokenPlanificateur(RefreshTokenService refreshTokenService) {
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @Scheduled(cron = "${application.security.jwt.refresh-token.purge.cron:0 0 4 * * *}")
+    public void executer() {
+        try {
+            int supprimes = refreshTokenService.purgerExpires();
+            log.info("{} jeton(s) de renouvellement expiré(s) supprimé(s)", supprimes);
+        } catch (RuntimeException e) {
+            log.error("Échec de la purge des jetons de renouvellement : {}", e.getMessage(), e);
+        }
+    }
+}
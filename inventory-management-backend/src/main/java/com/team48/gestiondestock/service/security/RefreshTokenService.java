@@ -0,0 +1,142 @@
+package com.team48.gestiondestock.service.security;
+
+import com.team48.gestiondestock.exception.BadCredentialsException;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.model.security.RefreshToken;
+import com.team48.gestiondestock.repository.security.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Jetons de renouvellement opaques (aléatoires, non signés) : un renouvellement coûte une lecture indexée
+ * par empreinte et la signature HMAC du nouveau jeton d'accès, sans vérification BCrypt.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom ALEATOIRE = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevocationJetonService revocationJetonService;
+    private final long dureeMs;
+
+    /**
+     * Utilisateur authentifié par un jeton de renouvellement et jeton émis en remplacement.
+     */
+    public record Rotation(Utilisateur utilisateur, String refreshToken) {
+    }
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, RevocationJetonService revocationJetonService,
+                               @Value("${application.security.jwt.refresh-token.expiration:604800000}") long dureeMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revocationJetonService = revocationJetonService;
+        this.dureeMs = dureeMs;
+    }
+
+    /**
+     * Émet le premier jeton d'une nouvelle famille (connexion, inscription).
+     */
+    @Transactional
+    public String emettre(Utilisateur utilisateur) {
+        return emettre(utilisateur, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Échange un jeton valide contre un nouveau jeton de la même famille. Un jeton déjà utilisé ou révoqué
+     * présenté à nouveau (jeton volé, rejoué) révoque toute la famille et les jetons d'accès déjà émis à l'utilisateur :
+     * la révocation est conservée malgré l'exception.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation renouveler(String jeton) {
+        if (jeton == null || jeton.isBlank()) {
+            throw invalide();
+        }
+        RefreshToken refreshToken = refreshTokenRepository.findByEmpreinteWithUtilisateur(JwtService.empreinte(jeton))
+                .orElseThrow(RefreshTokenService::invalide);
+        Instant maintenant = Instant.now();
+        if (refreshToken.getExpiration().isBefore(maintenant)) {
+            throw invalide();
+        }
+        if (refreshToken.getDateRevocation() != null
+                || refreshTokenRepository.revoquer(refreshToken.getId(), maintenant) == 0) {
+            log.warn("Jeton de renouvellement réutilisé pour l'utilisateur {} : famille {} révoquée",
+                    refreshToken.getUtilisateur().getId(), refreshToken.getFamille());
+            refreshTokenRepository.revoquerFamille(refreshToken.getFamille(), maintenant);
+            revocationJetonService.revoquerUtilisateur(refreshToken.getUtilisateur().getUsername());
+            throw invalide();
+        }
+        Utilisateur utilisateur = refreshToken.getUtilisateur();
+        // Compte désactivé ou verrouillé depuis la connexion (indicateurs absents : compte actif)
+        if (Boolean.FALSE.equals(utilisateur.getEnabled()) || Boolean.FALSE.equals(utilisateur.getAccountNonLocked())) {
+            refreshTokenRepository.revoquerFamille(refreshToken.getFamille(), maintenant);
+            throw invalide();
+        }
+        return new Rotation(utilisateur, emettre(utilisateur, refreshToken.getFamille()));
+    }
+
+    /**
+     * Déconnexion : révoque la famille du jeton présenté. Sans effet si le jeton est inconnu.
+     */
+    @Transactional
+    public void revoquer(String jeton) {
+        if (jeton == null || jeton.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByEmpreinteWithUtilisateur(JwtService.empreinte(jeton))
+                .ifPresent(t -> refreshTokenRepository.revoquerFamille(t.getFamille(), Instant.now()));
+    }
+
+    /**
+     * Révoque tous les jetons d'un utilisateur (modification du compte) : reconnexion exigée.
+     */
+    @Transactional
+    public void revoquerUtilisateur(Integer utilisateurId) {
+        refreshTokenRepository.revoquerUtilisateur(utilisateurId, Instant.now());
+    }
+
+    /**
+     * Supprime les jetons d'un utilisateur avant sa suppression.
+     */
+    @Transactional
+    public void supprimerUtilisateur(Integer utilisateurId) {
+        refreshTokenRepository.supprimerUtilisateur(utilisateurId);
+    }
+
+    /**
+     * Supprime les jetons expirés, révoqués ou non : au-delà de l'expiration, un rejeu est refusé sans eux.
+     *
+     * @return le nombre de jetons supprimés
+     */
+    @Transactional
+    public int purgerExpires() {
+        return refreshTokenRepository.supprimerExpires(Instant.now());
+    }
+
+    private String emettre(Utilisateur utilisateur, String famille) {
+        byte[] octets = new byte[32];
+        ALEATOIRE.nextBytes(octets);
+        String jeton = Base64.getUrlEncoder().withoutPadding().encodeToString(octets);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .empreinte(JwtService.empreinte(jeton))
+                .utilisateur(utilisateur)
+                .famille(famille)
+                .expiration(Instant.now().plusMillis(dureeMs))
+                .build());
+        return jeton;
+    }
+
+    private static BadCredentialsException invalide() {
+        return new BadCredentialsException("Jeton de renouvellement invalide ou expiré", ErrorCodes.INVALID_REFRESH_TOKEN);
+    }
+}
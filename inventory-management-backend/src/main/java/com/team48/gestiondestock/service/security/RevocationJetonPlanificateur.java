@@ -0,0 +1,38 @@
+package com.team48.gestiondestock.service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Révocations des autres instances lues toutes les quelques secondes ; purge et reconstruction du filtre chaque heure
+@Component
+@Slf4j
+public class RevocationJetonPlanificateur {
+
+    private final RevocationJetonService revocationJetonService;
+
+    @Autowired
+    public RevocationJetonPlanificateur(RevocationJetonService revocationJetonService) {
+        this.revocationJetonService = revocationJetonService;
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.revocation.rafraichissement-ms:5000}")
+    public void rafraichir() {
+        try {
+            revocationJetonService.rafraichir();
+        } catch (RuntimeException e) {
+            log.error("Échec de la lecture des jetons révoqués : {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${application.security.revocation.reconstruction.cron:0 0 * * * *}")
+    public void reconstruire() {
+        try {
+            revocationJetonService.purgerExpirees();
+            revocationJetonService.reconstruire();
+        } catch (RuntimeException e) {
+            log.error("Échec de la reconstruction du filtre des jetons révoqués : {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.team48.gestiondestock.service.security;
+
+import com.team48.gestiondestock.model.security.RevocationJeton;
+import com.team48.gestiondestock.repository.security.RevocationJetonRepository;
+import com.team48.gestiondestock.service.metriques.Metriques;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Liste des jetons d'accès révoqués, précédée d'un filtre de Bloom en mémoire : un jeton non révoqué (le cas
+ * courant) est accepté sans requête ; seule une révocation probable est confirmée en base.
+ * <p>
+ * Chaque instance ajoute ses propres révocations au filtre immédiatement, lit celles des autres instances par
+ * interrogation périodique ({@link #rafraichir()}), et reconstruit le filtre après la purge des révocations expirées.
+ */
+@Service
+@Slf4j
+public class RevocationJetonService {
+
+    private final RevocationJetonRepository revocationJetonRepository;
+    private final JwtService jwtService;
+    private final MeterRegistry meterRegistry;
+    private final int capacite;
+    private final double tauxFauxPositifs;
+    private final long dureeJetonMs;
+    private final long margeSecondes;
+
+    private volatile FiltreBloom filtre;
+    private volatile Instant dernierRafraichissement = Instant.EPOCH;
+
+    @Autowired
+    public RevocationJetonService(RevocationJetonRepository revocationJetonRepository, JwtService jwtService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${application.security.revocation.capacite:100000}") int capacite,
+                                  @Value("${application.security.revocation.taux-faux-positifs:0.01}") double tauxFauxPositifs,
+                                  @Value("${application.security.jwt.expiration:900000}") long dureeJetonMs,
+                                  @Value("${application.security.revocation.marge-secondes:60}") long margeSecondes) {
+        this.revocationJetonRepository = revocationJetonRepository;
+        this.jwtService = jwtService;
+        this.meterRegistry = meterRegistry;
+        this.capacite = capacite;
+        this.tauxFauxPositifs = tauxFauxPositifs;
+        this.dureeJetonMs = dureeJetonMs;
+        this.margeSecondes = margeSecondes;
+        this.filtre = new FiltreBloom(capacite, tauxFauxPositifs);
+    }
+
+    @PostConstruct
+    void init() {
+        reconstruire();
+    }
+
+    /**
+     * @return true si le jeton, ou l'ensemble des jetons de son utilisateur émis avant une révocation, est révoqué
+     */
+    public boolean estRevoque(Claims claims) {
+        String cleJeton = claims.getId() != null ? RevocationJeton.PREFIXE_JETON + claims.getId() : null;
+        String cleSujet = RevocationJeton.PREFIXE_UTILISATEUR + claims.getSubject();
+        FiltreBloom courant = filtre;
+        if (!courant.peutContenir(cleSujet) && (cleJeton == null || !courant.peutContenir(cleJeton))) {
+            return false;
+        }
+        boolean revoque = revocationJetonRepository.estRevoque(cleJeton, cleSujet, emission(claims));
+        // Lectures en base : révocations confirmées et faux positifs du filtre
+        meterRegistry.counter(Metriques.JWT_REVOCATION_LECTURES, "revoque", String.valueOf(revoque)).increment();
+        return revoque;
+    }
+
+    // Émission à la milliseconde ; à défaut (jeton émis avant l'ajout du claim), l'iat tronqué à la seconde
+    private static Instant emission(Claims claims) {
+        Long emissionMs = claims.get(JwtService.CLAIM_EMISSION_MS, Long.class);
+        if (emissionMs != null) {
+            return Instant.ofEpochMilli(emissionMs);
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : Instant.EPOCH;
+    }
+
+    /**
+     * Révoque un jeton d'accès précis (déconnexion). Sans effet pour un jeton invalide, expiré ou sans identifiant.
+     */
+    @Transactional
+    public void revoquerJeton(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtService.extractClaim(jwt, c -> c);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        if (claims.getId() != null) {
+            enregistrer(RevocationJeton.PREFIXE_JETON + claims.getId(), claims.getExpiration().toInstant());
+        }
+    }
+
+    /**
+     * Révoque tous les jetons d'accès de l'utilisateur émis jusqu'à maintenant (compte modifié, supprimé,
+     * jeton de renouvellement rejoué). Les jetons émis ensuite restent valides.
+     */
+    @Transactional
+    public void revoquerUtilisateur(String username) {
+        if (username != null) {
+            enregistrer(RevocationJeton.PREFIXE_UTILISATEUR + username, Instant.now().plusMillis(dureeJetonMs));
+        }
+    }
+
+    /**
+     * Ajoute au filtre les révocations enregistrées depuis la dernière lecture, y compris par les autres instances.
+     * La marge couvre les écarts d'horloge et les transactions validées après la lecture précédente.
+     */
+    public void rafraichir() {
+        Instant debut = Instant.now();
+        List<String> cles = revocationJetonRepository.findClesDepuis(dernierRafraichissement.minusSeconds(margeSecondes));
+        FiltreBloom courant = filtre;
+        cles.forEach(courant::ajouter);
+        dernierRafraichissement = debut;
+    }
+
+    /**
+     * Remplace le filtre par un filtre construit sur les seules révocations non expirées.
+     */
+    public void reconstruire() {
+        Instant debut = Instant.now();
+        List<String> cles = revocationJetonRepository.findClesValides(debut);
+        FiltreBloom nouveau = new FiltreBloom(Math.max(capacite, cles.size() * 2), tauxFauxPositifs);
+        cles.forEach(nouveau::ajouter);
+        filtre = nouveau;
+        dernierRafraichissement = debut;
+        log.info("Filtre des jetons révoqués reconstruit : {} révocation(s) active(s)", cles.size());
+    }
+
+    /**
+     * @return le nombre de révocations supprimées, dont tous les jetons concernés ont expiré
+     */
+    @Transactional
+    public int purgerExpirees() {
+        return revocationJetonRepository.supprimerExpirees(Instant.now());
+    }
+
+    private void enregistrer(String cle, Instant expiration) {
+        revocationJetonRepository.save(RevocationJeton.builder().cle(cle).expiration(expiration).build());
+        filtre.ajouter(cle);
+    }
+}
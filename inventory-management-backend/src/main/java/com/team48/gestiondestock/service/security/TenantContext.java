@@ -0,0 +1,51 @@
+package com.team48.gestiondestock.service.security;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Entreprise (tenant) de l'utilisateur connecté, lue dans le jeton JWT et non dans les paramètres de la requête.
+ * <p>
+ * Les listes et recherches passent l'entreprise demandée par {@link #entrepriseId(Integer)} :
+ * <ul>
+ *     <li>utilisateur rattaché à une entreprise : toujours la sienne, une autre entreprise demandée est refusée ;</li>
+ *     <li>administrateur système (ROLE_ADMIN), tâches planifiées, jetons sans entreprise : l'entreprise demandée,
+ *     toutes si aucune.</li>
+ * </ul>
+ */
+public final class TenantContext {
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private TenantContext() {
+    }
+
+    /**
+     * Entreprise de l'utilisateur connecté, null si la requête n'est pas restreinte à une entreprise.
+     */
+    public static Integer entrepriseCourante() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getDetails() instanceof JwtAuthenticationDetails details)) {
+            return null;
+        }
+        boolean admin = authentication.getAuthorities().stream().anyMatch(a -> ROLE_ADMIN.equals(a.getAuthority()));
+        return admin ? null : details.getEntrepriseId();
+    }
+
+    /**
+     * Entreprise à utiliser pour une lecture : celle du jeton si l'utilisateur y est restreint, sinon celle demandée.
+     *
+     * @throws AccessDeniedException si l'utilisateur demande une autre entreprise que la sienne
+     */
+    public static Integer entrepriseId(Integer demandee) {
+        Integer courante = entrepriseCourante();
+        if (courante == null) {
+            return demandee;
+        }
+        if (demandee != null && !demandee.equals(courante)) {
+            throw new AccessDeniedException("Accès refusé aux données de l'entreprise " + demandee);
+        }
+        return courante;
+    }
+}
@@ -1,5 +1,6 @@
 package com.team48.gestiondestock.service.security;
 
+import com.team48.gestiondestock.model.Utilisateur;
 import com.team48.gestiondestock.repository.security.UtilisateurSecurityRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -7,6 +8,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -15,9 +18,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        // On tente d'abord par email avec rôles, puis par username avec rôles
-        return utilisateurSecurityRepository.findByEmailWithRoles(usernameOrEmail)
-                .or(() -> utilisateurSecurityRepository.findByUsernameWithRoles(usernameOrEmail))
+        // Une seule requête (email ou username, rôles et entreprise) ; la correspondance par email l'emporte
+        List<Utilisateur> utilisateurs = utilisateurSecurityRepository.findByEmailOrUsernameWithRoles(usernameOrEmail);
+        return utilisateurs.stream()
+                .filter(u -> usernameOrEmail.equals(u.getEmail()))
+                .findFirst()
+                .or(() -> utilisateurs.stream().findFirst())
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec email ou username : " + usernameOrEmail));
     }
 } 
\ No newline at end of file
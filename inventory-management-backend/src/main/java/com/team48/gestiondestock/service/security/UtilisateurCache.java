@@ -0,0 +1,60 @@
+package com.team48.gestiondestock.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.team48.gestiondestock.model.Utilisateur;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Utilisateurs chargés à la connexion, gardés quelques secondes : une reconnexion (début de service,
+ * nouvel essai après une erreur de saisie) ne relit pas la base. Chaque utilisateur est rangé sous son
+ * email et sous son nom d'utilisateur, les deux identifiants acceptés à la connexion.
+ * <p>
+ * Un mot de passe refusé sur l'entrée en cache est revérifié après relecture en base
+ * (DaoAuthenticationProvider) ; les modifications d'utilisateur retirent l'entrée par {@link #evincer(Utilisateur)}.
+ */
+@Component
+public class UtilisateurCache implements UserCache {
+
+    private final Cache<String, UserDetails> utilisateurs;
+
+    public UtilisateurCache(@Value("${application.security.login.user-cache-seconds:60}") long dureeSecondes,
+                            @Value("${application.security.login.user-cache-max-size:10000}") long tailleMax) {
+        this.utilisateurs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(dureeSecondes))
+                .maximumSize(tailleMax)
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String identifiant) {
+        return identifiant == null ? null : utilisateurs.getIfPresent(identifiant);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        utilisateurs.put(user.getUsername(), user);
+        if (user instanceof Utilisateur utilisateur && utilisateur.getEmail() != null) {
+            utilisateurs.put(utilisateur.getEmail(), user);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String identifiant) {
+        if (identifiant != null) {
+            utilisateurs.invalidate(identifiant);
+        }
+    }
+
+    public void evincer(Utilisateur utilisateur) {
+        if (utilisateur != null) {
+            removeUserFromCache(utilisateur.getUsername());
+            removeUserFromCache(utilisateur.getEmail());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.team48.gestiondestock.service.stockage;
+
+import com.team48.gestiondestock.utils.ImageVariantes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Génère les variantes réduites d'une image (voir {@link ImageVariantes}) et renvoie celles réellement écrites.
+ * L'original est décodé une seule fois, puis réduit pour chaque taille ; une image de plus de
+ * {@code stockage.image.pixels-max} pixels n'est pas décodée.
+ */
+@Service
+@Slf4j
+public class ImageVariantService {
+
+    private final ObjectStorage objectStorage;
+    // Au-delà, l'image n'est pas décodée : un petit fichier compressé peut déclarer des dimensions énormes
+    private final long pixelsMax;
+
+    public ImageVariantService(ObjectStorage objectStorage,
+                               @Value("${stockage.image.pixels-max:40000000}") long pixelsMax) {
+        this.objectStorage = objectStorage;
+        this.pixelsMax = pixelsMax;
+    }
+
+    @Async
+    public CompletableFuture<List<String>> genererVariantesAsync(String objectName) {
+        return CompletableFuture.completedFuture(genererVariantes(objectName));
+    }
+
+    public List<String> genererVariantes(String objectName) {
+        if (!ImageVariantes.supporte(objectName)) {
+            return List.of();
+        }
+        BufferedImage source;
+        try (InputStream brut = objectStorage.get(objectName);
+             ImageInputStream in = ImageIO.createImageInputStream(brut)) {
+            source = decoder(in, objectName);
+        } catch (IOException e) {
+            log.error("Lecture de l'image {} impossible : {}", objectName, e.getMessage());
+            return List.of();
+        }
+        if (source == null) {
+            log.warn("Image {} non décodable, aucune variante générée", objectName);
+            return List.of();
+        }
+
+        List<String> cles = new ArrayList<>();
+        for (int taille : ImageVariantes.TAILLES) {
+            BufferedImage reduite = reduire(source, taille);
+            try {
+                cles.add(ecrire(ImageVariantes.cle(objectName, taille, "jpg"), reduite, "jpg", "image/jpeg"));
+                if (ImageVariantes.WEBP_DISPONIBLE) {
+                    cles.add(ecrire(ImageVariantes.cle(objectName, taille, "webp"), reduite, "webp", "image/webp"));
+                }
+            } catch (IOException e) {
+                log.error("Écriture de la variante {}px de {} impossible : {}", taille, objectName, e.getMessage());
+            }
+        }
+        log.info("Variantes générées pour {} : {}", objectName, cles);
+        return cles;
+    }
+
+    // Dimensions lues dans l'en-tête, avant tout décodage ; null si aucun lecteur ou si l'image est trop grande
+    private BufferedImage decoder(ImageInputStream in, String objectName) throws IOException {
+        Iterator<ImageReader> lecteurs = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+        if (!lecteurs.hasNext()) {
+            return null;
+        }
+        ImageReader lecteur = lecteurs.next();
+        try {
+            lecteur.setInput(in, true, true);
+            long pixels = (long) lecteur.getWidth(0) * lecteur.getHeight(0);
+            if (pixels > pixelsMax) {
+                log.warn("Image {} trop grande ({}x{} pixels, maximum {}), non décodée",
+                        objectName, lecteur.getWidth(0), lecteur.getHeight(0), pixelsMax);
+                return null;
+            }
+            return lecteur.read(0);
+        } finally {
+            lecteur.dispose();
+        }
+    }
+
+    public void supprimerVariantes(String objectName) {
+        if (!ImageVariantes.supporte(objectName)) {
+            return;
+        }
+        ImageVariantes.cles(objectName).values().forEach(cle -> {
+            try {
+                objectStorage.delete(cle);
+            } catch (IOException e) {
+                log.warn("Suppression de la variante {} impossible : {}", cle, e.getMessage());
+            }
+        });
+    }
+
+    private String ecrire(String cle, BufferedImage image, String format, String contentType) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, format, out)) {
+            throw new IOException("Aucun encodeur " + format + " disponible");
+        }
+        byte[] octets = out.toByteArray();
+        objectStorage.put(cle, new ByteArrayInputStream(octets), octets.length, contentType);
+        return cle;
+    }
+
+    // Réduction par divisions successives par deux (meilleur rendu qu'un seul redimensionnement bilinéaire),
+    // sur fond blanc puisque la variante JPEG n'a pas de canal alpha. Jamais d'agrandissement.
+    private static BufferedImage reduire(BufferedImage source, int taille) {
+        double ratio = Math.min(1.0, (double) taille / Math.max(source.getWidth(), source.getHeight()));
+        int largeurCible = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int hauteurCible = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage courante = source;
+        int largeur = source.getWidth();
+        int hauteur = source.getHeight();
+        do {
+            largeur = Math.max(largeurCible, largeur / 2);
+            hauteur = Math.max(hauteurCible, hauteur / 2);
+            BufferedImage etape = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = etape.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, largeur, hauteur);
+            g.drawImage(courante, 0, 0, largeur, hauteur, null);
+            g.dispose();
+            courante = etape;
+        } while (largeur != largeurCible || hauteur != hauteurCible);
+        return courante;
+    }
+}
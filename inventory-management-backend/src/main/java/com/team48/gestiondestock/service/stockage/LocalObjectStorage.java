@@ -0,0 +1,48 @@
+package com.team48.gestiondestock.service.stockage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Remplaçant de MinIO sur le disque local : chaque objet est un fichier sous le répertoire racine
+@Component
+@ConditionalOnProperty(name = "stockage.type", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path racine;
+
+    public LocalObjectStorage(@Value("${stockage.local.racine:${java.io.tmpdir}/gestiondestock-objets}") String racine) {
+        this.racine = Path.of(racine).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String objectName, InputStream contenu, long taille, String contentType) throws IOException {
+        Path fichier = chemin(objectName);
+        Files.createDirectories(fichier.getParent());
+        Files.copy(contenu, fichier, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream get(String objectName) throws IOException {
+        return Files.newInputStream(chemin(objectName));
+    }
+
+    @Override
+    public void delete(String objectName) throws IOException {
+        Files.deleteIfExists(chemin(objectName));
+    }
+
+    private Path chemin(String objectName) throws IOException {
+        Path fichier = racine.resolve(objectName).normalize();
+        if (!fichier.startsWith(racine)) {
+            throw new IOException("Nom d'objet invalide : " + objectName);
+        }
+        return fichier;
+    }
+}
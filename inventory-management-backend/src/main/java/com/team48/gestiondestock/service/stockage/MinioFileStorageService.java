@@ -1,23 +1,64 @@
 // com/loic/gestiondestock/service/stockage/MinioFileStorageService.java
 package com.team48.gestiondestock.service.stockage;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.team48.gestiondestock.exception.InvalidImageFormatException;
+import com.team48.gestiondestock.service.metriques.Metriques;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
+import io.minio.http.Method;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@Slf4j
 public class MinioFileStorageService {
     private final MinioClient minioClient;
     @Value("${minio.bucket-name}")
     private String bucketName;
 
-    public MinioFileStorageService(MinioClient minioClient) {
+    // Durée de validité des URLs pré-signées, et marge avant expiration à partir de laquelle on en signe une nouvelle
+    @Value("${minio.presigned-url.expiry-seconds:900}")
+    private int presignedUrlExpirySeconds;
+    @Value("${minio.presigned-url.refresh-margin-seconds:60}")
+    private int presignedUrlRefreshMarginSeconds;
+    @Value("${minio.presigned-url.cache-max-size:10000}")
+    private int presignedUrlCacheMaxSize;
+
+    // URLs signées par objet, gardées jusqu'à la marge avant leur expiration : une URL servie a toujours
+    // au moins refresh-margin-seconds de validité ; les moins utilisées sont évincées au-delà de la taille maximale
+    private Cache<String, String> presignedUrls;
+
+    private final ObjectStorage objectStorage;
+    private final ImageVariantService imageVariantService;
+    private final MeterRegistry meterRegistry;
+
+    public MinioFileStorageService(MinioClient minioClient, ObjectStorage objectStorage, ImageVariantService imageVariantService,
+                                   MeterRegistry meterRegistry) {
         this.minioClient = minioClient;
+        this.objectStorage = objectStorage;
+        this.imageVariantService = imageVariantService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        presignedUrls = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(presignedUrlExpirySeconds - presignedUrlRefreshMarginSeconds))
+                .maximumSize(presignedUrlCacheMaxSize)
+                .build();
     }
 
     public String uploadImage(MultipartFile file, String folder) {
@@ -33,31 +74,65 @@ public class MinioFileStorageService {
         }
         String uniqueSuffix = UUID.randomUUID().toString();
         String objectName = folder + "/" + uniqueSuffix + "_" + originalFilename;
+        Timer.Sample upload = Timer.start(meterRegistry);
         try {
-            minioClient.putObject(
-                PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .stream(file.getInputStream(), file.getSize(), -1)
-                    .contentType(file.getContentType())
-                    .build()
-            );
+            objectStorage.put(objectName, file.getInputStream(), file.getSize(), file.getContentType());
         } catch (Exception e) {
+            upload.stop(timerUpload(folder, false));
             throw new InvalidImageFormatException("Erreur lors de l'upload sur Minio: " + e.getMessage());
         }
+        upload.stop(timerUpload(folder, true));
+        DistributionSummary.builder(Metriques.STOCKAGE_UPLOAD + ".taille")
+                .baseUnit("bytes")
+                .tags(List.of(Tag.of("dossier", folder), Metriques.entreprise()))
+                .register(meterRegistry)
+                .record(file.getSize());
+        // Miniatures générées par le propriétaire de la photo, qui enregistre celles réellement écrites
+        // (voir ArticleServiceImpl)
         return objectName;
     }
 
-    public void delete(String objectName) {
+    /**
+     * URL GET pré-signée et de courte durée : le client télécharge l'objet directement depuis MinIO,
+     * les octets ne transitent pas par l'application. L'URL est réutilisée jusqu'à peu avant son expiration.
+     */
+    public String presignedUrl(String objectName) {
+        if (objectName == null || objectName.isBlank()) return null;
+        String enCache = presignedUrls.getIfPresent(objectName);
+        if (enCache != null) {
+            return enCache;
+        }
         try {
-            minioClient.removeObject(
-                io.minio.RemoveObjectArgs.builder()
+            String url = minioClient.getPresignedObjectUrl(
+                GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
                     .bucket(bucketName)
                     .object(objectName)
+                    .expiry(presignedUrlExpirySeconds, TimeUnit.SECONDS)
                     .build()
             );
+            presignedUrls.put(objectName, url);
+            return url;
+        } catch (Exception e) {
+            log.error("Impossible de signer l'URL de l'objet {} : {}", objectName, e.getMessage());
+            return null;
+        }
+    }
+
+    public void delete(String objectName) {
+        presignedUrls.invalidate(objectName);
+        try {
+            objectStorage.delete(objectName);
+            imageVariantService.supprimerVariantes(objectName);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la suppression de l'image sur Minio: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Dossier = type d'objet (articles, utilisateurs...), en nombre borné
+    private Timer timerUpload(String folder, boolean succes) {
+        return Timer.builder(Metriques.STOCKAGE_UPLOAD)
+                .tags(List.of(Tag.of("dossier", folder), Metriques.resultat(succes), Metriques.entreprise()))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.team48.gestiondestock.service.stockage;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Component
+@ConditionalOnProperty(name = "stockage.type", havingValue = "minio", matchIfMissing = true)
+public class MinioObjectStorage implements ObjectStorage {
+
+    private final MinioClient minioClient;
+    @Value("${minio.bucket-name}")
+    private String bucketName;
+
+    public MinioObjectStorage(MinioClient minioClient) {
+        this.minioClient = minioClient;
+    }
+
+    @Override
+    public void put(String objectName, InputStream contenu, long taille, String contentType) throws IOException {
+        try {
+            minioClient.putObject(
+                PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(contenu, taille, -1)
+                    .contentType(contentType)
+                    .build()
+            );
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Erreur Minio lors de l'écriture de " + objectName + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream get(String objectName) throws IOException {
+        try {
+            return minioClient.getObject(
+                GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build()
+            );
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Erreur Minio lors de la lecture de " + objectName + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String objectName) throws IOException {
+        try {
+            minioClient.removeObject(
+                RemoveObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build()
+            );
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Erreur Minio lors de la suppression de " + objectName + ": " + e.getMessage(), e);
+        }
+    }
+}
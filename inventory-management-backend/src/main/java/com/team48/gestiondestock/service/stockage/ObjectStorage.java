@@ -0,0 +1,17 @@
+package com.team48.gestiondestock.service.stockage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stockage des fichiers par nom d'objet. MinIO en production ; un répertoire local
+ * (stockage.type=local) sert de remplaçant pour le développement et les tests.
+ */
+public interface ObjectStorage {
+
+    void put(String objectName, InputStream contenu, long taille, String contentType) throws IOException;
+
+    InputStream get(String objectName) throws IOException;
+
+    void delete(String objectName) throws IOException;
+}
@@ -0,0 +1,70 @@
+package com.team48.gestiondestock.utils;
+
+import javax.imageio.ImageIO;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Nommage des variantes réduites d'une image : objets voisins de l'original,
+ * "articles/abc_photo.png" donne "articles/abc_photo-w128.jpg", "articles/abc_photo-w512.jpg"
+ * (et ".webp" si un encodeur WebP est présent dans ImageIO).
+ */
+public final class ImageVariantes {
+
+    // Largeur/hauteur maximale de chaque variante, en pixels
+    public static final List<Integer> TAILLES = List.of(128, 512);
+
+    private static final List<String> FORMATS_SOURCES = List.of("jpg", "jpeg", "png");
+
+    public static final boolean WEBP_DISPONIBLE = ImageIO.getImageWritersByFormatName("webp").hasNext();
+
+    private ImageVariantes() {
+    }
+
+    public static boolean supporte(String objectName) {
+        return objectName != null && FORMATS_SOURCES.contains(extension(objectName));
+    }
+
+    public static String cle(String objectName, int taille, String format) {
+        int point = objectName.lastIndexOf('.');
+        String base = point > objectName.lastIndexOf('/') ? objectName.substring(0, point) : objectName;
+        return base + "-w" + taille + "." + format;
+    }
+
+    // Clés des variantes d'une photo ("128", "512", puis "128.webp"... si WebP est disponible)
+    public static Map<String, String> cles(String objectName) {
+        if (!supporte(objectName)) {
+            return null;
+        }
+        Map<String, String> cles = new LinkedHashMap<>();
+        for (int taille : TAILLES) {
+            cles.put(String.valueOf(taille), cle(objectName, taille, "jpg"));
+        }
+        if (WEBP_DISPONIBLE) {
+            for (int taille : TAILLES) {
+                cles.put(taille + ".webp", cle(objectName, taille, "webp"));
+            }
+        }
+        return cles;
+    }
+
+    // Clés des variantes effectivement générées (liste persistée, séparée par des virgules) ;
+    // null s'il n'y en a aucune : le client affiche alors l'original
+    public static Map<String, String> generees(String objectName, String variantesGenerees) {
+        Map<String, String> cles = cles(objectName);
+        if (cles == null || variantesGenerees == null || variantesGenerees.isBlank()) {
+            return null;
+        }
+        Set<String> generees = Set.of(variantesGenerees.split(","));
+        cles.values().removeIf(cle -> !generees.contains(cle));
+        return cles.isEmpty() ? null : cles;
+    }
+
+    private static String extension(String objectName) {
+        int point = objectName.lastIndexOf('.');
+        return point < 0 ? "" : objectName.substring(point + 1).toLowerCase(Locale.ROOT);
+    }
+}
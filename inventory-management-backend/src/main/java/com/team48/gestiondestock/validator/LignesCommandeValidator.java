@@ -0,0 +1,68 @@
+package com.team48.gestiondestock.validator;
+
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class LignesCommandeValidator {
+
+    // Borne le travail d'une seule requête (une transaction, un contexte de persistance)
+    public static final int MAX_LIGNES = 1000;
+
+    public static List<String> validate(LignesCommandeModificationDto modificationDto) {
+        List<String> errors = new ArrayList<>();
+
+        if (modificationDto == null) {
+            errors.add("Veuillez renseigner les modifications des lignes de la commande");
+            return errors;
+        }
+
+        if (modificationDto.getAjouts() == null || modificationDto.getModifications() == null || modificationDto.getSuppressions() == null) {
+            errors.add("Les listes d'ajouts, de modifications et de suppressions ne peuvent pas être null");
+            return errors;
+        }
+
+        int total = modificationDto.getAjouts().size() + modificationDto.getModifications().size()
+                + modificationDto.getSuppressions().size();
+        if (total > MAX_LIGNES) {
+            errors.add("Une requête ne peut pas modifier plus de " + MAX_LIGNES + " lignes");
+            return errors;
+        }
+
+        for (LignesCommandeModificationDto.Ligne ligne : modificationDto.getAjouts()) {
+            if (ligne == null || ligne.getArticleId() == null) {
+                errors.add("Veuillez renseigner l'identifiant de l'article de chaque ligne ajoutée");
+            }
+            if (ligne != null && ligne.getQuantite() == null) {
+                errors.add("Veuillez renseigner la quantité de chaque ligne ajoutée");
+            }
+        }
+
+        // Une ligne ne peut être modifiée ou supprimée qu'une fois par requête
+        Set<Integer> lignesTouchees = new HashSet<>();
+        for (LignesCommandeModificationDto.Ligne ligne : modificationDto.getModifications()) {
+            if (ligne == null || ligne.getId() == null) {
+                errors.add("Veuillez renseigner l'identifiant de chaque ligne modifiée");
+                continue;
+            }
+            if (ligne.getQuantite() == null) {
+                errors.add("Veuillez renseigner la quantité de la ligne " + ligne.getId());
+            }
+            if (!lignesTouchees.add(ligne.getId())) {
+                errors.add("La ligne " + ligne.getId() + " apparaît plusieurs fois dans la requête");
+            }
+        }
+        for (Integer id : modificationDto.getSuppressions()) {
+            if (id == null) {
+                errors.add("Veuillez renseigner l'identifiant de chaque ligne supprimée");
+            } else if (!lignesTouchees.add(id)) {
+                errors.add("La ligne " + id + " apparaît plusieurs fois dans la requête");
+            }
+        }
+
+        return errors;
+    }
+}
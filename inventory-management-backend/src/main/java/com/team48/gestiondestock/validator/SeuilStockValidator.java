@@ -0,0 +1,41 @@
+package com.team48.gestiondestock.validator;
+
+import com.team48.gestiondestock.dto.SeuilStockRequestDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SeuilStockValidator {
+
+    public static List<String> validate(SeuilStockRequestDto seuilDto) {
+        List<String> errors = new ArrayList<>();
+
+        if (seuilDto == null) {
+            errors.add("Veillez renseigner l'identifiant de l'article");
+            errors.add("Veillez renseigner l'identifiant du fournisseur");
+            errors.add("Veillez renseigner les niveaux de stock min et max");
+            return errors;
+        }
+        if (seuilDto.getArticleId() == null) {
+            errors.add("Veillez renseigner l'identifiant de l'article");
+        }
+        if (seuilDto.getFournisseurId() == null) {
+            errors.add("Veillez renseigner l'identifiant du fournisseur");
+        }
+        if (seuilDto.getStockMin() == null || seuilDto.getStockMax() == null) {
+            errors.add("Veillez renseigner les niveaux de stock min et max");
+        } else {
+            if (seuilDto.getStockMin().signum() < 0) {
+                errors.add("Le stock minimum ne peut pas être négatif");
+            }
+            if (seuilDto.getStockMax().compareTo(seuilDto.getStockMin()) <= 0) {
+                errors.add("Le stock maximum doit être supérieur au stock minimum");
+            }
+        }
+        if (seuilDto.getDelaiLivraisonJours() != null && seuilDto.getDelaiLivraisonJours() < 0) {
+            errors.add("Le délai de livraison ne peut pas être négatif");
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,16 @@
+-- Index trigrammes pour la recherche d'articles en base (/articles/search quand l'index en mémoire
+-- n'est pas encore chargé). Ils accélèrent les LOWER(colonne) LIKE '%saisie%' de ArticleRepository.rechercher.
+-- Idempotent ; CONCURRENTLY évite de bloquer les écritures sur le catalogue pendant la création.
+--
+--   psql "$DATABASE_URL" -f src/main/resources/db/articles-recherche-trigrammes.sql
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_article_designation_trgm
+    ON article USING gin (lower(designation) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_article_code_article_trgm
+    ON article USING gin (lower(code_article) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_categorie_designation_trgm
+    ON categorie USING gin (lower(designation) gin_trgm_ops);
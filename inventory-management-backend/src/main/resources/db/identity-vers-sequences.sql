@@ -0,0 +1,36 @@
+-- Migration d'une base existante : colonnes IDENTITY -> séquences <table>_seq.
+-- A exécuter une fois, AVANT de démarrer la nouvelle version de l'application
+-- (sinon ddl-auto=update crée des séquences qui repartent de 1 et entrent en collision avec les ids existants,
+-- et Hibernate refuse de démarrer si le pas d'une séquence en base diffère de celui du mapping).
+-- Le script est idempotent : il peut être rejoué sans effet de bord, y compris sur une base déjà migrée
+-- avec des séquences de pas 50 partout.
+--
+--   psql "$DATABASE_URL" -f src/main/resources/db/identity-vers-sequences.sql
+--
+-- 1. Pas de chaque séquence : 50 (optimiseur "pooled" d'Hibernate, ids réservés par blocs), 1 pour les tables
+--    écrites par INSERT ... SELECT (entités @IdsAttribuesParLaBase), où la base attribue les ids dans la requête.
+-- 2. Position : avec un pas de 50, nextval = v réserve les ids ]v - 50, v] ; avec un pas de 1, nextval = v + 1.
+--    Positionner la séquence sur MAX(id) garantit dans les deux cas que le prochain id est au-delà de MAX(id).
+
+BEGIN;
+
+DO $$
+DECLARE
+    t text;
+    pas integer;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'article', 'categorie', 'client', 'commande_client', 'commande_fournisseur',
+        'entreprise', 'fournisseur', 'ligne_commande_client', 'ligne_commande_fournisseur',
+        'ligne_vente', 'mvtstk', 'roles', 'stock_balance', 'utilisateur', 'ventes'
+    ] LOOP
+        pas := CASE WHEN t IN ('ligne_vente', 'mvtstk') THEN 1 ELSE 50 END;
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY %s', t || '_seq', pas);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY %s', t || '_seq', pas);
+        IF to_regclass(t) IS NOT NULL THEN
+            EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), 1))', t || '_seq', t);
+        END IF;
+    END LOOP;
+END $$;
+
+COMMIT;
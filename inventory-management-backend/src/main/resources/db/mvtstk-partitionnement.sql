@@ -0,0 +1,80 @@
+-- Partitionnement du journal de stock (mvtstk) par mois de date_mvt (UTC).
+-- A exécuter une fois, application arrêtée, puis démarrer avec MVTSTK_PARTITIONNEMENT_ACTIF=true :
+-- la maintenance planifiée crée alors les partitions des mois à venir et l'archivage détache
+-- la partition d'un mois archivé au lieu de supprimer ses lignes une à une.
+--
+--   psql "$DATABASE_URL" -f src/main/resources/db/mvtstk-partitionnement.sql
+--
+-- Pas de partition par défaut : un mouvement daté hors des partitions existantes est refusé
+-- (la maintenance crée toujours le mois courant et les deux suivants).
+-- Sur une table partitionnée, clé primaire et contraintes d'unicité doivent inclure date_mvt :
+-- la clé primaire devient (id, date_mvt) ; les ids restent uniques par la séquence mvtstk_seq.
+
+BEGIN;
+
+LOCK TABLE mvtstk IN ACCESS EXCLUSIVE MODE;
+
+-- Crée la partition du mois (premier jour) si elle n'existe pas
+CREATE OR REPLACE FUNCTION mvtstk_creer_partition(mois date) RETURNS void AS $$
+DECLARE
+    debut date := date_trunc('month', mois)::date;
+    nom   text := 'mvtstk_p' || to_char(debut, 'YYYY_MM');
+BEGIN
+    IF to_regclass(nom) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF mvtstk FOR VALUES FROM (%L) TO (%L)', nom,
+                       debut::timestamp AT TIME ZONE 'UTC', (debut + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+    END IF;
+END $$ LANGUAGE plpgsql;
+
+-- Détache et supprime la partition d'un mois archivé ; retourne son nombre de lignes (0 si absente)
+CREATE OR REPLACE FUNCTION mvtstk_supprimer_partition(mois date) RETURNS bigint AS $$
+DECLARE
+    nom    text := 'mvtstk_p' || to_char(date_trunc('month', mois), 'YYYY_MM');
+    lignes bigint;
+BEGIN
+    IF to_regclass(nom) IS NULL THEN
+        RETURN 0;
+    END IF;
+    EXECUTE format('SELECT count(*) FROM %I', nom) INTO lignes;
+    EXECUTE format('ALTER TABLE mvtstk DETACH PARTITION %I', nom);
+    EXECUTE format('DROP TABLE %I', nom);
+    RETURN lignes;
+END $$ LANGUAGE plpgsql;
+
+-- Colonne créée par ddl-auto=update au premier démarrage de la version en ajout seul
+ALTER TABLE mvtstk ADD COLUMN IF NOT EXISTS mvt_corrige_id integer;
+
+-- Les mouvements sans date sont rangés à leur date de création
+UPDATE mvtstk SET date_mvt = COALESCE(creation_date, now()) WHERE date_mvt IS NULL;
+
+ALTER TABLE mvtstk RENAME TO mvtstk_ancien;
+
+CREATE TABLE mvtstk (LIKE mvtstk_ancien INCLUDING DEFAULTS) PARTITION BY RANGE (date_mvt);
+ALTER TABLE mvtstk ALTER COLUMN date_mvt SET NOT NULL;
+
+-- Une partition par mois, du premier mouvement jusqu'à deux mois après le mois courant
+DO $$
+DECLARE
+    mois date;
+BEGIN
+    FOR mois IN
+        SELECT generate_series(
+                       date_trunc('month', COALESCE((SELECT MIN(date_mvt) FROM mvtstk_ancien), now()) AT TIME ZONE 'UTC'),
+                       date_trunc('month', now() AT TIME ZONE 'UTC') + interval '2 months',
+                       interval '1 month')::date
+    LOOP
+        PERFORM mvtstk_creer_partition(mois);
+    END LOOP;
+END $$;
+
+INSERT INTO mvtstk SELECT * FROM mvtstk_ancien;
+DROP TABLE mvtstk_ancien;
+
+-- Clés et index après la copie et la suppression de l'ancienne table (mêmes noms)
+ALTER TABLE mvtstk ADD CONSTRAINT mvtstk_pkey PRIMARY KEY (id, date_mvt);
+ALTER TABLE mvtstk ADD CONSTRAINT fk_mvtstk_article FOREIGN KEY (article_id) REFERENCES article (id);
+CREATE INDEX idx_mvtstk_entreprise_id ON mvtstk (entreprise_id, id);
+CREATE INDEX idx_mvtstk_mvt_corrige ON mvtstk (mvt_corrige_id);
+CREATE INDEX idx_mvtstk_article ON mvtstk (article_id);
+
+COMMIT;
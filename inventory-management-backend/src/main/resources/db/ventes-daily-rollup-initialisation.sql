@@ -0,0 +1,36 @@
+-- Initialisation de l'agrégat ventes_daily_rollup à partir de l'historique des ventes.
+-- A exécuter une fois après le premier démarrage de la version qui crée la table (ddl-auto=update),
+-- de préférence application arrêtée : les ventes enregistrées ensuite alimentent l'agrégat d'elles-mêmes.
+-- Le script repart de zéro (DELETE) : il peut être rejoué pour reconstruire l'agrégat.
+--
+--   psql "$DATABASE_URL" -f src/main/resources/db/ventes-daily-rollup-initialisation.sql
+--
+-- Jour = date UTC de la vente, comme dans VentesServiceImpl.
+
+BEGIN;
+
+DELETE FROM ventes_daily_rollup;
+
+INSERT INTO ventes_daily_rollup (id, entreprise_id, jour, article_id, categorie_id,
+                                 quantite, chiffre_affaires, nb_lignes, creation_date)
+SELECT nextval('ventes_daily_rollup_seq'),
+       agg.entreprise_id, agg.jour, agg.article_id, agg.categorie_id,
+       agg.quantite, agg.chiffre_affaires, agg.nb_lignes, now()
+FROM (
+    SELECT COALESCE(v.entreprise_id, a.entreprise_id)                          AS entreprise_id,
+           (COALESCE(v.date_vente, v.creation_date) AT TIME ZONE 'UTC')::date  AS jour,
+           l.article_id,
+           a.categorie_id,
+           SUM(l.quantite)                                                     AS quantite,
+           SUM(l.quantite * COALESCE(l.prix_unitaire, 0))                      AS chiffre_affaires,
+           COUNT(*)                                                            AS nb_lignes
+    FROM ligne_vente l
+    JOIN ventes v ON v.id = l.vente_id
+    JOIN article a ON a.id = l.article_id
+    WHERE l.quantite IS NOT NULL
+      -- Agrégat par entreprise : comme dans LigneVenteRepository.cumulsParArticle
+      AND COALESCE(v.entreprise_id, a.entreprise_id) IS NOT NULL
+    GROUP BY 1, 2, 3, 4
+) agg;
+
+COMMIT;
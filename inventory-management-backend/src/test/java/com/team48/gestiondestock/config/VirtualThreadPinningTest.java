@@ -0,0 +1,141 @@
+package com.team48.gestiondestock.config;
+
+import com.team48.gestiondestock.dto.MvtStkRequestDto;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.service.MvtStkService;
+import com.team48.gestiondestock.service.impl.MvtStkServiceImpl;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import com.team48.gestiondestock.service.security.JwtService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Avec spring.threads.virtual.enabled=true, un appel bloquant (JDBC, MinIO, BCrypt...) fait sous un moniteur
+ * (bloc ou méthode synchronized, dans l'application ou une bibliothèque) épingle le thread porteur.
+ * Des parcours représentatifs sont joués en concurrence sur des threads virtuels sous un enregistrement JFR :
+ * mouvements de stock (verrous par article, pool JDBC, Hibernate) et vérification des jetons (cache des claims).
+ * Aucun événement jdk.VirtualThreadPinned ne doit être émis. H2 en mémoire ne bloque pas sur le réseau :
+ * ce sont les attentes de verrou et de connexion du parcours qui révèlent un moniteur englobant.
+ */
+@DataJpaTest
+@Import({MvtStkServiceImpl.class, StockBalanceServiceImpl.class, JwtService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+// Chaque mouvement dans sa propre transaction, comme sous une requête HTTP
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VirtualThreadPinningTest {
+
+    private static final int NB_TACHES = 200;
+
+    @Autowired
+    private MvtStkService mvtStkService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Test
+    void aucunThreadVirtuelEpingleSurLesParcoursConcurrents() throws Exception {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = categorieRepository.save(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Article article = articleRepository.save(Article.builder().codeArticle("SKU-1").designation("Article")
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+        String jeton = jwtService.generateToken(Utilisateur.builder().username("gestionnaire")
+                .email("gestionnaire@exemple.com").roles(new ArrayList<>()).build());
+
+        List<RecordedEvent> epinglages = new CopyOnWriteArrayList<>();
+        try (RecordingStream enregistrement = new RecordingStream()) {
+            // Seuil nul : tout épinglage compte, même bref
+            enregistrement.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            enregistrement.onEvent("jdk.VirtualThreadPinned", epinglages::add);
+            enregistrement.startAsync();
+
+            // Un seul article : les threads attendent le même verrou et plus de connexions que le pool n'en offre
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> taches = new ArrayList<>();
+                for (int i = 0; i < NB_TACHES; i++) {
+                    TypeMvtStk type = i % 2 == 0 ? TypeMvtStk.ENTREE : TypeMvtStk.SORTIE;
+                    taches.add(executor.submit(() -> {
+                        jwtService.extractAllClaims(jeton);
+                        try {
+                            mvtStkService.save(mouvement(article, entreprise, type));
+                        } catch (InvalidEntityException e) {
+                            // Sortie refusée faute de stock : le parcours a quand même été joué
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> tache : taches) {
+                    tache.get(2, TimeUnit.MINUTES);
+                }
+            }
+            // Attend la lecture des derniers événements enregistrés
+            enregistrement.stop();
+        }
+
+        assertTrue(epinglages.isEmpty(), "Threads virtuels épinglés (" + epinglages.size() + ") :\n"
+                + epinglages.stream().limit(3).map(VirtualThreadPinningTest::pile).collect(Collectors.joining("\n")));
+    }
+
+    private static String pile(RecordedEvent evenement) {
+        if (evenement.getStackTrace() == null) {
+            return "  (pile indisponible)";
+        }
+        return evenement.getStackTrace().getFrames().stream().limit(25)
+                .map(VirtualThreadPinningTest::cadre)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String cadre(RecordedFrame frame) {
+        return "  " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static MvtStkRequestDto mouvement(Article article, Entreprise entreprise, TypeMvtStk type) {
+        return MvtStkRequestDto.builder()
+                .dateMvt(Instant.now())
+                .quantite(1)
+                .typeMvt(type)
+                .articleId(article.getId())
+                .entrepriseId(entreprise.getId())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.team48.gestiondestock.repository;
+
+import com.team48.gestiondestock.dto.CommandeClientResponseDto;
+import com.team48.gestiondestock.dto.CommandeFournisseurResponseDto;
+import com.team48.gestiondestock.dto.VentesResponseDto;
+import com.team48.gestiondestock.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vérifie que le mapping des commandes et ventes en DTO se fait en un nombre borné de requêtes,
+ * quel que soit le nombre de commandes, de lignes et d'articles distincts.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CommandeFetchStatementCountTest {
+
+    private static final int NB_COMMANDES = 20;
+    private static final int NB_LIGNES = 3;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommandeClientRepository commandeClientRepository;
+
+    @Autowired
+    private CommandeFournisseurRepository commandeFournisseurRepository;
+
+    @Autowired
+    private VentesRepository ventesRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Entreprise entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+
+        for (int i = 0; i < NB_COMMANDES; i++) {
+            Client client = em.persist(Client.builder().nom("Client " + i).entreprise(entreprise).build());
+            Fournisseur fournisseur = em.persist(Fournisseur.builder().nom("Fournisseur " + i).entreprise(entreprise).build());
+            CommandeClient commande = em.persist(CommandeClient.builder().code("CC-" + i).dateCommande(Instant.now())
+                    .client(client).entreprise_id(entreprise.getId()).build());
+            em.persist(CommandeFournisseur.builder().code("CF-" + i).dateCommande(Instant.now())
+                    .fournisseur(fournisseur).entreprise_id(entreprise.getId()).build());
+            Ventes vente = em.persist(Ventes.builder().code("V-" + i).dateVente(Instant.now())
+                    .commandeClient(commande).entreprise_id(entreprise.getId()).build());
+
+            for (int j = 0; j < NB_LIGNES; j++) {
+                Article article = em.persist(Article.builder().codeArticle("ART-" + i + "-" + j).designation("Article")
+                        .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+                em.persist(LigneCommandeClient.builder().commandeClient(commande).article(article)
+                        .quantite(BigDecimal.ONE).prixUnitaire(BigDecimal.TEN).entreprise_id(entreprise.getId()).build());
+                em.persist(LigneVente.builder().vente(vente).article(article)
+                        .quantite(BigDecimal.ONE).prixUnitaire(BigDecimal.TEN).entreprise_id(entreprise.getId()).build());
+            }
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void commandesClientEtLignesEnUneRequete() {
+        List<CommandeClientResponseDto> dtos = commandeClientRepository.findAllWithLignes().stream()
+                .map(CommandeClientResponseDto::fromEntity)
+                .toList();
+
+        assertEquals(NB_COMMANDES, dtos.size());
+        dtos.forEach(dto -> assertEquals(NB_LIGNES, dto.getLigneCommandeClients().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void commandesFournisseurEnUneRequete() {
+        List<CommandeFournisseurResponseDto> dtos = commandeFournisseurRepository.findAllWithFournisseur().stream()
+                .map(CommandeFournisseurResponseDto::fromEntity)
+                .toList();
+
+        assertEquals(NB_COMMANDES, dtos.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ventesEtLignesEnUneRequete() {
+        List<VentesResponseDto> dtos = ventesRepository.findAllWithLignes().stream()
+                .map(VentesResponseDto::fromEntity)
+                .toList();
+
+        assertEquals(NB_COMMANDES, dtos.size());
+        dtos.forEach(dto -> assertEquals(NB_LIGNES, dto.getLigneVentes().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
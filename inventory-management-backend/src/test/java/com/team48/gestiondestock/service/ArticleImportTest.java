@@ -0,0 +1,173 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.ArticleImportErreurDto;
+import com.team48.gestiondestock.dto.ArticleImportResponseDto;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.service.impl.ArticleImportServiceImpl;
+import com.team48.gestiondestock.service.security.JwtAuthenticationDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Import CSV du catalogue : lecture du fichier, erreurs rapportées par ligne, nouvel essai ligne par ligne d'un lot refusé.
+ */
+@DataJpaTest
+@Import(ArticleImportServiceImpl.class)
+// Chaque lot est validé dans sa propre transaction : le test ne doit pas l'englober
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArticleImportTest {
+
+    @MockitoBean
+    private ArticleRechercheService articleRechercheService;
+
+    @Autowired
+    private ArticleImportService articleImportService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private Entreprise entreprise;
+
+    @BeforeEach
+    void setUp() {
+        entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Epicerie").build());
+        categorieRepository.save(Categorie.builder().code("BOI").designation("Boissons").entrepriseId(entreprise.getId()).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void lectureDuFichier() throws IOException {
+        // BOM, séparateur ';', colonnes dans le désordre, guillemets et virgule décimale
+        String csv = "\uFEFFCodeCategorie;codeArticle;designation;prixUnitaire;tauxTva;prixUnitaireTtc\n"
+                + "BOI;EAU-1;\"Eau; plate \"\"source\"\"\";0,50;20;0,60\n"
+                + "\n"
+                + "BOI;COC-1;Coca-Cola;1.00;20;1.20\n";
+
+        ArticleImportResponseDto resultat = importer(csv);
+
+        assertEquals(2, resultat.getLignesLues());
+        assertEquals(2, resultat.getImportes());
+        assertTrue(resultat.getErreurs().isEmpty());
+        Map<String, Article> articles = articles();
+        assertEquals("Eau; plate \"source\"", articles.get("EAU-1").getDesignation());
+        assertEquals(0, new BigDecimal("0.60").compareTo(articles.get("EAU-1").getPrixUnitaireTtc()));
+    }
+
+    @Test
+    void enTeteIncompletRefuse() {
+        InvalidEntityException exception = assertThrows(InvalidEntityException.class,
+                () -> importer("codeArticle,designation,prixUnitaire\nEAU-1,Eau,0.50\n"));
+        assertTrue(exception.getErrors().contains("Colonne manquante : codecategorie"));
+    }
+
+    @Test
+    void erreursRapporteesParLigne() throws IOException {
+        importer(entete() + "EAU-1,Eau,0.50,20,0.60,BOI\n");
+
+        ArticleImportResponseDto resultat = importer(entete()
+                + "EAU-1,Eau,0.50,20,0.60,BOI\n"
+                + "COC-1,Coca-Cola,un euro,20,1.20,BOI\n"
+                + "CHI-1,Chips,1.00,20,1.20,EPI\n"
+                + "JUS-1,Jus,2.00,20,2.40,BOI\n"
+                + "JUS-1,Jus bis,2.00,20,2.40,BOI\n");
+
+        assertEquals(1, resultat.getImportes());
+        Map<Long, ArticleImportErreurDto> erreurs = erreursParLigne(resultat);
+        assertEquals(List.of(2L, 3L, 4L, 6L), erreurs.keySet().stream().sorted().toList());
+        assertEquals("Un article avec le code EAU-1 existe déjà", erreurs.get(2L).getErreurs().get(0));
+        assertEquals("Valeur invalide pour le prix unitaire HT : un euro", erreurs.get(3L).getErreurs().get(0));
+        assertEquals("Catégorie inconnue : EPI", erreurs.get(4L).getErreurs().get(0));
+        assertEquals("Le code JUS-1 est présent plusieurs fois dans le fichier", erreurs.get(6L).getErreurs().get(0));
+    }
+
+    @Test
+    void lotRefuseReessayeLigneParLigne() throws IOException {
+        // Désignation trop longue pour la colonne : acceptée par le validateur, refusée par la base
+        ArticleImportResponseDto resultat = importer(entete()
+                + "EAU-1,Eau,0.50,20,0.60,BOI\n"
+                + "COC-1," + "C".repeat(300) + ",1.00,20,1.20,BOI\n"
+                + "JUS-1,Jus,2.00,20,2.40,BOI\n");
+
+        assertEquals(2, resultat.getImportes());
+        assertEquals(1, resultat.getErreurs().size());
+        ArticleImportErreurDto erreur = resultat.getErreurs().get(0);
+        assertEquals(3, erreur.getLigne());
+        assertEquals("COC-1", erreur.getCodeArticle());
+        assertTrue(erreur.getErreurs().get(0).startsWith("Insertion impossible"));
+        assertEquals(List.of("EAU-1", "JUS-1"), articles().keySet().stream().sorted().toList());
+    }
+
+    @Test
+    void importDansUneAutreEntrepriseRefuse() {
+        Entreprise autre = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Autre").build());
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "gestionnaire", null, List.of(new SimpleGrantedAuthority("ROLE_MANAGER")));
+        authentication.setDetails(new JwtAuthenticationDetails(new MockHttpServletRequest(), autre.getId()));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        assertThrows(AccessDeniedException.class, () -> importer(entete() + "EAU-1,Eau,0.50,20,0.60,BOI\n"));
+        assertTrue(articles().isEmpty());
+    }
+
+    private ArticleImportResponseDto importer(String csv) throws IOException {
+        return articleImportService.importer(flux(csv), entreprise.getId());
+    }
+
+    private Map<String, Article> articles() {
+        return articleRepository.findAll().stream()
+                .filter(a -> a.getEntreprise().getId().equals(entreprise.getId()))
+                .collect(Collectors.toMap(Article::getCodeArticle, a -> a));
+    }
+
+    private static Map<Long, ArticleImportErreurDto> erreursParLigne(ArticleImportResponseDto resultat) {
+        return resultat.getErreurs().stream().collect(Collectors.toMap(ArticleImportErreurDto::getLigne, e -> e));
+    }
+
+    private static String entete() {
+        return "codeArticle,designation,prixUnitaire,tauxTva,prixUnitaireTtc,codeCategorie\n";
+    }
+
+    private static ByteArrayInputStream flux(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,96 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.ArticleRechercheDto;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.service.impl.ArticleRechercheServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(ArticleRechercheServiceImpl.class)
+@ImportAutoConfiguration(TaskExecutionAutoConfiguration.class)
+// L'index est chargé par un autre thread : les données doivent être commitées
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArticleRechercheServiceTest {
+
+    @Autowired
+    private ArticleRechercheService articleRechercheService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Test
+    void rechercheParEntrepriseAvecClassement() throws InterruptedException {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Epicerie").build());
+        Entreprise autre = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Autre").build());
+        Categorie boissons = categorie("BOI", "Boissons", entreprise);
+        Categorie epicerie = categorie("EPI", "Epicerie", entreprise);
+        Article coca = article("COC-1", "Coca-Cola 33cl", boissons, entreprise);
+        Article grandCoca = article("COC-15", "Coca-Cola 1.5L", boissons, entreprise);
+        Article cafe = article("CAF-1", "Café moulu", epicerie, entreprise);
+        article("COC-1", "Coca-Cola 33cl", categorie("BOI", "Boissons", autre), autre);
+
+        // Index froid : réponse de la base, le chargement part en arrière-plan
+        List<ArticleRechercheDto> froid = articleRechercheService.rechercher(entreprise.getId(), "moul", null);
+        assertEquals(List.of(cafe.getId()), ids(froid));
+        assertNull(froid.get(0).getScore());
+        for (int i = 0; i < 100 && !articleRechercheService.indexPret(entreprise.getId()); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(articleRechercheService.indexPret(entreprise.getId()));
+
+        // Sans accents, avec faute de frappe, par catégorie, et seulement dans l'entreprise demandée
+        assertEquals(List.of(cafe.getId()), ids(articleRechercheService.rechercher(entreprise.getId(), "cafe", null)));
+        assertEquals(2, articleRechercheService.rechercher(entreprise.getId(), "cocacola", null).size());
+        assertEquals(2, articleRechercheService.rechercher(entreprise.getId(), "boiss", null).size());
+        // Code identique en tête, puis code commençant par la saisie
+        assertEquals(List.of(coca.getId(), grandCoca.getId()),
+                ids(articleRechercheService.rechercher(entreprise.getId(), "coc-1", null)));
+        assertEquals(1, articleRechercheService.rechercher(entreprise.getId(), "coca", 1).size());
+
+        // Synchronisation sur les écritures
+        Article pain = article("PAIN", "Pain de mie", epicerie, entreprise);
+        articleRechercheService.indexer(pain);
+        assertEquals(List.of(pain.getId()), ids(articleRechercheService.rechercher(entreprise.getId(), "pai mie", null)));
+        articleRechercheService.retirer(cafe.getId());
+        assertTrue(articleRechercheService.rechercher(entreprise.getId(), "cafe", null).isEmpty());
+    }
+
+    private Categorie categorie(String code, String designation, Entreprise entreprise) {
+        return categorieRepository.save(Categorie.builder().code(code).designation(designation)
+                .entrepriseId(entreprise.getId()).build());
+    }
+
+    private Article article(String code, String designation, Categorie categorie, Entreprise entreprise) {
+        return articleRepository.save(Article.builder().codeArticle(code).designation(designation)
+                .prixUnitaireTtc(BigDecimal.ONE).categorie(categorie).entreprise(entreprise).build());
+    }
+
+    private static List<Integer> ids(List<ArticleRechercheDto> resultats) {
+        return resultats.stream().map(ArticleRechercheDto::getId).toList();
+    }
+}
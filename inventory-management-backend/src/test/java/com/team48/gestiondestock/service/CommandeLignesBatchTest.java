@@ -0,0 +1,156 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.CommandeClientResponseDto;
+import com.team48.gestiondestock.dto.CommandeFournisseurResponseDto;
+import com.team48.gestiondestock.dto.LignesCommandeModificationDto;
+import com.team48.gestiondestock.exception.EntityNotFoundException;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.*;
+import com.team48.gestiondestock.service.impl.CommandeClientServiceImpl;
+import com.team48.gestiondestock.service.impl.CommandeFournisseurServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Modification groupée des lignes d'une commande : articles résolus en une requête IN,
+ * ajouts, modifications et suppressions envoyés en batchs JDBC quel que soit le nombre de lignes.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CommandeClientServiceImpl.class, CommandeFournisseurServiceImpl.class})
+class CommandeLignesBatchTest {
+
+    private static final int NB_ARTICLES = 60;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommandeClientService commandeClientService;
+
+    @Autowired
+    private CommandeFournisseurService commandeFournisseurService;
+
+    private Entreprise entreprise;
+    private final List<Article> articles = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        for (int i = 0; i < NB_ARTICLES; i++) {
+            articles.add(em.persist(Article.builder().codeArticle("ART-" + i).designation("Article")
+                    .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build()));
+        }
+    }
+
+    @Test
+    void lignesClientModifieesEnQuelquesInstructions() {
+        Client client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+        CommandeClient commande = em.persist(CommandeClient.builder().code("CC-1").dateCommande(Instant.now())
+                .client(client).entreprise_id(entreprise.getId()).build());
+        List<Integer> lignes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lignes.add(em.persist(LigneCommandeClient.builder().commandeClient(commande).article(articles.get(i))
+                    .quantite(BigDecimal.ONE).prixUnitaire(BigDecimal.TEN).entreprise_id(entreprise.getId()).build()).getId());
+        }
+        em.flush();
+        em.clear();
+
+        LignesCommandeModificationDto modifications = new LignesCommandeModificationDto();
+        for (int i = 20; i < NB_ARTICLES; i++) {
+            modifications.getAjouts().add(ligne(null, articles.get(i).getId(), "2"));
+        }
+        for (int i = 0; i < 10; i++) {
+            modifications.getModifications().add(ligne(lignes.get(i), null, "5"));
+        }
+        modifications.getSuppressions().addAll(lignes.subList(15, 20));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CommandeClientResponseDto reponse = commandeClientService.modifierLignes(commande.getId(), modifications);
+        em.flush();
+
+        assertEquals(55, reponse.getLigneCommandeClients().size());
+        assertEquals(40, statistics.getEntityInsertCount());
+        assertEquals(10, statistics.getEntityUpdateCount());
+        assertEquals(5, statistics.getEntityDeleteCount());
+        // commande + lignes, articles (IN), séquence, puis un batch par type d'instruction
+        long instructions = statistics.getPrepareStatementCount();
+        assertTrue(instructions <= 8, "Trop d'instructions SQL : " + instructions);
+
+        em.clear();
+        CommandeClient relue = em.find(CommandeClient.class, commande.getId());
+        assertEquals(55, relue.getLigneCommandeClients().size());
+        assertEquals(0, new BigDecimal("5").compareTo(em.find(LigneCommandeClient.class, lignes.get(0)).getQuantite()));
+    }
+
+    @Test
+    void lignesFournisseurEtErreurs() {
+        Fournisseur fournisseur = em.persist(Fournisseur.builder().nom("Fournisseur").entreprise(entreprise).build());
+        CommandeFournisseur commande = em.persist(CommandeFournisseur.builder().code("CF-1").dateCommande(Instant.now())
+                .fournisseur(fournisseur).etat(EtatCommande.BROUILLON).entreprise_id(entreprise.getId()).build());
+        Integer aModifier = em.persist(LigneCommandeFournisseur.builder().commandeFournisseur(commande).article(articles.get(0))
+                .quantite(BigDecimal.ONE).entreprise_id(entreprise.getId()).build()).getId();
+        Integer aSupprimer = em.persist(LigneCommandeFournisseur.builder().commandeFournisseur(commande).article(articles.get(1))
+                .quantite(BigDecimal.ONE).entreprise_id(entreprise.getId()).build()).getId();
+        Entreprise autre = em.persist(Entreprise.builder().nomEntreprise("Autre").build());
+        Article articleAutre = em.persist(Article.builder().codeArticle("AUTRE").designation("Article")
+                .categorie(articles.get(0).getCategorie()).entreprise(autre).build());
+        em.flush();
+        em.clear();
+
+        LignesCommandeModificationDto modifications = LignesCommandeModificationDto.builder()
+                .ajouts(List.of(ligne(null, articles.get(2).getId(), "3"), ligne(null, articles.get(3).getId(), "4")))
+                .modifications(List.of(ligne(aModifier, articles.get(4).getId(), "7")))
+                .suppressions(List.of(aSupprimer))
+                .build();
+        CommandeFournisseurResponseDto reponse = commandeFournisseurService.modifierLignes(commande.getId(), modifications);
+        em.flush();
+        em.clear();
+
+        assertEquals(3, reponse.getLigneCommandeFournisseurs().size());
+        assertEquals(articles.get(4).getId(), em.find(LigneCommandeFournisseur.class, aModifier).getArticle().getId());
+        assertNull(em.find(LigneCommandeFournisseur.class, aSupprimer));
+
+        // Article inconnu, article d'une autre entreprise, ligne déjà supprimée, ligne citée deux fois
+        EntityNotFoundException inconnu = assertThrows(EntityNotFoundException.class, () -> commandeFournisseurService.modifierLignes(
+                commande.getId(), LignesCommandeModificationDto.builder().ajouts(List.of(ligne(null, -1, "1"))).build()));
+        assertEquals(ErrorCodes.ARTICLE_NOT_FOUND, inconnu.getErrorCode());
+        InvalidEntityException autreEntreprise = assertThrows(InvalidEntityException.class, () -> commandeFournisseurService.modifierLignes(
+                commande.getId(), LignesCommandeModificationDto.builder().ajouts(List.of(ligne(null, articleAutre.getId(), "1"))).build()));
+        assertEquals(ErrorCodes.LIGNE_COMMANDE_FOURNISSEUR_NOT_VALID, autreEntreprise.getErrorCode());
+        EntityNotFoundException supprimee = assertThrows(EntityNotFoundException.class, () -> commandeFournisseurService.modifierLignes(
+                commande.getId(), LignesCommandeModificationDto.builder().suppressions(List.of(aSupprimer)).build()));
+        assertEquals(ErrorCodes.LIGNE_COMMANDE_FOURNISSEUR_NOT_FOUND, supprimee.getErrorCode());
+        assertThrows(InvalidEntityException.class, () -> commandeFournisseurService.modifierLignes(commande.getId(),
+                LignesCommandeModificationDto.builder().modifications(List.of(ligne(aModifier, null, "1")))
+                        .suppressions(List.of(aModifier)).build()));
+    }
+
+    private static LignesCommandeModificationDto.Ligne ligne(Integer id, Integer articleId, String quantite) {
+        return LignesCommandeModificationDto.Ligne.builder().id(id).articleId(articleId)
+                .quantite(new BigDecimal(quantite)).prixUnitaire(BigDecimal.TEN).build();
+    }
+}
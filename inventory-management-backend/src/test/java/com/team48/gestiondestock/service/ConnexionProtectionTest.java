@@ -0,0 +1,144 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.TooManyRequestsException;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.Roles;
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.model.security.Role;
+import com.team48.gestiondestock.service.security.EchecsConnexion;
+import com.team48.gestiondestock.service.security.PasswordEncoderBorne;
+import com.team48.gestiondestock.service.security.UserDetailsServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chemin de connexion : utilisateur chargé en une requête, blocage après échecs répétés, BCrypt borné.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(UserDetailsServiceImpl.class)
+class ConnexionProtectionTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        Entreprise entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Utilisateur utilisateur = em.persist(Utilisateur.builder().nom("Nom").prenom("Prénom")
+                .email("gestionnaire@entreprise.test").username("gestionnaire").motDePasse("hash")
+                .entreprise(entreprise).roles(new ArrayList<>()).build());
+        em.persist(Roles.builder().roleName(Role.MANAGER).utilisateur(utilisateur)
+                .entreprise_id(entreprise.getId()).build());
+        // Email de l'un égal au nom d'utilisateur de l'autre : la correspondance par email l'emporte
+        em.persist(Utilisateur.builder().nom("Autre").prenom("Prénom")
+                .email("autre@entreprise.test").username("gestionnaire@entreprise.test").motDePasse("hash")
+                .roles(new ArrayList<>()).build());
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void utilisateurChargeEnUneRequete() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserDetails parEmail = userDetailsService.loadUserByUsername("gestionnaire@entreprise.test");
+        Utilisateur utilisateur = (Utilisateur) parEmail;
+        assertEquals("gestionnaire", utilisateur.getUsername());
+        assertTrue(Hibernate.isInitialized(utilisateur.getRoles()));
+        assertTrue(Hibernate.isInitialized(utilisateur.getEntreprise()));
+        assertEquals(List.of("ROLE_MANAGER"), parEmail.getAuthorities().stream().map(Object::toString).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        em.clear();
+        assertEquals("gestionnaire@entreprise.test",
+                ((Utilisateur) userDetailsService.loadUserByUsername("gestionnaire")).getEmail());
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("inconnu"));
+    }
+
+    @Test
+    void identifiantBloqueApresEchecsRepetes() {
+        EchecsConnexion echecsConnexion = new EchecsConnexion(3, 300);
+        for (int i = 0; i < 3; i++) {
+            echecsConnexion.verifier("Gestionnaire@Entreprise.test");
+            echecsConnexion.enregistrerEchec("Gestionnaire@Entreprise.test");
+        }
+
+        TooManyRequestsException bloque = assertThrows(TooManyRequestsException.class,
+                () -> echecsConnexion.verifier("gestionnaire@entreprise.test"));
+        assertEquals(ErrorCodes.TOO_MANY_LOGIN_ATTEMPTS, bloque.getErrorCode());
+        assertEquals(300, bloque.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> echecsConnexion.verifier("autre@entreprise.test"));
+
+        echecsConnexion.reinitialiser("gestionnaire@entreprise.test");
+        assertDoesNotThrow(() -> echecsConnexion.verifier("gestionnaire@entreprise.test"));
+    }
+
+    @Test
+    void bcryptSatureRefuseSansCalcul() throws Exception {
+        CountDownLatch demarre = new CountDownLatch(1);
+        CountDownLatch libere = new CountDownLatch(1);
+        PasswordEncoder lent = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                demarre.countDown();
+                try {
+                    libere.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        PasswordEncoderBorne borne = new PasswordEncoderBorne(lent, 1, 1, 100);
+        try {
+            CompletableFuture<Boolean> enCours = CompletableFuture.supplyAsync(() -> borne.matches("secret", "secret"));
+            demarre.await();
+
+            // Le seul thread est occupé : la vérification suivante attend dans la file puis en est retirée et refusée
+            TooManyRequestsException sature = assertThrows(TooManyRequestsException.class,
+                    () -> borne.matches("secret", "secret"));
+            assertEquals(ErrorCodes.AUTH_SERVICE_BUSY, sature.getErrorCode());
+
+            libere.countDown();
+            assertTrue(enCours.get());
+            assertTrue(borne.matches("secret", "secret"));
+        } finally {
+            libere.countDown();
+            borne.arreter();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.service.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Cache des claims vérifiés : un jeton déjà vérifié est servi par le cache jusqu'à son expiration,
+ * un jeton modifié n'y trouve jamais d'entrée et reste refusé par la signature.
+ */
+class JwtServiceTest {
+
+    private static final String CLE = "w1dGjDiSmJly/J3BnYHEvBzS39jt/vMwPHLZaXLVlhbghGMLujzgoWSnp5vRfO78YDsJmbrz9osS88WNKXBFzw==";
+
+    @Test
+    void jetonVerifieServiParLeCache() {
+        JwtService jwtService = jwtService(60_000);
+        String jeton = jwtService.generateToken(utilisateur("gestionnaire"));
+
+        Claims claims = jwtService.extractAllClaims(jeton);
+        assertEquals("gestionnaire", claims.getSubject());
+        // Même instance : la signature n'est pas revérifiée
+        assertSame(claims, jwtService.extractAllClaims(jeton));
+    }
+
+    @Test
+    void jetonExpireRetireDuCache() throws InterruptedException {
+        JwtService jwtService = jwtService(1_000);
+        String jeton = jwtService.generateToken(utilisateur("gestionnaire"));
+        Claims claims = jwtService.extractAllClaims(jeton);
+
+        Thread.sleep(claims.getExpiration().getTime() - System.currentTimeMillis() + 50);
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractAllClaims(jeton));
+    }
+
+    @Test
+    void jetonModifieRefuse() {
+        JwtService jwtService = jwtService(60_000);
+        String jeton = jwtService.generateToken(utilisateur("gestionnaire"));
+        jwtService.extractAllClaims(jeton);
+
+        // Même signature, sujet remplacé dans la charge utile
+        String[] parties = jeton.split("\\.");
+        String charge = new String(Base64.getUrlDecoder().decode(parties[1]), StandardCharsets.UTF_8)
+                .replace("gestionnaire", "administrateur");
+        String modifie = parties[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(charge.getBytes(StandardCharsets.UTF_8)) + "." + parties[2];
+
+        assertThrows(JwtException.class, () -> jwtService.extractAllClaims(modifie));
+    }
+
+    private static JwtService jwtService(long expirationMs) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKeyString", CLE);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expirationMs);
+        ReflectionTestUtils.setField(service, "claimsCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    private static Utilisateur utilisateur(String username) {
+        return Utilisateur.builder().username(username).email(username + "@exemple.com").roles(new ArrayList<>()).build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.exception.EntityNotFoundException;
+import com.team48.gestiondestock.model.Client;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.repository.ClientRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.service.impl.ClientServiceImpl;
+import com.team48.gestiondestock.service.metriques.CompteurRequetesSql;
+import com.team48.gestiondestock.service.metriques.Metriques;
+import com.team48.gestiondestock.service.metriques.ServiceMetriquesAspect;
+import com.team48.gestiondestock.service.security.JwtAuthenticationDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mesure des services par entreprise et comptage des requêtes SQL d'une requête HTTP.
+ */
+@DataJpaTest
+@Import({ClientServiceImpl.class, ServiceMetriquesAspect.class, MetriquesTest.Registre.class})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+class MetriquesTest {
+
+    @TestConfiguration
+    static class Registre {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        CompteurRequetesSql.terminer();
+    }
+
+    @Test
+    void servicesMesuresParEntrepriseEtRequetesSqlComptees() {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("A").build());
+        clientRepository.save(Client.builder().nom("Client A").entreprise(entreprise).build());
+        connecter(entreprise.getId());
+
+        CompteurRequetesSql.demarrer();
+        assertEquals(1, clientService.findAll().size());
+        assertTrue(CompteurRequetesSql.terminer() >= 1);
+        assertEquals(0, CompteurRequetesSql.terminer());
+
+        Timer findAll = meterRegistry.find(Metriques.SERVICE)
+                .tags("classe", "ClientServiceImpl", "methode", "findAll", "exception", "none",
+                        Metriques.TAG_ENTREPRISE, entreprise.getId().toString())
+                .timer();
+        assertNotNull(findAll);
+        assertEquals(1, findAll.count());
+
+        assertThrows(EntityNotFoundException.class, () -> clientService.findById(-1));
+        assertNotNull(meterRegistry.find(Metriques.SERVICE).tags("methode", "findById", "exception", "EntityNotFoundException")
+                .timer());
+    }
+
+    private static void connecter(Integer entrepriseId) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "utilisateur", null, List.of(new SimpleGrantedAuthority("ROLE_MANAGER")));
+        authentication.setDetails(new JwtAuthenticationDetails(new MockHttpServletRequest(), entrepriseId));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
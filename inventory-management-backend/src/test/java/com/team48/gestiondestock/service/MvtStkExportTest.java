@@ -0,0 +1,125 @@
+package com.team48.gestiondestock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.service.impl.MvtStkServiceImpl;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Export du journal de stock en flux : échappement des champs CSV et lecture par lots de plusieurs milliers de lignes.
+ */
+@DataJpaTest
+@Import({MvtStkServiceImpl.class, StockBalanceServiceImpl.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class MvtStkExportTest {
+
+    // Au-delà de deux lots de l'export (1000 lignes) pour traverser les vidages du contexte de persistance
+    private static final int NB_MOUVEMENTS = 2_500;
+
+    @Autowired
+    private MvtStkService mvtStkService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private MvtStkRepository mvtStkRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Entreprise entreprise;
+    private Categorie categorie;
+
+    @BeforeEach
+    void setUp() {
+        entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        categorie = categorieRepository.save(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+    }
+
+    @Test
+    void csvEchappeSeparateursGuillemetsEtSautsDeLigne() throws IOException {
+        Article article = article("SKU;\"A\"\nB\r\nC");
+        Instant date = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        MvtStk mouvement = mvtStkRepository.save(mouvement(article, date));
+
+        String csv = exporter("csv");
+
+        // Champ entre guillemets, guillemets doublés : les sauts de ligne restent dans la valeur
+        assertEquals("id;dateMvt;typeMvt;quantite;articleId;codeArticle;entrepriseId;mvtCorrigeId\n"
+                + mouvement.getId() + ";" + date + ";ENTREE;5;" + article.getId()
+                + ";\"SKU;\"\"A\"\"\nB\r\nC\";" + entreprise.getId() + ";\n", csv);
+    }
+
+    @Test
+    void fluxSurPlusieursLots() throws IOException {
+        Article article = article("SKU-1");
+        Instant date = Instant.now().minusSeconds(60);
+        List<MvtStk> mouvements = new ArrayList<>();
+        IntStream.range(0, NB_MOUVEMENTS).forEach(i -> mouvements.add(mouvement(article, date)));
+        List<Integer> ids = mvtStkRepository.saveAll(mouvements).stream().map(MvtStk::getId).toList();
+
+        List<String> lignes = exporter("ndjson").lines().toList();
+
+        assertEquals(NB_MOUVEMENTS, lignes.size());
+        List<Integer> exportes = new ArrayList<>();
+        for (String ligne : lignes) {
+            exportes.add(objectMapper.readTree(ligne).get("id").asInt());
+        }
+        // Chaque mouvement une seule fois, dans l'ordre des ids, y compris autour des changements de lot
+        assertEquals(ids, exportes);
+    }
+
+    private String exporter(String format) throws IOException {
+        FiltreRechercheDto filtre = new FiltreRechercheDto();
+        filtre.setEntrepriseId(entreprise.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mvtStkService.exporter(filtre, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Article article(String code) {
+        return articleRepository.save(Article.builder().codeArticle(code).designation("Article")
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+    }
+
+    private MvtStk mouvement(Article article, Instant date) {
+        return MvtStk.builder().article(article).entreprise_id(entreprise.getId()).typeMvt(TypeMvtStk.ENTREE)
+                .quantite(BigDecimal.valueOf(5)).dateMvt(date).build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.MvtStkArchivageResultatDto;
+import com.team48.gestiondestock.dto.MvtStkRequestDto;
+import com.team48.gestiondestock.dto.MvtStkResponseDto;
+import com.team48.gestiondestock.dto.MvtStkResumeMensuelDto;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.service.impl.MvtStkArchivageServiceImpl;
+import com.team48.gestiondestock.service.impl.MvtStkServiceImpl;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import com.team48.gestiondestock.service.stockage.LocalObjectStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Journal en ajout seul (corrections par mouvements inverses) et archivage d'un mois clos.
+ */
+@DataJpaTest(properties = {"stockage.type=local", "stockage.local.racine=target/test-objets"})
+@Import({MvtStkServiceImpl.class, StockBalanceServiceImpl.class, MvtStkArchivageServiceImpl.class, LocalObjectStorage.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class MvtStkLedgerTest {
+
+    @Autowired
+    private MvtStkService mvtStkService;
+
+    @Autowired
+    private MvtStkArchivageService mvtStkArchivageService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private MvtStkRepository mvtStkRepository;
+
+    @Test
+    void correctionsParMouvementsInversesPuisArchivageDuMois() throws Exception {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = categorieRepository.save(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Article article = articleRepository.save(Article.builder().codeArticle("SKU-1").designation("Article")
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+        YearMonth moisClos = YearMonth.now(ZoneOffset.UTC).minusMonths(3);
+        Instant dansMoisClos = moisClos.atDay(10).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.ENTREE, 10, dansMoisClos));
+        MvtStkResponseDto sortie = mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.SORTIE, 4, dansMoisClos));
+        MvtStkResponseDto entreeRecente = mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.ENTREE, 5, Instant.now()));
+
+        // Correction : l'original reste intact, un mouvement inverse l'annule et la valeur corrigée est ajoutée
+        MvtStkResponseDto corrige = mvtStkService.update(sortie.getId(),
+                mouvement(article, entreprise, TypeMvtStk.SORTIE, 6, Instant.now()));
+        assertEquals(0, new BigDecimal("4").compareTo(mvtStkRepository.findById(sortie.getId()).orElseThrow().getQuantite()));
+        assertTrue(mvtStkRepository.existsByMvtCorrigeId(sortie.getId()));
+        InvalidEntityException dejaCorrige = assertThrows(InvalidEntityException.class, () -> mvtStkService.update(sortie.getId(),
+                mouvement(article, entreprise, TypeMvtStk.SORTIE, 7, Instant.now())));
+        assertEquals(ErrorCodes.MVT_STK_DEJA_CORRIGE, dejaCorrige.getErrorCode());
+
+        // Suppression : un mouvement inverse, rien n'est effacé
+        mvtStkService.delete(entreeRecente.getId());
+        assertEquals(6, mvtStkRepository.count());
+        assertEquals(0, new BigDecimal("4").compareTo(mvtStkRepository.sumQuantiteByArticleId(article.getId())));
+        assertTrue(corrige.getId() > sortie.getId());
+
+        // Archivage du mois clos : détail sur le stockage objet, résumé en base, stock recalculable inchangé
+        MvtStkArchivageResultatDto resultat = mvtStkArchivageService.archiver(moisClos);
+        assertEquals(2, resultat.getNbMouvements());
+        assertEquals(1, resultat.getNbResumes());
+        assertEquals(4, mvtStkRepository.count());
+        assertEquals(0, new BigDecimal("4").compareTo(mvtStkRepository.sumQuantiteByArticleId(article.getId())));
+
+        List<MvtStkResumeMensuelDto> resumes = mvtStkArchivageService.findResumes(entreprise.getId(), article.getId());
+        assertEquals(1, resumes.size());
+        assertEquals(0, BigDecimal.TEN.compareTo(resumes.get(0).getEntrees()));
+        assertEquals(0, new BigDecimal("4").compareTo(resumes.get(0).getSorties()));
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        mvtStkArchivageService.lireArchive(entreprise.getId(), moisClos, archive);
+        List<String> lignes = archive.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lignes.size());
+        assertTrue(lignes.get(1).contains("\"id\":" + sortie.getId()));
+
+        // Le mois archivé est en lecture seule, le mois courant n'est pas clos
+        InvalidEntityException moisArchive = assertThrows(InvalidEntityException.class, () -> mvtStkService.save(
+                mouvement(article, entreprise, TypeMvtStk.ENTREE, 1, dansMoisClos)));
+        assertEquals(ErrorCodes.MVT_STK_MOIS_ARCHIVE, moisArchive.getErrorCode());
+        assertThrows(InvalidEntityException.class, () -> mvtStkArchivageService.archiver(YearMonth.now(ZoneOffset.UTC)));
+        assertTrue(mvtStkRepository.findAll().stream().map(MvtStk::getDateMvt).allMatch(d -> !d.isBefore(Instant.now().minusSeconds(60))));
+    }
+
+    private static MvtStkRequestDto mouvement(Article article, Entreprise entreprise, TypeMvtStk type, int quantite, Instant date) {
+        return MvtStkRequestDto.builder()
+                .dateMvt(date)
+                .quantite(quantite)
+                .typeMvt(type)
+                .articleId(article.getId())
+                .entrepriseId(entreprise.getId())
+                .build();
+    }
+}
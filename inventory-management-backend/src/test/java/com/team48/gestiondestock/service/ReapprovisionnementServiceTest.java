@@ -0,0 +1,152 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.ReapprovisionnementResultatDto;
+import com.team48.gestiondestock.dto.SeuilStockRequestDto;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.*;
+import com.team48.gestiondestock.repository.CommandeFournisseurRepository;
+import com.team48.gestiondestock.repository.LigneCommandeFournisseurRepository;
+import com.team48.gestiondestock.service.impl.ReapprovisionnementServiceImpl;
+import com.team48.gestiondestock.service.security.JwtAuthenticationDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "reapprovisionnement.fenetre-jours=30",
+        "reapprovisionnement.delai-livraison-jours=10",
+        "reapprovisionnement.marge-secondes=0"
+})
+@Import(ReapprovisionnementServiceImpl.class)
+class ReapprovisionnementServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ReapprovisionnementService reapprovisionnementService;
+
+    @Autowired
+    private CommandeFournisseurRepository commandeFournisseurRepository;
+
+    @Autowired
+    private LigneCommandeFournisseurRepository ligneCommandeFournisseurRepository;
+
+    private Entreprise entreprise;
+    private Categorie categorie;
+
+    @Test
+    void brouillonsParFournisseurPuisPassageIncremental() {
+        entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Fournisseur fournisseurA = em.persist(Fournisseur.builder().nom("A").entreprise(entreprise).build());
+        Fournisseur fournisseurB = em.persist(Fournisseur.builder().nom("B").entreprise(entreprise).build());
+
+        // 30 sorties sur 30 jours = 1/jour ; stock 15, délai 10 jours -> projeté 5 < min 10 -> commande 50 - 5 = 45
+        Article rapide = article("RAPIDE", 15, 30, fournisseurA);
+        // Stock 100, projeté 90 : au-dessus du minimum
+        article("LENT", 100, 30, fournisseurA);
+        // Aucun mouvement récent mais stock sous le minimum : commande 50 - 2 = 48
+        Article bas = article("BAS", 2, 0, fournisseurB);
+        em.flush();
+        em.clear();
+
+        ReapprovisionnementResultatDto premier = reapprovisionnementService.executer();
+        em.flush();
+        em.clear();
+
+        assertEquals(3, premier.getArticlesEvalues());
+        assertEquals(2, premier.getCommandesCreees());
+        assertEquals(2, premier.getLignesCreees());
+        List<CommandeFournisseur> commandes = commandeFournisseurRepository.findAll();
+        assertEquals(2, commandes.size());
+        commandes.forEach(c -> assertEquals(EtatCommande.BROUILLON, c.getEtat()));
+        List<LigneCommandeFournisseur> lignes = ligneCommandeFournisseurRepository.findAll();
+        assertEquals(0, new BigDecimal("45").compareTo(quantite(lignes, rapide)));
+        assertEquals(0, new BigDecimal("48").compareTo(quantite(lignes, bas)));
+
+        // Rien n'a bougé depuis : aucun article relu, aucune commande
+        ReapprovisionnementResultatDto second = reapprovisionnementService.executer();
+        assertEquals(0, second.getArticlesEvalues());
+        assertEquals(0, second.getLignesCreees());
+    }
+
+    @Test
+    void seuilLimiteALEntrepriseDeLUtilisateur() {
+        entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Entreprise autre = em.persist(Entreprise.builder().nomEntreprise("Autre").build());
+        categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Fournisseur fournisseur = em.persist(Fournisseur.builder().nom("A").entreprise(entreprise).build());
+        Fournisseur fournisseurAutre = em.persist(Fournisseur.builder().nom("B").entreprise(autre).build());
+        Article article = em.persist(Article.builder().codeArticle("EAU").designation("Eau")
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+
+        // Article d'une autre entreprise que celle du jeton
+        connecter(autre.getId());
+        assertThrows(AccessDeniedException.class, () -> reapprovisionnementService.saveSeuil(seuil(article, fournisseurAutre)));
+
+        // Fournisseur d'une autre entreprise que celle de l'article
+        connecter(entreprise.getId());
+        assertThrows(InvalidEntityException.class, () -> reapprovisionnementService.saveSeuil(seuil(article, fournisseurAutre)));
+
+        assertEquals(entreprise.getId(), reapprovisionnementService.saveSeuil(seuil(article, fournisseur)).getEntrepriseId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void connecter(Integer entrepriseId) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "gestionnaire", null, List.of(new SimpleGrantedAuthority("ROLE_MANAGER")));
+        authentication.setDetails(new JwtAuthenticationDetails(new MockHttpServletRequest(), entrepriseId));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private static SeuilStockRequestDto seuil(Article article, Fournisseur fournisseur) {
+        return SeuilStockRequestDto.builder().articleId(article.getId()).fournisseurId(fournisseur.getId())
+                .stockMin(BigDecimal.TEN).stockMax(BigDecimal.valueOf(50)).build();
+    }
+
+    private Article article(String code, int stock, int sorties, Fournisseur fournisseur) {
+        Article article = em.persist(Article.builder().codeArticle(code).designation(code)
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+        if (sorties > 0) {
+            em.persist(MvtStk.builder().article(article).typeMvt(TypeMvtStk.SORTIE)
+                    .quantite(BigDecimal.valueOf(sorties)).dateMvt(Instant.now().minus(5, ChronoUnit.DAYS))
+                    .entreprise_id(entreprise.getId()).build());
+        }
+        em.persist(StockBalance.builder().entrepriseId(entreprise.getId()).articleId(article.getId())
+                .quantite(BigDecimal.valueOf(stock)).lastModifiedDate(Instant.now()).build());
+        em.persist(SeuilStock.builder().entrepriseId(entreprise.getId()).articleId(article.getId())
+                .fournisseur(fournisseur).stockMin(BigDecimal.TEN).stockMax(BigDecimal.valueOf(50)).build());
+        return article;
+    }
+
+    private static BigDecimal quantite(List<LigneCommandeFournisseur> lignes, Article article) {
+        return lignes.stream()
+                .filter(l -> l.getArticle().getId().equals(article.getId()))
+                .findFirst()
+                .orElseThrow()
+                .getQuantite();
+    }
+}
@@ -0,0 +1,87 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.CacheStatistiquesDto;
+import com.team48.gestiondestock.dto.CategorieRequestDto;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.service.cache.ReferentielCache;
+import com.team48.gestiondestock.service.impl.CategorieServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Les catégories sont servies par le cache de second niveau et évincées à la modification.
+ * Sans transaction de test : chaque appel valide sa propre transaction, comme en production.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CategorieServiceImpl.class, ReferentielCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferentielCacheTest {
+
+    @MockitoBean
+    private ArticleRechercheService articleRechercheService;
+
+    @Autowired
+    private CategorieService categorieService;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ReferentielCache referentielCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Le gestionnaire de caches JCache est partagé par les contextes de test de la JVM
+    @BeforeEach
+    void setUp() {
+        referentielCache.vider();
+    }
+
+    @Test
+    void lecturesServiesParLeCacheEtEvictionALaModification() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Categorie categorie = categorieRepository.save(Categorie.builder().code("CACHE").designation("Avant").build());
+        try {
+            categorieService.findById(categorie.getId());
+            long requetes = statistics.getPrepareStatementCount();
+            assertEquals("Avant", categorieService.findById(categorie.getId()).getDesignation());
+            assertEquals(requetes, statistics.getPrepareStatementCount());
+
+            // Requête par code : résultat mis en cache de requêtes
+            categorieRepository.findByCode("CACHE");
+            long succesRequetes = statistics.getQueryCacheHitCount();
+            assertTrue(categorieRepository.findByCode("CACHE").isPresent());
+            assertEquals(succesRequetes + 1, statistics.getQueryCacheHitCount());
+
+            CategorieRequestDto modification = new CategorieRequestDto();
+            modification.setCode("CACHE");
+            modification.setDesignation("Apres");
+            categorieService.update(categorie.getId(), modification);
+            assertEquals("Apres", categorieService.findById(categorie.getId()).getDesignation());
+
+            CacheStatistiquesDto region = referentielCache.statistiques().stream()
+                    .filter(s -> ReferentielCache.REGION_CATEGORIE.equals(s.getRegion())).findFirst().orElseThrow();
+            assertTrue(region.getTauxSucces() > 0);
+
+            referentielCache.vider();
+            assertFalse(entityManagerFactory.getCache().contains(Categorie.class, categorie.getId()));
+        } finally {
+            categorieRepository.deleteById(categorie.getId());
+        }
+    }
+}
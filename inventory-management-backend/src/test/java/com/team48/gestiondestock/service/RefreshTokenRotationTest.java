@@ -0,0 +1,103 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.exception.BadCredentialsException;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.Roles;
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.model.security.Role;
+import com.team48.gestiondestock.repository.security.RefreshTokenRepository;
+import com.team48.gestiondestock.service.security.RefreshTokenService;
+import com.team48.gestiondestock.service.security.RevocationJetonService;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Jetons de renouvellement à usage unique : rotation, détection d'un rejeu, déconnexion, purge.
+ * Un rejeu révoque aussi les jetons d'accès de l'utilisateur.
+ */
+@DataJpaTest
+@Import(RefreshTokenService.class)
+class RefreshTokenRotationTest {
+
+    @MockitoBean
+    private RevocationJetonService revocationJetonService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        Entreprise entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        utilisateur = em.persist(Utilisateur.builder().nom("Nom").prenom("Prénom")
+                .email("gestionnaire@entreprise.test").username("gestionnaire").motDePasse("hash")
+                .entreprise(entreprise).roles(new ArrayList<>()).build());
+        em.persist(Roles.builder().roleName(Role.MANAGER).utilisateur(utilisateur)
+                .entreprise_id(entreprise.getId()).build());
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void rotationPuisRejeuRevoqueLaFamille() {
+        String initial = refreshTokenService.emettre(utilisateur);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.renouveler(initial);
+        assertNotEquals(initial, rotation.refreshToken());
+        assertEquals("gestionnaire", rotation.utilisateur().getUsername());
+        assertTrue(Hibernate.isInitialized(rotation.utilisateur().getRoles()));
+        assertTrue(Hibernate.isInitialized(rotation.utilisateur().getEntreprise()));
+
+        // Jeton déjà utilisé présenté à nouveau : refusé, et le jeton émis en remplacement est révoqué aussi
+        BadCredentialsException rejeu = assertThrows(BadCredentialsException.class,
+                () -> refreshTokenService.renouveler(initial));
+        assertEquals(ErrorCodes.INVALID_REFRESH_TOKEN, rejeu.getErrorCode());
+        verify(revocationJetonService).revoquerUtilisateur("gestionnaire");
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.renouveler(rotation.refreshToken()));
+
+        // Une nouvelle connexion ouvre une famille indépendante
+        String autreSession = refreshTokenService.emettre(utilisateur);
+        assertEquals("gestionnaire", refreshTokenService.renouveler(autreSession).utilisateur().getUsername());
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.renouveler("inconnu"));
+    }
+
+    @Test
+    void deconnexionEtRevocationDuCompte() {
+        String session = refreshTokenService.emettre(utilisateur);
+        String autreSession = refreshTokenService.emettre(utilisateur);
+
+        refreshTokenService.revoquer(session);
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.renouveler(session));
+        String renouvele = refreshTokenService.renouveler(autreSession).refreshToken();
+
+        refreshTokenService.revoquerUtilisateur(utilisateur.getId());
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.renouveler(renouvele));
+
+        // Aucun jeton n'est encore expiré ; la suppression du compte efface les siens
+        assertEquals(0, refreshTokenService.purgerExpires());
+        refreshTokenService.supprimerUtilisateur(utilisateur.getId());
+        assertEquals(0, refreshTokenRepository.count());
+    }
+}
@@ -0,0 +1,123 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.model.Utilisateur;
+import com.team48.gestiondestock.repository.security.RevocationJetonRepository;
+import com.team48.gestiondestock.service.metriques.Metriques;
+import com.team48.gestiondestock.service.security.FiltreBloom;
+import com.team48.gestiondestock.service.security.JwtService;
+import com.team48.gestiondestock.service.security.RevocationJetonService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Révocation des jetons d'accès : filtre de Bloom devant la base, lecture des révocations d'une autre instance.
+ */
+@DataJpaTest(properties = "application.security.jwt.secret-key=w1dGjDiSmJly/J3BnYHEvBzS39jt/vMwPHLZaXLVlhbghGMLujzgoWSnp5vRfO78YDsJmbrz9osS88WNKXBFzw==")
+@Import({RevocationJetonService.class, JwtService.class, RevocationJetonTest.Registre.class})
+class RevocationJetonTest {
+
+    @TestConfiguration
+    static class Registre {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private RevocationJetonService revocationJetonService;
+
+    @Autowired
+    private RevocationJetonRepository revocationJetonRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void jetonEtUtilisateurRevoques() {
+        String jeton = jwtService.generateToken(utilisateur("gestionnaire"));
+        String autreJeton = jwtService.generateToken(utilisateur("gestionnaire"));
+        String jetonCollegue = jwtService.generateToken(utilisateur("collegue"));
+
+        // Aucune révocation : réponse du seul filtre, sans lecture en base
+        assertFalse(estRevoque(jeton));
+        assertNull(meterRegistry.find(Metriques.JWT_REVOCATION_LECTURES).counter());
+
+        revocationJetonService.revoquerJeton(jeton);
+        assertTrue(estRevoque(jeton));
+        assertFalse(estRevoque(autreJeton));
+
+        revocationJetonService.revoquerUtilisateur("gestionnaire");
+        assertTrue(estRevoque(autreJeton));
+        assertFalse(estRevoque(jetonCollegue));
+    }
+
+    @Test
+    void reconnexionJusteApresRevocationAcceptee() {
+        String jeton = jwtService.generateToken(utilisateur("gestionnaire"));
+        revocationJetonService.revoquerUtilisateur("gestionnaire");
+        Instant revocation = revocationJetonRepository.findAll().get(0).getCreationDate();
+
+        // Reconnexion dans la milliseconde suivante, donc dans la même seconde que la révocation le plus souvent
+        while (System.currentTimeMillis() <= revocation.toEpochMilli()) {
+            Thread.onSpinWait();
+        }
+        String nouveauJeton = jwtService.generateToken(utilisateur("gestionnaire"));
+
+        assertTrue(estRevoque(jeton));
+        assertFalse(estRevoque(nouveauJeton));
+    }
+
+    @Test
+    void revocationDUneAutreInstanceLueParRafraichissement() {
+        // Seconde instance : même base, filtre construit avant la révocation
+        RevocationJetonService autreInstance = new RevocationJetonService(revocationJetonRepository, jwtService,
+                new SimpleMeterRegistry(), 1000, 0.01, 900_000, 60);
+        autreInstance.reconstruire();
+        String jeton = jwtService.generateToken(utilisateur("gestionnaire"));
+
+        revocationJetonService.revoquerJeton(jeton);
+        assertFalse(jwtService.extractClaim(jeton, autreInstance::estRevoque));
+
+        autreInstance.rafraichir();
+        assertTrue(jwtService.extractClaim(jeton, autreInstance::estRevoque));
+    }
+
+    @Test
+    void filtreSansFauxNegatifEtPeuDeFauxPositifs() {
+        FiltreBloom filtre = new FiltreBloom(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filtre.ajouter("jti:" + i));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filtre.peutContenir("jti:" + i)));
+        long fauxPositifs = IntStream.range(10_000, 110_000).filter(i -> filtre.peutContenir("jti:" + i)).count();
+        assertTrue(fauxPositifs < 2_000, "faux positifs : " + fauxPositifs);
+    }
+
+    private boolean estRevoque(String jeton) {
+        Claims claims = jwtService.extractClaim(jeton, c -> c);
+        return revocationJetonService.estRevoque(claims);
+    }
+
+    private static Utilisateur utilisateur(String username) {
+        return Utilisateur.builder().username(username).email(username + "@entreprise.test").roles(new ArrayList<>()).build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.MvtStkRequestDto;
+import com.team48.gestiondestock.exception.ErrorCodes;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.MvtStk;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.repository.StockBalanceRepository;
+import com.team48.gestiondestock.service.impl.MvtStkServiceImpl;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Solde matérialisé : initialisation depuis le journal à la première écriture, puis deltas appliqués en base.
+ */
+@DataJpaTest
+@Import({MvtStkServiceImpl.class, StockBalanceServiceImpl.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class StockBalanceProjectionTest {
+
+    @Autowired
+    private MvtStkService mvtStkService;
+
+    @Autowired
+    private StockBalanceService stockBalanceService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private MvtStkRepository mvtStkRepository;
+
+    @Autowired
+    private StockBalanceRepository stockBalanceRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void premiereEcritureInitialiseLeSoldeDepuisLeJournal() {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Article article = article(entreprise, "SKU-1");
+        // Mouvement antérieur à la projection : présent dans le journal, sans solde
+        mvtStkRepository.save(MvtStk.builder().dateMvt(Instant.now()).quantite(BigDecimal.TEN)
+                .typeMvt(TypeMvtStk.ENTREE).article(article).entreprise_id(entreprise.getId()).build());
+        assertFalse(stockBalanceRepository.existsByArticleId(article.getId()));
+
+        mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.SORTIE, 3));
+        assertEquals(0, new BigDecimal("7").compareTo(solde(article)));
+        assertEquals(entreprise.getId(), stockBalanceRepository.findByArticleId(article.getId()).orElseThrow().getEntrepriseId());
+
+        mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.ENTREE, 5));
+        assertEquals(0, new BigDecimal("12").compareTo(solde(article)));
+        assertEquals(0, mvtStkRepository.sumQuantiteByArticleId(article.getId()).compareTo(solde(article)));
+
+        assertThrows(InvalidEntityException.class,
+                () -> mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.SORTIE, 13)));
+    }
+
+    @Test
+    void initialisationConcurrenteAppliqueLeDeltaAuSoldeExistant() {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Article article = article(entreprise, "SKU-2");
+        assertEquals(1, stockBalanceRepository.initialiserOuAppliquer(entreprise.getId(), article.getId(),
+                BigDecimal.TEN, BigDecimal.TEN));
+
+        // L'autre transaction arrive après la création du solde : son delta s'ajoute, sans violation d'unicité
+        assertEquals(1, stockBalanceRepository.initialiserOuAppliquer(entreprise.getId(), article.getId(),
+                new BigDecimal("99"), new BigDecimal("4")));
+        assertEquals(0, new BigDecimal("14").compareTo(solde(article)));
+
+        // Un retrait qui rendrait le stock négatif laisse le solde intact
+        assertEquals(0, stockBalanceRepository.initialiserOuAppliquer(entreprise.getId(), article.getId(),
+                BigDecimal.ZERO, new BigDecimal("-15")));
+        assertEquals(0, new BigDecimal("14").compareTo(solde(article)));
+        assertEquals(1, stockBalanceRepository.count());
+    }
+
+    @Test
+    void retraitGroupeRefuseSiUnArticleEstInsuffisant() {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Article eau = article(entreprise, "SKU-3");
+        Article chips = article(entreprise, "SKU-4");
+        stockBalanceRepository.initialiserOuAppliquer(entreprise.getId(), eau.getId(), BigDecimal.TEN, BigDecimal.ZERO);
+        stockBalanceRepository.initialiserOuAppliquer(entreprise.getId(), chips.getId(), BigDecimal.ONE, BigDecimal.ZERO);
+
+        stockBalanceService.appliquer(List.of(
+                new StockBalanceService.DeltaStock(entreprise.getId(), eau.getId(), new BigDecimal("-4")),
+                new StockBalanceService.DeltaStock(entreprise.getId(), chips.getId(), BigDecimal.ONE)));
+        assertEquals(0, new BigDecimal("6").compareTo(solde(eau)));
+        assertEquals(0, new BigDecimal("2").compareTo(solde(chips)));
+
+        InvalidEntityException exception = assertThrows(InvalidEntityException.class, () -> stockBalanceService.appliquer(List.of(
+                new StockBalanceService.DeltaStock(entreprise.getId(), eau.getId(), new BigDecimal("-1")),
+                new StockBalanceService.DeltaStock(entreprise.getId(), chips.getId(), new BigDecimal("-3")))));
+        assertEquals(ErrorCodes.STOCK_INSUFFISANT, exception.getErrorCode());
+        assertTrue(exception.getMessage().contains(String.valueOf(chips.getId())));
+
+        // Le refus se lit dans le nombre de lignes mises à jour ; le retrait accepté de l'eau (6 -> 2) ne couvre
+        // plus un second retrait de 4, les deux articles sont signalés
+        InvalidEntityException refusAmbigu = assertThrows(InvalidEntityException.class, () -> stockBalanceService.appliquer(List.of(
+                new StockBalanceService.DeltaStock(entreprise.getId(), eau.getId(), new BigDecimal("-4")),
+                new StockBalanceService.DeltaStock(entreprise.getId(), chips.getId(), new BigDecimal("-3")))));
+        assertEquals(ErrorCodes.STOCK_INSUFFISANT, refusAmbigu.getErrorCode());
+        assertEquals(2, refusAmbigu.getErrors().size());
+    }
+
+    @Test
+    void correctionAppliqueCompensationEtNouveauMouvementEnUneFois() {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Article article = article(entreprise, "SKU-5");
+        Integer entree = mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.ENTREE, 10)).getId();
+        mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.SORTIE, 5));
+
+        // Appliquée seule, la compensation de l'entrée (-10) rendrait le stock négatif ; la correction nette est +2
+        mvtStkService.update(entree, mouvement(article, entreprise, TypeMvtStk.ENTREE, 12));
+        assertEquals(0, new BigDecimal("7").compareTo(solde(article)));
+    }
+
+    private Article article(Entreprise entreprise, String code) {
+        Categorie categorie = categorieRepository.save(Categorie.builder().code("CAT-" + code).designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        return articleRepository.save(Article.builder().codeArticle(code).designation("Article")
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+    }
+
+    private BigDecimal solde(Article article) {
+        entityManager.clear();
+        return stockBalanceService.stockReel(article.getId());
+    }
+
+    private static MvtStkRequestDto mouvement(Article article, Entreprise entreprise, TypeMvtStk type, int quantite) {
+        return MvtStkRequestDto.builder()
+                .dateMvt(Instant.now())
+                .quantite(quantite)
+                .typeMvt(type)
+                .articleId(article.getId())
+                .entrepriseId(entreprise.getId())
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.MvtStkRequestDto;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.Article;
+import com.team48.gestiondestock.model.Categorie;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.model.TypeMvtStk;
+import com.team48.gestiondestock.repository.ArticleRepository;
+import com.team48.gestiondestock.repository.CategorieRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.repository.MvtStkRepository;
+import com.team48.gestiondestock.service.impl.MvtStkServiceImpl;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Des centaines de sorties simultanées sur le même article : le stock ne doit jamais devenir négatif.
+ * Des annulations simultanées d'un même mouvement ne le compensent qu'une fois.
+ */
+@DataJpaTest
+@Import({MvtStkServiceImpl.class, StockBalanceServiceImpl.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationConcurrencyTest {
+
+    private static final int STOCK_INITIAL = 100;
+    private static final int NB_THREADS = 200;
+    private static final int NB_ANNULATIONS = 8;
+
+    @Autowired
+    private MvtStkService mvtStkService;
+
+    @Autowired
+    private StockBalanceService stockBalanceService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private CategorieRepository categorieRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private MvtStkRepository mvtStkRepository;
+
+    @Test
+    void aucuneSurventeSousForteConcurrence() throws Exception {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = categorieRepository.save(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Article article = articleRepository.save(Article.builder().codeArticle("SKU-1").designation("Article")
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+        mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.ENTREE, STOCK_INITIAL));
+
+        AtomicInteger reussites = new AtomicInteger();
+        AtomicInteger refus = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(NB_THREADS);
+        List<Future<?>> taches = new ArrayList<>();
+        for (int i = 0; i < NB_THREADS; i++) {
+            taches.add(executor.submit(() -> {
+                depart.await();
+                try {
+                    mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.SORTIE, 1));
+                    reussites.incrementAndGet();
+                } catch (InvalidEntityException e) {
+                    refus.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        depart.countDown();
+        for (Future<?> tache : taches) {
+            tache.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK_INITIAL, reussites.get());
+        assertEquals(NB_THREADS - STOCK_INITIAL, refus.get());
+        assertEquals(0, stockBalanceService.stockReel(article.getId()).signum());
+        // Les sorties refusées ont été annulées avec leur transaction : le journal reste cohérent avec le solde
+        assertEquals(0, mvtStkRepository.sumQuantiteByArticleId(article.getId()).signum());
+        assertTrue(stockBalanceService.stockReel(article.getId()).signum() >= 0);
+    }
+
+    @Test
+    void annulationsConcurrentesCompenseUneSeuleFois() throws Exception {
+        Entreprise entreprise = entrepriseRepository.save(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = categorieRepository.save(Categorie.builder().code("CAT-A").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Article article = articleRepository.save(Article.builder().codeArticle("SKU-A").designation("Article")
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+        Integer entree = mvtStkService.save(mouvement(article, entreprise, TypeMvtStk.ENTREE, 10)).getId();
+
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(NB_ANNULATIONS);
+        List<Future<?>> taches = new ArrayList<>();
+        for (int i = 0; i < NB_ANNULATIONS; i++) {
+            taches.add(executor.submit(() -> {
+                depart.await();
+                mvtStkService.delete(entree);
+                return null;
+            }));
+        }
+        depart.countDown();
+        for (Future<?> tache : taches) {
+            tache.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Le verrou sur le mouvement d'origine sérialise les annulations : une seule compensation
+        assertEquals(1, mvtStkRepository.findAll().stream().filter(m -> entree.equals(m.getMvtCorrigeId())).count());
+        assertEquals(0, stockBalanceService.stockReel(article.getId()).signum());
+        assertEquals(0, mvtStkRepository.sumQuantiteByArticleId(article.getId()).signum());
+    }
+
+    private static MvtStkRequestDto mouvement(Article article, Entreprise entreprise, TypeMvtStk type, int quantite) {
+        return MvtStkRequestDto.builder()
+                .dateMvt(Instant.now())
+                .quantite(quantite)
+                .typeMvt(type)
+                .articleId(article.getId())
+                .entrepriseId(entreprise.getId())
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.ClientResponseDto;
+import com.team48.gestiondestock.dto.FiltreRechercheDto;
+import com.team48.gestiondestock.model.Client;
+import com.team48.gestiondestock.model.Entreprise;
+import com.team48.gestiondestock.repository.ClientRepository;
+import com.team48.gestiondestock.repository.EntrepriseRepository;
+import com.team48.gestiondestock.service.impl.ClientServiceImpl;
+import com.team48.gestiondestock.service.security.JwtAuthenticationDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Les listes sont restreintes à l'entreprise portée par le jeton, quelle que soit l'entreprise demandée.
+ */
+@DataJpaTest
+@Import(ClientServiceImpl.class)
+class TenantScopingTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Entreprise entrepriseA;
+    private Entreprise entrepriseB;
+
+    @BeforeEach
+    void setUp() {
+        entrepriseA = entrepriseRepository.save(Entreprise.builder().nomEntreprise("A").build());
+        entrepriseB = entrepriseRepository.save(Entreprise.builder().nomEntreprise("B").build());
+        clientRepository.save(Client.builder().nom("Client A").entreprise(entrepriseA).build());
+        clientRepository.save(Client.builder().nom("Client B").entreprise(entrepriseB).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void listesRestreintesALEntrepriseDuJeton() {
+        connecter("ROLE_MANAGER", entrepriseA.getId());
+
+        assertEquals(List.of("Client A"), clientService.findAll().stream().map(ClientResponseDto::getNom).toList());
+        assertEquals(List.of("Client A"), clientService.findPage(new FiltreRechercheDto()).getContent().stream()
+                .map(ClientResponseDto::getNom).toList());
+    }
+
+    @Test
+    void autreEntrepriseDemandeeRefusee() {
+        connecter("ROLE_MANAGER", entrepriseA.getId());
+        FiltreRechercheDto filtre = new FiltreRechercheDto();
+        filtre.setEntrepriseId(entrepriseB.getId());
+
+        assertThrows(AccessDeniedException.class, () -> clientService.findPage(filtre));
+    }
+
+    @Test
+    void administrateurSystemeNonRestreint() {
+        connecter("ROLE_ADMIN", entrepriseA.getId());
+        FiltreRechercheDto filtre = new FiltreRechercheDto();
+        filtre.setEntrepriseId(entrepriseB.getId());
+
+        assertEquals(2, clientService.findAll().size());
+        assertEquals(List.of("Client B"), clientService.findPage(filtre).getContent().stream()
+                .map(ClientResponseDto::getNom).toList());
+    }
+
+    private static void connecter(String role, Integer entrepriseId) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "utilisateur", null, List.of(new SimpleGrantedAuthority(role)));
+        authentication.setDetails(new JwtAuthenticationDetails(new MockHttpServletRequest(), entrepriseId));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
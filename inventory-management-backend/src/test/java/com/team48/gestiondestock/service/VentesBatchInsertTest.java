@@ -0,0 +1,88 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.VentesRequestDto;
+import com.team48.gestiondestock.dto.VentesResponseDto;
+import com.team48.gestiondestock.model.*;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import com.team48.gestiondestock.service.impl.VentesServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Une vente de 500 lignes est créée par INSERT ... SELECT depuis les lignes de la commande :
+ * ni les lignes de commande ni les lignes de vente ne passent par des entités pour la conversion.
+ * Les soldes des 500 articles sont mis à jour par un seul UPDATE conditionnel (anti-survente).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({VentesServiceImpl.class, StockBalanceServiceImpl.class})
+class VentesBatchInsertTest {
+
+    private static final int NB_LIGNES = 500;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private VentesService ventesService;
+
+    @Test
+    void venteDeCinqCentsLignesSansChargerLesLignes() {
+        Entreprise entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Client client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+        CommandeClient commande = em.persist(CommandeClient.builder().code("CC-1").etat(EtatCommande.VALIDEE).dateCommande(Instant.now())
+                .client(client).entreprise_id(entreprise.getId()).build());
+        for (int i = 0; i < NB_LIGNES; i++) {
+            Article article = em.persist(Article.builder().codeArticle("ART-" + i).designation("Article")
+                    .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+            em.persist(StockBalance.builder().entrepriseId(entreprise.getId()).articleId(article.getId())
+                    .quantite(BigDecimal.ONE).build());
+            em.persist(LigneCommandeClient.builder().commandeClient(commande).article(article)
+                    .quantite(BigDecimal.ONE).prixUnitaire(BigDecimal.TEN).entreprise_id(entreprise.getId()).build());
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        VentesRequestDto dto = VentesRequestDto.builder().code("V-1").dateVente(Instant.now())
+                .commentaire("Vente en masse").entrepriseId(entreprise.getId()).build();
+        VentesResponseDto vente = ventesService.save(dto, commande.getId());
+        em.flush();
+
+        assertEquals(NB_LIGNES, vente.getLigneVentes().size());
+        // Seule la vente est une entité persistée ; lignes et mouvements sont écrits en SQL
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityStatistics(LigneCommandeClient.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(MvtStk.class.getName()).getLoadCount());
+        assertEquals(NB_LIGNES, compter("SELECT COUNT(l) FROM LigneVente l WHERE l.vente.id = :id", vente.getId()));
+        assertEquals(NB_LIGNES, compter("SELECT COUNT(m) FROM MvtStk m WHERE m.typeMvt = com.team48.gestiondestock.model.TypeMvtStk.SORTIE "
+                + "AND m.entreprise_id = :id", entreprise.getId()));
+        assertTrue(vente.getLigneVentes().stream().allMatch(l -> l.getArticle() != null && l.getQuantite().signum() > 0));
+        // Indépendant du nombre de lignes : réservation de la commande, INSERT ... SELECT des lignes et des mouvements,
+        // un UPDATE des soldes, plus les lectures de la commande et de la vente et les écritures des statistiques de vente
+        long instructions = statistics.getPrepareStatementCount();
+        assertTrue(instructions <= 26, "Trop d'instructions SQL : " + instructions);
+    }
+
+    private long compter(String requete, Integer id) {
+        return em.getEntityManager().createQuery(requete, Long.class).setParameter("id", id).getSingleResult();
+    }
+}
@@ -0,0 +1,222 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.VentesClotureResultatDto;
+import com.team48.gestiondestock.dto.VentesRequestDto;
+import com.team48.gestiondestock.dto.VentesStatsDto;
+import com.team48.gestiondestock.dto.VentesStatsResponseDto;
+import com.team48.gestiondestock.exception.InvalidEntityException;
+import com.team48.gestiondestock.model.*;
+import com.team48.gestiondestock.repository.CommandeClientRepository;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import com.team48.gestiondestock.service.impl.VentesServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clôture de journée : les commandes validées du jour deviennent des ventes, stock et agrégat à jour.
+ * Les brouillons, les autres jours et les commandes déjà vendues ou réservées ne sont pas repris ;
+ * une commande en stock insuffisant ou refusée par la base est écartée sans annuler les autres.
+ * Une vente manuelle réserve sa commande : elle n'est vendue qu'une fois.
+ */
+@DataJpaTest
+@Import({VentesServiceImpl.class, StockBalanceServiceImpl.class})
+// Chaque lot de la clôture est validé dans sa propre transaction : les données de test sont donc committées
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VentesClotureTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2025, 6, 12);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private VentesService ventesService;
+
+    @Autowired
+    private StockBalanceService stockBalanceService;
+
+    @Autowired
+    private CommandeClientRepository commandeClientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Entreprise entreprise;
+    private Client client;
+
+    @Test
+    void commandesValideesDuJourConverties() {
+        Instant matin = JOUR.atTime(9, 0).toInstant(ZoneOffset.UTC);
+        Map<String, Integer> ids = enTransaction(() -> {
+            entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+            Categorie categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                    .entrepriseId(entreprise.getId()).build());
+            Article eau = article("EAU", categorie, 100);
+            Article chips = article("CHIPS", categorie, 100);
+            client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+
+            CommandeClient validee1 = commande("CC-1", EtatCommande.VALIDEE, matin);
+            ligne(validee1, eau, 2, "1.50");
+            ligne(validee1, chips, 1, "3.00");
+            CommandeClient validee2 = commande("CC-2", EtatCommande.VALIDEE, matin.plusSeconds(3600));
+            ligne(validee2, eau, 4, "1.50");
+            ligne(commande("CC-3", EtatCommande.BROUILLON, matin), eau, 10, "1.50");
+            ligne(commande("CC-4", EtatCommande.VALIDEE, matin.plusSeconds(86400)), eau, 10, "1.50");
+            CommandeClient dejaVendue = commande("CC-5", EtatCommande.VALIDEE, matin);
+            ligne(dejaVendue, eau, 10, "1.50");
+            em.persist(Ventes.builder().code("V-MANUELLE").dateVente(matin).commandeClient(dejaVendue)
+                    .entreprise_id(entreprise.getId()).build());
+            return Map.of("eau", eau.getId(), "chips", chips.getId(), "validee1", validee1.getId());
+        });
+
+        VentesClotureResultatDto resultat = ventesService.cloturerJournee(JOUR, entreprise.getId());
+        assertEquals(2, resultat.getNbVentes());
+        assertEquals(3, resultat.getNbLignes());
+        assertTrue(resultat.getCommandesEnEchec().isEmpty());
+        assertEquals(0, new BigDecimal("94").compareTo(stockBalanceService.stockReel(ids.get("eau"))));
+        assertEquals(0, new BigDecimal("99").compareTo(stockBalanceService.stockReel(ids.get("chips"))));
+
+        enTransaction(() -> {
+            Ventes vente = em.getEntityManager()
+                    .createQuery("SELECT v FROM Ventes v WHERE v.commandeClient.id = :id", Ventes.class)
+                    .setParameter("id", ids.get("validee1")).getSingleResult();
+            assertEquals("V-CC-1", vente.getCode());
+            assertEquals(2, vente.getLigneVentes().size());
+            assertEquals(EtatCommande.VENDUE, em.find(CommandeClient.class, ids.get("validee1")).getEtat());
+            return null;
+        });
+
+        VentesStatsResponseDto stats = ventesService.stats(entreprise.getId(), null, null,
+                JOUR, JOUR.plusDays(1), VentesStatsDto.Groupement.JOUR);
+        assertEquals(0, new BigDecimal("12.00").compareTo(stats.getTotalChiffreAffaires()));
+        assertEquals(3L, stats.getTotalLignes());
+
+        // Une seconde clôture du même jour ne convertit plus rien
+        assertEquals(0, ventesService.cloturerJournee(JOUR, entreprise.getId()).getNbVentes());
+
+        // Stock insuffisant : seule la commande fautive est écartée, les autres du lot sont converties
+        Integer tropGrande = enTransaction(() -> {
+            CommandeClient commande = commande("CC-6", EtatCommande.VALIDEE, matin);
+            ligne(commande, em.find(Article.class, ids.get("chips")), 500, "3.00");
+            ligne(commande("CC-7", EtatCommande.VALIDEE, matin), em.find(Article.class, ids.get("eau")), 1, "1.50");
+            return commande.getId();
+        });
+        VentesClotureResultatDto partielle = ventesService.cloturerJournee(JOUR, entreprise.getId());
+        assertEquals(1, partielle.getNbVentes());
+        assertEquals(List.of(tropGrande), partielle.getCommandesEnEchec());
+        assertEquals(0, new BigDecimal("93").compareTo(stockBalanceService.stockReel(ids.get("eau"))));
+        assertEquals(0, new BigDecimal("99").compareTo(stockBalanceService.stockReel(ids.get("chips"))));
+        assertEquals(EtatCommande.VALIDEE, enTransaction(() -> em.find(CommandeClient.class, tropGrande).getEtat()));
+    }
+
+    @Test
+    void commandeDejaReserveeNonConvertieDeuxFois() {
+        Instant matin = JOUR.atTime(9, 0).toInstant(ZoneOffset.UTC);
+        Integer commandeId = enTransaction(() -> {
+            entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise réservée").build());
+            Categorie categorie = em.persist(Categorie.builder().code("CAT-R").designation("Catégorie")
+                    .entrepriseId(entreprise.getId()).build());
+            client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+            CommandeClient commande = commande("CC-R", EtatCommande.VALIDEE, matin);
+            ligne(commande, article("EAU-R", categorie, 100), 2, "1.50");
+            return commande.getId();
+        });
+
+        // Une clôture concurrente a réservé la commande (VALIDEE -> VENDUE) avant la nôtre
+        enTransaction(() -> commandeClientRepository.reserverPourVente(List.of(commandeId), Instant.now()));
+        assertEquals(0, enTransaction(() -> commandeClientRepository.reserverPourVente(List.of(commandeId), Instant.now())));
+
+        VentesClotureResultatDto resultat = ventesService.cloturerJournee(JOUR, entreprise.getId());
+        assertEquals(0, resultat.getNbVentes());
+        assertTrue(resultat.getCommandesEnEchec().isEmpty());
+    }
+
+    @Test
+    void venteManuelleReserveLaCommande() {
+        Instant matin = JOUR.atTime(9, 0).toInstant(ZoneOffset.UTC);
+        Integer commandeId = enTransaction(() -> {
+            entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise manuelle").build());
+            Categorie categorie = em.persist(Categorie.builder().code("CAT-M").designation("Catégorie")
+                    .entrepriseId(entreprise.getId()).build());
+            client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+            CommandeClient commande = commande("CC-M", EtatCommande.VALIDEE, matin);
+            ligne(commande, article("EAU-M", categorie, 100), 2, "1.50");
+            return commande.getId();
+        });
+        VentesRequestDto vente = VentesRequestDto.builder().code("V-M").dateVente(matin).commentaire("Vente manuelle")
+                .entrepriseId(entreprise.getId()).build();
+
+        ventesService.save(vente, commandeId);
+        assertEquals(EtatCommande.VENDUE, enTransaction(() -> em.find(CommandeClient.class, commandeId).getEtat()));
+
+        // Ni une seconde vente manuelle ni la clôture ne reprennent la commande
+        assertThrows(InvalidEntityException.class, () -> ventesService.save(vente, commandeId));
+        assertEquals(0, ventesService.cloturerJournee(JOUR, entreprise.getId()).getNbVentes());
+        assertEquals(1L, enTransaction(() -> em.getEntityManager()
+                .createQuery("SELECT COUNT(v) FROM Ventes v WHERE v.commandeClient.id = :id", Long.class)
+                .setParameter("id", commandeId).getSingleResult()));
+    }
+
+    @Test
+    void erreurSqlCommandeEnEchec() {
+        Instant matin = JOUR.atTime(9, 0).toInstant(ZoneOffset.UTC);
+        Integer fautive = enTransaction(() -> {
+            entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise SQL").build());
+            Categorie categorie = em.persist(Categorie.builder().code("CAT-S").designation("Catégorie")
+                    .entrepriseId(entreprise.getId()).build());
+            client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+            Article eau = article("EAU-S", categorie, 100);
+            ligne(commande("CC-S", EtatCommande.VALIDEE, matin), eau, 1, "1.50");
+            // Le code de vente 'V-' + code dépasse la colonne : refus de la base, pas du validateur
+            CommandeClient commande = commande("C".repeat(254), EtatCommande.VALIDEE, matin);
+            ligne(commande, eau, 1, "1.50");
+            return commande.getId();
+        });
+
+        VentesClotureResultatDto resultat = ventesService.cloturerJournee(JOUR, entreprise.getId());
+        assertEquals(1, resultat.getNbVentes());
+        assertEquals(List.of(fautive), resultat.getCommandesEnEchec());
+        assertEquals(EtatCommande.VALIDEE, enTransaction(() -> em.find(CommandeClient.class, fautive).getEtat()));
+    }
+
+    private <T> T enTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private Article article(String code, Categorie categorie, int stock) {
+        Article article = em.persist(Article.builder().codeArticle(code).designation(code)
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+        em.persist(StockBalance.builder().entrepriseId(entreprise.getId()).articleId(article.getId())
+                .quantite(BigDecimal.valueOf(stock)).build());
+        return article;
+    }
+
+    private CommandeClient commande(String code, EtatCommande etat, Instant date) {
+        return em.persist(CommandeClient.builder().code(code).etat(etat).dateCommande(date)
+                .client(client).entreprise_id(entreprise.getId()).build());
+    }
+
+    private void ligne(CommandeClient commande, Article article, int quantite, String prix) {
+        em.persist(LigneCommandeClient.builder().commandeClient(commande).article(article)
+                .quantite(BigDecimal.valueOf(quantite)).prixUnitaire(new BigDecimal(prix))
+                .entreprise_id(entreprise.getId()).build());
+    }
+}
@@ -0,0 +1,174 @@
+package com.team48.gestiondestock.service;
+
+import com.team48.gestiondestock.dto.VentesRequestDto;
+import com.team48.gestiondestock.dto.VentesResponseDto;
+import com.team48.gestiondestock.dto.VentesStatsDto;
+import com.team48.gestiondestock.dto.VentesStatsResponseDto;
+import com.team48.gestiondestock.model.*;
+import com.team48.gestiondestock.service.impl.StockBalanceServiceImpl;
+import com.team48.gestiondestock.service.impl.VentesServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * L'agrégat journalier suit les créations, modifications et suppressions de ventes.
+ */
+@DataJpaTest
+@Import({VentesServiceImpl.class, StockBalanceServiceImpl.class})
+class VentesStatsTest {
+
+    // Au-delà d'un lot d'upsert de l'agrégat (500 articles)
+    private static final int NB_ARTICLES = 600;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private VentesService ventesService;
+
+    private Entreprise entreprise;
+
+    @Test
+    void agregatMaintenuParSaveUpdateDelete() {
+        entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie boissons = em.persist(Categorie.builder().code("BOI").designation("Boissons")
+                .entrepriseId(entreprise.getId()).build());
+        Categorie snacks = em.persist(Categorie.builder().code("SNA").designation("Snacks")
+                .entrepriseId(entreprise.getId()).build());
+        Article eau = article("EAU", boissons);
+        Article chips = article("CHIPS", snacks);
+        Client client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+
+        CommandeClient commande1 = commande("CC-1", client);
+        ligne(commande1, eau, 2, "1.50");
+        ligne(commande1, chips, 1, "3.00");
+        CommandeClient commande2 = commande("CC-2", client);
+        ligne(commande2, eau, 4, "1.50");
+        em.flush();
+        em.clear();
+
+        Instant jour1 = Instant.parse("2025-03-14T10:00:00Z");
+        Instant jour2 = Instant.parse("2025-04-02T10:00:00Z");
+        VentesResponseDto vente1 = ventesService.save(vente("V-1", jour1), commande1.getId());
+        VentesResponseDto vente2 = ventesService.save(vente("V-2", jour1), commande2.getId());
+
+        VentesStatsResponseDto parArticle = stats(VentesStatsDto.Groupement.ARTICLE);
+        assertEquals(0, new BigDecimal("12.00").compareTo(parArticle.getTotalChiffreAffaires()));
+        assertEquals(3L, parArticle.getTotalLignes());
+        // Trié par chiffre d'affaires décroissant : eau (9.00) puis chips (3.00)
+        assertEquals(String.valueOf(eau.getId()), parArticle.getDetails().get(0).getCle());
+        assertEquals(0, new BigDecimal("6").compareTo(parArticle.getDetails().get(0).getQuantite()));
+
+        VentesStatsResponseDto parCategorie = stats(VentesStatsDto.Groupement.CATEGORIE);
+        assertEquals(2, parCategorie.getDetails().size());
+
+        // La vente 2 change de jour : elle passe d'un mois à l'autre
+        ventesService.update(vente2.getId(), VentesRequestDto.builder().code("V-2").dateVente(jour2)
+                .commentaire("Vente").entrepriseId(entreprise.getId()).build());
+        VentesStatsResponseDto parMois = stats(VentesStatsDto.Groupement.MOIS);
+        assertEquals(2, parMois.getDetails().size());
+        assertEquals("2025-03", parMois.getDetails().get(0).getCle());
+        assertEquals(0, new BigDecimal("6.00").compareTo(parMois.getDetails().get(0).getChiffreAffaires()));
+        assertEquals("2025-04", parMois.getDetails().get(1).getCle());
+        assertEquals(0, new BigDecimal("6.00").compareTo(parMois.getDetails().get(1).getChiffreAffaires()));
+
+        // Suppression : la vente 1 sort de l'agrégat
+        ventesService.delete(vente1.getId());
+        VentesStatsResponseDto parJour = ventesService.stats(entreprise.getId(), null, null,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1), VentesStatsDto.Groupement.JOUR);
+        assertEquals(0, parJour.getTotalChiffreAffaires().signum());
+        assertEquals(0L, parJour.getTotalLignes());
+    }
+
+    @Test
+    void agregatCumuleParArticleEtParJour() {
+        entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Client client = em.persist(Client.builder().nom("Client").entreprise(entreprise).build());
+        CommandeClient commande1 = commande("CC-1", client);
+        CommandeClient commande2 = commande("CC-2", client);
+        // Plus d'articles qu'un lot d'upsert : l'agrégat est écrit en plusieurs instructions
+        for (int i = 0; i < NB_ARTICLES; i++) {
+            Article article = article("SKU-" + i, categorie);
+            ligne(commande1, article, 1, "2.00");
+            ligne(commande2, article, 2, "2.00");
+        }
+        em.flush();
+        em.clear();
+
+        Instant jour = Instant.parse("2025-03-14T10:00:00Z");
+        ventesService.save(vente("V-1", jour), commande1.getId());
+        ventesService.save(vente("V-2", jour.plusSeconds(3600)), commande2.getId());
+
+        // Même jour, mêmes articles : la seconde vente incrémente les agrégats existants au lieu d'en créer
+        assertEquals(NB_ARTICLES, compter("SELECT COUNT(r) FROM VentesDailyRollup r WHERE r.entrepriseId = :id"));
+        assertEquals(0, compter("SELECT COUNT(r) FROM VentesDailyRollup r WHERE r.entrepriseId = :id "
+                + "AND (r.quantite <> 3 OR r.nbLignes <> 2)"));
+        VentesStatsResponseDto parJour = stats(VentesStatsDto.Groupement.JOUR);
+        assertEquals(1, parJour.getDetails().size());
+        assertEquals(0, new BigDecimal(NB_ARTICLES * 6).compareTo(parJour.getTotalChiffreAffaires()));
+    }
+
+    @Test
+    void venteSansEntrepriseAgregeeSousLEntrepriseDeLArticle() {
+        entreprise = em.persist(Entreprise.builder().nomEntreprise("Entreprise").build());
+        Categorie categorie = em.persist(Categorie.builder().code("CAT").designation("Catégorie")
+                .entrepriseId(entreprise.getId()).build());
+        Article article = article("SKU", categorie);
+        Client client = em.persist(Client.builder().nom("Client").build());
+        CommandeClient commande = em.persist(CommandeClient.builder().code("CC-1").etat(EtatCommande.VALIDEE)
+                .dateCommande(Instant.now()).client(client).build());
+        ligne(commande, article, 1, "10.00");
+        em.flush();
+        em.clear();
+
+        // Colonne entreprise_id de l'agrégat non nulle : à défaut de celle de la vente, celle de l'article
+        ventesService.save(VentesRequestDto.builder().code("V-1").dateVente(Instant.now()).commentaire("Vente").build(),
+                commande.getId());
+
+        assertEquals(1, compter("SELECT COUNT(r) FROM VentesDailyRollup r WHERE r.entrepriseId = :id"));
+    }
+
+    private long compter(String requete) {
+        return em.getEntityManager().createQuery(requete, Long.class).setParameter("id", entreprise.getId())
+                .getSingleResult();
+    }
+
+    private VentesStatsResponseDto stats(VentesStatsDto.Groupement groupement) {
+        return ventesService.stats(entreprise.getId(), null, null, null, null, groupement);
+    }
+
+    private Article article(String code, Categorie categorie) {
+        Article article = em.persist(Article.builder().codeArticle(code).designation(code)
+                .prixUnitaire(BigDecimal.TEN).categorie(categorie).entreprise(entreprise).build());
+        em.persist(StockBalance.builder().entrepriseId(entreprise.getId()).articleId(article.getId())
+                .quantite(BigDecimal.valueOf(100)).build());
+        return article;
+    }
+
+    private CommandeClient commande(String code, Client client) {
+        return em.persist(CommandeClient.builder().code(code).etat(EtatCommande.VALIDEE).dateCommande(Instant.now())
+                .client(client).entreprise_id(entreprise.getId()).build());
+    }
+
+    private void ligne(CommandeClient commande, Article article, int quantite, String prix) {
+        em.persist(LigneCommandeClient.builder().commandeClient(commande).article(article)
+                .quantite(BigDecimal.valueOf(quantite)).prixUnitaire(new BigDecimal(prix))
+                .entreprise_id(entreprise.getId()).build());
+    }
+
+    private VentesRequestDto vente(String code, Instant date) {
+        return VentesRequestDto.builder().code(code).dateVente(date).commentaire("Vente")
+                .entrepriseId(entreprise.getId()).build();
+    }
+}
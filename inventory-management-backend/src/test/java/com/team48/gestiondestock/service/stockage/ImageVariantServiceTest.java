@@ -0,0 +1,100 @@
+package com.team48.gestiondestock.service.stockage;
+
+import com.team48.gestiondestock.utils.ImageVariantes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pipeline des miniatures exécuté contre le remplaçant local de MinIO.
+ */
+class ImageVariantServiceTest {
+
+    private static final String PHOTO = "articles/1234_photo.png";
+
+    @TempDir
+    Path racine;
+
+    private LocalObjectStorage storage;
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalObjectStorage(racine.toString());
+        service = new ImageVariantService(storage, 40_000_000);
+
+        BufferedImage original = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(original, "png", out);
+        byte[] octets = out.toByteArray();
+        storage.put(PHOTO, new ByteArrayInputStream(octets), octets.length, "image/png");
+    }
+
+    @Test
+    void genereUneMiniatureParTailleAcoteDeLOriginal() throws IOException {
+        List<String> cles = service.genererVariantes(PHOTO);
+
+        assertTrue(cles.contains("articles/1234_photo-w128.jpg"));
+        assertTrue(cles.contains("articles/1234_photo-w512.jpg"));
+        assertEquals(cles.size(), ImageVariantes.cles(PHOTO).size());
+        for (int taille : ImageVariantes.TAILLES) {
+            try (InputStream in = storage.get(ImageVariantes.cle(PHOTO, taille, "jpg"))) {
+                BufferedImage variante = ImageIO.read(in);
+                assertEquals(taille, variante.getWidth());
+                assertEquals(taille / 2, variante.getHeight());
+            }
+        }
+    }
+
+    @Test
+    void nExposeQueLesVariantesGenerees() {
+        assertNull(ImageVariantes.generees(PHOTO, null));
+
+        List<String> cles = service.genererVariantes(PHOTO);
+        assertEquals(ImageVariantes.cles(PHOTO), ImageVariantes.generees(PHOTO, String.join(",", cles)));
+
+        // Une variante dont l'écriture a échoué n'est pas exposée
+        Map<String, String> partielles = ImageVariantes.generees(PHOTO, "articles/1234_photo-w128.jpg");
+        assertEquals(Map.of("128", "articles/1234_photo-w128.jpg"), partielles);
+    }
+
+    @Test
+    void supprimeLesVariantes() {
+        service.genererVariantes(PHOTO);
+        service.supprimerVariantes(PHOTO);
+
+        assertFalse(Files.exists(racine.resolve("articles/1234_photo-w128.jpg")));
+        assertFalse(Files.exists(racine.resolve("articles/1234_photo-w512.jpg")));
+        assertTrue(Files.exists(racine.resolve(PHOTO)));
+    }
+
+    @Test
+    void refuseUneImageTropGrandeSansLaDecoder() {
+        // 2000 x 1000 pixels déclarés dans l'en-tête, au-delà du maximum
+        ImageVariantService limite = new ImageVariantService(storage, 1_000_000);
+
+        assertTrue(limite.genererVariantes(PHOTO).isEmpty());
+        assertFalse(Files.exists(racine.resolve("articles/1234_photo-w128.jpg")));
+    }
+
+    @Test
+    void ignoreLesFormatsNonMatriciels() {
+        assertTrue(service.genererVariantes("articles/logo.svg").isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.team48.gestiondestock.service.stockage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cache des URLs pré-signées : une URL est réutilisée tant qu'il lui reste au moins la marge de validité,
+ * puis une nouvelle est signée.
+ */
+class MinioFileStorageServiceTest {
+
+    private static final String PHOTO = "articles/1234_photo.png";
+
+    @TempDir
+    Path racine;
+
+    private MinioClient minioClient;
+    private MinioFileStorageService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minioClient = mock(MinioClient.class);
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("https://minio/url-1", "https://minio/url-2");
+
+        LocalObjectStorage storage = new LocalObjectStorage(racine.toString());
+        service = new MinioFileStorageService(minioClient, storage, new ImageVariantService(storage, 40_000_000),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "bucketName", "gestiondestock");
+        // URL valable 2 s, renouvelée 1 s avant son expiration : gardée 1 s en cache
+        ReflectionTestUtils.setField(service, "presignedUrlExpirySeconds", 2);
+        ReflectionTestUtils.setField(service, "presignedUrlRefreshMarginSeconds", 1);
+        ReflectionTestUtils.setField(service, "presignedUrlCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @Test
+    void urlReutiliseeDansSaDureeDeCache() throws Exception {
+        assertEquals("https://minio/url-1", service.presignedUrl(PHOTO));
+        assertEquals("https://minio/url-1", service.presignedUrl(PHOTO));
+        verify(minioClient, times(1)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+    }
+
+    @Test
+    void urlJamaisServieApresSaDureeDeCache() throws Exception {
+        assertEquals("https://minio/url-1", service.presignedUrl(PHOTO));
+
+        Thread.sleep(1_100);
+        assertEquals("https://minio/url-2", service.presignedUrl(PHOTO));
+        verify(minioClient, times(2)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+    }
+
+    @Test
+    void urlRetireeALaSuppression() throws Exception {
+        assertEquals("https://minio/url-1", service.presignedUrl(PHOTO));
+
+        service.delete(PHOTO);
+        assertEquals("https://minio/url-2", service.presignedUrl(PHOTO));
+    }
+}
@@ -1,7 +1,47 @@
 import NextAuth, {NextAuthConfig} from "next-auth";
 import Credentials from "next-auth/providers/credentials";
+import type {JWT} from "next-auth/jwt";
 import {getEnv} from "@/lib/env";
 
+// Backend access tokens are short-lived (15 min): renew them through /auth/refresh shortly before they expire
+const REFRESH_MARGIN_MS = 30 * 1000;
+
+// Refresh tokens are single-use (the backend revokes the whole session when one is replayed),
+// so concurrent session requests share a single /auth/refresh call
+const pendingRefreshes = new Map<string, Promise<JWT>>();
+
+// Expiration time (ms) read from the JWT payload
+function tokenExpiry(accessToken: string): number {
+    const payload = JSON.parse(Buffer.from(accessToken.split(".")[1], "base64url").toString());
+    return payload.exp * 1000;
+}
+
+async function refreshAccessToken(token: JWT): Promise<JWT> {
+    try {
+        const res = await fetch(`${getEnv().apiUrl}/auth/refresh`, {
+            method: "POST",
+            body: JSON.stringify({refreshToken: token.refreshToken}),
+            headers: {"Content-Type": "application/json"}
+        });
+
+        if (!res.ok) {
+            throw new Error(`Refresh failed (${res.status})`);
+        }
+
+        const {token: accessToken, refreshToken} = await res.json();
+        return {
+            ...token,
+            accessToken,
+            refreshToken,
+            accessTokenExpires: tokenExpiry(accessToken),
+            error: undefined,
+        };
+    } catch (error) {
+        console.error("Refresh token error:", error);
+        return {...token, error: "RefreshAccessTokenError"};
+    }
+}
+
 export const authOptions = {
     secret: getEnv().authSecret,
     session: {
@@ -27,7 +67,7 @@ export const authOptions = {
                         throw new Error(error.message ?? "Authentication failed");
                     }
 
-                    const {token, user} = await res.json();
+                    const {token, refreshToken, user} = await res.json();
                     
                     const primaryRole = user.roles && user.roles.length > 0 
                         ? user.roles[0].roleName 
@@ -40,6 +80,7 @@ export const authOptions = {
                         email: user.email,
                         role: primaryRole?.toUpperCase(),
                         accessToken: token,
+                        refreshToken,
                         roles: user.roles, // Store all roles for future use
                     };
                 } catch (error) {
@@ -53,11 +94,25 @@ export const authOptions = {
         async jwt({token, user}) {
             if (user) {
                 token.accessToken = user.accessToken;
+                token.refreshToken = user.refreshToken;
+                token.accessTokenExpires = user.accessToken ? tokenExpiry(user.accessToken) : undefined;
                 token.role = user.role?.toUpperCase();
                 token.id = user.id;
                 token.roles = user.roles;
+                return token;
+            }
+            if (!token.refreshToken || !token.accessTokenExpires
+                || Date.now() < token.accessTokenExpires - REFRESH_MARGIN_MS) {
+                return token;
+            }
+            const refreshToken = token.refreshToken;
+            let refresh = pendingRefreshes.get(refreshToken);
+            if (!refresh) {
+                refresh = refreshAccessToken(token)
+                    .finally(() => pendingRefreshes.delete(refreshToken));
+                pendingRefreshes.set(refreshToken, refresh);
             }
-            return token;
+            return refresh;
         },
         async session({session, token}) {
             if (session.user) {
@@ -71,6 +126,7 @@ export const authOptions = {
                 }> | undefined;
             }
             session.accessToken = token.accessToken as string;
+            session.error = token.error;
             return session;
         },
     },
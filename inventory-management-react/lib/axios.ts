@@ -18,6 +18,13 @@ apiClient.interceptors.request.use(
     async (config: InternalAxiosRequestConfig) => {
         try {
             const session = await getSession();
+            if (session?.error === "RefreshAccessTokenError" && typeof window !== "undefined") {
+                // Refresh token expired or revoked: the session can no longer be extended
+                window.location.href = `/login?error=session_expired`;
+                const err = new Error("Session expired");
+                err.name = "SessionExpiredError";
+                return Promise.reject(err);
+            }
             if (session?.accessToken) {
                 config.headers = config.headers ?? {};
                 config.headers.Authorization = `Bearer ${session.accessToken}`;
@@ -9,6 +9,7 @@ declare module "next-auth" {
         email?: string | null;
         role?: string;
         accessToken?: string;
+        refreshToken?: string;
         roles?: Array<{
             id: number;
             roleName: string;
@@ -20,6 +21,8 @@ declare module "next-auth" {
     interface Session {
         user?: User;
         accessToken?: string;
+        // Set when the access token could not be renewed: the user must log in again
+        error?: "RefreshAccessTokenError";
         expires: string;
     }
 }
@@ -29,6 +32,10 @@ declare module "next-auth/jwt" {
         id: string;
         role?: string;
         accessToken?: string;
+        refreshToken?: string;
+        // Access token expiration, in milliseconds
+        accessTokenExpires?: number;
+        error?: "RefreshAccessTokenError";
         roles?: Array<{
             id: number;
             roleName: string;